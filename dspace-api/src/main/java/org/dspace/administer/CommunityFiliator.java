@@ -20,12 +20,14 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.collections4.CollectionUtils;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.Community;
+import org.dspace.content.CommunityHierarchyIndex;
 import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.CommunityService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.handle.factory.HandleServiceFactory;
 import org.dspace.handle.service.HandleService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
  * A command-line tool for setting/removing community/sub-community
@@ -39,10 +41,13 @@ public class CommunityFiliator {
 
     protected CommunityService communityService;
     protected HandleService handleService;
+    protected CommunityHierarchyIndex communityHierarchyIndex;
 
     public CommunityFiliator() {
         communityService = ContentServiceFactory.getInstance().getCommunityService();
         handleService = HandleServiceFactory.getInstance().getHandleService();
+        communityHierarchyIndex = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServicesByType(CommunityHierarchyIndex.class).get(0);
     }
 
     /**
@@ -215,6 +220,7 @@ public class CommunityFiliator {
         // top-level
         child.removeParentCommunity(parent);
         parent.removeSubCommunity(child);
+        communityHierarchyIndex.hierarchyChanged(c);
         communityService.update(c, child);
         communityService.update(c, parent);
 
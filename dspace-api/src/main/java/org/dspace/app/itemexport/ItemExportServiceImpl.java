@@ -15,28 +15,44 @@ import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import javax.mail.MessagingException;
 
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.Logger;
 import org.dspace.app.itemexport.service.ItemExportService;
 import org.dspace.content.Bitstream;
+import org.dspace.content.BitstreamFormat;
 import org.dspace.content.Bundle;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
@@ -89,6 +105,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 public class ItemExportServiceImpl implements ItemExportService {
     protected final int SUBDIR_LIMIT = 0;
 
+    /**
+     * MIME types stored without compression when {@code org.dspace.app.itemexport.zip.stored.mimetypes} is
+     * not configured
+     */
+    protected static final String[] DEFAULT_STORED_MIME_TYPES = {
+        "image/jpeg", "image/png", "image/gif", "image/jp2", "audio/*", "video/*", "application/zip",
+        "application/gzip", "application/x-gzip", "application/x-bzip2", "application/x-xz",
+        "application/x-7z-compressed", "application/x-rar-compressed", "application/vnd.openxmlformats*",
+        "application/vnd.oasis.opendocument*", "application/epub+zip"
+    };
+
+    private static final int PROGRESS_INTERVAL = 100;
+
     @Autowired(required = true)
     protected BitstreamService bitstreamService;
     @Autowired(required = true)
@@ -109,6 +138,8 @@ public class ItemExportServiceImpl implements ItemExportService {
 
     private DSpaceRunnableHandler handler;
 
+    private ThreadPoolExecutor exportExecutor;
+
     protected ItemExportServiceImpl() {
 
     }
@@ -199,16 +230,23 @@ public class ItemExportServiceImpl implements ItemExportService {
      */
     protected void writeMetadata(Context c, Item i, File destDir, boolean migrate)
         throws Exception {
+        // Save each of the schemas into it's own metadata file
+        for (String schema : getMetadataSchemas(i)) {
+            writeMetadata(c, schema, i, destDir, migrate);
+        }
+    }
+
+    /**
+     * @param i DSpace Item
+     * @return names of the metadata schemas in use by the item
+     */
+    protected Set<String> getMetadataSchemas(Item i) {
         Set<String> schemas = new HashSet<>();
         List<MetadataValue> dcValues = itemService.getMetadata(i, Item.ANY, Item.ANY, Item.ANY, Item.ANY);
         for (MetadataValue metadataValue : dcValues) {
             schemas.add(metadataValue.getMetadataField().getMetadataSchema().getName());
         }
-
-        // Save each of the schemas into it's own metadata file
-        for (String schema : schemas) {
-            writeMetadata(c, schema, i, destDir, migrate);
-        }
+        return schemas;
     }
 
     /**
@@ -223,101 +261,120 @@ public class ItemExportServiceImpl implements ItemExportService {
      */
     protected void writeMetadata(Context c, String schema, Item i,
                                  File destDir, boolean migrate) throws Exception {
-        String filename;
-        if (schema.equals(MetadataSchemaEnum.DC.getName())) {
-            filename = "dublin_core.xml";
-        } else {
-            filename = "metadata_" + schema + ".xml";
-        }
+        String filename = getMetadataFileName(schema);
 
         File outFile = new File(destDir, filename);
 
         logInfo("Attempting to create file " + outFile);
 
         if (outFile.createNewFile()) {
-            BufferedOutputStream out = new BufferedOutputStream(
-                new FileOutputStream(outFile));
-
-            List<MetadataValue> dcorevalues = itemService.getMetadata(i, schema, Item.ANY, Item.ANY,
-                                                                      Item.ANY);
+            try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(outFile))) {
+                writeMetadata(c, schema, i, out, migrate);
+            }
+        } else {
+            throw new Exception("Cannot create dublin_core.xml in " + destDir);
+        }
+    }
 
-            // XML preamble
-            byte[] utf8 = "<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"no\"?>\n"
-                .getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+    /**
+     * @param schema metadata schema name
+     * @return name of the SAF metadata file of the schema
+     */
+    protected String getMetadataFileName(String schema) {
+        if (schema.equals(MetadataSchemaEnum.DC.getName())) {
+            return "dublin_core.xml";
+        }
+        return "metadata_" + schema + ".xml";
+    }
 
-            String dcTag = "<dublin_core schema=\"" + schema + "\">\n";
-            utf8 = dcTag.getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+    /**
+     * Write the item's metadata of the given schema, as a SAF metadata file, to the stream. The stream is left
+     * open.
+     *
+     * @param c       DSpace context
+     * @param schema  schema
+     * @param i       DSpace Item
+     * @param out     stream to write to
+     * @param migrate Whether to use the migrate option or not
+     * @throws Exception if error
+     */
+    protected void writeMetadata(Context c, String schema, Item i,
+                                 OutputStream out, boolean migrate) throws Exception {
+        List<MetadataValue> dcorevalues = itemService.getMetadata(i, schema, Item.ANY, Item.ANY,
+                                                                  Item.ANY);
 
-            String dateIssued = null;
-            String dateAccessioned = null;
+        // XML preamble
+        byte[] utf8 = "<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"no\"?>\n"
+            .getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
 
-            for (MetadataValue dcv : dcorevalues) {
-                MetadataField metadataField = dcv.getMetadataField();
-                String qualifier = metadataField.getQualifier();
+        String dcTag = "<dublin_core schema=\"" + schema + "\">\n";
+        utf8 = dcTag.getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
 
-                if (qualifier == null) {
-                    qualifier = "none";
-                }
+        String dateIssued = null;
+        String dateAccessioned = null;
 
-                String language = dcv.getLanguage();
+        for (MetadataValue dcv : dcorevalues) {
+            MetadataField metadataField = dcv.getMetadataField();
+            String qualifier = metadataField.getQualifier();
 
-                if (language != null) {
-                    language = " language=\"" + language + "\"";
-                } else {
-                    language = "";
-                }
+            if (qualifier == null) {
+                qualifier = "none";
+            }
 
-                utf8 = ("  <dcvalue element=\"" + metadataField.getElement() + "\" "
-                    + "qualifier=\"" + qualifier + "\""
-                    + language + ">"
-                    + Utils.addEntities(dcv.getValue()) + "</dcvalue>\n")
-                    .getBytes("UTF-8");
-
-                if (!migrate ||
-                    (migrate && !(
-                        ("date".equals(metadataField.getElement()) && "issued".equals(qualifier)) ||
-                            ("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier)) ||
-                            ("date".equals(metadataField.getElement()) && "available".equals(qualifier)) ||
-                            ("identifier".equals(metadataField.getElement()) && "uri".equals(qualifier) &&
-                                (dcv.getValue() != null && dcv.getValue().startsWith(
-                                    handleService.getCanonicalPrefix() + handleService.getPrefix() + "/"))) ||
-                            ("description".equals(metadataField.getElement()) && "provenance".equals(qualifier)) ||
-                            ("format".equals(metadataField.getElement()) && "extent".equals(qualifier)) ||
-                            ("format".equals(metadataField.getElement()) && "mimetype".equals(qualifier))))) {
-                    out.write(utf8, 0, utf8.length);
-                }
+            String language = dcv.getLanguage();
 
-                // Store the date issued and accession to see if they are different
-                // because we need to keep date.issued if they are, when migrating
-                if (("date".equals(metadataField.getElement()) && "issued".equals(qualifier))) {
-                    dateIssued = dcv.getValue();
-                }
-                if (("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier))) {
-                    dateAccessioned = dcv.getValue();
-                }
+            if (language != null) {
+                language = " language=\"" + language + "\"";
+            } else {
+                language = "";
             }
 
-            // When migrating, only keep date.issued if it is different to date.accessioned
-            if (migrate &&
-                (dateIssued != null) &&
-                (dateAccessioned != null) &&
-                !dateIssued.equals(dateAccessioned)) {
-                utf8 = ("  <dcvalue element=\"date\" "
-                    + "qualifier=\"issued\">"
-                    + Utils.addEntities(dateIssued) + "</dcvalue>\n")
-                    .getBytes("UTF-8");
+            utf8 = ("  <dcvalue element=\"" + metadataField.getElement() + "\" "
+                + "qualifier=\"" + qualifier + "\""
+                + language + ">"
+                + Utils.addEntities(dcv.getValue()) + "</dcvalue>\n")
+                .getBytes("UTF-8");
+
+            if (!migrate ||
+                (migrate && !(
+                    ("date".equals(metadataField.getElement()) && "issued".equals(qualifier)) ||
+                        ("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier)) ||
+                        ("date".equals(metadataField.getElement()) && "available".equals(qualifier)) ||
+                        ("identifier".equals(metadataField.getElement()) && "uri".equals(qualifier) &&
+                            (dcv.getValue() != null && dcv.getValue().startsWith(
+                                handleService.getCanonicalPrefix() + handleService.getPrefix() + "/"))) ||
+                        ("description".equals(metadataField.getElement()) && "provenance".equals(qualifier)) ||
+                        ("format".equals(metadataField.getElement()) && "extent".equals(qualifier)) ||
+                        ("format".equals(metadataField.getElement()) && "mimetype".equals(qualifier))))) {
                 out.write(utf8, 0, utf8.length);
             }
 
-            utf8 = "</dublin_core>\n".getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+            // Store the date issued and accession to see if they are different
+            // because we need to keep date.issued if they are, when migrating
+            if (("date".equals(metadataField.getElement()) && "issued".equals(qualifier))) {
+                dateIssued = dcv.getValue();
+            }
+            if (("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier))) {
+                dateAccessioned = dcv.getValue();
+            }
+        }
 
-            out.close();
-        } else {
-            throw new Exception("Cannot create dublin_core.xml in " + destDir);
+        // When migrating, only keep date.issued if it is different to date.accessioned
+        if (migrate &&
+            (dateIssued != null) &&
+            (dateAccessioned != null) &&
+            !dateIssued.equals(dateAccessioned)) {
+            utf8 = ("  <dcvalue element=\"date\" "
+                + "qualifier=\"issued\">"
+                + Utils.addEntities(dateIssued) + "</dcvalue>\n")
+                .getBytes("UTF-8");
+            out.write(utf8, 0, utf8.length);
         }
+
+        utf8 = "</dublin_core>\n".getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
     }
 
     /**
@@ -363,20 +420,30 @@ public class ItemExportServiceImpl implements ItemExportService {
         File outFile = new File(destDir, "collections");
         if (outFile.createNewFile()) {
             try (PrintWriter out = new PrintWriter(new FileWriter(outFile))) {
-                String ownerHandle = item.getOwningCollection().getHandle();
-                out.println(ownerHandle);
-                for (Collection collection : item.getCollections()) {
-                    String collectionHandle = collection.getHandle();
-                    if (!collectionHandle.equals(ownerHandle)) {
-                        out.println(collectionHandle);
-                    }
-                }
+                writeCollections(item, out);
             }
         } else {
             throw new IOException("Cannot create 'collections' in " + destDir);
         }
     }
 
+    /**
+     * Write the handles of all Collections which contain this Item, the "owning" Collection first.
+     *
+     * @param item list collections holding this Item.
+     * @param out  write the handles here.
+     */
+    protected void writeCollections(Item item, PrintWriter out) {
+        String ownerHandle = item.getOwningCollection().getHandle();
+        out.println(ownerHandle);
+        for (Collection collection : item.getCollections()) {
+            String collectionHandle = collection.getHandle();
+            if (!collectionHandle.equals(ownerHandle)) {
+                out.println(collectionHandle);
+            }
+        }
+    }
+
     /**
      * Create both the bitstreams and the contents file. Any bitstreams that
      * were originally registered will be marked in the contents file as such.
@@ -403,24 +470,10 @@ public class ItemExportServiceImpl implements ItemExportService {
                 // bundles can have multiple bitstreams now...
                 List<Bitstream> bitstreams = bundle.getBitstreams();
 
-                String bundleName = bundle.getName();
-
                 for (Bitstream bitstream : bitstreams) {
                     String myName = bitstream.getName();
                     String oldName = myName;
 
-                    String description = bitstream.getDescription();
-                    if (!StringUtils.isEmpty(description)) {
-                        description = "\tdescription:" + description;
-                    } else {
-                        description = "";
-                    }
-
-                    String primary = "";
-                    if (bitstream.equals(bundle.getPrimaryBitstream())) {
-                        primary = "\tprimary:true ";
-                    }
-
                     int myPrefix = 1; // only used with name conflict
 
                     boolean isDone = false; // done when bitstream is finally
@@ -459,16 +512,7 @@ public class ItemExportServiceImpl implements ItemExportService {
                     }
 
                     // write the manifest file entry
-                    if (bitstreamService.isRegisteredBitstream(bitstream)) {
-                        out.println("-r -s " + bitstream.getStoreNumber()
-                                        + " -f " + myName +
-                                        "\tbundle:" + bundleName +
-                                        primary + description);
-                    } else {
-                        out.println(myName + "\tbundle:" + bundleName +
-                                        primary + description);
-                    }
-
+                    out.println(getContentsLine(bitstream, bundle, myName));
                 }
             }
 
@@ -479,30 +523,210 @@ public class ItemExportServiceImpl implements ItemExportService {
         }
     }
 
+    /**
+     * @param bitstream the exported bitstream
+     * @param bundle    the bundle of the bitstream
+     * @param name      the name of the bitstream in the export
+     * @return the line of the 'contents' file describing the bitstream
+     */
+    protected String getContentsLine(Bitstream bitstream, Bundle bundle, String name) {
+        String description = bitstream.getDescription();
+        if (!StringUtils.isEmpty(description)) {
+            description = "\tdescription:" + description;
+        } else {
+            description = "";
+        }
+
+        String primary = "";
+        if (bitstream.equals(bundle.getPrimaryBitstream())) {
+            primary = "\tprimary:true ";
+        }
+
+        if (bitstreamService.isRegisteredBitstream(bitstream)) {
+            return "-r -s " + bitstream.getStoreNumber() + " -f " + name
+                + "\tbundle:" + bundle.getName() + primary + description;
+        }
+        return name + "\tbundle:" + bundle.getName() + primary + description;
+    }
+
     @Override
     public void exportAsZip(Context context, Iterator<Item> items,
                             String destDirName, String zipFileName,
                             int seqStart, boolean migrate,
                             boolean excludeBitstreams) throws Exception {
-        String workDir = getExportWorkDirectory() +
-            System.getProperty("file.separator") +
-            zipFileName;
-
-        File wkDir = new File(workDir);
-        if (!wkDir.exists() && !wkDir.mkdirs()) {
-            logError("Unable to create working direcory");
-        }
-
         File dnDir = new File(destDirName);
         if (!dnDir.exists() && !dnDir.mkdirs()) {
             logError("Unable to create destination directory");
         }
 
-        // export the items using normal export method
-        exportItem(context, items, workDir, seqStart, migrate, excludeBitstreams);
+        // stream the items straight into the archive, nothing is staged in the work directory
+        logInfo("Beginning export");
+        File target = new File(dnDir, zipFileName);
+        File temp = new File(dnDir, zipFileName + "_tmp");
+        try (ZipArchiveOutputStream zip = createZipStream(temp)) {
+            exportItem(context, items, zip, "", seqStart, migrate, excludeBitstreams);
+        } catch (Exception e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Export the items as SAF packages directly into the zip archive, each one in its own
+     * {@code <prefix><sequence number>/} directory.
+     *
+     * @param c                 DSpace context
+     * @param i                 the items to export
+     * @param zip               the archive to write to
+     * @param prefix            path of the parent directory of the items in the archive
+     * @param seqStart          sequence number of the first item
+     * @param migrate           Whether to use the migrate option or not
+     * @param excludeBitstreams whether to exclude bitstreams
+     * @throws Exception if error
+     */
+    protected void exportItem(Context c, Iterator<Item> i, ZipArchiveOutputStream zip, String prefix,
+                              int seqStart, boolean migrate, boolean excludeBitstreams) throws Exception {
+        int mySequenceNumber = seqStart;
+        while (i.hasNext()) {
+            Item item = i.next();
+            exportItem(c, item, zip, prefix + mySequenceNumber + "/", migrate, excludeBitstreams);
+            c.uncacheEntity(item);
+            mySequenceNumber++;
+            logProgress(mySequenceNumber - seqStart, -1);
+        }
+    }
+
+    /**
+     * Export a single item as SAF package into the given directory of the zip archive. The bitstreams are
+     * streamed from the assetstore, stored or deflated depending on their format (see
+     * {@link #getCompressionMethod(BitstreamFormat)}).
+     *
+     * @param c                 DSpace context
+     * @param myItem            the item to export
+     * @param zip               the archive to write to
+     * @param itemDir           path of the item directory in the archive, ending with a slash
+     * @param migrate           Whether to use the migrate option or not
+     * @param excludeBitstreams whether to exclude bitstreams
+     * @throws Exception if error
+     */
+    protected void exportItem(Context c, Item myItem, ZipArchiveOutputStream zip, String itemDir,
+                              boolean migrate, boolean excludeBitstreams) throws Exception {
+        logInfo("Exporting Item " + myItem.getID() +
+                    (myItem.getHandle() != null ? ", handle " + myItem.getHandle() : "") +
+                    " to " + itemDir);
+
+        // names already used in the item directory, bitstreams are renamed so they never overwrite them
+        Set<String> names = new HashSet<>(Arrays.asList("contents", "collections", "handle"));
+        for (String schema : getMetadataSchemas(myItem)) {
+            String filename = getMetadataFileName(schema);
+            names.add(filename);
+            putEntry(zip, itemDir + filename, ZipEntry.DEFLATED);
+            writeMetadata(c, schema, myItem, zip, migrate);
+            zip.closeArchiveEntry();
+        }
+
+        StringWriter contents = new StringWriter();
+        try (PrintWriter out = new PrintWriter(contents)) {
+            for (Bundle bundle : myItem.getBundles()) {
+                for (Bitstream bitstream : bundle.getBitstreams()) {
+                    String myName = bitstream.getName();
+                    if (!excludeBitstreams) {
+                        int myPrefix = 1; // only used with name conflict
+                        while (!names.add(myName)) {
+                            myName = myPrefix++ + "_" + bitstream.getName();
+                        }
+                        putEntry(zip, itemDir + myName, getCompressionMethod(bitstream.getFormat(c)));
+                        try (InputStream is = bitstreamService.retrieve(c, bitstream)) {
+                            IOUtils.copy(is, zip);
+                        }
+                        zip.closeArchiveEntry();
+                    }
+                    out.println(getContentsLine(bitstream, bundle, myName));
+                }
+            }
+        }
+        writeEntry(zip, itemDir + "contents", contents.toString());
+
+        StringWriter collections = new StringWriter();
+        try (PrintWriter out = new PrintWriter(collections)) {
+            writeCollections(myItem, out);
+        }
+        writeEntry(zip, itemDir + "collections", collections.toString());
+
+        if (!migrate && myItem.getHandle() != null) {
+            writeEntry(zip, itemDir + "handle", myItem.getHandle() + System.lineSeparator());
+        }
+    }
+
+    /**
+     * Open a zip archive for writing. The archive is written through a random access file, so stored entries
+     * do not need their size and CRC to be known upfront.
+     *
+     * @param target the archive file
+     * @return the archive stream, deflating with the configured compression level
+     * @throws IOException if the file cannot be created
+     */
+    protected ZipArchiveOutputStream createZipStream(File target) throws IOException {
+        ZipArchiveOutputStream zip = new ZipArchiveOutputStream(target);
+        zip.setLevel(getCompressionLevel());
+        zip.setUseZip64(Zip64Mode.AsNeeded);
+        return zip;
+    }
+
+    private void putEntry(ZipArchiveOutputStream zip, String name, int method) throws IOException {
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setMethod(method);
+        zip.putArchiveEntry(entry);
+    }
 
-        // now zip up the export directory created above
-        zip(workDir, destDirName + System.getProperty("file.separator") + zipFileName);
+    private void writeEntry(ZipArchiveOutputStream zip, String name, String content) throws IOException {
+        putEntry(zip, name, ZipEntry.DEFLATED);
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeArchiveEntry();
+    }
+
+    /**
+     * @return the deflate level of the exported archives, from
+     *         {@code org.dspace.app.itemexport.zip.level}
+     */
+    protected int getCompressionLevel() {
+        int level = configurationService.getIntProperty("org.dspace.app.itemexport.zip.level",
+                                                        Deflater.DEFAULT_COMPRESSION);
+        return level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION
+            ? Deflater.DEFAULT_COMPRESSION : level;
+    }
+
+    /**
+     * Bitstreams whose format is already compressed (images, audio, video, archives...) gain nothing from
+     * deflate, so they are stored as is. The formats are configured with
+     * {@code org.dspace.app.itemexport.zip.stored.mimetypes}, a trailing {@code *} matching any MIME type
+     * with the given prefix.
+     *
+     * @param format the bitstream format, may be {@code null}
+     * @return {@link ZipEntry#STORED} or {@link ZipEntry#DEFLATED}
+     */
+    protected int getCompressionMethod(BitstreamFormat format) {
+        String mimeType = format != null ? format.getMIMEType() : null;
+        if (StringUtils.isBlank(mimeType)) {
+            return ZipEntry.DEFLATED;
+        }
+        String[] stored = configurationService.getArrayProperty("org.dspace.app.itemexport.zip.stored.mimetypes",
+                                                                DEFAULT_STORED_MIME_TYPES);
+        for (String pattern : stored) {
+            if (pattern.endsWith("*")
+                ? StringUtils.startsWithIgnoreCase(mimeType, pattern.substring(0, pattern.length() - 1))
+                : pattern.equalsIgnoreCase(mimeType)) {
+                return ZipEntry.STORED;
+            }
+        }
+        return ZipEntry.DEFLATED;
+    }
+
+    private void logProgress(int exported, int total) {
+        if (exported % PROGRESS_INTERVAL == 0 || exported == total) {
+            logInfo("Exported " + exported + (total > 0 ? " of " + total : "") + " items");
+        }
     }
 
     @Override
@@ -539,8 +763,9 @@ public class ItemExportServiceImpl implements ItemExportService {
 
     /**
      * Does the work creating a List with all the Items in the Community or
-     * Collection It then kicks off a new Thread to export the items, zip the
-     * export directory and send confirmation email
+     * Collection It then queues the export of the items into a zip archive and
+     * the confirmation email on the export executor, see
+     * {@link #runDownloadableExport(Map, EPerson, boolean)}
      *
      * @param dsObjects       - List of dspace objects to process
      * @param context         - the dspace context
@@ -563,7 +788,7 @@ public class ItemExportServiceImpl implements ItemExportService {
         // items
         // it will be checked against the config file entry
         double size = 0;
-        final HashMap<String, List<UUID>> itemsMap = new HashMap<>();
+        final Map<String, List<UUID>> itemsMap = new LinkedHashMap<>();
         for (DSpaceObject dso : dsObjects) {
             if (dso.getType() == Constants.COMMUNITY) {
                 Community community = (Community) dso;
@@ -659,86 +884,110 @@ public class ItemExportServiceImpl implements ItemExportService {
             }
         }
 
-        // if we have any items to process then kick off anonymous thread
+        // if we have any items to process then queue the export
         if (itemsMap.size() > 0) {
-            Thread go = new Thread() {
-                @Override
-                public void run() {
-                    Context context = new Context();
-                    Iterator<Item> iitems = null;
-                    try {
-                        // ignore auths
-                        context.turnOffAuthorisationSystem();
-
-                        String fileName = assembleFileName("item", eperson,
-                                                           new Date());
-                        String workParentDir = getExportWorkDirectory()
-                            + System.getProperty("file.separator")
-                            + fileName;
-                        String downloadDir = getExportDownloadDirectory(eperson);
-                        File dnDir = new File(downloadDir);
-                        if (!dnDir.exists() && !dnDir.mkdirs()) {
-                            logError("Unable to create download directory");
-                        }
-
-                        Iterator<String> iter = itemsMap.keySet().iterator();
-                        while (iter.hasNext()) {
-                            String keyName = iter.next();
-                            List<UUID> uuids = itemsMap.get(keyName);
-                            List<Item> items = new ArrayList<>();
-                            for (UUID uuid : uuids) {
-                                items.add(itemService.find(context, uuid));
-                            }
-                            iitems = items.iterator();
-
-                            String workDir = workParentDir
-                                + System.getProperty("file.separator")
-                                + keyName;
-
-                            File wkDir = new File(workDir);
-                            if (!wkDir.exists() && !wkDir.mkdirs()) {
-                                logError("Unable to create working directory");
-                            }
-
+            ThreadPoolExecutor executor = getExportExecutor();
+            logInfo("Queueing export of " + itemsMap.size() + " item sets, " + executor.getActiveCount()
+                        + " exports running, " + executor.getQueue().size() + " waiting");
+            executor.execute(() -> runDownloadableExport(itemsMap, eperson, migrate));
+        } else {
+            Locale supportedLocale = I18nUtil.getEPersonLocale(eperson);
+            emailErrorMessage(eperson, I18nUtil.getMessage("org.dspace.app.itemexport.no-result", supportedLocale));
+        }
+    }
 
-                            // export the items using normal export method
-                            exportItem(context, iitems, workDir, 1, migrate, false);
-                        }
+    /**
+     * Export the items into a zip archive in the download directory of the eperson and send the confirmation
+     * email. Runs on the export executor, with its own context.
+     *
+     * @param itemsMap ids of the items to export, by name of the directory to export them to
+     * @param eperson  the eperson who requested the export
+     * @param migrate  Whether to use the migrate option or not
+     */
+    protected void runDownloadableExport(Map<String, List<UUID>> itemsMap, EPerson eperson, boolean migrate) {
+        Context context = new Context();
+        File temp = null;
+        try {
+            // ignore auths
+            context.turnOffAuthorisationSystem();
+
+            String fileName = assembleFileName("item", eperson, new Date());
+            String downloadDir = getExportDownloadDirectory(eperson);
+            File dnDir = new File(downloadDir);
+            if (!dnDir.exists() && !dnDir.mkdirs()) {
+                logError("Unable to create download directory");
+            }
 
-                        // now zip up the export directory created above
-                        zip(workParentDir, downloadDir
-                            + System.getProperty("file.separator")
-                            + fileName + ".zip");
-                        // email message letting user know the file is ready for
-                        // download
-                        emailSuccessMessage(context, eperson, fileName + ".zip");
-                        // return to enforcing auths
-                        context.restoreAuthSystemState();
-                    } catch (Exception e1) {
-                        try {
-                            emailErrorMessage(eperson, e1.getMessage());
-                        } catch (Exception e) {
-                            // wont throw here
-                        }
-                        throw new IllegalStateException(e1);
-                    } finally {
-                        // Make sure the database connection gets closed in all conditions.
-                        try {
-                            context.complete();
-                        } catch (SQLException sqle) {
-                            context.abort();
+            int total = 0;
+            for (List<UUID> uuids : itemsMap.values()) {
+                total += uuids.size();
+            }
+            int exported = 0;
+
+            // stream the items straight into the archive, nothing is staged in the work directory
+            temp = new File(dnDir, fileName + ".zip_tmp");
+            try (ZipArchiveOutputStream zip = createZipStream(temp)) {
+                for (Map.Entry<String, List<UUID>> entry : itemsMap.entrySet()) {
+                    int mySequenceNumber = 1;
+                    for (UUID uuid : entry.getValue()) {
+                        Item item = itemService.find(context, uuid);
+                        if (item == null) {
+                            // withdrawn or deleted since the export was requested
+                            continue;
                         }
+                        exportItem(context, item, zip, entry.getKey() + "/" + mySequenceNumber + "/",
+                                   migrate, false);
+                        context.uncacheEntity(item);
+                        mySequenceNumber++;
+                        logProgress(++exported, total);
                     }
                 }
+            }
+            Files.move(temp.toPath(), new File(dnDir, fileName + ".zip").toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+
+            // email message letting user know the file is ready for
+            // download
+            emailSuccessMessage(context, eperson, fileName + ".zip");
+            // return to enforcing auths
+            context.restoreAuthSystemState();
+        } catch (Exception e1) {
+            logError("Unable to create the downloadable export", e1);
+            if (temp != null && !temp.delete() && temp.exists()) {
+                logWarn("Unable to delete " + temp);
+            }
+            try {
+                emailErrorMessage(eperson, e1.getMessage());
+            } catch (Exception e) {
+                // wont throw here
+            }
+        } finally {
+            // Make sure the database connection gets closed in all conditions.
+            try {
+                context.complete();
+            } catch (SQLException sqle) {
+                context.abort();
+            }
+        }
+    }
 
-            };
-
-            go.isDaemon();
-            go.start();
-        } else {
-            Locale supportedLocale = I18nUtil.getEPersonLocale(eperson);
-            emailErrorMessage(eperson, I18nUtil.getMessage("org.dspace.app.itemexport.no-result", supportedLocale));
+    /**
+     * @return the executor running the downloadable exports, at most
+     *         {@code org.dspace.app.itemexport.max.concurrent} at once; the others wait in its queue
+     */
+    protected synchronized ThreadPoolExecutor getExportExecutor() {
+        if (exportExecutor == null) {
+            int threads = Math.max(1, configurationService.getIntProperty(
+                "org.dspace.app.itemexport.max.concurrent", 2));
+            exportExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                                                    new LinkedBlockingQueue<>(),
+                                                    new BasicThreadFactory.Builder()
+                                                        .namingPattern("item-export-%d")
+                                                        .daemon(true)
+                                                        .build());
+            exportExecutor.allowCoreThreadTimeOut(true);
         }
+        return exportExecutor;
     }
 
     @Override
@@ -1007,7 +1256,7 @@ public class ItemExportServiceImpl implements ItemExportService {
 
             FileOutputStream fos = new FileOutputStream(tempFileName);
             cpZipOutputStream = new ZipOutputStream(fos);
-            cpZipOutputStream.setLevel(9);
+            cpZipOutputStream.setLevel(getCompressionLevel());
             zipFiles(cpFile, strSource, tempFileName, cpZipOutputStream);
             cpZipOutputStream.finish();
             cpZipOutputStream.close();
@@ -74,6 +74,7 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
     protected boolean useWorkflow = false;
     protected boolean useWorkflowSendEmail = false;
     protected boolean isQuiet = false;
+    protected int workers = 1;
     protected boolean commandLineCollections = false;
     protected boolean zip = false;
     protected boolean remoteUrl = false;
@@ -146,6 +147,10 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
             isQuiet = true;
         }
 
+        if (commandLine.hasOption('t')) {
+            workers = Integer.parseInt(commandLine.getOptionValue('t'));
+        }
+
         setZip();
     }
 
@@ -216,6 +221,7 @@ public class ItemImport extends DSpaceRunnable<ItemImportScriptConfiguration> {
             itemImportService.setUseWorkflow(useWorkflow);
             itemImportService.setUseWorkflowSendEmail(useWorkflowSendEmail);
             itemImportService.setQuiet(isQuiet);
+            itemImportService.setWorkers(workers);
             itemImportService.setHandler(handler);
 
             try {
@@ -29,11 +29,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.net.URL;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.GregorianCalendar;
@@ -46,6 +48,12 @@ import java.util.Objects;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import javax.mail.MessagingException;
@@ -200,9 +208,10 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     protected boolean useWorkflow = false;
     protected boolean useWorkflowSendEmail = false;
     protected boolean isQuiet = false;
+    protected int workers = 1;
 
-    //remember which folder item was imported from
-    Map<String, Item> itemFolderMap = null;
+    //remember which folder item was imported from, only the ids are kept to bound the memory of large imports
+    Map<String, UUID> itemFolderMap = null;
 
     @Override
     public void afterPropertiesSet() throws Exception {
@@ -262,7 +271,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
             Map<String, String> skipItems = new HashMap<>(); // set of items to skip if in 'resume'
             // mode
 
-            itemFolderMap = new HashMap<>();
+            itemFolderMap = Collections.synchronizedMap(new HashMap<>());
 
             logDebug("Adding items from directory: " + sourceDir);
             logDebug("Generating mapfile: " + mapFile);
@@ -295,6 +304,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
             Arrays.sort(dircontents, ComparatorUtils.naturalComparator());
 
+            List<String> pending = new ArrayList<>();
             for (int i = 0; i < dircontents.length; i++) {
                 if (skipItems.containsKey(dircontents[i])) {
                     logInfo("Skipping import of " + dircontents[i]);
@@ -302,8 +312,13 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                     //we still need the item in the map for relationship linking
                     String skippedHandle = skipItems.get(dircontents[i]);
                     Item skippedItem = (Item) handleService.resolveToObject(c, skippedHandle);
-                    itemFolderMap.put(dircontents[i], skippedItem);
+                    itemFolderMap.put(dircontents[i], skippedItem != null ? skippedItem.getID() : null);
+                    if (skippedItem != null) {
+                        c.uncacheEntity(skippedItem);
+                    }
 
+                } else if (workers > 1 && !isTest) {
+                    pending.add(dircontents[i]);
                 } else {
                     List<Collection> clist;
                     if (directoryFileCollections) {
@@ -325,13 +340,17 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
                     Item item = addItem(c, clist, sourceDir, dircontents[i], mapOut, template);
 
-                    itemFolderMap.put(dircontents[i], item);
+                    itemFolderMap.put(dircontents[i], item != null ? item.getID() : null);
 
                     c.uncacheEntity(item);
                     logInfo(i + " " + dircontents[i]);
                 }
             }
 
+            if (!pending.isEmpty()) {
+                addItemsInParallel(c, mycollections, sourceDir, pending, mapOut, template);
+            }
+
             //now that all items are imported, iterate again to link relationships
             addRelationships(c, sourceDir);
 
@@ -343,6 +362,133 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         }
     }
 
+    /**
+     * Import the given item directories on {@link #workers} threads, each using its own Context. Every worker
+     * commits after each {@code org.dspace.app.batchitemimport.commit.size} items and only then writes their lines
+     * to the mapfile, so the mapfile always lists exactly the committed items and serves as checkpoint to resume a
+     * failed import. After the first failure the workers stop picking up new directories and the error is rethrown.
+     *
+     * @param c            the context of the import, whose current user and authorization state the workers use
+     * @param mycollections the target collections, or {@code null} to read them from the item directories
+     * @param sourceDir    the parent import source directory
+     * @param folders      the item directories to import
+     * @param mapOut       mapfile we're writing
+     * @param template     whether to use collection template item as starting point
+     * @throws Exception if the import of any item failed
+     */
+    protected void addItemsInParallel(Context c, List<Collection> mycollections, String sourceDir,
+                                      List<String> folders, PrintWriter mapOut, boolean template) throws Exception {
+        int commitSize = configurationService.getIntProperty("org.dspace.app.batchitemimport.commit.size", 100);
+        UUID currentUserId = c.getCurrentUser() != null ? c.getCurrentUser().getID() : null;
+        boolean ignoreAuthorization = c.ignoreAuthorization();
+        List<UUID> collectionIds = null;
+        if (mycollections != null) {
+            collectionIds = new ArrayList<>();
+            for (Collection collection : mycollections) {
+                collectionIds.add(collection.getID());
+            }
+        }
+        // the workers commit on their own, the items must be visible to them (e.g. the template items)
+        c.commit();
+
+        logInfo("Importing " + folders.size() + " items on " + workers + " threads, committing every "
+            + commitSize + " items");
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<UUID> targetCollections = collectionIds;
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                results.add(executor.submit(() -> {
+                    importFolders(currentUserId, ignoreAuthorization, targetCollections, sourceDir, folders, next,
+                        failed, mapOut, commitSize, template);
+                    return null;
+                }));
+            }
+            Exception error = null;
+            for (Future<Void> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    if (error == null) {
+                        error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    }
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void importFolders(UUID currentUserId, boolean ignoreAuthorization, List<UUID> collectionIds,
+                               String sourceDir, List<String> folders, AtomicInteger next, AtomicBoolean failed,
+                               PrintWriter mapOut, int commitSize, boolean template) throws Exception {
+        StringWriter uncommittedLines = new StringWriter();
+        PrintWriter uncommittedOut = new PrintWriter(uncommittedLines);
+        int uncommitted = 0;
+        try (Context context = new Context(Context.Mode.BATCH_EDIT)) {
+            if (currentUserId != null) {
+                context.setCurrentUser(ePersonService.find(context, currentUserId));
+            }
+            if (ignoreAuthorization) {
+                context.turnOffAuthorisationSystem();
+            }
+            int i;
+            while (!failed.get() && (i = next.getAndIncrement()) < folders.size()) {
+                String folder = folders.get(i);
+                try {
+                    List<Collection> clist = new ArrayList<>();
+                    if (collectionIds == null) {
+                        try {
+                            clist = processCollectionFile(context, sourceDir + File.separatorChar + folder,
+                                "collections");
+                        } catch (IllegalArgumentException e) {
+                            logError(e.getMessage() + " Skipping.");
+                            continue;
+                        }
+                        if (clist == null) {
+                            logError("No collections specified for item " + folder + ". Skipping.");
+                            continue;
+                        }
+                    } else {
+                        for (UUID collectionId : collectionIds) {
+                            clist.add(collectionService.find(context, collectionId));
+                        }
+                    }
+
+                    Item item = addItem(context, clist, sourceDir, folder, uncommittedOut, template);
+                    itemFolderMap.put(folder, item.getID());
+                    context.uncacheEntity(item);
+                } catch (Exception e) {
+                    // the uncommitted items of this worker are rolled back when the context is closed
+                    failed.set(true);
+                    throw e;
+                }
+                logInfo(i + " " + folder);
+
+                if (++uncommitted >= commitSize) {
+                    commitImported(context, uncommittedLines, mapOut);
+                    uncommitted = 0;
+                }
+            }
+            commitImported(context, uncommittedLines, mapOut);
+        }
+    }
+
+    private void commitImported(Context context, StringWriter uncommittedLines, PrintWriter mapOut)
+        throws SQLException {
+        context.commit();
+        synchronized (mapOut) {
+            mapOut.print(uncommittedLines);
+            mapOut.flush();
+        }
+        uncommittedLines.getBuffer().setLength(0);
+    }
+
      /**
       * Add relationships from a 'relationships' manifest file.
       * 
@@ -352,11 +498,11 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
       */
     protected void addRelationships(Context c, String sourceDir) throws Exception {
 
-        for (Map.Entry<String, Item> itemEntry : itemFolderMap.entrySet()) {
+        for (Map.Entry<String, UUID> itemEntry : itemFolderMap.entrySet()) {
 
             String folderName = itemEntry.getKey();
             String path = sourceDir + File.separatorChar + folderName;
-            Item item = itemEntry.getValue();
+            Item item = itemEntry.getValue() != null ? itemService.find(c, itemEntry.getValue()) : null;
 
             //look for a 'relationship' manifest
             Map<String, List<String>> relationships = processRelationshipFile(path, "relationships");
@@ -560,7 +706,8 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                 int i = itemIdentifier.indexOf(":");
                 String folderName = itemIdentifier.substring(i + 1);
                 if (itemFolderMap.containsKey(folderName)) {
-                    return itemFolderMap.get(folderName);
+                    UUID itemId = itemFolderMap.get(folderName);
+                    return itemId != null ? itemService.find(c, itemId) : null;
                 }
 
             } else {
@@ -2421,6 +2568,11 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         this.useWorkflowSendEmail = useWorkflowSendEmail;
     }
 
+    @Override
+    public void setWorkers(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
     @Override
     public void setQuiet(boolean isQuiet) {
         this.isQuiet = isQuiet;
@@ -244,6 +244,14 @@ public interface ItemImportService {
      */
     public void setQuiet(boolean isQuiet);
 
+    /**
+     * Set the number of threads importing items in parallel when adding items. With more than one thread the
+     * items are committed in chunks as they are imported, instead of at the end of the import.
+     *
+     * @param workers number of threads, 1 to import the items one by one
+     */
+    public void setWorkers(int workers);
+
     /**
      * Set the DSpace Runnable Handler
      * @param handler
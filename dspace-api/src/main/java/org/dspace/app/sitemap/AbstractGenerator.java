@@ -8,13 +8,24 @@
 package org.dspace.app.sitemap;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Properties;
 import java.util.zip.GZIPOutputStream;
 
+import org.apache.commons.codec.binary.Hex;
+
 /**
  * Base class for creating sitemaps of various kinds. A sitemap consists of one
  * or more files which list significant URLs on a site for search engines to
@@ -22,6 +33,12 @@ import java.util.zip.GZIPOutputStream;
  * index file that links to each of the sitemap files is also generated. It is
  * this index file that search engines should be directed towards.
  * <P>
+ * Files are first written to a temporary file and then atomically moved into
+ * place, so the sitemaps being served are always complete. A digest of the
+ * content of every sitemap file is kept between runs, a sitemap file whose
+ * content did not change since the previous run is left untouched (keeping its
+ * modification date).
+ * <P>
  * Provides most of the required functionality, subclasses need just implement a
  * few methods that specify the "boilerplate" and text for including URLs.
  * <P>
@@ -67,6 +84,17 @@ public abstract class AbstractGenerator {
      */
     private int trailingByteCount;
 
+    /**
+     * Digest of the content of the current file
+     */
+    private MessageDigest currentDigest;
+
+    /**
+     * Digests of the files written by the previous run, and by this run
+     */
+    private Properties previousDigests;
+    private Properties digests;
+
     /**
      * Initialize this generator to write to the given directory. This must be
      * called by any subclass constructor.
@@ -78,6 +106,17 @@ public abstract class AbstractGenerator {
         outputDir = outputDirIn;
         trailingByteCount = getTrailingBoilerPlate().length();
         currentOutput = null;
+        digests = new Properties();
+        previousDigests = new Properties();
+        File digestFile = getDigestFile();
+        if (digestFile.isFile()) {
+            try (InputStream in = new FileInputStream(digestFile)) {
+                previousDigests.load(in);
+            } catch (IOException e) {
+                // all the files will simply be written again
+                previousDigests.clear();
+            }
+        }
     }
 
     /**
@@ -89,14 +128,14 @@ public abstract class AbstractGenerator {
     protected void startNewFile() throws IOException {
         String lbp = getLeadingBoilerPlate();
 
-        OutputStream fo = new FileOutputStream(new File(outputDir,
-                                                        getFilename(fileCount)));
+        OutputStream fo = new FileOutputStream(getTemporaryFile(getFilename(fileCount)));
 
         if (useCompression()) {
             fo = new GZIPOutputStream(fo);
         }
 
-        currentOutput = new PrintStream(fo);
+        currentDigest = newDigest();
+        currentOutput = new PrintStream(new DigestOutputStream(fo, currentDigest));
         currentOutput.print(lbp);
         bytesWritten = lbp.length();
         urlsWritten = 0;
@@ -138,6 +177,18 @@ public abstract class AbstractGenerator {
     protected void closeCurrentFile() throws IOException {
         currentOutput.print(getTrailingBoilerPlate());
         currentOutput.close();
+
+        String filename = getFilename(fileCount);
+        String digest = Hex.encodeHexString(currentDigest.digest());
+        File file = new File(outputDir, filename);
+        File temporaryFile = getTemporaryFile(filename);
+        if (file.isFile() && digest.equals(previousDigests.getProperty(filename))) {
+            // nothing changed in this file since the previous run
+            Files.delete(temporaryFile.toPath());
+        } else {
+            moveIntoPlace(temporaryFile, file);
+        }
+        digests.setProperty(filename, digest);
         fileCount++;
     }
 
@@ -153,22 +204,71 @@ public abstract class AbstractGenerator {
     public int finish() throws IOException {
         if (null != currentOutput) {
             closeCurrentFile();
+            currentOutput = null;
         }
 
-        OutputStream fo = new FileOutputStream(new File(outputDir,
-                                                        getIndexFilename()));
+        // remove the files of a previous run which produced more sitemaps
+        for (int i = fileCount; new File(outputDir, getFilename(i)).exists(); i++) {
+            Files.delete(new File(outputDir, getFilename(i)).toPath());
+        }
 
-        if (useCompression()) {
+        File temporaryIndex = getTemporaryFile(getIndexFilename());
+        OutputStream fo = new FileOutputStream(temporaryIndex);
+
+        if (useIndexCompression()) {
             fo = new GZIPOutputStream(fo);
         }
 
         PrintStream out = new PrintStream(fo);
         writeIndex(out, fileCount);
         out.close();
+        moveIntoPlace(temporaryIndex, new File(outputDir, getIndexFilename()));
+
+        File temporaryDigests = getTemporaryFile(getDigestFile().getName());
+        try (OutputStream digestOut = new FileOutputStream(temporaryDigests)) {
+            digests.store(digestOut, "Digests of the sitemap files, used to detect unchanged files");
+        }
+        moveIntoPlace(temporaryDigests, getDigestFile());
 
         return fileCount;
     }
 
+    /**
+     * Get the temporary file the given file is written to before it is moved into place.
+     *
+     * @param filename name of the file
+     * @return the temporary file
+     */
+    protected File getTemporaryFile(String filename) {
+        return new File(outputDir, filename + ".tmp");
+    }
+
+    /**
+     * Get the file holding the digests of the files written by the last run.
+     *
+     * @return the digest file
+     */
+    protected File getDigestFile() {
+        return new File(outputDir, "." + getIndexFilename() + ".digests");
+    }
+
+    private void moveIntoPlace(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Return marked-up text to be included in a sitemap about a given URL.
      *
@@ -218,6 +318,17 @@ public abstract class AbstractGenerator {
      */
     public abstract boolean useCompression();
 
+    /**
+     * Return whether the index file should be GZIP-compressed. By default the
+     * same as {@link #useCompression()}.
+     *
+     * @return {@code true} if GZIP compression should be used for the index,
+     * {@code false} otherwise.
+     */
+    public boolean useIndexCompression() {
+        return useCompression();
+    }
+
     /**
      * Return the filename a sitemap at the given index should be stored at.
      *
@@ -11,6 +11,7 @@ import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.commons.cli.CommandLine;
@@ -31,12 +32,12 @@ import org.dspace.core.Context;
 import org.dspace.core.LogHelper;
 import org.dspace.discovery.DiscoverQuery;
 import org.dspace.discovery.DiscoverResult;
-import org.dspace.discovery.IndexableObject;
 import org.dspace.discovery.SearchService;
 import org.dspace.discovery.SearchServiceException;
 import org.dspace.discovery.SearchUtils;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.util.SolrUtils;
 
 /**
  * Command-line utility for generating HTML and Sitemaps.org protocol Sitemaps.
@@ -57,7 +58,9 @@ public class GenerateSitemaps {
     private static final ConfigurationService configurationService =
         DSpaceServicesFactory.getInstance().getConfigurationService();
     private static final SearchService searchService = SearchUtils.getSearchService();
-    private static final int PAGE_SIZE = 100;
+    private static final int PAGE_SIZE = 1000;
+    private static final String ENTITY_TYPE_FIELD = "search.entitytype";
+    private static final String LAST_MODIFIED_FIELD = "lastModified";
 
     /**
      * Default constructor
@@ -177,97 +180,19 @@ public class GenerateSitemaps {
         }
 
         if (makeSitemapOrg) {
-            sitemapsOrg = new SitemapsOrgGenerator(outputDir, sitemapStem, ".xml");
+            boolean compress = configurationService.getBooleanProperty("sitemap.compress", false);
+            sitemapsOrg = new SitemapsOrgGenerator(outputDir, sitemapStem, compress ? ".xml.gz" : ".xml", compress);
         }
 
         Context c = new Context(Context.Mode.READ_ONLY);
-        int offset = 0;
         long commsCount = 0;
         long collsCount = 0;
         long itemsCount = 0;
 
         try {
-            DiscoverQuery discoveryQuery = new DiscoverQuery();
-            discoveryQuery.setMaxResults(PAGE_SIZE);
-            discoveryQuery.setQuery("search.resourcetype:Community");
-            do {
-                discoveryQuery.setStart(offset);
-                DiscoverResult discoverResult = searchService.search(c, discoveryQuery);
-                List<IndexableObject> docs = discoverResult.getIndexableObjects();
-                commsCount = discoverResult.getTotalSearchResults();
-
-                for (IndexableObject doc : docs) {
-                    String url = uiURLStem + "communities/" + doc.getID();
-                    c.uncacheEntity(doc.getIndexedObject());
-
-                    if (makeHTMLMap) {
-                        html.addURL(url, null);
-                    }
-                    if (makeSitemapOrg) {
-                        sitemapsOrg.addURL(url, null);
-                    }
-                }
-                offset += PAGE_SIZE;
-            } while (offset < commsCount);
-
-            offset = 0;
-            discoveryQuery = new DiscoverQuery();
-            discoveryQuery.setMaxResults(PAGE_SIZE);
-            discoveryQuery.setQuery("search.resourcetype:Collection");
-            do {
-                discoveryQuery.setStart(offset);
-                DiscoverResult discoverResult = searchService.search(c, discoveryQuery);
-                List<IndexableObject> docs = discoverResult.getIndexableObjects();
-                collsCount = discoverResult.getTotalSearchResults();
-
-                for (IndexableObject doc : docs) {
-                    String url = uiURLStem + "collections/" + doc.getID();
-                    c.uncacheEntity(doc.getIndexedObject());
-
-                    if (makeHTMLMap) {
-                        html.addURL(url, null);
-                    }
-                    if (makeSitemapOrg) {
-                        sitemapsOrg.addURL(url, null);
-                    }
-                }
-                offset += PAGE_SIZE;
-            } while (offset < collsCount);
-
-            offset = 0;
-            discoveryQuery = new DiscoverQuery();
-            discoveryQuery.setMaxResults(PAGE_SIZE);
-            discoveryQuery.setQuery("search.resourcetype:Item");
-            discoveryQuery.addSearchField("search.entitytype");
-            do {
-
-                discoveryQuery.setStart(offset);
-                DiscoverResult discoverResult = searchService.search(c, discoveryQuery);
-                List<IndexableObject> docs = discoverResult.getIndexableObjects();
-                itemsCount = discoverResult.getTotalSearchResults();
-
-                for (IndexableObject doc : docs) {
-                    String url;
-                    List<String> entityTypeFieldValues = discoverResult.getSearchDocument(doc).get(0)
-                                            .getSearchFieldValues("search.entitytype");
-                    if (CollectionUtils.isNotEmpty(entityTypeFieldValues)) {
-                        url = uiURLStem + "entities/" + StringUtils.lowerCase(entityTypeFieldValues.get(0)) + "/"
-                                + doc.getID();
-                    } else {
-                        url = uiURLStem + "items/" + doc.getID();
-                    }
-                    Date lastMod = doc.getLastModified();
-                    c.uncacheEntity(doc.getIndexedObject());
-
-                    if (makeHTMLMap) {
-                        html.addURL(url, null);
-                    }
-                    if (makeSitemapOrg) {
-                        sitemapsOrg.addURL(url, null);
-                    }
-                }
-                offset += PAGE_SIZE;
-            } while (offset < itemsCount);
+            commsCount = addURLs(c, "Community", uiURLStem, "communities/", html, sitemapsOrg);
+            collsCount = addURLs(c, "Collection", uiURLStem, "collections/", html, sitemapsOrg);
+            itemsCount = addURLs(c, "Item", uiURLStem, "items/", html, sitemapsOrg);
 
             if (makeHTMLMap) {
                 int files = html.finish();
@@ -290,4 +215,62 @@ public class GenerateSitemaps {
             c.abort();
         }
     }
+
+    /**
+     * Add the URLs of all indexed objects of the given type to the generators. Only the few fields needed to build
+     * the URLs are streamed from the Discovery index, the DSpace objects themselves are never loaded.
+     *
+     * @param c            the DSpace context
+     * @param resourceType the Discovery resource type (Community, Collection or Item)
+     * @param uiURLStem    the URL of the UI, ending with a slash
+     * @param path         path of the objects in the UI, the UUID is appended to it
+     * @param html         the HTML sitemap generator, or {@code null}
+     * @param sitemapsOrg  the sitemaps.org generator, or {@code null}
+     * @return the number of URLs added
+     */
+    private static long addURLs(Context c, String resourceType, String uiURLStem, String path,
+                                AbstractGenerator html, AbstractGenerator sitemapsOrg)
+        throws SearchServiceException, IOException {
+        DiscoverQuery discoveryQuery = new DiscoverQuery();
+        discoveryQuery.setMaxResults(PAGE_SIZE);
+        discoveryQuery.setQuery(SearchUtils.RESOURCE_TYPE_FIELD + ":" + resourceType);
+        discoveryQuery.addSearchField(ENTITY_TYPE_FIELD);
+        discoveryQuery.addSearchField(LAST_MODIFIED_FIELD);
+
+        long count = 0;
+        Iterator<DiscoverResult.SearchDocument> docs = searchService.iteratorSearchDocuments(c, discoveryQuery);
+        while (docs.hasNext()) {
+            DiscoverResult.SearchDocument doc = docs.next();
+            String id = doc.getSearchFieldValues(SearchUtils.RESOURCE_ID_FIELD).get(0);
+            String url;
+            List<String> entityTypeFieldValues = doc.getSearchFieldValues(ENTITY_TYPE_FIELD);
+            if (CollectionUtils.isNotEmpty(entityTypeFieldValues)) {
+                url = uiURLStem + "entities/" + StringUtils.lowerCase(entityTypeFieldValues.get(0)) + "/" + id;
+            } else {
+                url = uiURLStem + path + id;
+            }
+            Date lastMod = getLastModified(doc);
+
+            if (html != null) {
+                html.addURL(url, null);
+            }
+            if (sitemapsOrg != null) {
+                sitemapsOrg.addURL(url, lastMod);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static Date getLastModified(DiscoverResult.SearchDocument doc) {
+        List<String> lastModifiedValues = doc.getSearchFieldValues(LAST_MODIFIED_FIELD);
+        if (CollectionUtils.isNotEmpty(lastModifiedValues)) {
+            try {
+                return SolrUtils.getDateFormatter().parse(lastModifiedValues.get(0));
+            } catch (java.text.ParseException e) {
+                log.warn("Unable to parse last modified date " + lastModifiedValues.get(0), e);
+            }
+        }
+        return null;
+    }
 }
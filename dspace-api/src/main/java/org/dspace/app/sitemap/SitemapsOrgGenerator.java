@@ -13,6 +13,7 @@ import java.io.PrintStream;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.TimeZone;
 
 /**
  * Class for generating <a href="http://sitemaps.org/">Sitemaps</a> to improve
@@ -33,6 +34,11 @@ public class SitemapsOrgGenerator extends AbstractGenerator {
      */
     protected String indexURLTail;
 
+    /**
+     * Whether the sitemap files are GZIP-compressed
+     */
+    protected boolean compress;
+
     /**
      * The correct date format
      */
@@ -51,15 +57,32 @@ public class SitemapsOrgGenerator extends AbstractGenerator {
      *                    {@code .html} or {@code null}
      */
     public SitemapsOrgGenerator(File outputDirIn, String urlStem, String urlTail) {
+        this(outputDirIn, urlStem, urlTail, false);
+    }
+
+    /**
+     * Construct a sitemaps.org protocol sitemap generator, optionally writing
+     * GZIP-compressed sitemap files ({@code sitemapN.xml.gz}). The index file is
+     * never compressed.
+     *
+     * @param outputDirIn Directory to write sitemap files to
+     * @param urlStem     start of URL that sitemap files will appear at
+     * @param urlTail     end of URL that sitemap files will appear at, e.g.
+     *                    {@code .xml.gz} or {@code null}
+     * @param compress    whether to GZIP-compress the sitemap files
+     */
+    public SitemapsOrgGenerator(File outputDirIn, String urlStem, String urlTail, boolean compress) {
         super(outputDirIn);
 
         indexURLStem = urlStem;
         indexURLTail = (urlTail == null ? "" : urlTail);
+        this.compress = compress;
+        w3dtfFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
     }
 
     @Override
     public String getFilename(int number) {
-        return "sitemap" + number + ".xml";
+        return "sitemap" + number + (compress ? ".xml.gz" : ".xml");
     }
 
     @Override
@@ -100,6 +123,11 @@ public class SitemapsOrgGenerator extends AbstractGenerator {
 
     @Override
     public boolean useCompression() {
+        return compress;
+    }
+
+    @Override
+    public boolean useIndexCompression() {
         return false;
     }
 
@@ -118,9 +146,12 @@ public class SitemapsOrgGenerator extends AbstractGenerator {
             .println("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
 
         for (int i = 0; i < sitemapCount; i++) {
+            // unchanged sitemap files keep the modification date of the run which last changed them
+            File sitemap = new File(outputDir, getFilename(i));
+            String lastMod = sitemap.exists() ? w3dtfFormat.format(new Date(sitemap.lastModified())) : now;
             output.print("<sitemap><loc>" + indexURLStem + i + indexURLTail
                              + "</loc>");
-            output.print("<lastmod>" + now + "</lastmod></sitemap>\n");
+            output.print("<lastmod>" + lastMod + "</lastmod></sitemap>\n");
         }
 
         output.println("</sitemapindex>");
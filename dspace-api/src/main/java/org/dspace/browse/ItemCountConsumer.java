@@ -0,0 +1,47 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+
+/**
+ * Consumer reloading the item counts of the communities and collections (see {@link ItemCountDAOSolr}) when items
+ * are installed, withdrawn, moved or deleted, or when the hierarchy changes. It has to run after the discovery
+ * consumer, so that the counts are loaded from the updated index.
+ */
+public class ItemCountConsumer implements Consumer {
+
+    private boolean changed = false;
+
+    @Override
+    public void initialize() throws Exception {
+    }
+
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        int st = event.getSubjectType();
+        if (st == Constants.ITEM || st == Constants.COLLECTION || st == Constants.COMMUNITY) {
+            changed = true;
+        }
+    }
+
+    @Override
+    public void end(Context ctx) throws Exception {
+        if (changed) {
+            changed = false;
+            ItemCountDAOSolr.invalidate();
+        }
+    }
+
+    @Override
+    public void finish(Context ctx) throws Exception {
+    }
+}
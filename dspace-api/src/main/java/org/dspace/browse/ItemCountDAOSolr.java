@@ -10,7 +10,14 @@ package org.dspace.browse;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
@@ -30,6 +37,14 @@ import org.dspace.services.factory.DSpaceServicesFactory;
  * Discovery (Solr) driver implementing ItemCountDAO interface to look up item
  * count information in communities and collections. Caching operations are
  * intentionally not implemented because Solr already is our cache.
+ * <P>
+ * The counts of all communities and collections are faceted in one query and shared by all the instances, so that
+ * listing communities and collections doesn't facet the whole index again for every request. The items are indexed
+ * with all the communities above them, so the count of a community includes the items of its sub-communities without
+ * counting the items mapped to several of its collections twice. The counts are loaded again in the background when
+ * they are older than {@code webui.strengths.cache.ttl} seconds or when the items or the hierarchy changed (see
+ * {@link ItemCountConsumer}), the previous counts are returned meanwhile. Only the first counts are waited for.
+ * The counts are those of the anonymous user.
  *
  * @author Ivan Masár, Andrea Bollini
  */
@@ -40,39 +55,36 @@ public class ItemCountDAOSolr implements ItemCountDAO {
     private static Logger log = org.apache.logging.log4j.LogManager.getLogger(ItemCountDAOSolr.class);
 
     /**
-     * DSpace context
+     * Loads the counts in the background, one load at a time
      */
-    private Context context;
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor(
+        new BasicThreadFactory.Builder().namingPattern("item-count-loader").daemon(true).build());
 
     /**
-     * Hold the communities item count obtained from SOLR after the first query. This only works
-     * well if the ItemCountDAO lifecycle is bound to the request lifecycle as
-     * it is now. If we switch to a Spring-based instantiation we should mark
-     * this bean as prototype
-     **/
-    private Map<String, Integer> communitiesCount = null;
+     * The last loaded counts, null until they are loaded for the first time
+     */
+    private static volatile ItemCounts counts = null;
 
     /**
-     * Hold the collection item count obtained from SOLR after the first query
-     **/
-    private Map<String, Integer> collectionsCount = null;
-
+     * The running load, null if there is none
+     */
+    private static CompletableFuture<ItemCounts> loading = null;
 
     /**
-     * Solr search service
+     * Incremented when the counts change, the counts loaded before are reloaded
      */
-    SearchService searcher = DSpaceServicesFactory.getInstance().getServiceManager()
-                                                  .getServiceByName(SearchService.class.getName(), SearchService.class);
+    private static final AtomicLong generation = new AtomicLong();
 
     /**
-     * Set the dspace context to use
+     * Set the dspace context to use. The counts are loaded in a context of their own, so that they don't depend on
+     * the user of the context.
      *
      * @param context DSpace Context
      * @throws ItemCountException if count error
      */
     @Override
     public void setContext(Context context) throws ItemCountException {
-        this.context = context;
+        // the counts are loaded in a context of their own
     }
 
     /**
@@ -84,12 +96,12 @@ public class ItemCountDAOSolr implements ItemCountDAO {
      */
     @Override
     public int getCount(DSpaceObject dso) throws ItemCountException {
-        loadCount();
+        ItemCounts current = getCounts();
         Integer val;
         if (dso instanceof Collection) {
-            val = collectionsCount.get(String.valueOf(((Collection) dso).getID()));
+            val = current.collectionsCount.get(String.valueOf(((Collection) dso).getID()));
         } else if (dso instanceof Community) {
-            val = communitiesCount.get(String.valueOf(((Community) dso).getID()));
+            val = current.communitiesCount.get(String.valueOf(((Community) dso).getID()));
         } else {
             throw new ItemCountException("We can only count items in Communities or Collections");
         }
@@ -102,18 +114,76 @@ public class ItemCountDAOSolr implements ItemCountDAO {
     }
 
     /**
-     * make sure that the counts are actually fetched from Solr (if haven't been
-     * cached in a Map yet)
+     * Mark the counts as outdated, e.g. because items were added, withdrawn or moved, and load them again in the
+     * background. Nothing is loaded if the counts were never used.
+     */
+    public static void invalidate() {
+        generation.incrementAndGet();
+        if (counts != null) {
+            load();
+        }
+    }
+
+    /**
+     * Return the loaded counts, loading them again in the background when they are outdated
      *
-     * @throws ItemCountException if count error
+     * @throws ItemCountException if the counts cannot be loaded for the first time
+     */
+    private ItemCounts getCounts() throws ItemCountException {
+        ItemCounts current = counts;
+        if (current == null) {
+            try {
+                return load().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ItemCountException(e);
+            } catch (ExecutionException e) {
+                throw new ItemCountException(e.getCause());
+            }
+        }
+        long ttl = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                        .getLongProperty("webui.strengths.cache.ttl", 300);
+        if (current.generation != generation.get()
+            || System.currentTimeMillis() - current.loaded > TimeUnit.SECONDS.toMillis(ttl)) {
+            load();
+        }
+        return current;
+    }
+
+    /**
+     * Start loading the counts unless they are being loaded already
+     *
+     * @return the running load
      */
-    private void loadCount() throws ItemCountException {
-        if (communitiesCount != null || collectionsCount != null) {
+    private static synchronized CompletableFuture<ItemCounts> load() {
+        if (loading != null) {
+            return loading;
+        }
+        CompletableFuture<ItemCounts> load = CompletableFuture.supplyAsync(ItemCountDAOSolr::loadCounts, loader);
+        loading = load;
+        // runs at once in this thread if the load has already completed (e.g. failed), resetting loading
+        load.whenComplete((loaded, e) -> loaded(loaded, e));
+        return load;
+    }
+
+    private static synchronized void loaded(ItemCounts loaded, Throwable e) {
+        loading = null;
+        if (e != null) {
+            log.error("Unable to load the item counts", e);
             return;
         }
+        counts = loaded;
+        if (loaded.generation != generation.get()) {
+            // the items changed while the counts were loaded
+            load();
+        }
+    }
 
-        communitiesCount = new HashMap<String, Integer>();
-        collectionsCount = new HashMap<String, Integer>();
+    /**
+     * Fetch the counts from Solr
+     */
+    private static ItemCounts loadCounts() {
+        ItemCounts loaded = new ItemCounts(generation.get());
 
         DiscoverQuery query = new DiscoverQuery();
         query.setFacetMinCount(1);
@@ -127,20 +197,49 @@ public class ItemCountDAOSolr implements ItemCountDAO {
         query.addFilterQueries("NOT(discoverable:false)");  // only discoverable
         query.setMaxResults(0);
 
-        DiscoverResult sResponse = null;
+        SearchService searcher = DSpaceServicesFactory.getInstance().getServiceManager()
+                                                      .getServiceByName(SearchService.class.getName(),
+                                                                        SearchService.class);
+        Context context = new Context(Context.Mode.READ_ONLY);
         try {
-            sResponse = searcher.search(context, query);
+            DiscoverResult sResponse = searcher.search(context, query);
             List<FacetResult> commCount = sResponse.getFacetResult("location.comm");
             List<FacetResult> collCount = sResponse.getFacetResult("location.coll");
             for (FacetResult c : commCount) {
-                communitiesCount.put(c.getAsFilterQuery(), (int) c.getCount());
+                loaded.communitiesCount.put(c.getAsFilterQuery(), (int) c.getCount());
             }
             for (FacetResult c : collCount) {
-                collectionsCount.put(c.getAsFilterQuery(), (int) c.getCount());
+                loaded.collectionsCount.put(c.getAsFilterQuery(), (int) c.getCount());
             }
         } catch (SearchServiceException e) {
-            log.error("caught exception: ", e);
-            throw new ItemCountException(e);
+            throw new IllegalStateException(e);
+        } finally {
+            context.abort();
+        }
+        log.debug("Loaded the item counts of {} communities and {} collections", loaded.communitiesCount.size(),
+                  loaded.collectionsCount.size());
+        return loaded;
+    }
+
+    /**
+     * The counts loaded at one time
+     */
+    private static class ItemCounts {
+        private final long generation;
+        private final long loaded = System.currentTimeMillis();
+
+        /**
+         * Hold the communities item count obtained from SOLR
+         **/
+        private final Map<String, Integer> communitiesCount = new HashMap<>();
+
+        /**
+         * Hold the collection item count obtained from SOLR
+         **/
+        private final Map<String, Integer> collectionsCount = new HashMap<>();
+
+        private ItemCounts(long generation) {
+            this.generation = generation;
         }
     }
 }
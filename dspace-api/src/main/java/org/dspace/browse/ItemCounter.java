@@ -46,7 +46,7 @@ public class ItemCounter {
     private ItemCountDAO dao;
 
     /**
-     * DSpace Context
+     * DSpace Context, null to use the context of the current request
      */
     private Context context;
 
@@ -67,7 +67,7 @@ public class ItemCounter {
     /**
      * Construct a new item counter which will use the given DSpace Context
      *
-     * @param context current context
+     * @param context current context, null to use the context of the current request
      * @throws ItemCountException if count error
      */
     public ItemCounter(Context context) throws ItemCountException {
@@ -81,14 +81,15 @@ public class ItemCounter {
 
     /**
      * Get the singular instance of a class.
-     * It creates a new instance at the first usage of this method.
+     * It creates a new instance at the first usage of this method. The instance counts with the context of the
+     * current request, it must not keep the context of the request which created it.
      *
      * @return instance af a class
      * @throws ItemCountException when error occurs
      */
     public static ItemCounter getInstance() throws ItemCountException {
         if (instance == null) {
-            instance = new ItemCounter(ContextUtil.obtainCurrentRequestContext());
+            instance = new ItemCounter(null);
         }
         return instance;
     }
@@ -119,7 +120,7 @@ public class ItemCounter {
         // if we make it this far, we need to manually count
         if (dso instanceof Collection) {
             try {
-                return itemService.countItems(context, (Collection) dso);
+                return itemService.countItems(getContext(), (Collection) dso);
             } catch (SQLException e) {
                 log.error("caught exception: ", e);
                 throw new ItemCountException(e);
@@ -128,7 +129,7 @@ public class ItemCounter {
 
         if (dso instanceof Community) {
             try {
-                return itemService.countItems(context, ((Community) dso));
+                return itemService.countItems(getContext(), ((Community) dso));
             } catch (SQLException e) {
                 log.error("caught exception: ", e);
                 throw new ItemCountException(e);
@@ -137,4 +138,8 @@ public class ItemCounter {
 
         return 0;
     }
+
+    private Context getContext() {
+        return context != null ? context : ContextUtil.obtainCurrentRequestContext();
+    }
 }
@@ -11,6 +11,7 @@ import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.CollectionTable;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
@@ -28,6 +29,7 @@ import org.dspace.content.factory.ContentServiceFactory;
 import org.dspace.content.service.BitstreamFormatService;
 import org.dspace.core.Context;
 import org.dspace.core.ReloadableEntity;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.CollectionId;
 import org.hibernate.annotations.Type;
@@ -42,6 +44,8 @@ import org.hibernate.proxy.HibernateProxyHelper;
  * @author Robert Tansley
  */
 @Entity
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Table(name = "bitstreamformatregistry")
 public class BitstreamFormat implements Serializable, ReloadableEntity<Integer> {
 
@@ -71,6 +75,7 @@ public class BitstreamFormat implements Serializable, ReloadableEntity<Integer>
     private boolean internal = false;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     @CollectionTable(name = "fileextension", joinColumns = @JoinColumn(name = "bitstream_format_id"))
     @CollectionId(
         columns = @Column(name = "file_extension_id"),
@@ -291,7 +291,7 @@ public class BitstreamServiceImpl extends DSpaceObjectServiceImpl<Bitstream> imp
             bundle.removeBitstream(bitstream);
         }
         // Update Item's metadata about bitstreams
-        clarinItemService.updateItemFilesMetadata(context, bitstream);
+        clarinItemService.updateItemFilesMetadataOnCommit(context, bitstream);
         // Remove all bundles from the bitstream object, clearing the connection in 2 ways
         bundles.clear();
 
@@ -218,7 +218,7 @@ public class BundleServiceImpl extends DSpaceObjectServiceImpl<Bundle> implement
         }
         bitstreamService.update(context, bitstream);
 
-        clarinItemService.updateItemFilesMetadata(context, owningItem, bundle);
+        clarinItemService.updateItemFilesMetadataOnCommit(context, owningItem, bundle);
         // Add clarin license to the bitstream and clarin license values to the item metadata
         clarinLicenseService.addClarinLicenseToBitstream(context, owningItem, bundle, bitstream);
     }
@@ -264,7 +264,7 @@ public class BundleServiceImpl extends DSpaceObjectServiceImpl<Bundle> implement
             bundle.removeBitstream(bitstream);
             bitstream.getBundles().remove(bundle);
         }
-        clarinItemService.updateItemFilesMetadata(context, owningItem, bundle);
+        clarinItemService.updateItemFilesMetadataOnCommit(context, owningItem, bundle);
     }
 
     @Override
@@ -458,7 +458,7 @@ public class BundleServiceImpl extends DSpaceObjectServiceImpl<Bundle> implement
             if (owningItem != null) {
                 itemService.updateLastModified(context, owningItem);
                 itemService.update(context, owningItem);
-                clarinItemService.updateItemFilesMetadata(context, owningItem, bundle);
+                clarinItemService.updateItemFilesMetadataOnCommit(context, owningItem, bundle);
             }
         }
     }
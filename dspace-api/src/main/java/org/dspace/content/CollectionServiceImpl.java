@@ -109,6 +109,8 @@ public class CollectionServiceImpl extends DSpaceObjectServiceImpl<Collection> i
     protected WorkspaceItemService workspaceItemService;
     @Autowired(required = true)
     protected HarvestedCollectionService harvestedCollectionService;
+    @Autowired(required = true)
+    protected CommunityHierarchyIndex communityHierarchyIndex;
 
     @Autowired(required = true)
     protected XmlWorkflowFactory workflowFactory;
@@ -813,6 +815,7 @@ public class CollectionServiceImpl extends DSpaceObjectServiceImpl<Collection> i
             collection.removeCommunity(owningCommunity);
             owningCommunity.removeCollection(collection);
         }
+        communityHierarchyIndex.hierarchyChanged(context);
 
         collectionDAO.delete(context, collection);
     }
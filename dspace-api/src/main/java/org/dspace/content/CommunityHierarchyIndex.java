@@ -0,0 +1,235 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.dao.CommunityDAO;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * In-memory index of the community/collection hierarchy. It answers which communities are the ancestors of a
+ * community or a collection and which collections are below a community without walking the lazily loaded
+ * hierarchy in the database, which takes a query per community.
+ * <P>
+ * The index is loaded with two queries and dropped whenever the hierarchy is changed (see
+ * {@link #hierarchyChanged(Context)}) and again when the changing transaction ends. While a change is not committed,
+ * the context making it walks the hierarchy in the database and the other contexts load the hierarchy for every
+ * lookup without keeping it. Changes made by other processes (e.g. command line tools) are seen when the index
+ * expires after {@code community.hierarchy.cache.ttl} seconds.
+ * <P>
+ * The lookups return null when the index cannot answer the same way as the database walk, e.g. when a community
+ * has several parents (which are ordered by name), the caller then walks the hierarchy as before.
+ */
+public class CommunityHierarchyIndex {
+
+    private static final Logger log = LogManager.getLogger(CommunityHierarchyIndex.class);
+
+    @Autowired(required = true)
+    protected CommunityDAO communityDAO;
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    /**
+     * The loaded hierarchy, null when it has to be loaded again
+     */
+    private volatile Hierarchy hierarchy;
+
+    /**
+     * Incremented on every change of the hierarchy, so that a hierarchy loaded while it changed is not kept
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Contexts with uncommitted changes of the hierarchy
+     */
+    private final Set<Context> changingContexts = Collections.synchronizedSet(
+        Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * Drop the index because the hierarchy is changed in the given context. The context doesn't use the index until
+     * its transaction is committed or rolled back, then the index is dropped again.
+     *
+     * @param context context changing the hierarchy
+     */
+    public void hierarchyChanged(Context context) {
+        invalidate();
+        if (changingContexts.add(context)) {
+            context.addTransactionEndCallback(() -> {
+                invalidate();
+                changingContexts.remove(context);
+            });
+        }
+    }
+
+    /**
+     * @param context   context
+     * @param community community
+     * @return the ids of the ancestors of the community, the parent first, or null if the index cannot tell
+     * @throws SQLException if database error
+     */
+    public List<UUID> getAllParents(Context context, Community community) throws SQLException {
+        Hierarchy current = getHierarchy(context);
+        return current != null ? current.getAncestors(community.getID()) : null;
+    }
+
+    /**
+     * @param context    context
+     * @param collection collection
+     * @return the ids of the communities of the collection followed by their ancestors, or null if the index cannot
+     * tell
+     * @throws SQLException if database error
+     */
+    public List<UUID> getAllParents(Context context, Collection collection) throws SQLException {
+        Hierarchy current = getHierarchy(context);
+        if (current == null) {
+            return null;
+        }
+        List<UUID> communities = current.collectionCommunities.getOrDefault(collection.getID(),
+                                                                           Collections.emptyList());
+        if (communities.size() != 1) {
+            return communities.isEmpty() ? Collections.emptyList() : null;
+        }
+        List<UUID> ancestors = current.getAncestors(communities.get(0));
+        if (ancestors == null) {
+            return null;
+        }
+        List<UUID> result = new ArrayList<>(ancestors.size() + 1);
+        result.add(communities.get(0));
+        result.addAll(ancestors);
+        return result;
+    }
+
+    /**
+     * @param context   context
+     * @param community community
+     * @return the ids of the collections of the community and of all its sub-communities, or null if the index
+     * cannot tell
+     * @throws SQLException if database error
+     */
+    public Set<UUID> getAllCollections(Context context, Community community) throws SQLException {
+        Hierarchy current = getHierarchy(context);
+        return current != null ? current.getDescendantCollections(community.getID()) : null;
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        hierarchy = null;
+    }
+
+    private Hierarchy getHierarchy(Context context) throws SQLException {
+        long ttl = configurationService.getLongProperty("community.hierarchy.cache.ttl", 300);
+        if (ttl <= 0 || changingContexts.contains(context)) {
+            return null;
+        }
+        Hierarchy current = hierarchy;
+        if (current != null && System.currentTimeMillis() - current.loaded < TimeUnit.SECONDS.toMillis(ttl)) {
+            return current;
+        }
+
+        long loadedGeneration = generation.get();
+        current = new Hierarchy(communityDAO.findAllSubcommunityIds(context),
+                                communityDAO.findAllCollectionIds(context));
+        synchronized (this) {
+            // a hierarchy loaded while it was changed may miss the change, and one loaded while a change is not
+            // committed yet may contain it (contexts of the same thread share the transaction)
+            if (generation.get() == loadedGeneration && changingContexts.isEmpty()) {
+                hierarchy = current;
+            }
+        }
+        log.debug("Loaded the community hierarchy: {} communities with sub-communities, {} collections",
+                  current.subcommunities.size(), current.collectionCommunities.size());
+        return current;
+    }
+
+    /**
+     * The hierarchy as it was loaded, the ancestors and descendants are computed once per community.
+     */
+    private static class Hierarchy {
+        private final long loaded = System.currentTimeMillis();
+        private final Map<UUID, List<UUID>> parents = new HashMap<>();
+        private final Map<UUID, List<UUID>> subcommunities = new HashMap<>();
+        private final Map<UUID, List<UUID>> collections = new HashMap<>();
+        private final Map<UUID, List<UUID>> collectionCommunities = new HashMap<>();
+        private final Map<UUID, List<UUID>> ancestors = new ConcurrentHashMap<>();
+        private final Map<UUID, Set<UUID>> descendantCollections = new ConcurrentHashMap<>();
+
+        private Hierarchy(List<Object[]> communityLinks, List<Object[]> collectionLinks) {
+            for (Object[] link : communityLinks) {
+                subcommunities.computeIfAbsent((UUID) link[0], id -> new ArrayList<>()).add((UUID) link[1]);
+                parents.computeIfAbsent((UUID) link[1], id -> new ArrayList<>()).add((UUID) link[0]);
+            }
+            for (Object[] link : collectionLinks) {
+                collections.computeIfAbsent((UUID) link[0], id -> new ArrayList<>()).add((UUID) link[1]);
+                collectionCommunities.computeIfAbsent((UUID) link[1], id -> new ArrayList<>()).add((UUID) link[0]);
+            }
+        }
+
+        /**
+         * @return the ancestors of the community, or null if a community on the way has several parents
+         */
+        private List<UUID> getAncestors(UUID communityId) {
+            List<UUID> result = ancestors.get(communityId);
+            if (result != null) {
+                return result;
+            }
+            List<UUID> chain = new ArrayList<>();
+            List<UUID> current = parents.getOrDefault(communityId, Collections.emptyList());
+            while (!current.isEmpty()) {
+                if (current.size() > 1 || chain.contains(current.get(0))) {
+                    return null;
+                }
+                chain.add(current.get(0));
+                current = parents.getOrDefault(current.get(0), Collections.emptyList());
+            }
+            result = Collections.unmodifiableList(chain);
+            ancestors.put(communityId, result);
+            return result;
+        }
+
+        private Set<UUID> getDescendantCollections(UUID communityId) {
+            Set<UUID> result = descendantCollections.get(communityId);
+            if (result != null) {
+                return result;
+            }
+            Set<UUID> found = new LinkedHashSet<>();
+            addDescendantCollections(communityId, found, new HashSet<>());
+            result = Collections.unmodifiableSet(found);
+            descendantCollections.put(communityId, result);
+            return result;
+        }
+
+        private void addDescendantCollections(UUID communityId, Set<UUID> found, Set<UUID> visited) {
+            if (!visited.add(communityId)) {
+                return;
+            }
+            for (UUID subcommunityId : subcommunities.getOrDefault(communityId, Collections.emptyList())) {
+                addDescendantCollections(subcommunityId, found, visited);
+            }
+            found.addAll(collections.getOrDefault(communityId, Collections.emptyList()));
+        }
+    }
+}
@@ -12,8 +12,10 @@ import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -78,6 +80,8 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
     protected IdentifierService identifierService;
     @Autowired(required = true)
     protected SubscribeService subscribeService;
+    @Autowired(required = true)
+    protected CommunityHierarchyIndex communityHierarchyIndex;
 
     protected CommunityServiceImpl() {
         super();
@@ -112,6 +116,7 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
         if (parent != null) {
             parent.addSubCommunity(newCommunity);
             newCommunity.addParentCommunity(parent);
+            communityHierarchyIndex.hierarchyChanged(context);
         }
 
 
@@ -333,6 +338,11 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
 
     @Override
     public List<Community> getAllParents(Context context, Community community) throws SQLException {
+        List<UUID> parentIds = communityHierarchyIndex.getAllParents(context, community);
+        if (parentIds != null) {
+            return findCommunities(context, parentIds);
+        }
+
         List<Community> parentList = new ArrayList<>();
         Community parent = (Community) getParentObject(context, community);
         while (parent != null) {
@@ -344,6 +354,11 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
 
     @Override
     public List<Community> getAllParents(Context context, Collection collection) throws SQLException {
+        List<UUID> parentIds = communityHierarchyIndex.getAllParents(context, collection);
+        if (parentIds != null) {
+            return findCommunities(context, parentIds);
+        }
+
         List<Community> result = new ArrayList<>();
         List<Community> communities = collection.getCommunities();
         result.addAll(communities);
@@ -355,6 +370,19 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
 
     @Override
     public List<Collection> getAllCollections(Context context, Community community) throws SQLException {
+        Set<UUID> collectionIds = communityHierarchyIndex.getAllCollections(context, community);
+        if (collectionIds != null) {
+            List<Collection> collections = new ArrayList<>(collectionIds.size());
+            for (UUID collectionId : collectionIds) {
+                // the communities and collections are in the second-level cache
+                Collection collection = collectionService.find(context, collectionId);
+                if (collection != null) {
+                    collections.add(collection);
+                }
+            }
+            return collections;
+        }
+
         List<Collection> collectionList = new ArrayList<>();
         List<Community> subCommunities = community.getSubcommunities();
         for (Community subCommunity : subCommunities) {
@@ -369,6 +397,30 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
     }
 
 
+    @Override
+    public Set<UUID> getAllCollectionIds(Context context, Community community) throws SQLException {
+        Set<UUID> collectionIds = communityHierarchyIndex.getAllCollections(context, community);
+        if (collectionIds != null) {
+            return collectionIds;
+        }
+        Set<UUID> result = new LinkedHashSet<>();
+        for (Collection collection : getAllCollections(context, community)) {
+            result.add(collection.getID());
+        }
+        return result;
+    }
+
+    private List<Community> findCommunities(Context context, List<UUID> communityIds) throws SQLException {
+        List<Community> communities = new ArrayList<>(communityIds.size());
+        for (UUID communityId : communityIds) {
+            Community community = find(context, communityId);
+            if (community != null) {
+                communities.add(community);
+            }
+        }
+        return communities;
+    }
+
     /**
      * Internal method to process subcommunities recursively
      *
@@ -398,6 +450,7 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
         if (!community.getCollections().contains(collection)) {
             community.addCollection(collection);
             collection.addCommunity(community);
+            communityHierarchyIndex.hierarchyChanged(context);
         }
         context.addEvent(
             new Event(Event.ADD, Constants.COMMUNITY, community.getID(), Constants.COLLECTION, collection.getID(),
@@ -444,6 +497,7 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
         if (!parentCommunity.getSubcommunities().contains(childCommunity)) {
             parentCommunity.addSubCommunity(childCommunity);
             childCommunity.addParentCommunity(parentCommunity);
+            communityHierarchyIndex.hierarchyChanged(context);
         }
         context.addEvent(new Event(Event.ADD, Constants.COMMUNITY, parentCommunity.getID(), Constants.COMMUNITY,
                                    childCommunity.getID(), parentCommunity.getHandle(),
@@ -465,6 +519,7 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
         } else {
             community.removeCollection(collection);
             collection.removeCommunity(community);
+            communityHierarchyIndex.hierarchyChanged(context);
         }
 
         log.info(LogHelper.getHeader(context, "remove_collection",
@@ -560,6 +615,7 @@ public class CommunityServiceImpl extends DSpaceObjectServiceImpl<Community> imp
 
         context.addEvent(new Event(Event.DELETE, Constants.COMMUNITY, community.getID(), community.getHandle(),
                                    getIdentifiers(context, community)));
+        communityHierarchyIndex.hierarchyChanged(context);
 
         subscribeService.deleteByDspaceObject(context, community);
 
@@ -18,6 +18,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -1592,21 +1593,21 @@ prevent the generation of resource policy entry values with null dspace_object a
 
     @Override
     public int countItems(Context context, Community community) throws SQLException {
-        // First we need a list of all collections under this community in the hierarchy
-        List<Collection> collections = communityService.getAllCollections(context, community);
+        // First we need the ids of all collections under this community in the hierarchy
+        Set<UUID> collectionIds = communityService.getAllCollectionIds(context, community);
 
         // Now, lets count unique items across that list of collections
-        return itemDAO.countItems(context, collections, true, false);
+        return itemDAO.countItemsInCollections(context, collectionIds, true, false);
     }
 
     @Override
     public int countAllItems(Context context, Community community) throws SQLException {
-        // First we need a list of all collections under this community in the hierarchy
-        List<Collection> collections = communityService.getAllCollections(context, community);
+        // First we need the ids of all collections under this community in the hierarchy
+        Set<UUID> collectionIds = communityService.getAllCollectionIds(context, community);
 
         // Now, lets count unique items across that list of collections
-        return itemDAO.countItems(context, collections, true, false) + itemDAO.countItems(context, collections,
-                                                                                          false, true);
+        return itemDAO.countItemsInCollections(context, collectionIds, true, false)
+            + itemDAO.countItemsInCollections(context, collectionIds, false, true);
     }
 
     @Override
@@ -7,36 +7,26 @@
  */
 package org.dspace.content;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.InvalidPathException;
-import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.function.Function;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
-import javax.xml.stream.XMLOutputFactory;
-import javax.xml.stream.XMLStreamWriter;
 
-import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
-import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.dspace.app.util.Util;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.MissingLicenseAgreementException;
@@ -47,6 +37,8 @@ import org.dspace.content.service.PreviewContentService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.services.ConfigurationService;
+import org.dspace.storage.bitstore.service.BitstreamStorageService;
+import org.dspace.util.ArchiveEntryLister;
 import org.dspace.util.FileInfo;
 import org.dspace.util.FileTreeViewGenerator;
 import org.slf4j.Logger;
@@ -66,13 +58,15 @@ public class PreviewContentServiceImpl implements PreviewContentService {
      */
     private static final Logger log = LoggerFactory.getLogger(PreviewContentServiceImpl.class);
 
-    private final String ARCHIVE_TYPE_ZIP = "zip";
-    private final String ARCHIVE_TYPE_TAR = "tar";
+    private static final String ARCHIVE_TYPE_ZIP = "zip";
+    private static final String ARCHIVE_TYPE_TAR = "tar";
+    private static final Map<String, String> ARCHIVE_TYPES = Map.of(
+            "application/zip", ARCHIVE_TYPE_ZIP,
+            "application/x-tar", ARCHIVE_TYPE_TAR
+    );
     // This constant is used to limit the length of the preview content stored in the database to prevent
     // the database from being overloaded with large amounts of data.
     private static final int MAX_PREVIEW_COUNT_LENGTH = 2000;
-    // Initial capacity for the list of extracted file paths, set to 200 based on typical archive file counts.
-    private static final int ESTIMATED_FILE_COUNT = 200;
 
     // Configured ZIP file preview limit (default: 1000) - if the ZIP file contains more files, it will be truncated
     @Value("${file.preview.zip.limit.length:1000}")
@@ -87,6 +81,8 @@ public class PreviewContentServiceImpl implements PreviewContentService {
     ConfigurationService configurationService;
     @Autowired
     BitstreamService bitstreamService;
+    @Autowired
+    BitstreamStorageService bitstreamStorageService;
 
     @Override
     public PreviewContent create(Context context, Bitstream bitstream, String name, String content,
@@ -168,6 +164,17 @@ public class PreviewContentServiceImpl implements PreviewContentService {
         File file = null;
 
         try {
+            String archiveType = ARCHIVE_TYPES.get(bitstream.getFormat(context).getMIMEType());
+            if (Objects.nonNull(archiveType)) {
+                // Only read the parts of the archive listing its entries, not the whole (possibly remote) archive
+                return listArchiveEntries((offset, length) -> {
+                    try {
+                        return bitstreamStorageService.retrieve(context, bitstream, offset, length);
+                    } catch (SQLException e) {
+                        throw new IOException(e);
+                    }
+                }, bitstream.getSizeBytes(), archiveType);
+            }
             file = bitstreamService.retrieveFile(context, bitstream, false); // Retrieve the file
 
             if (Objects.nonNull(file)) {
@@ -198,6 +205,35 @@ public class PreviewContentServiceImpl implements PreviewContentService {
         return create(context, bitstream, fi.name, fi.content, fi.isDirectory, fi.size, sub);
     }
 
+    @Override
+    public void createPreviewContents(Context context, Bitstream bitstream, List<FileInfo> fileInfos)
+            throws SQLException {
+        int[] count = {0};
+        for (FileInfo fi : fileInfos) {
+            createPreviewContentTree(context, bitstream, fi, count);
+        }
+        log.info("Created {} preview contents for bitstream with ID = {}", count[0], bitstream.getID());
+    }
+
+    /**
+     * Persist the preview content of the file info and of all its sub file infos. Unlike
+     * {@link #createPreviewContent(Context, Bitstream, FileInfo)} the rows are not logged one by one, and as they
+     * are only persisted, Hibernate inserts them in JDBC batches when the session is flushed.
+     */
+    private PreviewContent createPreviewContentTree(Context context, Bitstream bitstream, FileInfo fi, int[] count)
+            throws SQLException {
+        Hashtable<String, PreviewContent> sub = null;
+        if (fi.sub != null) {
+            sub = new Hashtable<>();
+            for (Map.Entry<String, FileInfo> entry : fi.sub.entrySet()) {
+                sub.put(entry.getKey(), createPreviewContentTree(context, bitstream, entry.getValue(), count));
+            }
+        }
+        count[0]++;
+        return previewContentDAO.create(context, new PreviewContent(bitstream, fi.name, fi.content,
+                fi.isDirectory, fi.size, sub));
+    }
+
     @Override
     public FileInfo createFileInfo(PreviewContent pc) {
         Hashtable<String, FileInfo> sub = createSubMap(pc.sub, this::createFileInfo);
@@ -221,16 +257,17 @@ public class PreviewContentServiceImpl implements PreviewContentService {
         } else if (bitstreamMimeType.equals("text/html")) {
             String data = getFileContent(file, false);
             fileInfos.add(new FileInfo(data, false));
-        } else {
-            String data = "";
-            Map<String, String> archiveTypes = Map.of(
-                    "application/zip", ARCHIVE_TYPE_ZIP,
-                    "application/x-tar", ARCHIVE_TYPE_TAR
-            );
-            if (archiveTypes.containsKey(bitstreamMimeType)) {
-                data = extractFile(file, archiveTypes.get(bitstreamMimeType));
-                fileInfos = FileTreeViewGenerator.parse(data);
-            }
+        } else if (ARCHIVE_TYPES.containsKey(bitstreamMimeType)) {
+            fileInfos = listArchiveEntries((offset, length) -> {
+                InputStream inputStream = new FileInputStream(file);
+                try {
+                    IOUtils.skipFully(inputStream, offset);
+                } catch (IOException e) {
+                    inputStream.close();
+                    throw e;
+                }
+                return new BoundedInputStream(inputStream, length);
+            }, file.length(), ARCHIVE_TYPES.get(bitstreamMimeType));
         }
         return fileInfos;
     }
@@ -304,159 +341,33 @@ public class PreviewContentServiceImpl implements PreviewContentService {
     }
 
     /**
-     * Adds a file path and its size to the list of file paths.
-     * If the path represents a directory, appends a "/" to the path.
-     * @param filePaths the list of file paths to add to
-     * @param path the file or directory path
-     * @param size the size of the file or directory
+     * Lists the files of a ZIP or TAR archive as a tree of file infos. The listing is truncated after
+     * {@link #maxPreviewCount} files.
+     * @param source      the source of the bytes of the archive
+     * @param size        the size of the archive
+     * @param archiveType the type of the archive ("tar" or "zip")
+     * @return the top level file infos of the tree
+     * @throws IOException if the archive cannot be read
      */
-    private void addFilePath(List<String> filePaths, String path, long size) {
-        try {
-            boolean isDir = Files.isDirectory(Paths.get(path));
-            StringBuilder sb = new StringBuilder(path.length() + 16);
-            sb.append(path);
-            sb.append(isDir ? "/|" : "|");
-            sb.append(size);
-            filePaths.add(sb.toString());
-        } catch (NullPointerException | InvalidPathException | SecurityException e) {
-            log.error(String.format("Failed to add file path. Path: '%s', Size: %d", path, size), e);
-        }
-    }
-
-    /**
-     * Processes a TAR file, extracting its entries and adding their paths to the provided list.
-     * @param filePaths the list to populate with the extracted file paths
-     * @param file the TAR file data
-     * @throws IOException if an I/O error occurs while reading the TAR file
-     */
-    private void processTarFile(List<String> filePaths, File file) throws IOException {
-        try (InputStream fis = new FileInputStream(file);
-             BufferedInputStream bis = new BufferedInputStream(fis);
-             // Use the constructor that accepts LongFileMode
-             TarArchiveInputStream tarInput = new TarArchiveInputStream(bis)) {
-
-
-            TarArchiveEntry entry;
-            while ((entry = tarInput.getNextTarEntry()) != null) {
-                if (filePaths.size() >= maxPreviewCount) {
-                    filePaths.add("... (too many files)");
-                    break;
-                }
-                if (!entry.isDirectory()) {
-                    String name = entry.getName();
-                    long size = entry.getSize();
-                    addFilePath(filePaths, name, size);
-                }
-                // Fully skip entry content to handle large files correctly
-                skipFully(tarInput, entry.getSize());
-            }
-        }
-    }
-
-    /**
-     * Fully skips the specified number of bytes from the input stream,
-     * ensuring that all bytes are skipped even if InputStream.skip() skips less.
-     *
-     * @param in the input stream to skip bytes from
-     * @param bytesToSkip the number of bytes to skip
-     * @throws IOException if an I/O error occurs or the end of stream is reached before skipping all bytes
-     */
-    private void skipFully(InputStream in, long bytesToSkip) throws IOException {
-        long remaining = bytesToSkip;
-        while (remaining > 0) {
-            long skipped = in.skip(remaining);
-            if (skipped <= 0) {
-                // If skip returns 0 or less, try to read a byte to move forward
-                if (in.read() == -1) {
-                    throw new IOException("Unexpected end of stream while skipping");
-                }
-                skipped = 1;
-            }
-            remaining -= skipped;
-        }
-    }
-
-    /**
-     * Parses a ZIP file and extracts the names and sizes of its entries.
-     *
-     * @param filePaths the list to populate with entry names
-     * @param file      the ZIP file to read
-     * @throws IOException if the file is invalid or cannot be read
-     */
-    private void processZipFile(List<String> filePaths, File file) throws IOException {
-        try (ZipFile zipFile = new ZipFile(file)) {
-            Enumeration<? extends ZipEntry> entries = zipFile.entries();
-            while (entries.hasMoreElements()) {
-                if (filePaths.size() >= maxPreviewCount) {
-                    filePaths.add("... (too many files)");
-                    break;
-                }
-                ZipEntry entry = entries.nextElement();
-                if (!entry.isDirectory()) {
-                    addFilePath(filePaths, entry.getName(), entry.getSize());
-                }
-            }
-        }
-    }
-
-    /**
-     * Builds an XML response string based on the provided list of file paths.
-     * @param filePaths the list of file paths to include in the XML response
-     * @return an XML string representation of the file paths
-     */
-    private String buildXmlResponse(List<String> filePaths) {
-        StringWriter stringWriter = new StringWriter();
-        XMLOutputFactory factory = XMLOutputFactory.newInstance();
-        XMLStreamWriter writer = null;
-        try {
-            writer = factory.createXMLStreamWriter(stringWriter);
-
-            writer.writeStartDocument("UTF-8", "1.0");
-            writer.writeStartElement("root");
-
-            int count = 0;
-            for (String filePath : filePaths) {
-                if (count >= maxPreviewCount) {
-                    writer.writeStartElement("element");
-                    writer.writeCharacters("...too many files...|0");
-                    writer.writeEndElement();
-                    break;
-                }
-                writer.writeStartElement("element");
-                writer.writeCharacters(filePath);
-                writer.writeEndElement();
-                count++;
+    private List<FileInfo> listArchiveEntries(ArchiveEntryLister.RangeSource source, long size, String archiveType)
+            throws IOException {
+        FileInfo root = new FileInfo("root");
+        int[] count = {0};
+        ArchiveEntryLister.EntryConsumer consumer = (path, entrySize) -> {
+            if (count[0] >= maxPreviewCount) {
+                FileTreeViewGenerator.addFile(root, "...too many files...", 0);
+                return false;
             }
-
-            writer.writeEndElement(); // </root>
-            writer.writeEndDocument();
-            writer.flush();
-            writer.close();
-
-        } catch (Exception e) {
-            log.error("Failed to build XML response", e);
-            return "<root><error>Failed to generate preview</error></root>";
-        }
-
-        return stringWriter.toString();
-    }
-
-    /**
-     * Processes  file data based on the specified file type (tar or zip),
-     * and returns an XML representation of the file paths.
-     * @param file the file data
-     * @param fileType    the type of file to extract ("tar" or "zip")
-     * @return an XML string representing the extracted file paths
-     */
-    private String extractFile(File file, String fileType) throws Exception {
-        List<String> filePaths = new ArrayList<>(ESTIMATED_FILE_COUNT);
-        // Process the file based on its type
-        if (ARCHIVE_TYPE_TAR.equals(fileType)) {
-            processTarFile(filePaths, file);
+            FileTreeViewGenerator.addFile(root, path, entrySize);
+            count[0]++;
+            return true;
+        };
+        if (ARCHIVE_TYPE_TAR.equals(archiveType)) {
+            ArchiveEntryLister.listTar(source, size, consumer);
         } else {
-            processZipFile(filePaths, file);
+            ArchiveEntryLister.listZip(source, size, consumer);
         }
-        return buildXmlResponse(filePaths);
+        return new ArrayList<>(root.sub.values());
     }
 
     /**
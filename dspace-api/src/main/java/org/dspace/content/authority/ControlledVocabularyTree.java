@@ -0,0 +1,259 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.authority;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Immutable in-memory representation of one controlled vocabulary XML file, as used by
+ * {@link DSpaceControlledVocabulary}.
+ *
+ * The file is parsed once and every {@code <node>} element is flattened into an array in document order, with
+ * its lower-cased label, hierarchy path, note, parent and children precomputed. Lookups by id and by exact label
+ * are served from hash maps, so the vocabulary no longer has to be re-read and evaluated with XPath for every
+ * autocomplete request.
+ */
+final class ControlledVocabularyTree {
+
+    private final Entry[] entries;
+    private final Map<String, Entry> byId;
+    private final Map<String, List<Entry>> byLabel;
+    private final Entry root;
+    private final long lastModified;
+
+    private ControlledVocabularyTree(List<Entry> entries, Entry root, long lastModified) {
+        this.entries = entries.toArray(new Entry[entries.size()]);
+        this.root = root;
+        this.lastModified = lastModified;
+        Map<String, Entry> ids = new HashMap<>();
+        Map<String, List<Entry>> labels = new HashMap<>();
+        for (Entry entry : this.entries) {
+            if (entry.id != null) {
+                // XPath returned the first node in document order, keep that behaviour for duplicated ids
+                ids.putIfAbsent(entry.id, entry);
+            }
+            if (entry.label != null) {
+                labels.computeIfAbsent(entry.label, l -> new ArrayList<>()).add(entry);
+            }
+        }
+        this.byId = ids;
+        this.byLabel = labels;
+    }
+
+    /**
+     * Parse the given vocabulary file.
+     *
+     * @param file      the controlled vocabulary XML file
+     * @param delimiter delimiter used to build the hierarchy path of every node
+     * @return the parsed vocabulary
+     * @throws IOException if the file cannot be read or is not a valid vocabulary
+     */
+    static ControlledVocabularyTree load(File file, String delimiter) throws IOException {
+        long lastModified = file.lastModified();
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(false);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            document = builder.parse(file);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Unable to parse controlled vocabulary " + file.getAbsolutePath(), e);
+        }
+        List<Entry> entries = new ArrayList<>();
+        Element rootElement = document.getDocumentElement();
+        Entry root = null;
+        if (rootElement != null && "node".equals(rootElement.getNodeName())) {
+            root = collect(rootElement, null, delimiter, entries);
+        }
+        return new ControlledVocabularyTree(entries, root, lastModified);
+    }
+
+    private static Entry collect(Element element, Entry parent, String delimiter, List<Entry> entries) {
+        String id = attribute(element, "id");
+        String label = attribute(element, "label");
+        String selectable = attribute(element, "selectable");
+        String path;
+        if (parent == null) {
+            // the root node is never part of the hierarchy string
+            path = "";
+        } else if (label == null) {
+            path = parent.path;
+        } else if (parent.path.isEmpty()) {
+            path = label;
+        } else {
+            path = parent.path + delimiter + label;
+        }
+        Entry entry = new Entry(id, label, path, selectable == null || Boolean.parseBoolean(selectable), parent);
+        entries.add(entry);
+
+        List<Entry> children = new ArrayList<>();
+        boolean composedSeen = false;
+        NodeList childNodes = element.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            Node child = childNodes.item(i);
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            if ("hasNote".equals(child.getNodeName()) && entry.note == null
+                    && StringUtils.isNotBlank(child.getTextContent())) {
+                entry.note = child.getTextContent();
+            } else if ("isComposedBy".equals(child.getNodeName())) {
+                NodeList composed = child.getChildNodes();
+                for (int j = 0; j < composed.getLength(); j++) {
+                    Node grandChild = composed.item(j);
+                    if (grandChild.getNodeType() == Node.ELEMENT_NODE && "node".equals(grandChild.getNodeName())) {
+                        Entry childEntry = collect((Element) grandChild, entry, delimiter, entries);
+                        // only the first isComposedBy element counts as the list of children
+                        if (!composedSeen) {
+                            children.add(childEntry);
+                        }
+                    }
+                }
+                composedSeen = true;
+            }
+        }
+        entry.children = Collections.unmodifiableList(children);
+        return entry;
+    }
+
+    private static String attribute(Element element, String name) {
+        Node attr = element.getAttributes().getNamedItem(name);
+        return attr != null ? attr.getNodeValue() : null;
+    }
+
+    /**
+     * @return the modification time of the file at the time it was parsed
+     */
+    long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the root node of the vocabulary, or {@code null} if the file has no {@code <node>} root
+     */
+    Entry getRoot() {
+        return root;
+    }
+
+    /**
+     * @param id the node id
+     * @return the first node in document order with the given id, or {@code null}
+     */
+    Entry getById(String id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    /**
+     * Find all nodes whose label contains (case-insensitively) the last term, having ancestors that contain the
+     * previous terms in order. This mirrors the former
+     * {@code //node[contains(label, t0)]//node[contains(label, t1)]...} XPath evaluation.
+     *
+     * @param terms the hierarchy terms, already split by the delimiter
+     * @return the matching nodes in document order
+     */
+    List<Entry> findContaining(String[] terms) {
+        String[] lowered = new String[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            lowered[i] = terms[i].toLowerCase(Locale.ROOT);
+        }
+        List<Entry> result = new ArrayList<>();
+        String last = lowered[lowered.length - 1];
+        for (Entry entry : entries) {
+            if (entry.lowerLabel != null && entry.lowerLabel.contains(last)
+                    && ancestorsMatch(entry, lowered, lowered.length - 2, false)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the first node whose label equals the last term, having ancestors whose labels equal the previous
+     * terms in order.
+     *
+     * @param terms the hierarchy terms, already split by the delimiter
+     * @return the first matching node in document order, or {@code null}
+     */
+    Entry findFirstByLabel(String[] terms) {
+        List<Entry> candidates = byLabel.get(terms[terms.length - 1]);
+        if (candidates != null) {
+            for (Entry entry : candidates) {
+                if (ancestorsMatch(entry, terms, terms.length - 2, true)) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean ancestorsMatch(Entry entry, String[] terms, int index, boolean exact) {
+        Entry current = entry;
+        for (int i = index; i >= 0; i--) {
+            // greedily use the nearest ancestor matching the term, which is always the best candidate
+            current = current.parent;
+            while (current != null && !matches(current, terms[i], exact)) {
+                current = current.parent;
+            }
+            if (current == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(Entry entry, String term, boolean exact) {
+        if (exact) {
+            return term.equals(entry.label);
+        }
+        return entry.lowerLabel != null && entry.lowerLabel.contains(term);
+    }
+
+    /**
+     * A single {@code <node>} of the vocabulary.
+     */
+    static final class Entry {
+        final String id;
+        final String label;
+        final String lowerLabel;
+        final String path;
+        final boolean selectable;
+        final Entry parent;
+        String note;
+        List<Entry> children;
+
+        private Entry(String id, String label, String path, boolean selectable, Entry parent) {
+            this.id = id;
+            this.label = label;
+            this.lowerLabel = label != null ? label.toLowerCase(Locale.ROOT) : null;
+            this.path = path;
+            this.selectable = selectable;
+            this.parent = parent;
+        }
+
+        boolean isRoot() {
+            return parent == null;
+        }
+    }
+}
@@ -8,16 +8,12 @@
 package org.dspace.content.authority;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -25,9 +21,6 @@ import org.apache.logging.log4j.Logger;
 import org.dspace.core.SelfNamedPlugin;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 
 /**
  * ChoiceAuthority source that reads the hierarchical vocabularies
@@ -53,22 +46,20 @@ import org.xml.sax.InputSource;
  * # Delimiter to use when building hierarchy strings. Default: "::"
  * }
  *
+ * The vocabulary file is parsed once into an in-memory {@link ControlledVocabularyTree} which serves all lookups;
+ * it is parsed again when the modification time of the file changes.
+ *
  * @author Michael B. Klein
  */
 
 public class DSpaceControlledVocabulary extends SelfNamedPlugin implements HierarchicalAuthority {
 
     private static Logger log = org.apache.logging.log4j.LogManager.getLogger(DSpaceControlledVocabulary.class);
-    protected static String xpathTemplate = "//node[contains(translate(@label,'ABCDEFGHIJKLMNOPQRSTUVWXYZ'," +
-        "'abcdefghijklmnopqrstuvwxyz'),'%s')]";
-    protected static String idTemplate = "//node[@id = '%s']";
-    protected static String labelTemplate = "//node[@label = '%s']";
-    protected static String idParentTemplate = "//node[@id = '%s']/parent::isComposedBy/parent::node";
-    protected static String rootTemplate = "/node";
     protected static String pluginNames[] = null;
 
     protected String vocabularyName = null;
-    protected InputSource vocabulary = null;
+    private File vocabularyFile = null;
+    private volatile ControlledVocabularyTree vocabulary = null;
     protected Boolean suggestHierarchy = false;
     protected Boolean storeHierarchy = true;
     protected String hierarchyDelimiter = "::";
@@ -115,7 +106,17 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
     }
 
     protected void init() {
-        if (vocabulary == null) {
+        if (vocabularyFile == null) {
+            initConfiguration();
+        }
+        ControlledVocabularyTree current = vocabulary;
+        if (current == null || current.getLastModified() != vocabularyFile.lastModified()) {
+            loadVocabulary();
+        }
+    }
+
+    private synchronized void initConfiguration() {
+        if (vocabularyFile == null) {
             ConfigurationService config = DSpaceServicesFactory.getInstance().getConfigurationService();
 
             log.info("Initializing " + this.getClass().getName());
@@ -129,30 +130,25 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
             if (configuredDelimiter != null) {
                 hierarchyDelimiter = configuredDelimiter.replaceAll("(^\"|\"$)", "");
             }
-            String filename = vocabulariesPath + vocabularyName + ".xml";
-            log.info("Loading " + filename);
-            vocabulary = new InputSource(filename);
+            vocabularyFile = new File(vocabulariesPath + vocabularyName + ".xml");
         }
     }
 
-    protected String buildString(Node node) {
-        if (node.getNodeType() == Node.DOCUMENT_NODE || (
-            node.getParentNode() != null &&
-            node.getParentNode().getNodeType() == Node.DOCUMENT_NODE)) {
-            return ("");
-        } else {
-            String parentValue = buildString(node.getParentNode());
-            Node currentLabel = node.getAttributes().getNamedItem("label");
-            if (currentLabel != null) {
-                String currentValue = currentLabel.getNodeValue();
-                if (parentValue.equals("")) {
-                    return currentValue;
-                } else {
-                    return (parentValue + this.hierarchyDelimiter + currentValue);
-                }
-            } else {
-                return (parentValue);
+    private synchronized void loadVocabulary() {
+        ControlledVocabularyTree current = vocabulary;
+        if (current != null && current.getLastModified() == vocabularyFile.lastModified()) {
+            // another thread has already (re)loaded the file
+            return;
+        }
+        log.info("Loading " + vocabularyFile.getAbsolutePath());
+        try {
+            vocabulary = ControlledVocabularyTree.load(vocabularyFile, hierarchyDelimiter);
+        } catch (IOException e) {
+            log.error("Unable to load controlled vocabulary " + vocabularyFile.getAbsolutePath(), e);
+            if (current == null) {
+                throw new IllegalStateException(e);
             }
+            // keep serving the previously loaded version, an edit of the file may still be in progress
         }
     }
 
@@ -160,22 +156,10 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
     public Choices getMatches(String text, int start, int limit, String locale) {
         init();
         log.debug("Getting matches for '" + text + "'");
-        String xpathExpression = "";
         String[] textHierarchy = text.split(hierarchyDelimiter, -1);
-        for (int i = 0; i < textHierarchy.length; i++) {
-            xpathExpression += String.format(xpathTemplate, textHierarchy[i].replaceAll("'", "&apos;").toLowerCase());
-        }
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        int total = 0;
-        List<Choice> choices = new ArrayList<Choice>();
-        try {
-            NodeList results = (NodeList) xpath.evaluate(xpathExpression, vocabulary, XPathConstants.NODESET);
-            total = results.getLength();
-            choices = getChoicesFromNodeList(results, start, limit);
-        } catch (XPathExpressionException e) {
-            log.warn(e.getMessage(), e);
-            return new Choices(true);
-        }
+        List<ControlledVocabularyTree.Entry> results = vocabulary.findContaining(textHierarchy);
+        int total = results.size();
+        List<Choice> choices = getChoicesFromEntries(results, start, limit);
         return new Choices(choices.toArray(new Choice[choices.size()]), start, total, Choices.CF_AMBIGUOUS,
                 total > start + limit);
     }
@@ -184,19 +168,11 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
     public Choices getBestMatch(String text, String locale) {
         init();
         log.debug("Getting best matches for '" + text + "'");
-        String xpathExpression = "";
         String[] textHierarchy = text.split(hierarchyDelimiter, -1);
-        for (int i = 0; i < textHierarchy.length; i++) {
-            xpathExpression += String.format(labelTemplate, textHierarchy[i].replaceAll("'", "&apos;"));
-        }
-        XPath xpath = XPathFactory.newInstance().newXPath();
+        ControlledVocabularyTree.Entry result = vocabulary.findFirstByLabel(textHierarchy);
         List<Choice> choices = new ArrayList<Choice>();
-        try {
-            NodeList results = (NodeList) xpath.evaluate(xpathExpression, vocabulary, XPathConstants.NODESET);
-            choices = getChoicesFromNodeList(results, 0, 1);
-        } catch (XPathExpressionException e) {
-            log.warn(e.getMessage(), e);
-            return new Choices(true);
+        if (result != null) {
+            choices.add(createChoice(result));
         }
         return new Choices(choices.toArray(new Choice[choices.size()]), 0, choices.size(), Choices.CF_AMBIGUOUS, false);
     }
@@ -213,13 +189,7 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
 
     @Override
     public Choice getChoice(String authKey, String locale) {
-        Node node;
-        try {
-            node = getNode(authKey);
-        } catch (XPathExpressionException e) {
-            return null;
-        }
-        return createChoiceFromNode(node);
+        return createChoiceFromEntry(getNode(authKey));
     }
 
     @Override
@@ -230,28 +200,23 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
     @Override
     public Choices getTopChoices(String authorityName, int start, int limit, String locale) {
         init();
-        String xpathExpression = rootTemplate;
-        return getChoicesByXpath(xpathExpression, start, limit);
+        return getChildChoices(vocabulary.getRoot(), start, limit);
     }
 
     @Override
     public Choices getChoicesByParent(String authorityName, String parentId, int start, int limit, String locale) {
         init();
-        String xpathExpression = String.format(idTemplate, parentId);
-        return getChoicesByXpath(xpathExpression, start, limit);
+        return getChildChoices(vocabulary.getById(parentId), start, limit);
     }
 
     @Override
     public Choice getParentChoice(String authorityName, String childId, String locale) {
         init();
-        try {
-            String xpathExpression = String.format(idParentTemplate, childId);
-            Choice choice = createChoiceFromNode(getNodeFromXPath(xpathExpression));
-            return choice;
-        } catch (XPathExpressionException e) {
-            log.error(e.getMessage(), e);
+        ControlledVocabularyTree.Entry child = vocabulary.getById(childId);
+        if (child == null) {
             return null;
         }
+        return createChoiceFromEntry(child.parent);
     }
 
     @Override
@@ -259,46 +224,21 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
         return preloadLevel;
     }
 
-    private boolean isRootElement(Node node) {
-        if (node != null && node.getOwnerDocument().getDocumentElement().equals(node)) {
-            return true;
-        }
-        return false;
-    }
-
-    private Node getNode(String key) throws XPathExpressionException {
+    private ControlledVocabularyTree.Entry getNode(String key) {
         init();
-        String xpathExpression = String.format(idTemplate, key);
-        Node node = getNodeFromXPath(xpathExpression);
-        return node;
-    }
-
-    private Node getNodeFromXPath(String xpathExpression) throws XPathExpressionException {
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        Node node = (Node) xpath.evaluate(xpathExpression, vocabulary, XPathConstants.NODE);
-        return node;
+        return vocabulary.getById(key);
     }
 
-    private List<Choice> getChoicesFromNodeList(NodeList results, int start, int limit) {
+    private List<Choice> getChoicesFromEntries(List<ControlledVocabularyTree.Entry> results, int start, int limit) {
         List<Choice> choices = new ArrayList<Choice>();
-        for (int i = 0; i < results.getLength(); i++) {
-            if (i < start) {
-                continue;
-            }
-            if (choices.size() == limit) {
-                break;
-            }
-            Node node = results.item(i);
-            Choice choice = new Choice(getAuthority(node), getLabel(node), getValue(node),
-                    isSelectable(node));
-            choice.extras = addOtherInformation(getParent(node), getNote(node), getChildren(node), getAuthority(node));
-            choices.add(choice);
+        for (int i = start; i < results.size() && choices.size() < limit; i++) {
+            choices.add(createChoice(results.get(i)));
         }
         return choices;
     }
 
     private Map<String, String> addOtherInformation(String parentCurr, String noteCurr,
-            List<String> childrenCurr, String authorityCurr) {
+            List<ControlledVocabularyTree.Entry> childrenCurr, String authorityCurr) {
         Map<String, String> extras = new HashMap<String, String>();
         if (StringUtils.isNotBlank(parentCurr)) {
             extras.put("parent", parentCurr);
@@ -306,7 +246,7 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
         if (StringUtils.isNotBlank(noteCurr)) {
             extras.put("note", noteCurr);
         }
-        if (childrenCurr.size() > 0) {
+        if (hasIdentifiedChildren(childrenCurr)) {
             extras.put("hasChildren", "true");
         } else {
             extras.put("hasChildren", "false");
@@ -315,141 +255,60 @@ public class DSpaceControlledVocabulary extends SelfNamedPlugin implements Hiera
         return extras;
     }
 
-    private String getNodeLabel(String key, boolean useHierarchy) {
-        try {
-            Node node = getNode(key);
-            if (Objects.isNull(node)) {
-                return null;
+    private boolean hasIdentifiedChildren(List<ControlledVocabularyTree.Entry> children) {
+        for (ControlledVocabularyTree.Entry child : children) {
+            if (child.id != null) {
+                return true;
             }
-            if (useHierarchy) {
-                return this.buildString(node);
-            } else {
-                return node.getAttributes().getNamedItem("label").getNodeValue();
-            }
-        } catch (XPathExpressionException e) {
-            return ("");
         }
+        return false;
     }
 
-    private String getLabel(Node node) {
-        String hierarchy = this.buildString(node);
-        if (this.suggestHierarchy) {
-            return hierarchy;
-        } else {
-            return node.getAttributes().getNamedItem("label").getNodeValue();
+    private String getNodeLabel(String key, boolean useHierarchy) {
+        ControlledVocabularyTree.Entry node = getNode(key);
+        if (node == null) {
+            return null;
         }
+        return useHierarchy ? node.path : node.label;
     }
 
-    private String getValue(Node node) {
-        String hierarchy = this.buildString(node);
-        if (this.storeHierarchy) {
-            return hierarchy;
-        } else {
-            return node.getAttributes().getNamedItem("label").getNodeValue();
-        }
+    private String getLabel(ControlledVocabularyTree.Entry node) {
+        return this.suggestHierarchy ? node.path : node.label;
     }
 
-    private String getNote(Node node) {
-        NodeList childNodes = node.getChildNodes();
-        for (int ci = 0; ci < childNodes.getLength(); ci++) {
-            Node firstChild = childNodes.item(ci);
-            if (firstChild != null && "hasNote".equals(firstChild.getNodeName())) {
-                String nodeValue = firstChild.getTextContent();
-                if (StringUtils.isNotBlank(nodeValue)) {
-                    return nodeValue;
-                }
-            }
-        }
-        return null;
+    private String getValue(ControlledVocabularyTree.Entry node) {
+        return this.storeHierarchy ? node.path : node.label;
     }
 
-    private List<String> getChildren(Node node) {
-        List<String> children = new ArrayList<String>();
-        NodeList childNodes = node.getChildNodes();
-        for (int ci = 0; ci < childNodes.getLength(); ci++) {
-            Node firstChild = childNodes.item(ci);
-            if (firstChild != null && "isComposedBy".equals(firstChild.getNodeName())) {
-                for (int cii = 0; cii < firstChild.getChildNodes().getLength(); cii++) {
-                    Node childN = firstChild.getChildNodes().item(cii);
-                    if (childN != null && "node".equals(childN.getNodeName())) {
-                        Node childIdAttr = childN.getAttributes().getNamedItem("id");
-                        if (null != childIdAttr) {
-                            children.add(childIdAttr.getNodeValue());
-                        }
-                    }
-                }
-                break;
-            }
-        }
-        return children;
-    }
-
-    private boolean isSelectable(Node node) {
-        Node selectableAttr = node.getAttributes().getNamedItem("selectable");
-        if (null != selectableAttr) {
-            return Boolean.valueOf(selectableAttr.getNodeValue());
-        } else { // Default is true
-            return true;
-        }
-    }
-
-    private String getParent(Node node) {
-        Node parentN = node.getParentNode();
-        if (parentN != null) {
-            parentN = parentN.getParentNode();
-            if (parentN != null && !isRootElement(parentN)) {
-                return buildString(parentN);
-            }
+    private String getParent(ControlledVocabularyTree.Entry node) {
+        if (node.parent != null && !node.parent.isRoot()) {
+            return node.parent.path;
         }
         return null;
     }
 
-    private String getAuthority(Node node) {
-        Node idAttr = node.getAttributes().getNamedItem("id");
-        if (null != idAttr) { // 'id' is optional
-            return idAttr.getNodeValue();
-        } else {
-            return null;
+    private Choices getChildChoices(ControlledVocabularyTree.Entry parentNode, int start, int limit) {
+        if (parentNode == null) {
+            return new Choices(false);
         }
-    }
-
-    private Choices getChoicesByXpath(String xpathExpression, int start, int limit) {
         List<Choice> choices = new ArrayList<Choice>();
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        try {
-            Node parentNode = (Node) xpath.evaluate(xpathExpression, vocabulary, XPathConstants.NODE);
-            int count = 0;
-            if (parentNode != null) {
-                NodeList childNodes = (NodeList) xpath.evaluate(".//isComposedBy", parentNode, XPathConstants.NODE);
-                if (null != childNodes) {
-                    for (int i = 0; i < childNodes.getLength(); i++) {
-                        Node childNode = childNodes.item(i);
-                        if (childNode != null && "node".equals(childNode.getNodeName())) {
-                            if (count < start || choices.size() >= limit) {
-                                count++;
-                                continue;
-                            }
-                            count++;
-                            choices.add(createChoiceFromNode(childNode));
-                        }
-                    }
-                }
-                return new Choices(choices.toArray(new Choice[choices.size()]), start, count,
-                        Choices.CF_AMBIGUOUS, false);
-            }
-        } catch (XPathExpressionException e) {
-            log.warn(e.getMessage(), e);
-            return new Choices(true);
+        List<ControlledVocabularyTree.Entry> children = parentNode.children;
+        for (int i = start; i < children.size() && choices.size() < limit; i++) {
+            choices.add(createChoiceFromEntry(children.get(i)));
         }
-        return new Choices(false);
+        return new Choices(choices.toArray(new Choice[choices.size()]), start, children.size(),
+                Choices.CF_AMBIGUOUS, false);
+    }
+
+    private Choice createChoice(ControlledVocabularyTree.Entry node) {
+        Choice choice = new Choice(node.id, getLabel(node), getValue(node), node.selectable);
+        choice.extras = addOtherInformation(getParent(node), node.note, node.children, node.id);
+        return choice;
     }
 
-    private Choice createChoiceFromNode(Node node) {
-        if (node != null && !isRootElement(node)) {
-            Choice choice = new Choice(getAuthority(node), getLabel(node), getValue(node),
-                    isSelectable(node));
-            choice.extras = addOtherInformation(getParent(node), getNote(node),getChildren(node), getAuthority(node));
-            return choice;
+    private Choice createChoiceFromEntry(ControlledVocabularyTree.Entry node) {
+        if (node != null && !node.isRoot()) {
+            return createChoice(node);
         }
         return null;
     }
@@ -0,0 +1,53 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.clarin;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * The Clarin License of a bitstream and whether a user has to agree to it before downloading the bitstream, as
+ * resolved by {@link org.dspace.content.service.clarin.ClarinLicenseResourceMappingService#getLicensesToAgree}.
+ */
+public class ClarinBitstreamLicenseStatus {
+
+    private final UUID bitstreamID;
+    private final ClarinLicense license;
+    private final boolean agreementRequired;
+
+    public ClarinBitstreamLicenseStatus(UUID bitstreamID, ClarinLicense license, boolean agreementRequired) {
+        this.bitstreamID = bitstreamID;
+        this.license = license;
+        this.agreementRequired = agreementRequired;
+    }
+
+    public UUID getBitstreamID() {
+        return bitstreamID;
+    }
+
+    /**
+     * @return the Clarin License of the bitstream, or null if the bitstream has none
+     */
+    public ClarinLicense getLicense() {
+        return license;
+    }
+
+    /**
+     * @return the confirmation of the Clarin License of the bitstream, or null if the bitstream has no license
+     */
+    public ClarinLicense.Confirmation getConfirmation() {
+        return Objects.nonNull(license) ? license.getConfirmation() : null;
+    }
+
+    /**
+     * @return true if the user has to agree to the license before downloading the bitstream
+     */
+    public boolean isAgreementRequired() {
+        return agreementRequired;
+    }
+}
@@ -24,10 +24,13 @@ import org.dspace.content.Community;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.Item;
 import org.dspace.content.MetadataField;
+import org.dspace.content.MetadataSchemaEnum;
 import org.dspace.content.MetadataValue;
 import org.dspace.content.dao.clarin.ClarinItemDAO;
 import org.dspace.content.service.CollectionService;
+import org.dspace.content.service.CommunityService;
 import org.dspace.content.service.ItemService;
+import org.dspace.content.service.MetadataFieldService;
 import org.dspace.content.service.clarin.ClarinItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
@@ -44,6 +47,7 @@ public class ClarinItemServiceImpl implements ClarinItemService {
     private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(ClarinItemServiceImpl.class);
     private static final String DELIMETER = ",";
     private static final String NO_YEAR = "0000";
+    private static final String FILES_METADATA_TASK = "clarin.item.files.metadata:";
 
     @Autowired
     ClarinItemDAO clarinItemDAO;
@@ -51,9 +55,15 @@ public class ClarinItemServiceImpl implements ClarinItemService {
     @Autowired
     CollectionService collectionService;
 
+    @Autowired
+    CommunityService communityService;
+
     @Autowired
     ItemService itemService;
 
+    @Autowired
+    MetadataFieldService metadataFieldService;
+
     @Override
     public List<Item> findByBitstreamUUID(Context context, UUID bitstreamUUID) throws SQLException {
         return clarinItemDAO.findByBitstreamUUID(context, bitstreamUUID);
@@ -88,20 +98,7 @@ public class ClarinItemServiceImpl implements ClarinItemService {
         }
 
         try {
-            List<Community> communities = owningCollection.getCommunities();
-            if (CollectionUtils.isEmpty(communities)) {
-                log.error("Community list of the owning collection is empty.");
-                return null;
-            }
-
-            // First community is the owning community.
-            Community owningCommunity = communities.get(0);
-            if (Objects.isNull(owningCommunity)) {
-                log.error("Owning community is null.");
-                return null;
-            }
-
-            return owningCommunity;
+            return getFirstCommunity(context, owningCollection);
         } catch (SQLException e) {
             log.error("Cannot getOwningCommunity for the Item: " + dso.getID() + ", because: " + e.getSQLState());
         }
@@ -118,20 +115,7 @@ public class ClarinItemServiceImpl implements ClarinItemService {
         }
 
         try {
-            List<Community> communities = owningCollection.getCommunities();
-            if (CollectionUtils.isEmpty(communities)) {
-                log.error("Community list of the owning collection is empty.");
-                return null;
-            }
-
-            // First community is the owning community.
-            Community owningCommunity = communities.get(0);
-            if (Objects.isNull(owningCommunity)) {
-                log.error("Owning community is null.");
-                return null;
-            }
-
-            return owningCommunity;
+            return getFirstCommunity(context, owningCollection);
         } catch (SQLException e) {
             log.error("Cannot getOwningCommunity for the Collection: " + owningCollectionId +
                     ", because: " + e.getSQLState());
@@ -139,6 +123,27 @@ public class ClarinItemServiceImpl implements ClarinItemService {
         return null;
     }
 
+    /**
+     * Get the first community of the collection from the community hierarchy index, which avoids loading the
+     * communities of the collection.
+     */
+    private Community getFirstCommunity(Context context, Collection owningCollection) throws SQLException {
+        // The communities of the collection come first, the first one is the owning community.
+        List<Community> communities = communityService.getAllParents(context, owningCollection);
+        if (CollectionUtils.isEmpty(communities)) {
+            log.error("Community list of the owning collection is empty.");
+            return null;
+        }
+
+        Community owningCommunity = communities.get(0);
+        if (Objects.isNull(owningCommunity)) {
+            log.error("Owning community is null.");
+            return null;
+        }
+
+        return owningCommunity;
+    }
+
     @Override
     public void updateItemFilesMetadata(Context context, Item item) throws SQLException {
         List<Bundle> originalBundles = itemService.getBundles(item, Constants.CONTENT_BUNDLE_NAME);
@@ -160,60 +165,98 @@ public class ClarinItemServiceImpl implements ClarinItemService {
             return;
         }
 
-        int totalNumberOfFiles = 0;
-        long totalSizeofFiles = 0;
+        writeItemFilesMetadata(context, item);
+    }
 
-        /* Add local.has.files metadata */
-        boolean hasFiles = false;
-        List<Bundle> origs = itemService.getBundles(item, Constants.CONTENT_BUNDLE_NAME);
-        for (Bundle orig : origs) {
-            if (CollectionUtils.isNotEmpty(orig.getBitstreams())) {
-                hasFiles = true;
-            }
-            for (Bitstream bit : orig.getBitstreams()) {
-                totalNumberOfFiles ++;
-                totalSizeofFiles += bit.getSizeBytes();
-            }
+    @Override
+    public void updateItemFilesMetadata(Context context, Bitstream bit) throws SQLException {
+        Item item = getOriginalBundleItem(bit);
+        // It could be null when the bundle name is e.g. `LICENSE`
+        if (Objects.isNull(item)) {
+            return;
         }
+        updateItemFilesMetadata(context, item, findOriginalBundle(bit));
+    }
 
-        itemService.clearMetadata(context, item, "local", "has", "files", Item.ANY);
-        itemService.clearMetadata(context, item, "local", "files", "count", Item.ANY);
-        itemService.clearMetadata(context, item, "local", "files", "size", Item.ANY);
-        if ( hasFiles ) {
-            itemService.addMetadata(context, item, "local", "has", "files", Item.ANY, "yes");
-        } else {
-            itemService.addMetadata(context, item,"local", "has", "files", Item.ANY, "no");
+    @Override
+    public void updateItemFilesMetadataOnCommit(Context context, Item item, Bundle bundle) {
+        if (!Objects.equals(bundle.getName(), Constants.CONTENT_BUNDLE_NAME)) {
+            return;
+        }
+
+        if (Objects.isNull(item)) {
+            log.error("Cannot update the item files metadata because the item is null.");
+            return;
         }
-        itemService.addMetadata(context, item,"local", "files", "count", Item.ANY, "" + totalNumberOfFiles);
-        itemService.addMetadata(context, item,"local", "files", "size", Item.ANY, "" + totalSizeofFiles);
+
+        UUID itemId = item.getID();
+        context.addPreCommitTask(FILES_METADATA_TASK + itemId, c -> updateItemFilesMetadata(c, itemId));
     }
 
     @Override
-    public void updateItemFilesMetadata(Context context, Bitstream bit) throws SQLException {
-        // Get the Item the bitstream is associated with
-        Item item = null;
-        Bundle bundle = null;
-        List<Bundle> origs = bit.getBundles();
-        for (Bundle orig : origs) {
-            if (!Constants.CONTENT_BUNDLE_NAME.equals(orig.getName())) {
-                continue;
-            }
-
-            List<Item> items = orig.getItems();
-            if (CollectionUtils.isEmpty(items)) {
-                continue;
-            }
+    public void updateItemFilesMetadataOnCommit(Context context, Bitstream bit) throws SQLException {
+        Item item = getOriginalBundleItem(bit);
+        // It could be null when the bundle name is e.g. `LICENSE`
+        if (Objects.isNull(item)) {
+            return;
+        }
+        updateItemFilesMetadataOnCommit(context, item, findOriginalBundle(bit));
+    }
 
-            item = items.get(0);
-            bundle = orig;
-            break;
+    /**
+     * Update the files metadata of the item with the given id, if it was not deleted in the meantime.
+     */
+    private void updateItemFilesMetadata(Context context, UUID itemId) throws SQLException {
+        Item item = itemService.find(context, itemId);
+        if (Objects.nonNull(item)) {
+            writeItemFilesMetadata(context, item);
         }
+    }
 
-        // It could be null when the bundle name is e.g. `LICENSE`
-        if (Objects.isNull(item) || Objects.isNull(bundle)) {
+    private void writeItemFilesMetadata(Context context, Item item) throws SQLException {
+        // Count and sum the files of all ORIGINAL bundles in the database instead of loading every bitstream
+        MetadataField bundleNameField = metadataFieldService.findByElement(context,
+                MetadataSchemaEnum.DC.getName(), "title", null);
+        long[] countAndSize = clarinItemDAO.countAndSumBitstreams(context, item, bundleNameField,
+                Constants.CONTENT_BUNDLE_NAME);
+
+        setItemFilesMetadata(context, item, "has", "files", countAndSize[0] > 0 ? "yes" : "no");
+        setItemFilesMetadata(context, item, "files", "count", String.valueOf(countAndSize[0]));
+        setItemFilesMetadata(context, item, "files", "size", String.valueOf(countAndSize[1]));
+    }
+
+    /**
+     * Replace the value of the local.{element}.{qualifier} metadata, unless it already has the value.
+     */
+    private void setItemFilesMetadata(Context context, Item item, String element, String qualifier, String value)
+            throws SQLException {
+        List<MetadataValue> values = itemService.getMetadata(item, "local", element, qualifier, Item.ANY, false);
+        if (values.size() == 1 && Objects.equals(values.get(0).getValue(), value)) {
             return;
         }
-        this.updateItemFilesMetadata(context, item, bundle);
+        itemService.clearMetadata(context, item, "local", element, qualifier, Item.ANY);
+        itemService.addMetadata(context, item, "local", element, qualifier, Item.ANY, value);
+    }
+
+    /**
+     * Get the first ORIGINAL bundle of the bitstream which belongs to an item.
+     */
+    private Bundle findOriginalBundle(Bitstream bit) throws SQLException {
+        for (Bundle bundle : bit.getBundles()) {
+            if (Constants.CONTENT_BUNDLE_NAME.equals(bundle.getName())
+                    && CollectionUtils.isNotEmpty(bundle.getItems())) {
+                return bundle;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the Item the bitstream is associated with through an ORIGINAL bundle.
+     */
+    private Item getOriginalBundleItem(Bitstream bit) throws SQLException {
+        Bundle bundle = findOriginalBundle(bit);
+        return Objects.isNull(bundle) ? null : bundle.getItems().get(0);
     }
 
     @Override
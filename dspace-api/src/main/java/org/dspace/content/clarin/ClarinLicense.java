@@ -13,6 +13,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -34,6 +35,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.Bitstream;
 import org.dspace.core.ReloadableEntity;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 /**
@@ -47,6 +49,8 @@ import org.dspace.core.ReloadableEntity;
 @JsonIgnoreProperties(ignoreUnknown = true)
 @Entity
 @Table(name = "license_definition")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ClarinLicense implements ReloadableEntity<Integer> {
 
     private static Logger log = org.apache.logging.log4j.LogManager.getLogger(ClarinLicense.class);
@@ -65,6 +69,7 @@ public class ClarinLicense implements ReloadableEntity<Integer> {
     private Integer id;
 
     @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST})
+    @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "license_label_extended_mapping",
             joinColumns = @JoinColumn(name = "license_id"),
@@ -72,6 +77,7 @@ public class ClarinLicense implements ReloadableEntity<Integer> {
     Set<ClarinLicenseLabel> clarinLicenseLabels = new HashSet<>();
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "license", cascade = CascadeType.PERSIST)
+    @org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<ClarinLicenseResourceMapping> clarinLicenseResourceMappings = new ArrayList<>();
 
     @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST})
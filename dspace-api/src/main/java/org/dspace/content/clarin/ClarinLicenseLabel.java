@@ -10,6 +10,7 @@ package org.dspace.content.clarin;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -20,6 +21,7 @@ import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 import org.dspace.core.ReloadableEntity;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Class representing a clarin license label of the clarin license. The clarin license could have one
@@ -30,6 +32,8 @@ import org.dspace.core.ReloadableEntity;
  */
 @Entity
 @Table(name = "license_label")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ClarinLicenseLabel implements ReloadableEntity<Integer> {
 
     @Id
@@ -9,6 +9,7 @@ package org.dspace.content.clarin;
 
 import java.util.ArrayList;
 import java.util.List;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -25,9 +26,12 @@ import javax.persistence.Table;
 
 import org.dspace.content.Bitstream;
 import org.dspace.core.ReloadableEntity;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "license_resource_mapping")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ClarinLicenseResourceMapping implements ReloadableEntity<Integer> {
 
     @Id
@@ -11,14 +11,18 @@ import static org.dspace.content.clarin.ClarinLicense.Confirmation;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import javax.ws.rs.NotFoundException;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang.NullArgumentException;
-import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.Bitstream;
 import org.dspace.content.dao.clarin.ClarinLicenseResourceMappingDAO;
@@ -37,6 +41,12 @@ public class ClarinLicenseResourceMappingServiceImpl implements ClarinLicenseRes
 
     private static final Logger log = LoggerFactory.getLogger(ClarinLicenseServiceImpl.class);
 
+    /**
+     * Maximum number of bitstreams resolved by one query in getLicensesToAgree, to stay far below the limit of
+     * query parameters of the database
+     */
+    private static final int LICENSES_TO_AGREE_BATCH_SIZE = 1000;
+
     @Autowired
     ClarinLicenseResourceMappingDAO clarinLicenseResourceMappingDAO;
     @Autowired
@@ -228,38 +238,60 @@ public class ClarinLicenseResourceMappingServiceImpl implements ClarinLicenseRes
         }
     }
 
-    private boolean userFilledInRequiredInfo(Context context,
-                                             ClarinLicenseResourceMapping clarinLicenseResourceMapping, UUID userID)
+    @Override
+    public Map<UUID, ClarinBitstreamLicenseStatus> getLicensesToAgree(Context context, UUID userId,
+                                                                      Collection<UUID> resourceIDs)
             throws SQLException {
-        if (Objects.isNull(userID)) {
-            return false;
+        List<UUID> bitstreamIDs = new ArrayList<>(new LinkedHashSet<>(resourceIDs));
+        Map<UUID, ClarinBitstreamLicenseStatus> licenseStatuses = new LinkedHashMap<>();
+        for (List<UUID> batch : ListUtils.partition(bitstreamIDs, LICENSES_TO_AGREE_BATCH_SIZE)) {
+            for (Object[] row : clarinLicenseResourceMappingDAO.findByBitstreamUUIDsWithUserAllowances(context,
+                    batch, userId)) {
+                ClarinLicenseResourceMapping clarinLicenseResourceMapping = (ClarinLicenseResourceMapping) row[0];
+                ClarinLicense clarinLicense = clarinLicenseResourceMapping.getLicense();
+                boolean userFilledInRequiredInfo = ((Number) row[1]).longValue() > 0;
+                UUID bitstreamID = clarinLicenseResourceMapping.getBitstream().getID();
+                // There shouldn't be more mappings for a bitstream, use the first one as getLicenseToAgree does
+                licenseStatuses.putIfAbsent(bitstreamID, new ClarinBitstreamLicenseStatus(bitstreamID, clarinLicense,
+                        isAgreementRequired(clarinLicense, userFilledInRequiredInfo)));
+            }
         }
 
-        // Find all records when the current user fill in some clarin license required info
-        List<ClarinLicenseResourceUserAllowance> clarinLicenseResourceUserAllowances =
-                null;
-        try {
-            clarinLicenseResourceUserAllowances = clarinLicenseResourceUserAllowanceService.findByEPersonId(context,
-                    userID);
-        } catch (AuthorizeException e) {
-            log.error("Cannot get the user registration for the user with id: {}", userID, e);
+        // Keep the order of the requested bitstreams, the ones without a mapping have no license to agree
+        Map<UUID, ClarinBitstreamLicenseStatus> orderedLicenseStatuses = new LinkedHashMap<>();
+        for (UUID bitstreamID : bitstreamIDs) {
+            orderedLicenseStatuses.put(bitstreamID, licenseStatuses.getOrDefault(bitstreamID,
+                    new ClarinBitstreamLicenseStatus(bitstreamID, null, false)));
+        }
+        return orderedLicenseStatuses;
+    }
+
+    private boolean isAgreementRequired(ClarinLicense clarinLicense, boolean userFilledInRequiredInfo) {
+        if (Objects.isNull(clarinLicense.getConfirmation())) {
             return false;
         }
-        // The user hasn't been filled in any information.
-        if (CollectionUtils.isEmpty(clarinLicenseResourceUserAllowances)) {
+        switch (clarinLicense.getConfirmation()) {
+            case ASK_ONLY_ONCE:
+                return !userFilledInRequiredInfo;
+            case ASK_ALWAYS:
+            case ALLOW_ANONYMOUS:
+                return true;
+            case NOT_REQUIRED:
+            default:
+                return false;
+        }
+    }
+
+    private boolean userFilledInRequiredInfo(Context context,
+                                             ClarinLicenseResourceMapping clarinLicenseResourceMapping, UUID userID)
+            throws SQLException {
+        if (Objects.isNull(userID)) {
             return false;
         }
 
         // The ClarinLicenseResourceMapping.id record is in the ClarinLicenseResourceUserAllowance
         // that means the user added some information for the downloading bitstream's license.
-        for (ClarinLicenseResourceUserAllowance clrua : clarinLicenseResourceUserAllowances) {
-            int userAllowanceMappingID = clrua.getLicenseResourceMapping().getID();
-            int resourceMappingID = clarinLicenseResourceMapping.getID();
-            if (Objects.equals(userAllowanceMappingID, resourceMappingID)) {
-                return true;
-            }
-        }
-
-        return false;
+        return clarinLicenseResourceUserAllowanceService.existsByEPersonIdAndMappingId(context, userID,
+                clarinLicenseResourceMapping.getID());
     }
 }
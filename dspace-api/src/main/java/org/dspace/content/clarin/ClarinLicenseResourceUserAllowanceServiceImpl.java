@@ -8,8 +8,10 @@
 package org.dspace.content.clarin;
 
 import java.sql.SQLException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -26,16 +28,33 @@ import org.hibernate.ObjectNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 
+/**
+ * Service implementation for the ClarinLicenseResourceUserAllowance object.
+ * <P>
+ * The ids of the resource mappings a user has already got an allowance for are kept in the
+ * {@value #ALLOWED_MAPPINGS_CACHE} cache, so that downloading the bitstreams of an ASK_ONLY_ONCE license again
+ * doesn't hit the database. Only the allowances which were found are cached, so a new allowance is seen
+ * immediately, and the user's entry is evicted when one of their allowances is deleted.
+ */
 public class ClarinLicenseResourceUserAllowanceServiceImpl implements ClarinLicenseResourceUserAllowanceService {
     private static final Logger log = LoggerFactory.getLogger(ClarinLicenseResourceUserAllowanceService.class);
 
+    /**
+     * Name of the cache holding the allowed resource mapping ids per user, see ehcache.xml
+     */
+    public static final String ALLOWED_MAPPINGS_CACHE = "clarin.allowedLicenseMappings";
+
     @Autowired
     AuthorizeService authorizeService;
     @Autowired
     ClarinLicenseResourceUserAllowanceDAO clarinLicenseResourceUserAllowanceDAO;
     @Autowired
     ClarinLicenseResourceMappingService clarinLicenseResourceMappingService;
+    @Autowired(required = false)
+    CacheManager cacheManager;
 
     @Override
     public ClarinLicenseResourceUserAllowance create(Context context) throws SQLException {
@@ -98,7 +117,14 @@ public class ClarinLicenseResourceUserAllowanceServiceImpl implements ClarinLice
             throw new AuthorizeException(
                     "You must be an admin to create an CLARIN license resource user allowance");
         }
+        ClarinUserRegistration userRegistration = clarinLicenseResourceUserAllowance.getUserRegistration();
         clarinLicenseResourceUserAllowanceDAO.delete(context, clarinLicenseResourceUserAllowance);
+        if (Objects.nonNull(userRegistration) && Objects.nonNull(userRegistration.getPersonID())) {
+            Cache cache = getAllowedMappingsCache();
+            if (cache != null) {
+                cache.evict(userRegistration.getPersonID());
+            }
+        }
     }
 
     @Override
@@ -141,6 +167,31 @@ public class ClarinLicenseResourceUserAllowanceServiceImpl implements ClarinLice
         return clruaList;
     }
 
+    @Override
+    public boolean existsByEPersonIdAndMappingId(Context context, UUID userID, int mappingID) throws SQLException {
+        Cache cache = getAllowedMappingsCache();
+        Set<Integer> allowedMappings = cache != null ? cache.get(userID, Set.class) : null;
+        if (allowedMappings != null && allowedMappings.contains(mappingID)) {
+            return true;
+        }
+
+        if (!clarinLicenseResourceUserAllowanceDAO.existsByEPersonIdAndMappingId(context, userID, mappingID)) {
+            return false;
+        }
+        if (cache != null) {
+            // The cached sets are never modified, concurrent lookups of the same user could lose an id, which
+            // is then only looked up again
+            Set<Integer> updatedMappings = allowedMappings != null ? new HashSet<>(allowedMappings) : new HashSet<>();
+            updatedMappings.add(mappingID);
+            cache.put(userID, updatedMappings);
+        }
+        return true;
+    }
+
+    private Cache getAllowedMappingsCache() {
+        return cacheManager != null ? cacheManager.getCache(ALLOWED_MAPPINGS_CACHE) : null;
+    }
+
     /**
      * Check if the user is authorized to access the Clarin License Resource User Allowance
      */
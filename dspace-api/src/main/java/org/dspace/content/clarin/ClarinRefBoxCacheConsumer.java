@@ -0,0 +1,83 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content.clarin;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Consumer evicting the modified items from the {@value #CACHE_NAME} cache, which holds the rendered citations and
+ * the ref-box of the items (see ClarinRefBoxController). The cached entries are also checked against the last
+ * modification date of the item, the consumer removes them as soon as the change is committed.
+ */
+public class ClarinRefBoxCacheConsumer implements Consumer {
+
+    /**
+     * Name of the cache holding the ref-box data of the items, see ehcache.xml
+     */
+    public static final String CACHE_NAME = "clarin.refbox";
+
+    // Items to remove from the cache at the end of the event processing.
+    private final Set<UUID> toEvict = new HashSet<>();
+
+    @Override
+    public void initialize() throws Exception {
+    }
+
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        int st = event.getSubjectType();
+        if (st == Constants.ITEM) {
+            toEvict.add(event.getSubjectID());
+        } else if (st == Constants.BUNDLE) {
+            // the CMDI of an item lists its files
+            DSpaceObject subject = event.getSubject(ctx);
+            if (subject != null) {
+                for (Item item : ((Bundle) subject).getItems()) {
+                    toEvict.add(item.getID());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void end(Context ctx) throws Exception {
+        if (toEvict.isEmpty()) {
+            return;
+        }
+        Cache cache = getCache();
+        if (cache != null) {
+            for (UUID uuid : toEvict) {
+                cache.evictIfPresent(uuid.toString());
+            }
+        }
+        toEvict.clear();
+    }
+
+    @Override
+    public void finish(Context ctx) throws Exception {
+    }
+
+    private Cache getCache() {
+        CacheManager cacheManager = DSpaceServicesFactory.getInstance().getServiceManager()
+            .getServiceByName("cacheManager", CacheManager.class);
+        return cacheManager != null ? cacheManager.getCache(CACHE_NAME) : null;
+    }
+}
@@ -41,4 +41,18 @@ public interface CommunityDAO extends DSpaceObjectLegacySupportDAO<Community> {
         throws SQLException;
 
     int countRows(Context context) throws SQLException;
+
+    /**
+     * @param context context
+     * @return the ids of all parent and sub-community pairs, the parent first
+     * @throws SQLException if database error
+     */
+    List<Object[]> findAllSubcommunityIds(Context context) throws SQLException;
+
+    /**
+     * @param context context
+     * @return the ids of all community and collection pairs, the community first
+     * @throws SQLException if database error
+     */
+    List<Object[]> findAllCollectionIds(Context context) throws SQLException;
 }
@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.dspace.content.Collection;
@@ -147,6 +148,22 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
     public int countItems(Context context, List<Collection> collections, boolean includeArchived,
                           boolean includeWithdrawn) throws SQLException;
 
+    /**
+     * Count number of unique items across several collections at once, given by their ids.
+     * This method can be used with
+     * {@link org.dspace.content.service.CommunityService#getAllCollectionIds(Context, Community)}
+     * to determine the unique number of items in a Community.
+     *
+     * @param context          context
+     * @param collectionIds    the ids of the collections
+     * @param includeArchived  whether to include archived items in count
+     * @param includeWithdrawn whether to include withdrawn items in count
+     * @return item count
+     * @throws SQLException if database error
+     */
+    public int countItemsInCollections(Context context, Set<UUID> collectionIds, boolean includeArchived,
+                                       boolean includeWithdrawn) throws SQLException;
+
     /**
      * Get all Items installed or withdrawn, discoverable, and modified since a Date.
      *
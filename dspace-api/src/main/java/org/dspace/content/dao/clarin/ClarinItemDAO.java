@@ -19,4 +19,16 @@ public interface ClarinItemDAO {
     List<Item> findByBitstreamUUID(Context context, UUID bitstreamUUID) throws SQLException;
 
     List<Item> findByHandle(Context context, MetadataField metadataField, String handle) throws SQLException;
+
+    /**
+     * Count the bitstreams in the bundles of the item with the given name and sum their sizes in one query.
+     * @param context DSpace context object
+     * @param item the item
+     * @param nameField the metadata field of the bundle name (dc.title)
+     * @param bundleName the name of the bundles, e.g. ORIGINAL
+     * @return the number of the bitstreams and their total size in bytes
+     * @throws SQLException if database error
+     */
+    long[] countAndSumBitstreams(Context context, Item item, MetadataField nameField, String bundleName)
+            throws SQLException;
 }
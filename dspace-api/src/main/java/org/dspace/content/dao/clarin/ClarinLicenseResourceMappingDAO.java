@@ -8,6 +8,7 @@
 package org.dspace.content.dao.clarin;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,4 +19,18 @@ import org.dspace.core.GenericDAO;
 public interface ClarinLicenseResourceMappingDAO extends GenericDAO<ClarinLicenseResourceMapping> {
 
     List<ClarinLicenseResourceMapping> findByBitstreamUUID(Context context, UUID bitstreamUUID) throws SQLException;
+
+    /**
+     * Find the resource mappings of several bitstreams together with their licenses, and whether the user has an
+     * allowance for each mapping, in one query.
+     *
+     * @param context        DSpace context object
+     * @param bitstreamUUIDs the UUIDs of the bitstreams
+     * @param userID         the UUID of the user, or null for an anonymous user
+     * @return pairs of the mapping (with its license fetched) and the Long number of the user's allowances for it,
+     *         ordered by the mapping id
+     * @throws SQLException if database error
+     */
+    List<Object[]> findByBitstreamUUIDsWithUserAllowances(Context context, Collection<UUID> bitstreamUUIDs,
+                                                          UUID userID) throws SQLException;
 }
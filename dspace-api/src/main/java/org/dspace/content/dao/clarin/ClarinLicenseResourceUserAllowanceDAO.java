@@ -21,4 +21,5 @@ public interface ClarinLicenseResourceUserAllowanceDAO extends GenericDAO<Clarin
     List<ClarinLicenseResourceUserAllowance> findByEPersonId(Context context, UUID userID) throws SQLException;
     List<ClarinLicenseResourceUserAllowance> findByEPersonIdAndBitstreamId(Context context, UUID userID,
                                                                            UUID bitstreamID) throws SQLException;
+    boolean existsByEPersonIdAndMappingId(Context context, UUID userID, int mappingID) throws SQLException;
 }
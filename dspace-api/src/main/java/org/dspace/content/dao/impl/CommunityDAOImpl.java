@@ -192,4 +192,18 @@ public class CommunityDAOImpl extends AbstractHibernateDSODAO<Community> impleme
     public int countRows(Context context) throws SQLException {
         return count(createQuery(context, "SELECT count(*) FROM Community"));
     }
+
+    @Override
+    public List<Object[]> findAllSubcommunityIds(Context context) throws SQLException {
+        Query query = createQuery(context, "SELECT parent.id, child.id FROM Community parent " +
+            "JOIN parent.subCommunities child");
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Object[]> findAllCollectionIds(Context context) throws SQLException {
+        Query query = createQuery(context, "SELECT community.id, collection.id FROM Collection collection " +
+            "JOIN collection.communities community");
+        return query.getResultList();
+    }
 }
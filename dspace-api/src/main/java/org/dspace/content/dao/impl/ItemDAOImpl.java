@@ -12,6 +12,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
@@ -402,6 +403,22 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return count(query);
     }
 
+    @Override
+    public int countItemsInCollections(Context context, Set<UUID> collectionIds, boolean includeArchived,
+                                       boolean includeWithdrawn) throws SQLException {
+        if (collectionIds.isEmpty()) {
+            return 0;
+        }
+        Query query = createQuery(context, "select count(distinct i) from Item i " +
+            "join i.collections collection " +
+            "WHERE collection.id IN (:collection_ids) AND i.inArchive=:in_archive AND i.withdrawn=:withdrawn");
+        query.setParameter("collection_ids", collectionIds);
+        query.setParameter("in_archive", includeArchived);
+        query.setParameter("withdrawn", includeWithdrawn);
+
+        return count(query);
+    }
+
     @Override
     public Iterator<Item> findByLastModifiedSince(Context context, Date since)
         throws SQLException {
@@ -42,4 +42,20 @@ public class ClarinItemDAOImpl extends AbstractHibernateDAO<Item>
 
         return list(query);
     }
+
+    @Override
+    public long[] countAndSumBitstreams(Context context, Item item, MetadataField nameField, String bundleName)
+            throws SQLException {
+        Query query = createQuery(context, "SELECT count(bitstream), coalesce(sum(bitstream.sizeBytes), 0) " +
+                "FROM Item as item join item.bundles bundle join bundle.metadata name " +
+                "join bundle.bitstreams bitstream WHERE item = :item AND name.metadataField = :name_field " +
+                "AND name.value = :bundle_name AND bitstream.deleted = false");
+
+        query.setParameter("item", item);
+        query.setParameter("name_field", nameField);
+        query.setParameter("bundle_name", bundleName);
+
+        Object[] result = (Object[]) query.getSingleResult();
+        return new long[] {((Number) result[0]).longValue(), ((Number) result[1]).longValue()};
+    }
 }
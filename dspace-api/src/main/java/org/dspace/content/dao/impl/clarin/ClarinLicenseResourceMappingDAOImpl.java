@@ -8,6 +8,7 @@
 package org.dspace.content.dao.impl.clarin;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import javax.persistence.Query;
@@ -36,6 +37,31 @@ public class ClarinLicenseResourceMappingDAOImpl extends AbstractHibernateDAO<Cl
         return list(query);
     }
 
+    @Override
+    public List<Object[]> findByBitstreamUUIDsWithUserAllowances(Context context, Collection<UUID> bitstreamUUIDs,
+                                                                 UUID userID) throws SQLException {
+        // An anonymous user has no allowances, so the subquery is only needed for a signed in user
+        String allowances = userID == null ? "0L " : "(SELECT count(clrua.id) " +
+                "FROM ClarinLicenseResourceUserAllowance clrua " +
+                "JOIN clrua.userRegistration ur " +
+                "WHERE clrua.licenseResourceMapping = clrm AND ur.ePersonID = :userID) ";
+        Query query = createQuery(context, "SELECT clrm, " + allowances +
+                "FROM ClarinLicenseResourceMapping clrm " +
+                "JOIN FETCH clrm.license " +
+                "JOIN FETCH clrm.bitstream b " +
+                "WHERE b.id IN (:bitstreamUUIDs) " +
+                "ORDER BY clrm.id");
+
+        query.setParameter("bitstreamUUIDs", bitstreamUUIDs);
+        if (userID != null) {
+            query.setParameter("userID", userID);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = query.getResultList();
+        return results;
+    }
+
     @Override
     public void delete(Context context, ClarinLicenseResourceMapping clarinLicenseResourceMapping) throws SQLException {
         clarinLicenseResourceMapping.setBitstream(null);
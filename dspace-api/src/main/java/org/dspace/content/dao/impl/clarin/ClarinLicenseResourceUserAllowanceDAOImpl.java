@@ -78,4 +78,20 @@ public class ClarinLicenseResourceUserAllowanceDAOImpl extends AbstractHibernate
 
         return list(query);
     }
+
+    @Override
+    public boolean existsByEPersonIdAndMappingId(Context context, UUID userID, int mappingID) throws SQLException {
+        // Select only the id, the allowances themselves are not needed to answer whether there is one
+        Query query = createQuery(context, "SELECT clrua.id " +
+                "FROM ClarinLicenseResourceUserAllowance clrua " +
+                "JOIN clrua.userRegistration ur " +
+                "WHERE ur.ePersonID = :userID " +
+                "AND clrua.licenseResourceMapping.id = :mappingID");
+
+        query.setParameter("userID", userID);
+        query.setParameter("mappingID", mappingID);
+        query.setMaxResults(1);
+
+        return !query.getResultList().isEmpty();
+    }
 }
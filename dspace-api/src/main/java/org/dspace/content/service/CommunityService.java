@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.dspace.authorize.AuthorizeException;
@@ -191,6 +192,16 @@ public interface CommunityService extends DSpaceObjectService<Community>, DSpace
 
     public List<Collection> getAllCollections(Context context, Community community) throws SQLException;
 
+    /**
+     * Return the ids of the collections of this community and its subcommunities, without loading the collections
+     *
+     * @param context   context
+     * @param community community
+     * @return the ids of the collections
+     * @throws SQLException if database error
+     */
+    public Set<UUID> getAllCollectionIds(Context context, Community community) throws SQLException;
+
 
     /**
      * Add an exisiting collection to the community
@@ -141,6 +141,17 @@ public interface PreviewContentService {
      */
     PreviewContent createPreviewContent(Context context, Bitstream bitstream, FileInfo fi) throws SQLException;
 
+    /**
+     * Create preview contents from the file infos of a bitstream, together with the preview contents of all their
+     * sub file infos.
+     *
+     * @param context   DSpace context object
+     * @param bitstream bitstream
+     * @param fileInfos top level file infos
+     * @throws SQLException If database error is occurred
+     */
+    void createPreviewContents(Context context, Bitstream bitstream, List<FileInfo> fileInfos) throws SQLException;
+
     /**
      * Compose download URL for calling `MetadataBitstreamController` to download single file or
      * all files as a single ZIP file.
@@ -90,6 +90,26 @@ public interface ClarinItemService {
      */
     void updateItemFilesMetadata(Context context, Bitstream bit) throws SQLException;
 
+    /**
+     * Update item's metadata about its files (local.has.files, local.files.size, local.files.count) once when the
+     * current transaction is committed, no matter how many times it is requested within the transaction. Use it
+     * instead of {@link #updateItemFilesMetadata(Context, Item, Bundle)} when the files of the item are changed
+     * one by one.
+     * @param context DSpace context object
+     * @param item Update metadata for this Item
+     * @param bundle Bundle with the changed files - it if is not the ORIGINAL bundle the method will be skipped.
+     */
+    void updateItemFilesMetadataOnCommit(Context context, Item item, Bundle bundle);
+
+    /**
+     * Update item's metadata about its files (local.has.files, local.files.size, local.files.count) once when the
+     * current transaction is committed. The Item and Bundle information is taken from the Bitstream object.
+     * @param context DSpace context object
+     * @param bit the changed Bitstream
+     * @throws SQLException
+     */
+    void updateItemFilesMetadataOnCommit(Context context, Bitstream bit) throws SQLException;
+
     /**
      * Update item's metadata about its dates (dc.date.issued, local.approximateDate.issued).
      * If the local.approximateDate.issued has any approximate value, e.g. 'cca 1938 - 1945' or 'approx. 1995'
@@ -8,11 +8,14 @@
 package org.dspace.content.service.clarin;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.Bitstream;
+import org.dspace.content.clarin.ClarinBitstreamLicenseStatus;
 import org.dspace.content.clarin.ClarinLicense;
 import org.dspace.content.clarin.ClarinLicenseResourceMapping;
 import org.dspace.core.Context;
@@ -41,4 +44,17 @@ public interface ClarinLicenseResourceMappingService {
     List<ClarinLicenseResourceMapping> findByBitstreamUUID(Context context, UUID bitstreamID) throws SQLException;
 
     ClarinLicense getLicenseToAgree(Context context, UUID userId, UUID resourceID) throws SQLException;
+
+    /**
+     * Resolve the Clarin Licenses of several bitstreams (e.g. all the files of an item) at once, and whether the
+     * user has to agree to them, with the same rules as {@link #getLicenseToAgree}.
+     *
+     * @param context     DSpace context object
+     * @param userId      the UUID of the user, or null for an anonymous user
+     * @param resourceIDs the UUIDs of the bitstreams
+     * @return the license status of every bitstream, in the order of resourceIDs
+     * @throws SQLException if database error
+     */
+    Map<UUID, ClarinBitstreamLicenseStatus> getLicensesToAgree(Context context, UUID userId,
+                                                               Collection<UUID> resourceIDs) throws SQLException;
 }
@@ -30,4 +30,16 @@ public interface ClarinLicenseResourceUserAllowanceService {
     List<ClarinLicenseResourceUserAllowance> findByEPersonIdAndBitstreamId(Context context, UUID userID,
                                                                            UUID bitstreamID)
             throws SQLException, AuthorizeException;
+
+    /**
+     * Check whether the user has already filled in the required info of the license of a resource mapping. The
+     * answer is cached per user once it is positive.
+     *
+     * @param context   DSpace context object
+     * @param userID    the UUID of the eperson
+     * @param mappingID the id of the license resource mapping
+     * @return true if the user has an allowance for the resource mapping
+     * @throws SQLException if database error
+     */
+    boolean existsByEPersonIdAndMappingId(Context context, UUID userID, int mappingID) throws SQLException;
 }
@@ -9,11 +9,14 @@ package org.dspace.core;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
@@ -114,6 +117,16 @@ public class Context implements AutoCloseable {
      */
     private String dispName = null;
 
+    /**
+     * Tasks run once when the current transaction is committed, by their key
+     */
+    private Map<String, PreCommitTask> preCommitTasks = new LinkedHashMap<>();
+
+    /**
+     * Callbacks run once when the current transaction is committed or rolled back
+     */
+    private List<Runnable> transactionEndCallbacks = new ArrayList<>();
+
     /**
      * Context mode
      */
@@ -452,8 +465,9 @@ public class Context implements AutoCloseable {
         }
 
         try {
-            // Dispatch events before committing changes to the database,
-            // as the consumers may change something too
+            // Run the deferred tasks and dispatch events before committing changes to the database,
+            // as the tasks and the consumers may change something too
+            runPreCommitTasks();
             dispatchEvents();
         } finally {
             if (log.isDebugEnabled()) {
@@ -461,9 +475,13 @@ public class Context implements AutoCloseable {
             }
 
             if (dbConnection != null) {
-                // Commit our changes (this closes the transaction but leaves database connection open)
-                dbConnection.commit();
-                reloadContextBoundEntities();
+                try {
+                    // Commit our changes (this closes the transaction but leaves database connection open)
+                    dbConnection.commit();
+                    reloadContextBoundEntities();
+                } finally {
+                    runTransactionEndCallbacks();
+                }
             }
         }
     }
@@ -529,6 +547,62 @@ public class Context implements AutoCloseable {
         events.add(event);
     }
 
+    /**
+     * Defer a task until the current transaction is committed. The task runs before the events are dispatched, so
+     * the events of its changes are dispatched in the same transaction. A task with the same key as an already
+     * registered task is ignored, so work requested several times within a transaction (e.g. after every change of
+     * an object) is done only once. The tasks are dropped when the transaction is rolled back.
+     *
+     * @param key  key identifying the task
+     * @param task task to run on commit
+     */
+    public void addPreCommitTask(String key, PreCommitTask task) {
+        if (isReadOnly()) {
+            throw new IllegalStateException("Attempt to mutate object in read-only context");
+        }
+        preCommitTasks.putIfAbsent(key, task);
+    }
+
+    /**
+     * Run the tasks deferred until the commit, including the tasks registered by them.
+     *
+     * @throws SQLException if a task fails
+     */
+    private void runPreCommitTasks() throws SQLException {
+        while (!preCommitTasks.isEmpty()) {
+            Map<String, PreCommitTask> tasks = preCommitTasks;
+            preCommitTasks = new LinkedHashMap<>();
+            for (PreCommitTask task : tasks.values()) {
+                task.run(this);
+            }
+        }
+    }
+
+    /**
+     * Run a callback once the current transaction has ended, i.e. after it was committed to the database or rolled
+     * back. Can be used to drop state which was derived from the changes of the transaction, e.g. in a cache.
+     *
+     * @param callback callback to run
+     */
+    public void addTransactionEndCallback(Runnable callback) {
+        transactionEndCallbacks.add(callback);
+    }
+
+    private void runTransactionEndCallbacks() {
+        if (transactionEndCallbacks.isEmpty()) {
+            return;
+        }
+        List<Runnable> callbacks = transactionEndCallbacks;
+        transactionEndCallbacks = new ArrayList<>();
+        for (Runnable callback : callbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                log.error("Error running a callback at the end of the transaction", e);
+            }
+        }
+    }
+
     /**
      * Get the current event list. If there is a separate list of events from
      * already-committed operations combine that with current list.
@@ -591,6 +665,8 @@ public class Context implements AutoCloseable {
             }
         } finally {
             events = null;
+            preCommitTasks.clear();
+            runTransactionEndCallbacks();
         }
     }
 
@@ -633,6 +709,8 @@ public class Context implements AutoCloseable {
                 log.error("Error closing the database connection", ex);
             }
             events = null;
+            preCommitTasks.clear();
+            runTransactionEndCallbacks();
         }
     }
 
@@ -1017,6 +1095,20 @@ public class Context implements AutoCloseable {
         return "Hibernate statistics are not available for this database connection";
     }
 
+    /**
+     * Get the statistics of the database connection pool and of Hibernate, structured for monitoring.
+     * Only available when using HibernateDBConnection.
+     *
+     * @param maxQueries the number of the slowest queries to return
+     * @return the statistics keyed by their name, empty if not available
+     */
+    public Map<String, Object> getDatabaseStatistics(int maxQueries) {
+        if (dbConnection instanceof HibernateDBConnection) {
+            return ((HibernateDBConnection) dbConnection).getDatabaseStatistics(maxQueries);
+        }
+        return Collections.emptyMap();
+    }
+
     /**
      * Get the hash of the context object. This hash is based on the memory address of the object.
      */
@@ -10,8 +10,15 @@ package org.dspace.core;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import javax.sql.DataSource;
 
+import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.ResourcePolicy;
@@ -22,6 +29,7 @@ import org.dspace.content.Community;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.Item;
 import org.dspace.handle.Handle;
+import org.dspace.storage.rdbms.DSpaceBasicDataSource;
 import org.dspace.storage.rdbms.DatabaseConfigVO;
 import org.hibernate.FlushMode;
 import org.hibernate.Hibernate;
@@ -31,6 +39,9 @@ import org.hibernate.Transaction;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.proxy.HibernateProxyHelper;
 import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
 import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -403,5 +414,132 @@ public class HibernateDBConnection implements DBConnection<Session> {
             return "SessionFactory is not available for logging Hibernate statistics.";
         }
     }
-}
 
+    /**
+     * Get the statistics of the connection pool and of Hibernate, structured for monitoring. The counters are
+     * cumulative since the start of the application. Apart from the sessions, transactions and connections, Hibernate
+     * only collects its statistics when db.statistics is enabled.
+     *
+     * @param maxQueries the number of the slowest queries to return
+     * @return the statistics, nested maps keyed by their name
+     */
+    public Map<String, Object> getDatabaseStatistics(int maxQueries) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pool", getPoolStatistics());
+        if (sessionFactory == null) {
+            return result;
+        }
+        Statistics stats = sessionFactory.getStatistics();
+        result.put("statisticsEnabled", stats.isStatisticsEnabled());
+
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        sessions.put("opened", stats.getSessionOpenCount());
+        sessions.put("closed", stats.getSessionCloseCount());
+        sessions.put("transactions", stats.getTransactionCount());
+        sessions.put("successfulTransactions", stats.getSuccessfulTransactionCount());
+        sessions.put("connectionsObtained", stats.getConnectCount());
+        sessions.put("statementsPrepared", stats.getPrepareStatementCount());
+        sessions.put("flushes", stats.getFlushCount());
+        result.put("sessions", sessions);
+
+        Map<String, Object> queryCache = new LinkedHashMap<>();
+        queryCache.put("hits", stats.getQueryCacheHitCount());
+        queryCache.put("misses", stats.getQueryCacheMissCount());
+        queryCache.put("puts", stats.getQueryCachePutCount());
+        queryCache.put("hitRatio", getHitRatio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()));
+        result.put("queryCache", queryCache);
+
+        Map<String, Object> secondLevelCache = new LinkedHashMap<>();
+        secondLevelCache.put("hits", stats.getSecondLevelCacheHitCount());
+        secondLevelCache.put("misses", stats.getSecondLevelCacheMissCount());
+        secondLevelCache.put("puts", stats.getSecondLevelCachePutCount());
+        secondLevelCache.put("hitRatio",
+                             getHitRatio(stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount()));
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : stats.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = stats.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                Map<String, Object> regionStats = new LinkedHashMap<>();
+                regionStats.put("hits", region.getHitCount());
+                regionStats.put("misses", region.getMissCount());
+                regionStats.put("puts", region.getPutCount());
+                regionStats.put("hitRatio", getHitRatio(region.getHitCount(), region.getMissCount()));
+                regionStats.put("elementsInMemory", region.getElementCountInMemory());
+                regions.put(regionName, regionStats);
+            }
+        }
+        secondLevelCache.put("regions", regions);
+        result.put("secondLevelCache", secondLevelCache);
+
+        // only the entities which were used, most of the entity classes are rarely touched
+        Map<String, Object> entities = new LinkedHashMap<>();
+        for (String entityName : stats.getEntityNames()) {
+            EntityStatistics entity = stats.getEntityStatistics(entityName);
+            if (entity.getLoadCount() + entity.getFetchCount() + entity.getInsertCount() + entity.getUpdateCount()
+                + entity.getDeleteCount() + entity.getCacheHitCount() > 0) {
+                Map<String, Object> entityStats = new LinkedHashMap<>();
+                entityStats.put("loads", entity.getLoadCount());
+                entityStats.put("fetches", entity.getFetchCount());
+                entityStats.put("inserts", entity.getInsertCount());
+                entityStats.put("updates", entity.getUpdateCount());
+                entityStats.put("deletes", entity.getDeleteCount());
+                entityStats.put("cacheHits", entity.getCacheHitCount());
+                entityStats.put("cacheMisses", entity.getCacheMissCount());
+                entityStats.put("cachePuts", entity.getCachePutCount());
+                entities.put(entityName, entityStats);
+            }
+        }
+        result.put("entities", entities);
+
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("executions", stats.getQueryExecutionCount());
+        queries.put("maxMillis", stats.getQueryExecutionMaxTime());
+        List<Map<String, Object>> slowestQueries = new ArrayList<>();
+        Arrays.stream(stats.getQueries())
+              .map(query -> Map.entry(query, stats.getQueryStatistics(query)))
+              .sorted(Comparator.comparingLong(
+                  (Map.Entry<String, QueryStatistics> entry) -> entry.getValue().getExecutionMaxTime()).reversed())
+              .limit(maxQueries)
+              .forEach(entry -> slowestQueries.add(getQueryStatistics(entry.getKey(), entry.getValue())));
+        queries.put("slowest", slowestQueries);
+        result.put("queries", queries);
+        return result;
+    }
+
+    private Map<String, Object> getPoolStatistics() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        DataSource dataSource = sessionFactory != null ? getDataSource() : null;
+        if (dataSource instanceof BasicDataSource) {
+            BasicDataSource basicDataSource = (BasicDataSource) dataSource;
+            pool.put("active", basicDataSource.getNumActive());
+            pool.put("idle", basicDataSource.getNumIdle());
+            pool.put("maxTotal", basicDataSource.getMaxTotal());
+            pool.put("maxIdle", basicDataSource.getMaxIdle());
+            pool.put("minIdle", basicDataSource.getMinIdle());
+            pool.put("maxWaitMillis", basicDataSource.getMaxWaitMillis());
+        }
+        if (dataSource instanceof DSpaceBasicDataSource) {
+            DSpaceBasicDataSource dspaceDataSource = (DSpaceBasicDataSource) dataSource;
+            pool.put("waiting", dspaceDataSource.getNumWaiters());
+            pool.put("meanBorrowWaitMillis", dspaceDataSource.getMeanBorrowWaitTimeMillis());
+            pool.put("maxBorrowWaitMillis", dspaceDataSource.getMaxBorrowWaitTimeMillis());
+            pool.put("borrowed", dspaceDataSource.getBorrowedCount());
+        }
+        return pool;
+    }
+
+    private Map<String, Object> getQueryStatistics(String query, QueryStatistics queryStatistics) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", query);
+        result.put("executions", queryStatistics.getExecutionCount());
+        result.put("rows", queryStatistics.getExecutionRowCount());
+        result.put("avgMillis", queryStatistics.getExecutionAvgTime());
+        result.put("maxMillis", queryStatistics.getExecutionMaxTime());
+        result.put("totalMillis", queryStatistics.getExecutionTotalTime());
+        return result;
+    }
+
+    private static double getHitRatio(long hits, long misses) {
+        return hits + misses > 0 ? (double) hits / (hits + misses) : 0;
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.core;
+
+import java.sql.SQLException;
+
+/**
+ * Work deferred until the transaction of a {@link Context} is committed, see
+ * {@link Context#addPreCommitTask(String, PreCommitTask)}. The task runs before the events of the transaction are
+ * dispatched, so the changes it makes are dispatched and committed together with the rest of the transaction.
+ */
+@FunctionalInterface
+public interface PreCommitTask {
+
+    /**
+     * Run the task.
+     *
+     * @param context the context being committed
+     * @throws SQLException if a database error occurs
+     */
+    void run(Context context) throws SQLException;
+}
@@ -57,6 +57,7 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
     private String reporter;
     private Map<String, String> parameters;
     private boolean verbose;
+    private int workers = 1;
 
     @Override
     public void internalRun() throws Exception {
@@ -200,6 +201,7 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
         }
 
         curator.addParameters(parameters);
+        curator.setWorkers(workers);
         // we are operating in batch mode, if anyone cares.
         curator.setInvoked(Curator.Invoked.BATCH);
         return curator;
@@ -297,6 +299,17 @@ public class Curation extends DSpaceRunnable<CurationScriptConfiguration> {
             verbose = true;
         }
 
+        // workers
+        if (this.commandLine.hasOption('w')) {
+            try {
+                this.workers = Integer.parseInt(this.commandLine.getOptionValue('w'));
+            } catch (NumberFormatException e) {
+                this.handler.logError("Bad number of workers '" + this.commandLine.getOptionValue('w') + "'");
+                throw new IllegalArgumentException(
+                    "Bad number of workers '" + this.commandLine.getOptionValue('w') + "'", e);
+            }
+        }
+
         // scope
         if (this.commandLine.getOptionValue('s') != null) {
             this.scope = this.commandLine.getOptionValue('s');
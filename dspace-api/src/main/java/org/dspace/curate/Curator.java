@@ -15,7 +15,16 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.Collection;
@@ -29,6 +38,8 @@ import org.dspace.content.service.ItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.core.factory.CoreServiceFactory;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.EPersonService;
 import org.dspace.handle.factory.HandleServiceFactory;
 import org.dspace.handle.service.HandleService;
 import org.dspace.scripts.handler.DSpaceRunnableHandler;
@@ -89,9 +100,11 @@ public class Curator {
     protected Invoked iMode = null;
     protected TaskResolver resolver = new TaskResolver();
     protected TxScope txScope = TxScope.OPEN;
+    protected int workers = 1;
     protected CommunityService communityService;
     protected ItemService itemService;
     protected HandleService handleService;
+    protected EPersonService ePersonService;
     protected DSpaceRunnableHandler handler;
 
     /**
@@ -111,6 +124,7 @@ public class Curator {
         communityService = ContentServiceFactory.getInstance().getCommunityService();
         itemService = ContentServiceFactory.getInstance().getItemService();
         handleService = HandleServiceFactory.getInstance().getHandleService();
+        ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
         resolver = new TaskResolver();
     }
 
@@ -227,6 +241,24 @@ public class Curator {
         return this;
     }
 
+    /**
+     * Sets the number of worker threads curating the items of a collection.
+     * Only tasks annotated {@link ThreadSafe} (and not {@link Distributive})
+     * are run in parallel, all others are performed sequentially whatever
+     * this setting. Each worker has its own context, using the same user
+     * and authorisation state as the curation context. As the changes made
+     * by the workers are not visible in the curation context, a worker
+     * commits its context after each item if the transaction scope is
+     * 'object', and once it is done otherwise.
+     *
+     * @param workers number of worker threads, 1 to curate sequentially
+     * @return return self (Curator instance) with the number of workers set
+     */
+    public Curator setWorkers(int workers) {
+        this.workers = Math.max(1, workers);
+        return this;
+    }
+
     /**
      * Performs all configured tasks upon object identified by id. If
      * the object can be resolved as a handle, the DSO will be the
@@ -356,7 +388,10 @@ public class Curator {
         }
 
         try {
-            reporter.append(message);
+            // parallel workers share the reporter
+            synchronized (reporter) {
+                reporter.append(message);
+            }
         } catch (IOException ex) {
             System.out.println("Task reporting failure: " +  ex);
         }
@@ -513,6 +548,15 @@ public class Curator {
             }
             Context context = curationContext();
             Iterator<Item> iter = itemService.findByCollection(context, coll);
+            if (workers > 1 && tr.task.isThreadSafe()) {
+                Queue<UUID> itemIds = new ConcurrentLinkedQueue<>();
+                while (iter.hasNext()) {
+                    Item item = iter.next();
+                    itemIds.add(item.getID());
+                    context.uncacheEntity(item);
+                }
+                return doItems(tr, context, itemIds);
+            }
             while (iter.hasNext()) {
                 Item item = iter.next();
                 boolean shouldContinue = tr.run(item);
@@ -527,6 +571,91 @@ public class Curator {
         return true;
     }
 
+    /**
+     * Run task for the given Items on {@link #workers} threads.
+     *
+     * @param tr      TaskRunner
+     * @param context the curation context
+     * @param itemIds ids of the Items, consumed by the workers
+     * @return true if successful, false if the task asked to suspend the curation
+     * @throws IOException if IO error
+     * @throws SQLException if database error
+     */
+    protected boolean doItems(TaskRunner tr, Context context, Queue<UUID> itemIds)
+        throws IOException, SQLException {
+        Context.Mode mode = context.getCurrentMode();
+        UUID userId = context.getCurrentUser() != null ? context.getCurrentUser().getID() : null;
+        boolean ignoreAuthorization = context.ignoreAuthorization();
+        AtomicBoolean suspended = new AtomicBoolean();
+
+        int threads = Math.min(workers, itemIds.size());
+        if (threads == 0) {
+            return true;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new BasicThreadFactory.Builder()
+            .namingPattern("curation-worker-%d")
+            .build());
+        List<Future<Void>> results = new ArrayList<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    doItems(tr, mode, userId, ignoreAuthorization, itemIds, suspended);
+                    return null;
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while curating items", e);
+        } catch (ExecutionException e) {
+            suspended.set(true);
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return !suspended.get();
+    }
+
+    private void doItems(TaskRunner tr, Context.Mode mode, UUID userId, boolean ignoreAuthorization,
+                         Queue<UUID> itemIds, AtomicBoolean suspended) throws IOException, SQLException {
+        Context ctx = new Context(mode);
+        try {
+            if (userId != null) {
+                ctx.setCurrentUser(ePersonService.find(ctx, userId));
+            }
+            if (ignoreAuthorization) {
+                ctx.turnOffAuthorisationSystem();
+            }
+            // tasks get the worker's context from curationContext()
+            curationCtx.set(ctx);
+            UUID itemId;
+            while (!suspended.get() && (itemId = itemIds.poll()) != null) {
+                Item item = itemService.find(ctx, itemId);
+                if (item == null) {
+                    continue;
+                }
+                if (!tr.run(item)) {
+                    suspended.set(true);
+                }
+                if (txScope.equals(TxScope.OBJECT)) {
+                    ctx.commit();
+                }
+                ctx.uncacheEntity(item);
+            }
+            ctx.complete();
+        } finally {
+            curationCtx.remove();
+            if (ctx.isValid()) {
+                ctx.abort();
+            }
+        }
+    }
+
     /**
      * Record a 'visit' to a DSpace object and enforce any policies set
      * on this curator.
@@ -545,8 +674,10 @@ public class Curator {
 
     protected class TaskRunner {
         ResolvedTask task = null;
-        int statusCode = CURATE_UNSET;
-        String result = null;
+        volatile int statusCode = CURATE_UNSET;
+        volatile String result = null;
+        // result of the task in the current thread, so that parallel workers log their own
+        private final ThreadLocal<String> threadResult = new ThreadLocal<>();
 
         public TaskRunner(ResolvedTask task) {
             this.task = task;
@@ -557,11 +688,12 @@ public class Curator {
                 if (dso == null) {
                     throw new IOException("DSpaceObject is null");
                 }
-                statusCode = task.perform(dso);
+                int code = task.perform(dso);
+                statusCode = code;
                 String id = (dso.getHandle() != null) ? dso.getHandle() : "workflow item: " + dso.getID();
-                logInfo(logMessage(id));
+                logInfo(logMessage(id, code));
                 visit(dso);
-                return !suspend(statusCode);
+                return !suspend(code);
             } catch (IOException ioe) {
                 //log error & pass exception upwards
                 System.out.println("Error executing curation task '" + task.getName() + "'; " + ioe);
@@ -574,10 +706,11 @@ public class Curator {
                 if (c == null || id == null) {
                     throw new IOException("Context or identifier is null");
                 }
-                statusCode = task.perform(c, id);
-                logInfo(logMessage(id));
+                int code = task.perform(c, id);
+                statusCode = code;
+                logInfo(logMessage(id, code));
                 visit(null);
-                return !suspend(statusCode);
+                return !suspend(code);
             } catch (IOException ioe) {
                 //log error & pass exception upwards
                 System.out.println("Error executing curation task '" + task.getName() + "'; " + ioe);
@@ -587,6 +720,7 @@ public class Curator {
 
         public void setResult(String result) {
             this.result = result;
+            threadResult.set(result);
         }
 
         protected boolean suspend(int code) {
@@ -605,9 +739,11 @@ public class Curator {
          * Builds a useful log message for a curation task.
          *
          * @param id ID of DSpace Object
+         * @param statusCode status code returned by the task
          * @return log message text
          */
-        protected String logMessage(String id) {
+        protected String logMessage(String id, int statusCode) {
+            String result = threadResult.get();
             StringBuilder mb = new StringBuilder();
             mb.append("Curation task: ").append(task.getName()).
                 append(" performed on: ").append(id).
@@ -0,0 +1,25 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.curate;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Annotation type for CurationTasks. A task is thread safe if a single
+ * instance of it may perform on several objects at the same time, each
+ * from its own thread with its own curation context. Only such tasks are
+ * run in parallel by a Curator with more than one worker.
+ *
+ * @see Curator#setWorkers(int)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ThreadSafe {
+}
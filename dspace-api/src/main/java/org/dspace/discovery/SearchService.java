@@ -67,6 +67,20 @@ public interface SearchService {
     Iterator<Item> iteratorSearch(Context context, IndexableObject dso, DiscoverQuery query)
         throws SearchServiceException;
 
+    /**
+     * Iterate over the raw search documents matching the given query, without loading the DSpace objects they
+     * refer to. Every document holds the resource type, the resource id and the search fields requested in the
+     * query. Results are paged with a Solr cursor sorted on the unique id, so the start and sort settings of the
+     * query are ignored and deep paging stays cheap.
+     *
+     * @param context   DSpace context object
+     * @param query     the discovery query object, its max results is used as the page size
+     * @return          an iterator iterating over all matching documents
+     * @throws SearchServiceException   if search error
+     */
+    Iterator<DiscoverResult.SearchDocument> iteratorSearchDocuments(Context context, DiscoverQuery query)
+        throws SearchServiceException;
+
 
     List<IndexableObject> search(Context context, String query, String orderfield, boolean ascending, int offset,
                                  int max, String... filterquery);
@@ -27,6 +27,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.TimeZone;
 import java.util.UUID;
@@ -45,6 +46,7 @@ import org.apache.solr.client.solrj.util.ClientUtils;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.apache.solr.common.params.FacetParams;
 import org.apache.solr.common.params.HighlightParams;
 import org.apache.solr.common.params.MoreLikeThisParams;
@@ -77,6 +79,7 @@ import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.GroupService;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.util.SolrUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -848,6 +851,94 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         }
     }
 
+    @Override
+    public Iterator<DiscoverResult.SearchDocument> iteratorSearchDocuments(Context context, DiscoverQuery query)
+        throws SearchServiceException {
+        return new SearchDocumentIterator(context, query);
+    }
+
+    /**
+     * This class implements an iterator over the raw search documents of a query, paging through the results
+     * with a Solr cursor and without resolving the DSpace objects.
+     */
+    private class SearchDocumentIterator implements Iterator<DiscoverResult.SearchDocument> {
+        private final SolrQuery solrQuery;
+        private final List<String> searchFields;
+        private SolrDocumentList page;
+        private int relativeCursor;
+        private String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+        private boolean lastPage;
+
+        SearchDocumentIterator(Context context, DiscoverQuery discoverQuery) throws SearchServiceException {
+            this.searchFields = discoverQuery.getSearchFields();
+            this.solrQuery = resolveToSolrQuery(context, discoverQuery);
+            // a cursor requires a sort on the unique key and no start offset
+            solrQuery.setStart(null);
+            solrQuery.clearSorts();
+            solrQuery.addSort(SearchUtils.RESOURCE_UNIQUE_ID, SolrQuery.ORDER.asc);
+            solrQuery.setRows(discoverQuery.getMaxResults() > 0 ? discoverQuery.getMaxResults() : 1000);
+            fetchNextPage();
+        }
+
+        private void fetchNextPage() throws SearchServiceException {
+            relativeCursor = 0;
+            if (solrSearchCore.getSolr() == null) {
+                page = new SolrDocumentList();
+                lastPage = true;
+                return;
+            }
+            solrQuery.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+            try {
+                QueryResponse response = solrSearchCore.getSolr().query(solrQuery, solrSearchCore.REQUEST_METHOD);
+                page = response.getResults();
+                String nextCursorMark = response.getNextCursorMark();
+                lastPage = cursorMark.equals(nextCursorMark);
+                cursorMark = nextCursorMark;
+            } catch (SolrServerException | IOException e) {
+                throw new SearchServiceException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (relativeCursor < page.size()) {
+                return true;
+            }
+            if (lastPage) {
+                return false;
+            }
+            try {
+                fetchNextPage();
+            } catch (SearchServiceException e) {
+                throw new IllegalStateException("Error while getting the next page of search documents", e);
+            }
+            return relativeCursor < page.size();
+        }
+
+        @Override
+        public DiscoverResult.SearchDocument next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            SolrDocument doc = page.get(relativeCursor++);
+            DiscoverResult.SearchDocument resultDoc = new DiscoverResult.SearchDocument();
+            addSearchField(resultDoc, doc, SearchUtils.RESOURCE_TYPE_FIELD);
+            addSearchField(resultDoc, doc, SearchUtils.RESOURCE_ID_FIELD);
+            for (String field : searchFields) {
+                addSearchField(resultDoc, doc, field);
+            }
+            return resultDoc;
+        }
+
+        private void addSearchField(DiscoverResult.SearchDocument resultDoc, SolrDocument doc, String field) {
+            List<String> valuesAsString = new ArrayList<>();
+            Optional.ofNullable(doc.getFieldValues(field))
+                    .ifPresent(l -> l.forEach(o -> valuesAsString.add(o instanceof Date
+                            ? SolrUtils.getDateFormatter().format((Date) o) : String.valueOf(o))));
+            resultDoc.addSearchField(field, valuesAsString.toArray(new String[valuesAsString.size()]));
+        }
+    }
+
     protected SolrQuery resolveToSolrQuery(Context context, DiscoverQuery discoveryQuery)
         throws SearchServiceException {
         SolrQuery solrQuery = new SolrQuery();
@@ -9,6 +9,7 @@ package org.dspace.handle;
 
 import java.util.Date;
 import java.util.Objects;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -25,6 +26,7 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.dspace.content.DSpaceObject;
 import org.dspace.core.Context;
 import org.dspace.core.ReloadableEntity;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Database entity representation of the handle table
@@ -33,6 +35,8 @@ import org.dspace.core.ReloadableEntity;
  */
 @Entity
 @Table(name = "handle")
+@Cacheable
+@org.hibernate.annotations.Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Handle implements ReloadableEntity<Integer> {
 
     @Id
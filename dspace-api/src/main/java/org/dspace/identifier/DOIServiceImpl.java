@@ -164,6 +164,17 @@ public class DOIServiceImpl implements DOIService {
         return doiDAO.findByStatus(context, statuses);
     }
 
+    @Override
+    public List<DOI> getDOIsByStatus(Context context, List<Integer> statuses, Integer afterId, int limit)
+        throws SQLException {
+        return doiDAO.findByStatus(context, statuses, afterId, limit);
+    }
+
+    @Override
+    public int countDOIsByStatus(Context context, List<Integer> statuses) throws SQLException {
+        return doiDAO.countByStatus(context, statuses);
+    }
+
     @Override
     public List<DOI> getSimilarDOIsNotInState(Context context, String doiPattern, List<Integer> statuses,
                                               boolean dsoIsNotNull)
@@ -33,5 +33,15 @@ public interface DOIDAO extends GenericDAO<DOI> {
 
     public List<DOI> findByStatus(Context context, List<Integer> statuses) throws SQLException;
 
+    /**
+     * Find a page of the DOIs having one of the given statuses, ordered by id. Pages are addressed by the id of
+     * the last DOI of the previous page rather than by offset, so that processing a page and thereby changing
+     * the status of its DOIs does not shift the following pages.
+     */
+    public List<DOI> findByStatus(Context context, List<Integer> statuses, Integer afterId, int limit)
+        throws SQLException;
+
+    public int countByStatus(Context context, List<Integer> statuses) throws SQLException;
+
     public DOI findDOIByDSpaceObject(Context context, DSpaceObject dso) throws SQLException;
 }
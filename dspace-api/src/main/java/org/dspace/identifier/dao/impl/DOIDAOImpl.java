@@ -83,6 +83,33 @@ public class DOIDAOImpl extends AbstractHibernateDAO<DOI> implements DOIDAO {
         return list(context, criteriaQuery, false, DOI.class, -1, -1);
     }
 
+    @Override
+    public List<DOI> findByStatus(Context context, List<Integer> statuses, Integer afterId, int limit)
+        throws SQLException {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery criteriaQuery = getCriteriaQuery(criteriaBuilder, DOI.class);
+        Root<DOI> doiRoot = criteriaQuery.from(DOI.class);
+        criteriaQuery.select(doiRoot);
+        Predicate statusPredicate = doiRoot.get(DOI_.status).in(statuses);
+        if (afterId != null) {
+            criteriaQuery.where(criteriaBuilder.and(statusPredicate,
+                                                    criteriaBuilder.greaterThan(doiRoot.get(DOI_.id), afterId)));
+        } else {
+            criteriaQuery.where(statusPredicate);
+        }
+        criteriaQuery.orderBy(criteriaBuilder.asc(doiRoot.get(DOI_.id)));
+        return list(context, criteriaQuery, false, DOI.class, limit, -1);
+    }
+
+    @Override
+    public int countByStatus(Context context, List<Integer> statuses) throws SQLException {
+        CriteriaBuilder criteriaBuilder = getCriteriaBuilder(context);
+        CriteriaQuery criteriaQuery = getCriteriaQuery(criteriaBuilder, DOI.class);
+        Root<DOI> doiRoot = criteriaQuery.from(DOI.class);
+        criteriaQuery.where(doiRoot.get(DOI_.status).in(statuses));
+        return count(context, criteriaQuery, criteriaBuilder, doiRoot);
+    }
+
     @Override
     public List<DOI> findSimilarNotInState(Context context, String doi, List<Integer> excludedStatuses,
                                            boolean dsoNotNull)
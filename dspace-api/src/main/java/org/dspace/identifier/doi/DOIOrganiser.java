@@ -11,12 +11,20 @@ package org.dspace.identifier.doi;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.mail.MessagingException;
 
 import org.apache.commons.cli.CommandLine;
@@ -26,6 +34,7 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.DSpaceObject;
@@ -66,6 +75,20 @@ public class DOIOrganiser {
     protected ConfigurationService configurationService;
     // This filter will override the default provider filter / behaviour
     protected Filter filter;
+    // Number of DOIs processed concurrently by processAll
+    protected int threads;
+
+    /**
+     * Number of DOIs read from the database at once
+     */
+    protected static final int PAGE_SIZE = 500;
+
+    private static final int PROGRESS_INTERVAL = 100;
+
+    /**
+     * Marks the end of the queue of DOIs processed by the workers
+     */
+    private static final String END_OF_QUEUE = "";
 
     /**
      * Constructor to be called within the main() method
@@ -82,6 +105,7 @@ public class DOIOrganiser {
         this.configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
         this.filter = DSpaceServicesFactory.getInstance().getServiceManager().getServiceByName(
                 "always_true_filter", TrueFilter.class);
+        this.threads = configurationService.getIntProperty("identifier.doi.organiser.threads", 1);
     }
 
     /**
@@ -128,6 +152,9 @@ public class DOIOrganiser {
                           "Perform online deletion for all identifiers queued for deletion.");
         options.addOption("q", "quiet", false,
                           "Turn the command line output off.");
+        options.addOption("t", "threads", true,
+                          "Number of DOIs processed concurrently by the -s, -r, -u and -d options. "
+                              + "Defaults to identifier.doi.organiser.threads, or 1.");
 
         Option filterDoi = Option.builder().optionalArg(true).longOpt("filter").hasArg().argName("filterName")
                 .desc("Use the specified filter name instead of the provider's filter. Defaults to a special " +
@@ -208,7 +235,6 @@ public class DOIOrganiser {
             organiser.list("deletion", null, null, DOIIdentifierProvider.TO_BE_DELETED);
         }
 
-        DOIService doiService = IdentifierServiceFactory.getInstance().getDOIService();
         // Do we get a filter?
         if (line.hasOption("filter")) {
             String filter = line.getOptionValue("filter");
@@ -217,19 +243,22 @@ public class DOIOrganiser {
             }
         }
 
+        if (line.hasOption('t')) {
+            try {
+                organiser.setThreads(Integer.parseInt(line.getOptionValue('t')));
+            } catch (NumberFormatException ex) {
+                System.err.println("The number of threads must be an integer: " + line.getOptionValue('t'));
+                System.exit(1);
+            }
+        }
+
         if (line.hasOption('s')) {
             try {
-                List<DOI> dois = doiService
-                    .getDOIsByStatus(context, Arrays.asList(DOIIdentifierProvider.TO_BE_RESERVED));
-                if (dois.isEmpty()) {
+                if (0 == organiser.processAll("reservation", DOIOrganiser::reserve,
+                                              DOIIdentifierProvider.TO_BE_RESERVED)) {
                     System.err.println("There are no objects in the database "
                                            + "that could be reserved.");
                 }
-
-                for (DOI doi : dois) {
-                    organiser.reserve(doi);
-                    context.uncacheEntity(doi);
-                }
             } catch (SQLException ex) {
                 System.err.println("Error in database connection:" + ex.getMessage());
                 ex.printStackTrace(System.err);
@@ -238,39 +267,26 @@ public class DOIOrganiser {
 
         if (line.hasOption('r')) {
             try {
-                List<DOI> dois = doiService
-                    .getDOIsByStatus(context, Arrays.asList(DOIIdentifierProvider.TO_BE_REGISTERED));
-                if (dois.isEmpty()) {
+                if (0 == organiser.processAll("registration", DOIOrganiser::register,
+                                              DOIIdentifierProvider.TO_BE_REGISTERED)) {
                     System.err.println("There are no objects in the database "
                                            + "that could be registered.");
                 }
-                for (DOI doi : dois) {
-                    organiser.register(doi);
-                    context.uncacheEntity(doi);
-                }
             } catch (SQLException ex) {
                 System.err.println("Error in database connection:" + ex.getMessage());
                 ex.printStackTrace(System.err);
-            } catch (DOIIdentifierException ex) {
-                System.err.println("Error registering DOI identifier:" + ex.getMessage());
             }
         }
 
         if (line.hasOption('u')) {
             try {
-                List<DOI> dois = doiService.getDOIsByStatus(context, Arrays.asList(
-                    DOIIdentifierProvider.UPDATE_BEFORE_REGISTRATION,
-                    DOIIdentifierProvider.UPDATE_RESERVED,
-                    DOIIdentifierProvider.UPDATE_REGISTERED));
-                if (dois.isEmpty()) {
+                if (0 == organiser.processAll("update", DOIOrganiser::update,
+                                              DOIIdentifierProvider.UPDATE_BEFORE_REGISTRATION,
+                                              DOIIdentifierProvider.UPDATE_RESERVED,
+                                              DOIIdentifierProvider.UPDATE_REGISTERED)) {
                     System.err.println("There are no objects in the database "
                                            + "whose metadata needs an update.");
                 }
-
-                for (DOI doi : dois) {
-                    organiser.update(doi);
-                    context.uncacheEntity(doi);
-                }
             } catch (SQLException ex) {
                 System.err.println("Error in database connection:" + ex.getMessage());
                 ex.printStackTrace(System.err);
@@ -279,20 +295,11 @@ public class DOIOrganiser {
 
         if (line.hasOption('d')) {
             try {
-                List<DOI> dois = doiService
-                    .getDOIsByStatus(context, Arrays.asList(DOIIdentifierProvider.TO_BE_DELETED));
-                if (dois.isEmpty()) {
+                if (0 == organiser.processAll("deletion", (o, doi) -> o.delete(doi.getDoi()),
+                                              DOIIdentifierProvider.TO_BE_DELETED)) {
                     System.err.println("There are no objects in the database "
                                            + "that could be deleted.");
                 }
-
-                Iterator<DOI> iterator = dois.iterator();
-                while (iterator.hasNext()) {
-                    DOI doi = iterator.next();
-                    iterator.remove();
-                    organiser.delete(doi.getDoi());
-                    context.uncacheEntity(doi);
-                }
             } catch (SQLException ex) {
                 System.err.println("Error in database connection:" + ex.getMessage());
                 ex.printStackTrace(System.err);
@@ -377,21 +384,28 @@ public class DOIOrganiser {
         }
 
         try {
-            List<DOI> doiList = doiService.getDOIsByStatus(context, Arrays.asList(status));
-            if (0 < doiList.size()) {
+            List<Integer> statuses = Arrays.asList(status);
+            if (0 < doiService.countDOIsByStatus(context, statuses)) {
                 out.println("DOIs queued for " + processName + ": ");
             } else {
                 out.println("There are no DOIs queued for " + processName + ".");
             }
-            for (DOI doiRow : doiList) {
-                out.print(indent + DOI.SCHEME + doiRow.getDoi());
-                DSpaceObject dso = doiRow.getDSpaceObject();
-                if (null != dso) {
-                    out.println(" (belongs to item with handle " + dso.getHandle() + ")");
-                } else {
-                    out.println(" (cannot determine handle of assigned object)");
+            List<DOI> doiList;
+            Integer lastId = null;
+            do {
+                doiList = doiService.getDOIsByStatus(context, statuses, lastId, PAGE_SIZE);
+                for (DOI doiRow : doiList) {
+                    lastId = doiRow.getID();
+                    out.print(indent + DOI.SCHEME + doiRow.getDoi());
+                    DSpaceObject dso = doiRow.getDSpaceObject();
+                    if (null != dso) {
+                        out.println(" (belongs to item with handle " + dso.getHandle() + ")");
+                    } else {
+                        out.println(" (cannot determine handle of assigned object)");
+                    }
+                    context.uncacheEntity(doiRow);
                 }
-            }
+            } while (doiList.size() == PAGE_SIZE);
             out.println("");
         } catch (SQLException ex) {
             err.println("Error in database Connection: " + ex.getMessage());
@@ -399,6 +413,153 @@ public class DOIOrganiser {
         }
     }
 
+    /**
+     * An online operation applied to every DOI of some statuses by
+     * {@link #processAll(String, DOIOperation, Integer...)}.
+     */
+    @FunctionalInterface
+    public interface DOIOperation {
+        /**
+         * @param organiser the organiser to use, bound to the context of the current thread
+         * @param doi       the DOI to process
+         * @return whether the operation succeeded
+         */
+        boolean apply(DOIOrganiser organiser, DOI doi) throws SQLException, DOIIdentifierException;
+    }
+
+    /**
+     * Apply an operation to all DOIs having one of the given statuses. The DOIs are read page by page, so they
+     * never have to be held in memory all at once. If more than one thread is configured, the DOIs are handed
+     * to a pool of workers, each with its own context committing after every DOI; the requests they send to
+     * the registration agency are throttled by its connector. The progress is reported every
+     * {@value #PROGRESS_INTERVAL} DOIs.
+     *
+     * @param processName - process name for display
+     * @param operation   - operation to apply to every DOI
+     * @param status      - status codes
+     * @return the number of DOIs having one of the statuses when the process started
+     * @throws SQLException if the DOIs cannot be read from the database
+     */
+    public int processAll(String processName, DOIOperation operation, Integer... status) throws SQLException {
+        List<Integer> statuses = Arrays.asList(status);
+        int total = doiService.countDOIsByStatus(context, statuses);
+        if (0 == total) {
+            return 0;
+        }
+        Progress progress = new Progress(processName, total);
+        if (threads <= 1) {
+            List<DOI> dois;
+            Integer lastId = null;
+            do {
+                dois = doiService.getDOIsByStatus(context, statuses, lastId, PAGE_SIZE);
+                for (DOI doi : dois) {
+                    lastId = doi.getID();
+                    progress.done(apply(operation, this, doi));
+                    context.uncacheEntity(doi);
+                }
+            } while (dois.size() == PAGE_SIZE);
+        } else {
+            processConcurrently(statuses, operation, progress);
+        }
+        progress.report();
+        return total;
+    }
+
+    private void processConcurrently(List<Integer> statuses, DOIOperation operation, Progress progress)
+        throws SQLException {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(PAGE_SIZE);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new BasicThreadFactory.Builder()
+            .namingPattern("doi-organiser-%d")
+            .build());
+        List<Future<?>> workers = new ArrayList<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    runWorker(queue, operation, progress);
+                    return null;
+                }));
+            }
+            List<DOI> dois;
+            Integer lastId = null;
+            do {
+                dois = doiService.getDOIsByStatus(context, statuses, lastId, PAGE_SIZE);
+                for (DOI doi : dois) {
+                    lastId = doi.getID();
+                    enqueue(queue, doi.getDoi(), workers);
+                    context.uncacheEntity(doi);
+                }
+            } while (dois.size() == PAGE_SIZE);
+            for (int i = 0; i < threads; i++) {
+                enqueue(queue, END_OF_QUEUE, workers);
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing DOIs", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("A DOI organiser worker failed", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void enqueue(BlockingQueue<String> queue, String doi, List<Future<?>> workers)
+        throws InterruptedException, ExecutionException {
+        while (!queue.offer(doi, 1, TimeUnit.SECONDS)) {
+            // don't wait forever for workers that died
+            for (Future<?> worker : workers) {
+                if (worker.isDone()) {
+                    worker.get();
+                    throw new IllegalStateException("A DOI organiser worker stopped unexpectedly");
+                }
+            }
+        }
+    }
+
+    private void runWorker(BlockingQueue<String> queue, DOIOperation operation, Progress progress)
+        throws SQLException, InterruptedException {
+        Context workerContext = new Context();
+        try {
+            if (context.ignoreAuthorization()) {
+                workerContext.turnOffAuthorisationSystem();
+            }
+            DOIOrganiser worker = new DOIOrganiser(workerContext, provider);
+            worker.filter = filter;
+            worker.quiet = quiet;
+            for (String doiString = queue.take(); !END_OF_QUEUE.equals(doiString); doiString = queue.take()) {
+                DOI doi = doiService.findByDoi(workerContext, doiString);
+                if (null == doi) {
+                    // deleted in the meantime
+                    progress.done(false);
+                    continue;
+                }
+                progress.done(apply(operation, worker, doi));
+                // keep the database in sync with the registration agency, whatever happens to the other DOIs
+                workerContext.commit();
+                workerContext.uncacheEntity(doi);
+            }
+            workerContext.complete();
+        } finally {
+            if (workerContext.isValid()) {
+                workerContext.abort();
+            }
+        }
+    }
+
+    private boolean apply(DOIOperation operation, DOIOrganiser organiser, DOI doi) {
+        try {
+            return operation.apply(organiser, doi);
+        } catch (SQLException | DOIIdentifierException | RuntimeException ex) {
+            LOG.error("It wasn't possible to process this identifier: " + DOI.SCHEME + doi.getDoi(), ex);
+            if (!quiet) {
+                System.err.println("It wasn't possible to process this identifier: " + DOI.SCHEME + doi.getDoi());
+            }
+            return false;
+        }
+    }
+
     /**
      * Register DOI with the provider
      * @param doiRow        - doi to register
@@ -406,7 +567,7 @@ public class DOIOrganiser {
      * @throws SQLException
      * @throws DOIIdentifierException
      */
-    public void register(DOI doiRow, Filter filter) throws SQLException, DOIIdentifierException {
+    public boolean register(DOI doiRow, Filter filter) throws SQLException, DOIIdentifierException {
         DSpaceObject dso = doiRow.getDSpaceObject();
         if (Constants.ITEM != dso.getType()) {
             throw new IllegalArgumentException("Currenty DSpace supports DOIs for Items only.");
@@ -420,6 +581,7 @@ public class DOIOrganiser {
                                        + DOI.SCHEME + doiRow.getDoi()
                                        + " is successfully registered.");
             }
+            return true;
         } catch (IdentifierException ex) {
             if (!(ex instanceof DOIIdentifierException)) {
                 LOG.error("It wasn't possible to register this identifier: "
@@ -448,7 +610,7 @@ public class DOIOrganiser {
                 System.err.println("It wasn't possible to register this identifier: "
                                        + DOI.SCHEME + doiRow.getDoi());
             }
-
+            return false;
         } catch (IllegalArgumentException ex) {
             LOG.error("Database table DOI contains a DOI that is not valid: "
                           + DOI.SCHEME + doiRow.getDoi() + "!", ex);
@@ -478,8 +640,8 @@ public class DOIOrganiser {
      * @throws SQLException
      * @throws DOIIdentifierException
      */
-    public void register(DOI doiRow) throws SQLException, DOIIdentifierException {
-        register(doiRow, this.filter);
+    public boolean register(DOI doiRow) throws SQLException, DOIIdentifierException {
+        return register(doiRow, this.filter);
     }
 
     /**
@@ -488,8 +650,8 @@ public class DOIOrganiser {
      * @throws SQLException
      * @throws DOIIdentifierException
      */
-    public void reserve(DOI doiRow) {
-        reserve(doiRow, this.filter);
+    public boolean reserve(DOI doiRow) {
+        return reserve(doiRow, this.filter);
     }
 
     /**
@@ -498,7 +660,7 @@ public class DOIOrganiser {
      * @throws SQLException
      * @throws DOIIdentifierException
      */
-    public void reserve(DOI doiRow, Filter filter) {
+    public boolean reserve(DOI doiRow, Filter filter) {
         DSpaceObject dso = doiRow.getDSpaceObject();
         if (Constants.ITEM != dso.getType()) {
             throw new IllegalArgumentException("Currently DSpace supports DOIs for Items only.");
@@ -510,6 +672,7 @@ public class DOIOrganiser {
             if (!quiet) {
                 System.out.println("This identifier : " + DOI.SCHEME + doiRow.getDoi() + " is successfully reserved.");
             }
+            return true;
         } catch (IdentifierException ex) {
             if (!(ex instanceof DOIIdentifierException)) {
                 LOG.error("It wasn't possible to register this identifier : "
@@ -536,6 +699,7 @@ public class DOIOrganiser {
             if (!quiet) {
                 System.err.println("It wasn't possible to reserve this identifier: " + DOI.SCHEME + doiRow.getDoi());
             }
+            return false;
         } catch (IllegalArgumentException ex) {
             LOG.error("Database table DOI contains a DOI that is not valid: "
                           + DOI.SCHEME + doiRow.getDoi() + "!", ex);
@@ -561,7 +725,7 @@ public class DOIOrganiser {
      * Update metadata for a DOI
      * @param doiRow    - DOI to update
      */
-    public void update(DOI doiRow) {
+    public boolean update(DOI doiRow) {
         DSpaceObject dso = doiRow.getDSpaceObject();
         if (Constants.ITEM != dso.getType()) {
             throw new IllegalArgumentException("Currently DSpace supports DOIs for Items only.");
@@ -575,6 +739,7 @@ public class DOIOrganiser {
                 System.out.println("Successfully updated metadata of DOI " + DOI.SCHEME
                                        + doiRow.getDoi() + ".");
             }
+            return true;
         } catch (IdentifierException ex) {
             if (!(ex instanceof DOIIdentifierException)) {
                 LOG.error("It wasn't possible to register the identifier online. ", ex);
@@ -600,7 +765,7 @@ public class DOIOrganiser {
             if (!quiet) {
                 System.err.println("It wasn't possible to update this identifier: " + DOI.SCHEME + doiRow.getDoi());
             }
-
+            return false;
         } catch (IllegalArgumentException ex) {
             LOG.error("Database table DOI contains a DOI that is not valid: "
                           + DOI.SCHEME + doiRow.getDoi() + "!", ex);
@@ -614,6 +779,7 @@ public class DOIOrganiser {
                                                 + DOI.SCHEME + doiRow.getDoi() + "!", ex);
         } catch (SQLException ex) {
             LOG.error("It wasn't possible to connect to the Database!", ex);
+            return false;
         }
     }
 
@@ -622,7 +788,7 @@ public class DOIOrganiser {
      * @param identifier    - DOI to delete
      * @throws SQLException
      */
-    public void delete(String identifier) throws SQLException {
+    public boolean delete(String identifier) throws SQLException {
         String doi = null;
         DOI doiRow = null;
 
@@ -643,6 +809,7 @@ public class DOIOrganiser {
                                        + DOI.SCHEME + doiRow.getDoi()
                                        + " online.");
             }
+            return true;
         } catch (DOIIdentifierException ex) {
             // Identifier was not recognized as DOI.
             LOG.error("It wasn't possible to detect this identifier:  "
@@ -654,12 +821,14 @@ public class DOIOrganiser {
                 System.err.println("It wasn't possible to detect this identifier: "
                                        + identifier);
             }
+            return false;
         } catch (IllegalArgumentException ex) {
             if (!quiet) {
                 System.err.println("It wasn't possible to delete this identifier: "
                                        + DOI.SCHEME + doiRow.getDoi()
                                        + " online. Take a look in log file.");
             }
+            return false;
         }
     }
 
@@ -799,4 +968,47 @@ public class DOIOrganiser {
         this.quiet = true;
     }
 
+    /**
+     * Set the number of DOIs processed concurrently by {@link #processAll(String, DOIOperation, Integer...)}
+     * @param threads   - number of worker threads, 1 to process the DOIs in the current thread
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Counts the processed DOIs of one run of {@link #processAll(String, DOIOperation, Integer...)}.
+     */
+    private class Progress {
+        private final String processName;
+        private final int total;
+        private final long start = System.currentTimeMillis();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        Progress(String processName, int total) {
+            this.processName = processName;
+            this.total = total;
+        }
+
+        void done(boolean success) {
+            if (!success) {
+                failed.incrementAndGet();
+            }
+            if (processed.incrementAndGet() % PROGRESS_INTERVAL == 0) {
+                report();
+            }
+        }
+
+        void report() {
+            long seconds = Math.max(1, (System.currentTimeMillis() - start) / 1000);
+            String message = processName + ": " + processed.get() + " of " + total + " DOIs processed, "
+                + failed.get() + " failed, " + (processed.get() / seconds) + " per second";
+            LOG.info(message);
+            if (!quiet) {
+                System.out.println(message);
+            }
+        }
+    }
+
 }
\ No newline at end of file
@@ -14,8 +14,14 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
 import org.apache.http.auth.AuthScope;
@@ -77,6 +83,18 @@ public class DataCiteConnector
         = "crosswalk.dissemination.DataCite.hostingInstitution";
     static final String CFG_NAMESPACE
         = "crosswalk.dissemination.DataCite.namespace";
+    static final String CFG_REQUESTS_PER_SECOND
+        = "identifier.doi.datacite.requests-per-second";
+    static final String CFG_MAX_RETRIES
+        = "identifier.doi.datacite.max-retries";
+    static final String CFG_RETRY_BACKOFF
+        = "identifier.doi.datacite.retry-backoff";
+
+    static final int DEFAULT_REQUESTS_PER_SECOND = 10;
+    static final int DEFAULT_MAX_RETRIES = 3;
+    static final long DEFAULT_RETRY_BACKOFF = 1000;
+    static final long MAX_RETRY_DELAY = 60 * 1000;
+    static final int MAX_CONNECTIONS = 20;
 
     /**
      * Stores the scheme used to connect to the DataCite server. It will be set
@@ -119,6 +137,9 @@ public class DataCiteConnector
     @Autowired
     protected HandleService handleService;
 
+    private CloseableHttpClient httpClient;
+    private RateLimiter rateLimiter;
+
     public DataCiteConnector() {
         this.xwalk = null;
         this.USERNAME = null;
@@ -677,6 +698,8 @@ public class DataCiteConnector
 
     /**
      * Internal method to send requests prepared by the caller to DataCite.
+     * Requests are throttled by {@link #getRateLimiter()} and retried with backoff
+     * when DataCite answers 429 or a 5xx status code, or the connection fails.
      *
      * @param req Extended version of the HttpRequest interface that provides convenience methods to access request
      *            properties such as request URI and method type.
@@ -693,107 +716,156 @@ public class DataCiteConnector
         HttpClientContext httpContext = HttpClientContext.create();
         httpContext.setCredentialsProvider(credentialsProvider);
 
-        HttpEntity entity = null;
-        try ( CloseableHttpClient httpclient = HttpClientBuilder.create().build(); ) {
-            HttpResponse response = httpclient.execute(req, httpContext);
-
-            StatusLine status = response.getStatusLine();
-            int statusCode = status.getStatusCode();
+        int maxRetries = configurationService.getIntProperty(CFG_MAX_RETRIES, DEFAULT_MAX_RETRIES);
+        for (int attempt = 0; ; attempt++) {
+            getRateLimiter().acquire();
+            long retryAfter = -1;
+            HttpEntity entity = null;
+            try {
+                HttpResponse response = getHttpClient().execute(req, httpContext);
 
-            String content = null;
-            entity = response.getEntity();
-            if (null != entity) {
-                content = EntityUtils.toString(entity, "UTF-8");
-            }
+                StatusLine status = response.getStatusLine();
+                int statusCode = status.getStatusCode();
 
-            /* While debugging it can be useful to see which requests are sent:
-             *
-             * log.debug("Going to send HTTP request of type " + req.getMethod() + ".");
-             * log.debug("Will be send to " + req.getURI().toString() + ".");
-             * if (req instanceof HttpEntityEnclosingRequestBase)
-             * {
-             *     log.debug("Request contains entity!");
-             *     HttpEntityEnclosingRequestBase reqee = (HttpEntityEnclosingRequestBase) req;
-             *     if (reqee.getEntity() instanceof StringEntity)
-             *     {
-             *         StringEntity se = (StringEntity) reqee.getEntity();
-             *         try {
-             *             BufferedReader br = new BufferedReader(new InputStreamReader(se.getContent()));
-             *             String line = null;
-             *             while ((line = br.readLine()) != null)
-             *             {
-             *                 log.debug(line);
-             *             }
-             *             log.info("----");
-             *         } catch (IOException ex) {
-             *
-             *         }
-             *     }
-             * } else {
-             *     log.debug("Request contains no entity!");
-             * }
-             * log.debug("The request got http status code {}.", Integer.toString(statusCode));
-             * if (null == content)
-             * {
-             *     log.debug("The response did not contain any answer.");
-             * } else {
-             *     log.debug("DataCite says: {}", content);
-             * }
-             *
-             */
-
-            // We can handle some status codes here, others have to be handled above
-            switch (statusCode) {
-                // we get a 401 if we forgot to send credentials or if the username
-                // and password did not match.
-                case (401): {
-                    log.info("We were unable to authenticate against the DOI registry agency.");
-                    log.info("The response was: {}", content);
-                    throw new DOIIdentifierException("Cannot authenticate at the "
-                                                         + "DOI registry agency. Please check if username "
-                                                         + "and password are set correctly.",
-                                                     DOIIdentifierException.AUTHENTICATION_ERROR);
+                String content = null;
+                entity = response.getEntity();
+                if (null != entity) {
+                    content = EntityUtils.toString(entity, "UTF-8");
                 }
 
-                // We get a 403 Forbidden if we are managing a DOI that belongs to
-                // another party or if there is a login problem.
-                case (403): {
-                    log.info("Managing a DOI ({}) was prohibited by the DOI "
-                                 + "registration agency: {}", doi, content);
-                    throw new DOIIdentifierException("We can check, register or "
-                                                         + "reserve DOIs that belong to us only.",
-                                                     DOIIdentifierException.FOREIGN_DOI);
+                // Rate limited or temporarily unavailable: wait and try again
+                if (isRetryable(statusCode) && attempt < maxRetries) {
+                    Header retryAfterHeader = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+                    if (retryAfterHeader != null && StringUtils.isNumeric(retryAfterHeader.getValue())) {
+                        retryAfter = TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfterHeader.getValue()));
+                    }
+                    log.warn("Caught an http status code {} while managing DOI {}, retrying ({} of {}).",
+                             statusCode, doi, attempt + 1, maxRetries);
+                } else {
+                    return handleResponse(statusCode, content, doi);
                 }
+            } catch (IOException e) {
+                if (attempt >= maxRetries) {
+                    log.warn("Caught an IOException: " + e.getMessage());
+                    throw new RuntimeException(e);
+                }
+                log.warn("Caught an IOException while managing DOI {}, retrying ({} of {}): {}",
+                         doi, attempt + 1, maxRetries, e.getMessage());
+            } finally {
+                try {
+                    // Release any resources used by HTTP-Request.
+                    if (null != entity) {
+                        EntityUtils.consume(entity);
+                    }
+                } catch (IOException e) {
+                    log.warn("Can't release HTTP-Entity: " + e.getMessage());
+                }
+            }
 
+            try {
+                Thread.sleep(getRetryDelay(attempt, retryAfter));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DOIIdentifierException("Interrupted while waiting to retry a request to DataCite.", e,
+                                                 DOIIdentifierException.INTERNAL_ERROR);
+            }
+        }
+    }
 
-                // 500 is documented and signals an internal server error
-                case (500): {
-                    log.warn("Caught an http status code 500 while managing DOI "
-                                 + "{}. Message was: " + content);
-                    throw new DOIIdentifierException("DataCite API has an internal error. "
-                                                         + "It is temporarily impossible to manage DOIs. "
-                                                         + "Further information can be found in DSpace log file.",
-                                                     DOIIdentifierException.INTERNAL_ERROR);
-                }
-                default:
-                    break;
+    /**
+     * Check the status codes we can handle here, others have to be handled above.
+     *
+     * @param statusCode http status code of the response
+     * @param content    body of the response
+     * @param doi        DOI string to operate on
+     * @return response from DataCite
+     * @throws DOIIdentifierException if the status code signals an error
+     */
+    protected DataCiteResponse handleResponse(int statusCode, String content, String doi)
+        throws DOIIdentifierException {
+        switch (statusCode) {
+            // we get a 401 if we forgot to send credentials or if the username
+            // and password did not match.
+            case (401): {
+                log.info("We were unable to authenticate against the DOI registry agency.");
+                log.info("The response was: {}", content);
+                throw new DOIIdentifierException("Cannot authenticate at the "
+                                                     + "DOI registry agency. Please check if username "
+                                                     + "and password are set correctly.",
+                                                 DOIIdentifierException.AUTHENTICATION_ERROR);
             }
 
+            // We get a 403 Forbidden if we are managing a DOI that belongs to
+            // another party or if there is a login problem.
+            case (403): {
+                log.info("Managing a DOI ({}) was prohibited by the DOI "
+                             + "registration agency: {}", doi, content);
+                throw new DOIIdentifierException("We can check, register or "
+                                                     + "reserve DOIs that belong to us only.",
+                                                 DOIIdentifierException.FOREIGN_DOI);
+            }
 
-            return new DataCiteResponse(statusCode, content);
-        } catch (IOException e) {
-            log.warn("Caught an IOException: " + e.getMessage());
-            throw new RuntimeException(e);
-        } finally {
-            try {
-                // Release any resources used by HTTP-Request.
-                if (null != entity) {
-                    EntityUtils.consume(entity);
-                }
-            } catch (IOException e) {
-                log.warn("Can't release HTTP-Entity: " + e.getMessage());
+
+            // 500 is documented and signals an internal server error
+            case (500): {
+                log.warn("Caught an http status code 500 while managing DOI "
+                             + "{}. Message was: " + content);
+                throw new DOIIdentifierException("DataCite API has an internal error. "
+                                                     + "It is temporarily impossible to manage DOIs. "
+                                                     + "Further information can be found in DSpace log file.",
+                                                 DOIIdentifierException.INTERNAL_ERROR);
             }
+            default:
+                break;
+        }
+
+        return new DataCiteResponse(statusCode, content);
+    }
+
+    protected boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode == 500 || statusCode == 502 || statusCode == 503
+            || statusCode == 504;
+    }
+
+    /**
+     * @param attempt    number of the failed attempt, starting at 0
+     * @param retryAfter delay requested by DataCite in milliseconds, or -1
+     * @return milliseconds to wait before the next attempt: the requested delay if any, else an exponential
+     *         backoff with jitter
+     */
+    protected long getRetryDelay(int attempt, long retryAfter) {
+        if (retryAfter >= 0) {
+            return Math.min(retryAfter, MAX_RETRY_DELAY);
+        }
+        long backoff = configurationService.getLongProperty(CFG_RETRY_BACKOFF, DEFAULT_RETRY_BACKOFF);
+        long delay = Math.min(backoff << Math.min(attempt, 16), MAX_RETRY_DELAY);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * @return the client shared by all requests, so that connections to DataCite are reused
+     */
+    protected synchronized CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClientBuilder.create()
+                                          .setMaxConnTotal(MAX_CONNECTIONS)
+                                          .setMaxConnPerRoute(MAX_CONNECTIONS)
+                                          .build();
+        }
+        return httpClient;
+    }
+
+    /**
+     * @return the token bucket limiting the requests sent to DataCite by this connector, whatever the number of
+     *         threads using it
+     */
+    protected synchronized RateLimiter getRateLimiter() {
+        if (rateLimiter == null) {
+            int permits = configurationService.getIntProperty(CFG_REQUESTS_PER_SECOND,
+                                                              DEFAULT_REQUESTS_PER_SECOND);
+            rateLimiter = RateLimiter.create(permits > 0 ? permits : Double.MAX_VALUE);
         }
+        return rateLimiter;
     }
 
     // returns null or handle
@@ -124,6 +124,27 @@ public interface DOIService {
      */
     public List<DOI> getDOIsByStatus(Context context, List<Integer> statuses) throws SQLException;
 
+    /**
+     * Find a page of the DOIs that have one of a given set of statuses, ordered by id.
+     * @param context current DSpace session.
+     * @param statuses desired statuses.
+     * @param afterId id of the last DOI of the previous page, or null for the first page.
+     * @param limit maximum number of DOIs to return.
+     * @return the DOIs having any of the given statuses and an id greater than afterId.
+     * @throws SQLException passed through.
+     */
+    public List<DOI> getDOIsByStatus(Context context, List<Integer> statuses, Integer afterId, int limit)
+        throws SQLException;
+
+    /**
+     * Count the DOIs that have one of a given set of statuses.
+     * @param context current DSpace session.
+     * @param statuses desired statuses.
+     * @return the number of DOIs having any of the given statuses.
+     * @throws SQLException passed through.
+     */
+    public int countDOIsByStatus(Context context, List<Integer> statuses) throws SQLException;
+
     /**
      * Find all DOIs that are similar to the specified pattern and not in the
      * specified states.
@@ -0,0 +1,221 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.scripts;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Buffered writer of the log of a single {@link Process}. The file is kept open while the process is logging and
+ * the lines are only written to it once the buffer is full or the writer is flushed. When the file reaches the
+ * maximum size, the log continues in a new numbered segment ({@code name.1}, {@code name.2}, ...), the segments
+ * together form the log. The log can be read from any byte offset with {@link #read(long, int)}, also by another
+ * instance than the one writing it, so that it can be followed while the process is running.
+ */
+public class ProcessLogWriter implements Closeable {
+
+    private final File directory;
+    private final String name;
+    private final int bufferSize;
+    private final long maxSegmentSize;
+
+    private OutputStream out;
+    private int segment;
+    private long segmentSize;
+    private volatile long lastWrite = System.currentTimeMillis();
+
+    /**
+     * @param directory      the directory of the log files
+     * @param name           the name of the first log file, the following segments get a numeric suffix
+     * @param bufferSize     the number of bytes buffered before they are written to the file
+     * @param maxSegmentSize the size in bytes from which the log continues in a new segment
+     */
+    public ProcessLogWriter(File directory, String name, int bufferSize, long maxSegmentSize) {
+        this.directory = directory;
+        this.name = name;
+        this.bufferSize = bufferSize;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Append a line to the log, (re)opening the last segment if needed.
+     *
+     * @param line the line, without line separator
+     * @throws IOException if the log file cannot be written
+     */
+    public synchronized void append(String line) throws IOException {
+        byte[] bytes = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        if (out == null) {
+            open();
+        } else if (segmentSize > 0 && segmentSize + bytes.length > maxSegmentSize) {
+            out.close();
+            segment++;
+            segmentSize = 0;
+            out = new BufferedOutputStream(new FileOutputStream(getSegment(segment), true), bufferSize);
+        }
+        out.write(bytes);
+        segmentSize += bytes.length;
+        lastWrite = System.currentTimeMillis();
+    }
+
+    private void open() throws IOException {
+        directory.mkdirs();
+        segment = 0;
+        while (getSegment(segment + 1).exists()) {
+            segment++;
+        }
+        File file = getSegment(segment);
+        segmentSize = file.length();
+        out = new BufferedOutputStream(new FileOutputStream(file, true), bufferSize);
+    }
+
+    /**
+     * Write the buffered lines to the log file.
+     *
+     * @throws IOException if the log file cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Flush and close the log file. The writer can still be used afterwards, it reopens the file on the next
+     * {@link #append(String)}.
+     *
+     * @throws IOException if the log file cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            try {
+                out.close();
+            } finally {
+                out = null;
+            }
+        }
+    }
+
+    /**
+     * @return the time in milliseconds of the last {@link #append(String)}, or of the creation of the writer
+     */
+    public long getLastWrite() {
+        return lastWrite;
+    }
+
+    /**
+     * @return the existing files of the log, in order
+     */
+    public List<File> getSegments() {
+        List<File> segments = new ArrayList<>();
+        for (int i = 0; getSegment(i).exists(); i++) {
+            segments.add(getSegment(i));
+        }
+        return segments;
+    }
+
+    private File getSegment(int index) {
+        return new File(directory, index == 0 ? name : name + "." + index);
+    }
+
+    /**
+     * Read (at most) the given number of bytes of the log from the given offset. The buffered lines are flushed
+     * first, and a multibyte character cut by the limit is left for the next read.
+     *
+     * @param offset    the offset in bytes from the start of the log
+     * @param maxLength the maximum number of bytes to read
+     * @return the bytes read, empty if there is nothing in the log after the offset
+     * @throws IOException if the log files cannot be read
+     */
+    public synchronized byte[] read(long offset, int maxLength) throws IOException {
+        flush();
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        long position = offset;
+        for (File file : getSegments()) {
+            long length = file.length();
+            if (position >= length) {
+                position -= length;
+                continue;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                raf.seek(position);
+                byte[] buffer = new byte[(int) Math.min(maxLength - result.size(), length - position)];
+                raf.readFully(buffer);
+                result.write(buffer);
+            }
+            position = 0;
+            if (result.size() >= maxLength) {
+                break;
+            }
+        }
+        byte[] bytes = result.toByteArray();
+        return bytes.length < maxLength ? bytes : trimIncompleteCharacter(bytes);
+    }
+
+    /**
+     * @return a stream over all the segments of the log
+     * @throws IOException if the log files cannot be opened
+     */
+    public synchronized InputStream openStream() throws IOException {
+        flush();
+        List<InputStream> streams = new ArrayList<>();
+        try {
+            for (File file : getSegments()) {
+                streams.add(new FileInputStream(file));
+            }
+        } catch (IOException e) {
+            for (InputStream stream : streams) {
+                stream.close();
+            }
+            throw e;
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    /**
+     * Close the writer and delete all the segments of the log.
+     *
+     * @throws IOException if the log file cannot be closed
+     */
+    public synchronized void delete() throws IOException {
+        close();
+        for (File file : getSegments()) {
+            file.delete();
+        }
+    }
+
+    private static byte[] trimIncompleteCharacter(byte[] bytes) {
+        // find the first byte of the last UTF-8 sequence and check the sequence is complete
+        int start = bytes.length - 1;
+        while (start > 0 && bytes.length - start < 4 && (bytes[start] & 0xC0) == 0x80) {
+            start--;
+        }
+        int lead = bytes[start] & 0xFF;
+        int expected = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+        if (bytes.length - start >= expected) {
+            return bytes;
+        }
+        byte[] trimmed = new byte[start];
+        System.arraycopy(bytes, 0, trimmed, 0, start);
+        return trimmed;
+    }
+}
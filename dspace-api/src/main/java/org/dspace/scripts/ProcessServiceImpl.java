@@ -7,12 +7,11 @@
  */
 package org.dspace.scripts;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileWriter;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -21,13 +20,20 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.service.AuthorizeService;
@@ -47,6 +53,7 @@ import org.dspace.eperson.EPerson;
 import org.dspace.eperson.Group;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.scripts.service.ProcessService;
+import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -74,6 +81,19 @@ public class ProcessServiceImpl implements ProcessService {
     @Autowired
     private EPersonService ePersonService;
 
+    @Autowired
+    private ConfigurationService configurationService;
+
+    /**
+     * Writers of the logs of the running processes, by process id. They are flushed periodically by the
+     * {@link #logFlusher} and closed once the process stopped logging for {@link #LOG_IDLE_TIMEOUT} ms.
+     */
+    private final Map<Integer, ProcessLogWriter> logWriters = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService logFlusher;
+
+    private static final long LOG_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
     @Override
     public Process create(Context context, EPerson ePerson, String scriptName,
                           List<DSpaceCommandLineParameter> parameters,
@@ -286,28 +306,122 @@ public class ProcessServiceImpl implements ProcessService {
     @Override
     public void appendLog(int processId, String scriptName, String output, ProcessLogLevel processLogLevel)
             throws IOException {
-        File tmpDir = FileUtils.getTempDirectory();
-        File tempFile = new File(tmpDir, scriptName + processId + ".log");
-        FileWriter out = new FileWriter(tempFile, true);
+        String line = formatLogLine(processId, scriptName, output, processLogLevel);
         try {
-            try (BufferedWriter writer = new BufferedWriter(out)) {
-                writer.append(formatLogLine(processId, scriptName, output, processLogLevel));
-                writer.newLine();
-            }
-        } finally {
-            out.close();
+            logWriters.compute(processId, (id, writer) -> {
+                if (writer == null) {
+                    writer = createLogWriter(scriptName + processId + ".log");
+                }
+                try {
+                    writer.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return writer;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        startLogFlusher();
     }
 
     @Override
     public void createLogBitstream(Context context, Process process)
             throws IOException, SQLException, AuthorizeException {
-        File tmpDir = FileUtils.getTempDirectory();
-        File tempFile = new File(tmpDir, process.getName() + process.getID() + ".log");
-        FileInputStream inputStream = FileUtils.openInputStream(tempFile);
-        appendFile(context, process, inputStream, Process.OUTPUT_TYPE, process.getName() + process.getID() + ".log");
-        inputStream.close();
-        tempFile.delete();
+        closeLog(process.getID());
+        String name = process.getName() + process.getID() + ".log";
+        ProcessLogWriter logWriter = createLogWriter(name);
+        if (logWriter.getSegments().isEmpty()) {
+            throw new FileNotFoundException("No log found for the process with id: " + process.getID());
+        }
+        try (InputStream inputStream = logWriter.openStream()) {
+            appendFile(context, process, inputStream, Process.OUTPUT_TYPE, name);
+        }
+        logWriter.delete();
+    }
+
+    @Override
+    public byte[] readLog(Context context, Process process, long offset, int maxLength)
+            throws IOException, SQLException, AuthorizeException {
+        if (offset < 0 || maxLength <= 0) {
+            return new byte[0];
+        }
+        ProcessLogWriter logWriter = logWriters.get(process.getID());
+        if (logWriter == null) {
+            logWriter = createLogWriter(process.getName() + process.getID() + ".log");
+        }
+        if (!logWriter.getSegments().isEmpty()) {
+            return logWriter.read(offset, maxLength);
+        }
+        // the process is finished, its log has been turned into the output bitstream
+        Bitstream output = getBitstream(context, process, Process.OUTPUT_TYPE);
+        if (output == null || offset >= output.getSizeBytes()) {
+            return new byte[0];
+        }
+        try (InputStream inputStream = bitstreamService.retrieve(context, output)) {
+            IOUtils.skipFully(inputStream, offset);
+            return inputStream.readNBytes((int) Math.min(maxLength, output.getSizeBytes() - offset));
+        }
+    }
+
+    /**
+     * @param name the name of the log file
+     * @return a writer of the log file in the configured process log directory
+     */
+    protected ProcessLogWriter createLogWriter(String name) {
+        String directory = configurationService.getProperty("process.log.dir");
+        return new ProcessLogWriter(StringUtils.isBlank(directory) ? FileUtils.getTempDirectory() : new File(directory),
+                                    name, configurationService.getIntProperty("process.log.buffer-size", 65536),
+                                    configurationService.getLongProperty("process.log.max-file-size", 104857600L));
+    }
+
+    /**
+     * Flush and close the writer of the log of the given process, if it is open.
+     *
+     * @param processId the id of the process
+     * @throws IOException if the log cannot be written
+     */
+    protected void closeLog(int processId) throws IOException {
+        ProcessLogWriter logWriter = logWriters.remove(processId);
+        if (logWriter != null) {
+            logWriter.close();
+        }
+    }
+
+    private void startLogFlusher() {
+        if (logFlusher == null) {
+            synchronized (this) {
+                if (logFlusher == null) {
+                    long interval = configurationService.getLongProperty("process.log.flush-interval", 1000);
+                    ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+                        new BasicThreadFactory.Builder().namingPattern("process-log-flusher").daemon(true).build());
+                    flusher.scheduleWithFixedDelay(this::flushLogs, interval, interval, TimeUnit.MILLISECONDS);
+                    logFlusher = flusher;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush the buffered lines of all the open logs, so that they are persisted and can be followed, and close
+     * the logs of the processes which have not logged anything for a while.
+     */
+    protected void flushLogs() {
+        long idleSince = System.currentTimeMillis() - LOG_IDLE_TIMEOUT;
+        for (Integer processId : logWriters.keySet()) {
+            logWriters.computeIfPresent(processId, (id, logWriter) -> {
+                try {
+                    if (logWriter.getLastWrite() < idleSince) {
+                        logWriter.close();
+                        return null;
+                    }
+                    logWriter.flush();
+                } catch (IOException e) {
+                    log.error("Could not write the log of the process with id: " + processId, e);
+                }
+                return logWriter;
+            });
+        }
     }
 
     @Override
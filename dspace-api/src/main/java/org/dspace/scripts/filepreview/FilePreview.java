@@ -162,9 +162,7 @@ public class FilePreview extends DSpaceRunnable<FilePreviewConfiguration> {
                     continue;
                 }
 
-                for (FileInfo fi : fileInfos) {
-                    previewContentService.createPreviewContent(context, bitstream, fi);
-                }
+                previewContentService.createPreviewContents(context, bitstream, fileInfos);
             }
         }
     }
@@ -243,6 +243,21 @@ public interface ProcessService {
     void createLogBitstream(Context context, Process process)
              throws IOException, SQLException, AuthorizeException;
 
+    /**
+     * This method will read the logs of the given {@link Process} from the given offset, from the log files while
+     * the process is running and from its output {@link Bitstream} once it is finished
+     * @param context       The relevant DSpace context
+     * @param process       The {@link Process} whose logs are read
+     * @param offset        The offset in bytes from which the logs are read
+     * @param maxLength     The maximum number of bytes to read
+     * @return              The bytes read, empty if there are no logs after the offset (yet)
+     * @throws IOException  If something goes wrong
+     * @throws SQLException If something goes wrong
+     * @throws AuthorizeException   If something goes wrong
+     */
+    byte[] readLog(Context context, Process process, long offset, int maxLength)
+             throws IOException, SQLException, AuthorizeException;
+
     /**
      * Find all the processes with one of the given status and with a creation time
      * older than the specified date.
@@ -8,11 +8,7 @@
 package org.dspace.statistics;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
@@ -21,15 +17,18 @@ import java.net.URI;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -37,21 +36,19 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.servlet.http.HttpServletRequest;
 
 import com.maxmind.geoip2.DatabaseReader;
 import com.maxmind.geoip2.exception.GeoIp2Exception;
 import com.maxmind.geoip2.model.CityResponse;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVWriter;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.solr.client.solrj.SolrClient;
@@ -59,8 +56,6 @@ import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.impl.HttpSolrClient;
 import org.apache.solr.client.solrj.impl.HttpSolrClient.RemoteSolrException;
-import org.apache.solr.client.solrj.request.AbstractUpdateRequest;
-import org.apache.solr.client.solrj.request.ContentStreamUpdateRequest;
 import org.apache.solr.client.solrj.request.CoreAdminRequest;
 import org.apache.solr.client.solrj.request.LukeRequest;
 import org.apache.solr.client.solrj.response.CoreAdminResponse;
@@ -76,6 +71,7 @@ import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.luke.FieldFlag;
 import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.params.CoreAdminParams.CoreAdminAction;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.apache.solr.common.params.FacetParams;
 import org.apache.solr.common.params.MapSolrParams;
 import org.apache.solr.common.params.ModifiableSolrParams;
@@ -117,7 +113,6 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
     private static final Logger log = LogManager.getLogger();
 
-    private static final String MULTIPLE_VALUES_SPLITTER = "|";
     protected SolrClient solr;
 
     public static final String DATE_FORMAT_8601 = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
@@ -686,8 +681,28 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
     }
 
 
+    /**
+     * Processes all the documents matching a query, page by page. The pages are read with a Solr cursor
+     * (cursorMark) sorted on the unique key, so documents updated while the query is processed are neither skipped
+     * nor processed twice, and the pages deep in a large core are as cheap to read as the first one. When the query
+     * matches more than one page, the pages are processed by a pool of workers (see
+     * {@code solr-statistics.maintenance.threads}) while the next pages are read.
+     */
     public class ResultProcessor {
 
+        private final int threads;
+
+        public ResultProcessor() {
+            this(configurationService.getIntProperty("solr-statistics.maintenance.threads", 4));
+        }
+
+        /**
+         * @param threads the maximum number of pages processed at the same time
+         */
+        public ResultProcessor(int threads) {
+            this.threads = Math.max(threads, 1);
+        }
+
         private SolrInputDocument toSolrInputDocument(SolrDocument d) {
             SolrInputDocument doc = new SolrInputDocument();
 
@@ -699,34 +714,120 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         }
 
         public void execute(String query) throws SolrServerException, IOException {
-            Map<String, String> params = new HashMap<>();
-            params.put("q", query);
-            params.put("rows", "10");
+            SolrQuery solrQuery = new SolrQuery(query);
             if (0 < statisticYearCores.size()) {
-                params.put(ShardParams.SHARDS, StringUtils.join(statisticYearCores.iterator(), ','));
+                solrQuery.set(ShardParams.SHARDS, StringUtils.join(statisticYearCores.iterator(), ','));
             }
-            MapSolrParams solrParams = new MapSolrParams(params);
-            QueryResponse response = solr.query(solrParams);
+            execute(solrQuery, null);
+        }
+
+        /**
+         * Process all the documents matching the query.
+         *
+         * @param query      the query, its rows, sort and cursor are set by this method
+         * @param checkpoint the name of the checkpoint in which the cursor of the processed pages is stored, or null.
+         *                   A run which was interrupted is resumed from its checkpoint when it is executed again with
+         *                   the same name and query. The checkpoint is removed when all the documents are processed.
+         * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
+         * @throws SolrServerException Exception from the Solr server to the solrj Java client.
+         */
+        public void execute(SolrQuery query, String checkpoint) throws SolrServerException, IOException {
+            int rows = configurationService.getIntProperty("solr-statistics.maintenance.batch-size", 1000);
+            query.setRows(rows);
+            // A cursor requires a sort on the unique key
+            query.setSort("uid", SolrQuery.ORDER.asc);
+            String queryString = query.toQueryString();
+            Path checkpointFile = checkpoint == null ? null : Paths.get(configurationService.getProperty("dspace.dir"),
+                "temp", "statistics-maintenance", checkpoint + ".checkpoint");
+            String cursorMark = readCheckpoint(checkpointFile, queryString);
+
+            ExecutorService workers = null;
+            Deque<Pair<Future<?>, String>> pending = new ArrayDeque<>();
+            try {
+                boolean done = false;
+                while (!done) {
+                    query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+                    QueryResponse response = solr.query(query);
+                    String nextCursorMark = response.getNextCursorMark();
+                    List<SolrInputDocument> docs = new ArrayList<>();
+                    for (SolrDocument result : response.getResults()) {
+                        docs.add(toSolrInputDocument(result));
+                    }
+                    done = docs.size() < rows || cursorMark.equals(nextCursorMark);
+                    cursorMark = nextCursorMark;
 
-            SolrDocumentList results = response.getResults();
-            long numbFound = results.getNumFound();
+                    if (docs.isEmpty()) {
+                        continue;
+                    }
+                    if (threads == 1 || (workers == null && done)) {
+                        process(docs);
+                        writeCheckpoint(checkpointFile, queryString, nextCursorMark);
+                        continue;
+                    }
+                    if (workers == null) {
+                        workers = Executors.newFixedThreadPool(threads);
+                    }
+                    pending.add(Pair.of(workers.submit(() -> {
+                        process(docs);
+                        return null;
+                    }), nextCursorMark));
+                    // Wait for the oldest pages, so that the checkpoint only moves past completely processed pages
+                    // and no more than two pages per worker are kept in memory
+                    while (!pending.isEmpty()
+                        && (pending.size() >= 2 * threads || pending.peek().getLeft().isDone())) {
+                        awaitPage(pending.poll(), checkpointFile, queryString);
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    awaitPage(pending.poll(), checkpointFile, queryString);
+                }
+            } finally {
+                if (workers != null) {
+                    workers.shutdownNow();
+                }
+            }
+            if (checkpointFile != null) {
+                Files.deleteIfExists(checkpointFile);
+            }
+        }
 
-            // process the first batch
-            for (SolrDocument result : results) {
-                process(toSolrInputDocument(result));
+        private void awaitPage(Pair<Future<?>, String> page, Path checkpointFile, String queryString)
+            throws SolrServerException, IOException {
+            try {
+                page.getLeft().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while processing the statistics", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SolrServerException) {
+                    throw (SolrServerException) cause;
+                } else if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
             }
+            writeCheckpoint(checkpointFile, queryString, page.getRight());
+        }
 
-            // Run over the rest
-            for (int i = 10; i < numbFound; i += 10) {
-                params.put("start", String.valueOf(i));
-                solrParams = new MapSolrParams(params);
-                response = solr.query(solrParams);
-                results = response.getResults();
-                for (SolrDocument result : results) {
-                    process(toSolrInputDocument(result));
+        private String readCheckpoint(Path checkpointFile, String queryString) throws IOException {
+            if (checkpointFile != null && Files.exists(checkpointFile)) {
+                List<String> lines = Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+                if (lines.size() == 2 && lines.get(0).equals(queryString)) {
+                    log.info("Resuming {} from checkpoint {}", queryString, checkpointFile);
+                    return lines.get(1);
                 }
             }
+            return CursorMarkParams.CURSOR_MARK_START;
+        }
 
+        private void writeCheckpoint(Path checkpointFile, String queryString, String cursorMark) throws IOException {
+            if (checkpointFile != null) {
+                Files.createDirectories(checkpointFile.getParent());
+                Files.write(checkpointFile, List.of(queryString, cursorMark), StandardCharsets.UTF_8);
+            }
         }
 
         public void commit() throws IOException, SolrServerException {
@@ -734,7 +835,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         }
 
         /**
-         * Override to manage pages of documents
+         * Override to manage pages of documents. The pages may be processed concurrently.
          *
          * @param docs a list of Solr documents
          * @throws IOException         A general class of exceptions produced by failed or interrupted I/O operations.
@@ -759,34 +860,59 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         }
     }
 
+    /**
+     * Flag the documents as bot visits and send them to Solr in one request.
+     */
+    private void markAsBot(List<SolrInputDocument> docs) throws IOException, SolrServerException {
+        for (SolrInputDocument doc : docs) {
+            doc.setField("isBot", true);
+            // see https://stackoverflow.com/questions/26941260/normalizing-solr-records-for-sharding-version-issues
+            doc.removeField("_version_");
+        }
+        solr.add(docs);
+    }
 
     @Override
     public void markRobotsByIP() {
-        for (String ip : SpiderDetector.getSpiderIpAddresses()) {
-
-            try {
-
-                /* Result Process to alter record to be identified as a bot */
-                ResultProcessor processor = new ResultProcessor() {
-                    @Override
-                    public void process(SolrInputDocument doc) throws IOException, SolrServerException {
-                        doc.removeField("isBot");
-                        doc.addField("isBot", true);
-                        solr.add(doc);
-                        log.info("Marked " + doc.getFieldValue("ip") + " as bot");
-                    }
-                };
+        // The IP addresses are processed concurrently, the pages of each address one after the other
+        ExecutorService workers = Executors.newFixedThreadPool(
+            Math.max(configurationService.getIntProperty("solr-statistics.maintenance.threads", 4), 1));
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (String ip : SpiderDetector.getSpiderIpAddresses()) {
+                results.add(workers.submit(() -> {
+                    try {
 
-                /* query for ip, exclude results previously set as bots. */
-                processor.execute("ip:" + ip + "* AND -isBot:true");
+                        /* Result Process to alter record to be identified as a bot */
+                        ResultProcessor processor = new ResultProcessor(1) {
+                            @Override
+                            public void process(List<SolrInputDocument> docs)
+                                throws IOException, SolrServerException {
+                                markAsBot(docs);
+                                log.info("Marked {} records of {} as bot", docs.size(), ip);
+                            }
+                        };
 
-                solr.commit();
+                        /* query for ip, exclude results previously set as bots. */
+                        processor.execute("ip:" + ip + "* AND -isBot:true");
 
-            } catch (Exception e) {
-                log.error(e.getMessage(), e);
+                    } catch (Exception e) {
+                        log.error(e.getMessage(), e);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
             }
 
-
+            solr.commit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(e.getMessage(), e);
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+        } finally {
+            workers.shutdownNow();
         }
 
     }
@@ -798,10 +924,8 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             /* Result Process to alter record to be identified as a bot */
             ResultProcessor processor = new ResultProcessor() {
                 @Override
-                public void process(SolrInputDocument doc) throws IOException, SolrServerException {
-                    doc.removeField("isBot");
-                    doc.addField("isBot", true);
-                    solr.add(doc);
+                public void process(List<SolrInputDocument> docs) throws IOException, SolrServerException {
+                    markAsBot(docs);
                 }
             };
 
@@ -851,67 +975,52 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                        List<String> fieldNames, List<List<Object>> fieldValuesList, boolean commit)
             throws SolrServerException, IOException {
 
-        // Since there is NO update
-        // We need to get our documents
-        // QueryResponse queryResponse = solr.query()//query(query, null, -1,
-        // null, null, null);
-
-        List<SolrInputDocument> docsToUpdate = new ArrayList<>();
-
+        // Since there is NO update, the documents are read, modified and added again. They keep their unique key, so
+        // adding them replaces the original documents.
         ResultProcessor processor = new ResultProcessor() {
             @Override
-            public void process(SolrInputDocument document) {
-                docsToUpdate.add(document);
-            }
-        };
-
-        processor.execute(query);
-
-        // Add the new (updated onces
-        for (int i = 0; i < docsToUpdate.size(); i++) {
-            SolrInputDocument solrDocument = docsToUpdate.get(i);
-
-            // Delete the document from the solr client
-            solr.deleteByQuery("uid:" + solrDocument.getFieldValue("uid"));
-
-            // Now loop over our fieldname actions
-            for (int j = 0; j < fieldNames.size(); j++) {
-                String fieldName = fieldNames.get(j);
-                List<Object> fieldValues = fieldValuesList.get(j);
-
-                if (action.equals("addOne") || action.equals("replace")) {
-                    if (action.equals("replace")) {
-                        solrDocument.removeField(fieldName);
-                    }
+            public void process(List<SolrInputDocument> docs) throws IOException, SolrServerException {
+                for (SolrInputDocument solrDocument : docs) {
+                    // Now loop over our fieldname actions
+                    for (int j = 0; j < fieldNames.size(); j++) {
+                        String fieldName = fieldNames.get(j);
+                        List<Object> fieldValues = fieldValuesList.get(j);
+
+                        if (action.equals("addOne") || action.equals("replace")) {
+                            if (action.equals("replace")) {
+                                solrDocument.removeField(fieldName);
+                            }
 
-                    for (Object fieldValue : fieldValues) {
-                        solrDocument.addField(fieldName, fieldValue);
-                    }
-                } else if (action.equals("remOne")) {
-                    // Remove the field
-                    java.util.Collection<Object> values = solrDocument
-                        .getFieldValues(fieldName);
-                    solrDocument.removeField(fieldName);
-                    for (Object value : values) {
-                        // Keep all the values besides the one we need to remove
-                        if (!fieldValues.contains((value))) {
-                            solrDocument.addField(fieldName, value);
+                            for (Object fieldValue : fieldValues) {
+                                solrDocument.addField(fieldName, fieldValue);
+                            }
+                        } else if (action.equals("remOne")) {
+                            // Remove the field
+                            java.util.Collection<Object> values = solrDocument
+                                .getFieldValues(fieldName);
+                            solrDocument.removeField(fieldName);
+                            for (Object value : values) {
+                                // Keep all the values besides the one we need to remove
+                                if (!fieldValues.contains((value))) {
+                                    solrDocument.addField(fieldName, value);
+                                }
+                            }
                         }
                     }
+
+                    // see https://stackoverflow.com/questions/26941260/normalizing-solr-records-for-sharding-version-issues
+                    solrDocument.removeField("_version_");
                 }
-            }
 
-            // see https://stackoverflow.com/questions/26941260/normalizing-solr-records-for-sharding-version-issues
-            solrDocument.removeField("_version_");
+                solr.add(docs);
+            }
+        };
 
-            solr.add(solrDocument);
+        processor.execute(query);
 
-            if (commit) {
-                commit();
-            }
+        if (commit) {
+            commit();
         }
-        // System.out.println("SolrLogger.update(\""+query+"\"):"+(new
-        // Date().getTime() - start)+"ms,"+numbFound+"records");
     }
 
     @Override
@@ -1226,12 +1335,6 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         yearRangeQuery.add(FacetParams.FACET_RANGE_GAP, "+1YEAR");
         yearRangeQuery.add(FacetParams.FACET_MINCOUNT, String.valueOf(1));
 
-        //Create a temp directory to store our files in !
-        File tempDirectory = new File(
-            configurationService.getProperty("dspace.dir") + File.separator + "temp" + File.separator);
-        tempDirectory.mkdirs();
-
-
         QueryResponse queryResponse = solr.query(yearRangeQuery);
         //We only have one range query !
         List<RangeFacet.Count> yearResults = queryResponse.getFacetRanges().get(0).getCounts();
@@ -1258,74 +1361,33 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             filterQuery.append(" NOT ").append(ClientUtils.escapeQueryChars(dcEndDate.toString()));
             filterQuery.append(")");
 
-
-            Map<String, String> yearQueryParams = new HashMap<>();
-            yearQueryParams.put(CommonParams.Q, "*:*");
-            yearQueryParams.put(CommonParams.ROWS, String.valueOf(10000));
-            yearQueryParams.put(CommonParams.FQ, filterQuery.toString());
-            yearQueryParams.put(CommonParams.WT, "csv");
-
-            //Tell SOLR how to escape and separate the values of multi-valued fields
-            yearQueryParams.put("csv.escape", "\\");
-            yearQueryParams.put("csv.mv.separator", MULTIPLE_VALUES_SPLITTER);
+            //Only the documents of the main core are moved, without the shards
+            SolrQuery yearQuery = new SolrQuery("*:*");
+            yearQuery.addFilterQuery(filterQuery.toString());
 
             //Start by creating a new core
             String coreName = statisticsCoreBase + "-" + dcStart.getYearUTC();
-            HttpSolrClient statisticsYearServer = createCore((HttpSolrClient) solr, coreName);
-
-            System.out.println("Moving: " + totalRecords + " into core " + coreName);
-            log.info("Moving: " + totalRecords + " records into core " + coreName);
-
-            List<File> filesToUpload = new ArrayList<>();
-            for (int i = 0; i < totalRecords; i += 10000) {
-                String solrRequestUrl = ((HttpSolrClient) solr).getBaseURL() + "/select";
-                solrRequestUrl = generateURL(solrRequestUrl, yearQueryParams);
-
-                HttpGet get = new HttpGet(solrRequestUrl);
-                InputStream csvInputstream;
-                File csvFile = new File(tempDirectory.getPath()
-                        + File.separatorChar
-                        + "temp."
-                        + dcStart.getYearUTC()
-                        + "."
-                        + i
-                        + ".csv");
-                try ( CloseableHttpClient hc = HttpClientBuilder.create().build(); ) {
-                    HttpResponse response = hc.execute(get);
-                    csvInputstream = response.getEntity().getContent();
-                    //Write the csv ouput to a file !
-                    FileUtils.copyInputStreamToFile(csvInputstream, csvFile);
-                }
-                filesToUpload.add(csvFile);
-
-                //Add 10000 & start over again
-                yearQueryParams.put(CommonParams.START, String.valueOf((i + 10000)));
-            }
-
-            Set<String> multivaluedFields = getMultivaluedFieldNames();
+            try (HttpSolrClient statisticsYearServer = createCore((HttpSolrClient) solr, coreName)) {
 
-            for (File tempCsv : filesToUpload) {
-                //Upload the data in the csv files to our new solr core
-                ContentStreamUpdateRequest contentStreamUpdateRequest = new ContentStreamUpdateRequest("/update");
-                contentStreamUpdateRequest.setParam("stream.contentType", "text/csv;charset=utf-8");
-                contentStreamUpdateRequest.setParam("escape", "\\");
-                contentStreamUpdateRequest.setParam("skip", "_version_");
-                contentStreamUpdateRequest.setAction(AbstractUpdateRequest.ACTION.COMMIT, true, true);
-                contentStreamUpdateRequest.addFile(tempCsv, "text/csv;charset=utf-8");
+                System.out.println("Moving: " + totalRecords + " into core " + coreName);
+                log.info("Moving: " + totalRecords + " records into core " + coreName);
 
-                //Add parsing directives for the multivalued fields so that they are stored as separate values
-                // instead of one value
-                for (String multivaluedField : multivaluedFields) {
-                    contentStreamUpdateRequest.setParam("f." + multivaluedField + ".split", Boolean.TRUE.toString());
-                    contentStreamUpdateRequest
-                        .setParam("f." + multivaluedField + ".separator", MULTIPLE_VALUES_SPLITTER);
-                }
+                //Stream the documents to the new core, an interrupted move is resumed from its checkpoint
+                ResultProcessor processor = new ResultProcessor() {
+                    @Override
+                    public void process(List<SolrInputDocument> docs) throws IOException, SolrServerException {
+                        for (SolrInputDocument doc : docs) {
+                            // see https://stackoverflow.com/questions/26941260/normalizing-solr-records-for-sharding-version-issues
+                            doc.removeField("_version_");
+                        }
+                        statisticsYearServer.add(docs);
+                    }
+                };
+                processor.execute(yearQuery, coreName);
 
-                statisticsYearServer.request(contentStreamUpdateRequest);
+                statisticsYearServer.commit(true, true);
             }
 
-            statisticsYearServer.commit(true, true);
-
 
             //Delete contents of this year from our year query !
             solr.deleteByQuery(filterQuery.toString());
@@ -1333,8 +1395,6 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
             log.info("Moved {} records into core: {}", totalRecords, coreName);
         }
-
-        FileUtils.deleteDirectory(tempDirectory);
     }
 
     protected HttpSolrClient createCore(HttpSolrClient solr, String coreName)
@@ -1405,118 +1465,48 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         Context context = new Context();
 
         try {
-            //First of all retrieve the total number of records to be updated
+            //Only retrieve records which do not have a bundle name, the updated records no longer match the query,
+            // so an interrupted reindex continues where it stopped when it is started again
             SolrQuery query = new SolrQuery();
             query.setQuery("*:*");
             query.addFilterQuery("type:" + Constants.BITSTREAM);
-            //Only retrieve records which do not have a bundle name
             query.addFilterQuery("-bundleName:[* TO *]");
-            query.setRows(0);
-            addAdditionalSolrYearCores(query);
-            long totalRecords = solr.query(query).getResults().getNumFound();
-
-            File tempDirectory = new File(
-                configurationService.getProperty("dspace.dir") + File.separator + "temp" + File.separator);
-            tempDirectory.mkdirs();
-            List<File> tempCsvFiles = new ArrayList<>();
-            for (int i = 0; i < totalRecords; i += 10000) {
-                Map<String, String> params = new HashMap<>();
-                params.put(CommonParams.Q, "*:*");
-                params.put(CommonParams.FQ, "-bundleName:[* TO *] AND type:" + Constants.BITSTREAM);
-                params.put(CommonParams.WT, "csv");
-                params.put(CommonParams.ROWS, String.valueOf(10000));
-                params.put(CommonParams.START, String.valueOf(i));
-
-                String solrRequestUrl = ((HttpSolrClient) solr).getBaseURL() + "/select";
-                solrRequestUrl = generateURL(solrRequestUrl, params);
-
-                HttpGet get = new HttpGet(solrRequestUrl);
-                List<String[]> rows;
-                try ( CloseableHttpClient hc = HttpClientBuilder.create().build(); ) {
-                    HttpResponse response = hc.execute(get);
-                    InputStream csvOutput = response.getEntity().getContent();
-                    Reader csvReader = new InputStreamReader(csvOutput);
-                    rows = new CSVReader(csvReader).readAll();
-                }
-                String[][] csvParsed = rows.toArray(new String[rows.size()][]);
-                String[] header = csvParsed[0];
-                //Attempt to find the bitstream id index !
-                int idIndex = 0;
-                for (int j = 0; j < header.length; j++) {
-                    if (header[j].equals("id")) {
-                        idIndex = j;
-                    }
-                }
 
-                File tempCsv = new File(tempDirectory.getPath() + File.separatorChar + "temp." + i + ".csv");
-                tempCsvFiles.add(tempCsv);
-                CSVWriter csvp = new CSVWriter(new FileWriter(tempCsv));
-                //csvp.setAlwaysQuote(false);
-
-                //Write the header !
-                csvp.writeNext((String[]) ArrayUtils.add(header, "bundleName"));
-                Map<String, String> bitBundleCache = new HashMap<>();
-                //Loop over each line (skip the headers though)!
-                for (int j = 1; j < csvParsed.length; j++) {
-                    String[] csvLine = csvParsed[j];
-                    //Write the default line !
-                    String bitstreamId = csvLine[idIndex];
-                    //Attempt to retrieve our bundle name from the cache !
-                    String bundleName = bitBundleCache.get(bitstreamId);
-                    if (bundleName == null) {
-                        //Nothing found retrieve the bitstream
-                        Bitstream bitstream = bitstreamService.findByIdOrLegacyId(context, bitstreamId);
-                        //Attempt to retrieve our bitstream !
-                        if (bitstream != null) {
-                            List<Bundle> bundles = bitstream.getBundles();
-                            if (bundles != null && 0 < bundles.size()) {
-                                Bundle bundle = bundles.get(0);
-                                bundleName = bundle.getName();
-                            } else {
-                                //No bundle found, we are either a collection or a community logo, check for it !
-                                DSpaceObject parentObject = bitstreamService.getParentObject(context, bitstream);
-                                if (parentObject instanceof Collection) {
-                                    bundleName = "LOGO-COLLECTION";
-                                } else if (parentObject instanceof Community) {
-                                    bundleName = "LOGO-COMMUNITY";
-                                }
-
-                            }
-                            //Cache the bundle name
-                            bitBundleCache.put(bitstream.getID().toString(), bundleName);
-                            //Remove the bitstream from cache
-                        }
+            Map<String, String> bitBundleCache = new HashMap<>();
+            ResultProcessor processor = new ResultProcessor() {
+                @Override
+                public void process(List<SolrInputDocument> docs) throws IOException, SolrServerException {
+                    List<SolrInputDocument> updatedDocs = new ArrayList<>();
+                    List<String> deletedIds = new ArrayList<>();
+                    for (SolrInputDocument doc : docs) {
+                        String bundleName = getBundleName(context, bitBundleCache, String.valueOf(doc.getFieldValue(
+                            "id")));
                         //Check if we don't have a bundlename
                         //If we don't have one & we do not need to delete the deleted bitstreams ensure that a
                         // BITSTREAM_DELETED bundle name is given !
                         if (bundleName == null && !removeDeletedBitstreams) {
                             bundleName = "BITSTREAM_DELETED";
                         }
+                        if (bundleName == null) {
+                            deletedIds.add(String.valueOf(doc.getFieldValue("uid")));
+                        } else {
+                            doc.setField("bundleName", bundleName);
+                            doc.removeField("_version_");
+                            updatedDocs.add(doc);
+                        }
+                    }
+                    if (!updatedDocs.isEmpty()) {
+                        solr.add(updatedDocs);
+                    }
+                    if (!deletedIds.isEmpty()) {
+                        solr.deleteById(deletedIds);
                     }
-                    csvp.writeNext((String[]) ArrayUtils.add(csvLine, bundleName));
                 }
+            };
+            processor.execute(query, null);
 
-                //Loop over our parsed csv
-                csvp.flush();
-                csvp.close();
-            }
-
-            //Add all the separate csv files
-            for (File tempCsv : tempCsvFiles) {
-                ContentStreamUpdateRequest contentStreamUpdateRequest = new ContentStreamUpdateRequest("/update");
-                contentStreamUpdateRequest.setParam("stream.contentType", "text/csv;charset=utf-8");
-                contentStreamUpdateRequest.setAction(AbstractUpdateRequest.ACTION.COMMIT, true, true);
-                contentStreamUpdateRequest.addFile(tempCsv, "text/csv;charset=utf-8");
-
-                solr.request(contentStreamUpdateRequest);
-            }
-
-            //Now that all our new bitstream stats are in place, delete all the old ones !
-            solr.deleteByQuery("-bundleName:[* TO *] AND type:" + Constants.BITSTREAM);
             //Commit everything to wrap up
             solr.commit(true, true);
-            //Clean up our directory !
-            FileUtils.deleteDirectory(tempDirectory);
         } catch (Exception e) {
             log.error("Error while updating the bitstream statistics", e);
             throw e;
@@ -1525,6 +1515,55 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
         }
     }
 
+    /**
+     * Retrieve the name of the bundle of a bitstream. The Context is not thread safe, so the bitstreams of the pages
+     * processed concurrently are retrieved one at a time.
+     *
+     * @param context        The relevant DSpace Context.
+     * @param bitBundleCache the bundle names already retrieved, by bitstream id
+     * @param bitstreamId    the id or the legacy id of the bitstream
+     * @return the name of the bundle, LOGO-COLLECTION or LOGO-COMMUNITY for a logo, or null when the bitstream was
+     * deleted
+     * @throws IOException when the bitstream cannot be retrieved
+     */
+    private String getBundleName(Context context, Map<String, String> bitBundleCache, String bitstreamId)
+        throws IOException {
+        synchronized (context) {
+            //Attempt to retrieve our bundle name from the cache !
+            if (bitBundleCache.containsKey(bitstreamId)) {
+                return bitBundleCache.get(bitstreamId);
+            }
+            String bundleName = null;
+            try {
+                //Nothing found retrieve the bitstream
+                Bitstream bitstream = bitstreamService.findByIdOrLegacyId(context, bitstreamId);
+                //Attempt to retrieve our bitstream !
+                if (bitstream != null) {
+                    List<Bundle> bundles = bitstream.getBundles();
+                    if (bundles != null && 0 < bundles.size()) {
+                        Bundle bundle = bundles.get(0);
+                        bundleName = bundle.getName();
+                    } else {
+                        //No bundle found, we are either a collection or a community logo, check for it !
+                        DSpaceObject parentObject = bitstreamService.getParentObject(context, bitstream);
+                        if (parentObject instanceof Collection) {
+                            bundleName = "LOGO-COLLECTION";
+                        } else if (parentObject instanceof Community) {
+                            bundleName = "LOGO-COMMUNITY";
+                        }
+                    }
+                    //Remove the bitstream from the session, a large core refers to a lot of them
+                    context.uncacheEntity(bitstream);
+                }
+            } catch (SQLException e) {
+                throw new IOException("Unable to retrieve the bitstream " + bitstreamId, e);
+            }
+            //Cache the bundle name
+            bitBundleCache.put(bitstreamId, bundleName);
+            return bundleName;
+        }
+    }
+
 
     @Override
     public void exportHits() throws Exception {
@@ -13,6 +13,8 @@ import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.dspace.content.Bitstream;
 
 /**
@@ -46,6 +48,29 @@ public interface BitStoreService {
      */
     public InputStream get(Bitstream bitstream) throws IOException;
 
+    /**
+     * Retrieve a range of the bits for bitstream. By default the stream of
+     * {@link #get(Bitstream)} is skipped to the offset, stores which can read
+     * a range directly should override this.
+     *
+     * @param bitstream DSpace Bitstream object
+     * @param offset    The offset of the first byte to retrieve
+     * @param length    The maximum number of bytes to retrieve
+     * @return The stream of bits of the range
+     * @throws java.io.IOException If a problem occurs while retrieving the bits, or if no
+     *                             asset with ID exists in the store
+     */
+    public default InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        InputStream inputStream = get(bitstream);
+        try {
+            IOUtils.skipFully(inputStream, offset);
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+        return new BoundedInputStream(inputStream, length);
+    }
+
     /**
      * Retrieve the bits for bitstream
      *
@@ -215,6 +215,13 @@ public class BitstreamStorageServiceImpl implements BitstreamStorageService, Ini
         return this.getStore(storeNumber).get(bitstream);
     }
 
+    @Override
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+        throws SQLException, IOException {
+        Integer storeNumber = bitstream.getStoreNumber();
+        return this.getStore(storeNumber).get(bitstream, offset, length);
+    }
+
     @Override
     public File retrieveFile(Context context, Bitstream bitstream)
         throws IOException {
@@ -0,0 +1,500 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.core.Utils;
+
+/**
+ * Decorator of a (remote) asset store which keeps the recently used bitstreams in a size-bounded cache on the local
+ * disk, so that the popular bitstreams are served at the speed of the local disk without keeping a full replica of
+ * the store.
+ * <p>
+ * The cached files are keyed by the internal id and the checksum of the bitstream, a cached file whose checksum does
+ * not match the bitstream anymore is never served. A bitstream which is not cached is served by the delegate and
+ * admitted to the cache in the background, its content is verified against the checksum of the bitstream before it
+ * is served from the cache. When the cache is full the least recently used files are evicted. The cache survives
+ * restarts, the files found in the cache directory are loaded in the order of their last access on initialization.
+ *
+ * @see #getHitRatio()
+ */
+public class CachingBitStoreService implements BitStoreService {
+
+    private static final Logger log = LogManager.getLogger(CachingBitStoreService.class);
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String CHECKSUM_SEPARATOR = ".";
+
+    private BitStoreService delegate;
+    private boolean cacheEnabled = false;
+    private String cacheDir;
+
+    /**
+     * Maximum size of the cache in bytes.
+     */
+    private long maxSize = 10L * 1024 * 1024 * 1024;
+
+    /**
+     * Maximum size of a cached bitstream in bytes, larger bitstreams are always served by the delegate.
+     */
+    private long maxFileSize = 1024L * 1024 * 1024;
+
+    /**
+     * Number of the threads which admit the bitstreams to the cache.
+     */
+    private int admissionThreads = 2;
+
+    /**
+     * Maximum number of the bitstreams waiting to be admitted, further bitstreams are not admitted until the queue
+     * has room.
+     */
+    private int admissionQueueSize = 100;
+
+    private File directory;
+    private ExecutorService admissionExecutor;
+
+    /**
+     * Cached files by the (sanitized) internal id of the bitstream, in the order of their last access.
+     */
+    private final LinkedHashMap<String, CachedFile> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+    private final Set<String> pendingAdmissions = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong admissions = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong failedVerifications = new AtomicLong();
+
+    public CachingBitStoreService() {
+    }
+
+    public CachingBitStoreService(BitStoreService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void init() throws IOException {
+        if (!delegate.isInitialized()) {
+            delegate.init();
+        }
+        if (!cacheEnabled || directory != null) {
+            return;
+        }
+        File cacheDirectory = new File(cacheDir);
+        if (!cacheDirectory.exists() && !cacheDirectory.mkdirs()) {
+            throw new IOException("Cannot create the bitstream cache directory " + cacheDirectory);
+        }
+        loadIndex(cacheDirectory);
+        admissionExecutor = new ThreadPoolExecutor(admissionThreads, admissionThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(admissionQueueSize), CachingBitStoreService::newAdmissionThread);
+        directory = cacheDirectory;
+        log.info("Bitstream cache ready in " + cacheDirectory + ", " + index.size() + " files, " + size + " bytes");
+    }
+
+    private static Thread newAdmissionThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "bitstream-cache-admission");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Load the files left in the cache directory by the previous run, the oldest accessed first.
+     */
+    private void loadIndex(File cacheDirectory) throws IOException {
+        File[] files = cacheDirectory.listFiles();
+        if (files == null) {
+            throw new IOException("Cannot list the bitstream cache directory " + cacheDirectory);
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        synchronized (index) {
+            for (File file : files) {
+                String name = file.getName();
+                int separator = name.lastIndexOf(CHECKSUM_SEPARATOR);
+                if (!file.isFile() || separator <= 0) {
+                    continue;
+                }
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    // unfinished admission
+                    FileUtils.deleteQuietly(file);
+                    continue;
+                }
+                CachedFile previous = index.put(name.substring(0, separator),
+                    new CachedFile(file, name.substring(separator + 1), file.length()));
+                if (previous != null) {
+                    size -= previous.length;
+                    FileUtils.deleteQuietly(previous.file);
+                }
+                size += file.length();
+            }
+            evict();
+        }
+    }
+
+    /**
+     * Stop admitting the bitstreams to the cache.
+     */
+    public void destroy() {
+        if (admissionExecutor != null) {
+            admissionExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public String generateId() {
+        return delegate.generateId();
+    }
+
+    @Override
+    public InputStream get(Bitstream bitstream) throws IOException {
+        InputStream cached = openCached(bitstream);
+        if (cached != null) {
+            return cached;
+        }
+        admit(bitstream);
+        return delegate.get(bitstream);
+    }
+
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        InputStream inputStream = openCached(bitstream);
+        if (inputStream == null) {
+            // a ranged read (e.g. the listing of an archive) does not make the whole bitstream hot
+            return delegate.get(bitstream, offset, length);
+        }
+        try {
+            IOUtils.skipFully(inputStream, offset);
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+        return new BoundedInputStream(inputStream, length);
+    }
+
+    @Override
+    public File getFile(Bitstream bitstream) throws IOException {
+        // the callers may keep the file for longer than it stays in the cache
+        return delegate.getFile(bitstream);
+    }
+
+    @Override
+    public void put(Bitstream bitstream, InputStream inputStream) throws IOException {
+        invalidate(bitstream.getInternalId());
+        delegate.put(bitstream, inputStream);
+    }
+
+    @Override
+    public Map<String, Object> about(Bitstream bitstream, List<String> attrs) throws IOException {
+        return delegate.about(bitstream, attrs);
+    }
+
+    @Override
+    public void remove(Bitstream bitstream) throws IOException {
+        invalidate(bitstream.getInternalId());
+        delegate.remove(bitstream);
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return delegate.isInitialized() && (!cacheEnabled || directory != null);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return delegate.isEnabled();
+    }
+
+    /**
+     * Open the cached file of the bitstream and count the hit or the miss. The file is opened while the index is
+     * locked, so that it cannot be evicted or invalidated in the meantime; the opened stream stays readable after
+     * the file is deleted.
+     *
+     * @return the stream of the cached file or null if the bitstream is not cached
+     */
+    private InputStream openCached(Bitstream bitstream) {
+        if (directory == null) {
+            return null;
+        }
+        String key = sanitize(bitstream.getInternalId());
+        synchronized (index) {
+            CachedFile cachedFile = index.get(key);
+            if (cachedFile != null && StringUtils.equals(cachedFile.checksum, bitstream.getChecksum())) {
+                try {
+                    InputStream inputStream = new FileInputStream(cachedFile.file);
+                    hits.incrementAndGet();
+                    // persist the access order for the next run
+                    cachedFile.file.setLastModified(System.currentTimeMillis());
+                    return inputStream;
+                } catch (FileNotFoundException e) {
+                    log.warn("The cached file " + cachedFile.file + " was deleted, it is read from the store");
+                }
+            }
+            if (cachedFile != null) {
+                // the content of the bitstream has changed or the file was deleted
+                removeEntry(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Admit the bitstream to the cache in the background, unless it is already being admitted, it is too large or
+     * it cannot be verified.
+     */
+    private void admit(Bitstream bitstream) {
+        String internalId = bitstream.getInternalId();
+        String checksum = bitstream.getChecksum();
+        String checksumAlgorithm = bitstream.getChecksumAlgorithm();
+        long sizeBytes = bitstream.getSizeBytes();
+        if (directory == null || StringUtils.isAnyBlank(internalId, checksum, checksumAlgorithm)
+            || sizeBytes > maxFileSize || sizeBytes > maxSize || !pendingAdmissions.add(internalId)) {
+            return;
+        }
+        try {
+            admissionExecutor.execute(() -> {
+                try {
+                    fill(bitstream, internalId, checksum, checksumAlgorithm);
+                } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+                    log.warn("Cannot admit the bitstream " + internalId + " to the cache", e);
+                } finally {
+                    pendingAdmissions.remove(internalId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the admission queue is full, the bitstream is admitted on one of its next accesses
+            pendingAdmissions.remove(internalId);
+        }
+    }
+
+    /**
+     * Copy the bitstream from the delegate to the cache and verify it against its checksum.
+     */
+    private void fill(Bitstream bitstream, String internalId, String checksum, String checksumAlgorithm)
+        throws IOException, NoSuchAlgorithmException {
+        String key = sanitize(internalId);
+        String name = key + CHECKSUM_SEPARATOR + checksum;
+        File temp = new File(directory, name + TEMP_SUFFIX);
+        MessageDigest digest = MessageDigest.getInstance(checksumAlgorithm);
+        try (InputStream inputStream = new DigestInputStream(delegate.get(bitstream), digest);
+             OutputStream outputStream = Files.newOutputStream(temp.toPath())) {
+            inputStream.transferTo(outputStream);
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(temp);
+            throw e;
+        }
+        if (!checksum.equalsIgnoreCase(Utils.toHex(digest.digest()))) {
+            failedVerifications.incrementAndGet();
+            FileUtils.deleteQuietly(temp);
+            log.warn("The content of the bitstream " + internalId + " does not match its checksum " + checksum
+                         + ", it was not admitted to the cache");
+            return;
+        }
+        File file = new File(directory, name);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+        synchronized (index) {
+            CachedFile previous = index.put(key, new CachedFile(file, checksum, file.length()));
+            if (previous != null) {
+                size -= previous.length;
+                if (!previous.file.equals(file)) {
+                    FileUtils.deleteQuietly(previous.file);
+                }
+            }
+            size += file.length();
+            evict();
+            admissions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Evict the least recently used files until the cache fits its maximum size. The open streams of the evicted
+     * files can still be read.
+     */
+    private void evict() {
+        Iterator<CachedFile> iterator = index.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            CachedFile cachedFile = iterator.next();
+            iterator.remove();
+            size -= cachedFile.length;
+            FileUtils.deleteQuietly(cachedFile.file);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void invalidate(String internalId) {
+        if (directory == null) {
+            return;
+        }
+        synchronized (index) {
+            removeEntry(sanitize(internalId));
+        }
+    }
+
+    private void removeEntry(String key) {
+        CachedFile cachedFile = index.remove(key);
+        if (cachedFile != null) {
+            size -= cachedFile.length;
+            FileUtils.deleteQuietly(cachedFile.file);
+        }
+    }
+
+    /**
+     * The internal id of a registered bitstream is a path, keep it a single file name. A collision of two sanitized
+     * ids is harmless, a cached file is only served to the bitstream with its checksum.
+     */
+    private static String sanitize(String internalId) {
+        return internalId.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    /**
+     * @return the ratio of the reads served from the cache to all reads, 0 if there were no reads
+     */
+    public double getHitRatio() {
+        long requests = hits.get() + misses.get();
+        return requests == 0 ? 0 : (double) hits.get() / requests;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getAdmissions() {
+        return admissions.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getFailedVerifications() {
+        return failedVerifications.get();
+    }
+
+    /**
+     * @return the size of the cached files in bytes
+     */
+    public long getSize() {
+        synchronized (index) {
+            return size;
+        }
+    }
+
+    /**
+     * @return the number of the cached files
+     */
+    public int getCount() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    public BitStoreService getDelegate() {
+        return delegate;
+    }
+
+    public void setDelegate(BitStoreService delegate) {
+        this.delegate = delegate;
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    public String getCacheDir() {
+        return cacheDir;
+    }
+
+    public void setCacheDir(String cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    public int getAdmissionThreads() {
+        return admissionThreads;
+    }
+
+    public void setAdmissionThreads(int admissionThreads) {
+        this.admissionThreads = admissionThreads;
+    }
+
+    public int getAdmissionQueueSize() {
+        return admissionQueueSize;
+    }
+
+    public void setAdmissionQueueSize(int admissionQueueSize) {
+        this.admissionQueueSize = admissionQueueSize;
+    }
+
+    private static class CachedFile {
+        private final File file;
+        private final String checksum;
+        private final long length;
+
+        CachedFile(File file, String checksum, long length) {
+            this.file = file;
+            this.checksum = checksum;
+            this.length = length;
+        }
+    }
+}
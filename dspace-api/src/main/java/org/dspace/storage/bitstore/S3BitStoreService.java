@@ -305,6 +305,36 @@ public class S3BitStoreService extends BaseBitStoreService {
         }
     }
 
+    /**
+     * Retrieve a range of the asset with a ranged GET request, without
+     * downloading the whole asset.
+     *
+     * @param bitstream The ID of the asset to retrieve
+     * @param offset    The offset of the first byte to retrieve
+     * @param length    The maximum number of bytes to retrieve
+     * @return The stream of bits of the range
+     * @throws java.io.IOException If a problem occurs while retrieving the bits
+     */
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        String key = getFullKey(bitstream.getInternalId());
+        // Strip -R from bitstream key if it's registered
+        if (isRegisteredBitstream(key)) {
+            key = key.substring(REGISTERED_FLAG.length());
+        }
+        try {
+            GetObjectRequest getObjectRequest = new GetObjectRequest(bucketName, key)
+                .withRange(offset, offset + length - 1);
+            return s3Service.getObject(getObjectRequest).getObjectContent();
+        } catch (AmazonClientException e) {
+            log.error("get(" + key + ", " + offset + ", " + length + ")", e);
+            throw new IOException(e);
+        }
+    }
+
     @Override
     public File getFile(Bitstream bitstream) throws IOException {
         String key = getFullKey(bitstream.getInternalId());
@@ -191,6 +191,13 @@ public class SyncBitstreamStorageServiceImpl extends BitstreamStorageServiceImpl
         return this.getStore(storeNumber).get(bitstream);
     }
 
+    @Override
+    public InputStream retrieve(Context context, Bitstream bitstream, long offset, long length)
+            throws SQLException, IOException {
+        int storeNumber = this.whichStoreNumber(bitstream);
+        return this.getStore(storeNumber).get(bitstream, offset, length);
+    }
+
     @Override
     public void cleanup(boolean deleteDbRecords, boolean verbose) throws SQLException, IOException, AuthorizeException {
         Context context = new Context(Context.Mode.BATCH_EDIT);
@@ -0,0 +1,52 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.rdbms;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+
+/**
+ * The DBCP {@link BasicDataSource} configured in core-hibernate.xml. Besides the number of active and idle
+ * connections exposed by the BasicDataSource, it tells how many threads wait for a connection and how long they
+ * waited, which shows whether the pool is exhausted.
+ */
+public class DSpaceBasicDataSource extends BasicDataSource {
+
+    /**
+     * @return the number of threads waiting for a connection, 0 if the pool is not created yet
+     */
+    public int getNumWaiters() {
+        GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+        return pool != null ? pool.getNumWaiters() : 0;
+    }
+
+    /**
+     * @return the mean time in milliseconds threads waited for a connection (over the last borrowed connections)
+     */
+    public long getMeanBorrowWaitTimeMillis() {
+        GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+        return pool != null ? pool.getMeanBorrowWaitTimeMillis() : 0;
+    }
+
+    /**
+     * @return the maximum time in milliseconds a thread waited for a connection
+     */
+    public long getMaxBorrowWaitTimeMillis() {
+        GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+        return pool != null ? pool.getMaxBorrowWaitTimeMillis() : 0;
+    }
+
+    /**
+     * @return the number of connections borrowed from the pool since it was created
+     */
+    public long getBorrowedCount() {
+        GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+        return pool != null ? pool.getBorrowedCount() : 0;
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.util;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Lists the entries of ZIP and TAR archives by reading only the parts of the archive which describe them, so that
+ * an archive kept in a remote store does not have to be retrieved as a whole. For a ZIP archive these are the end
+ * of central directory record and the central directory, for a TAR archive the header of every entry, the content
+ * of the entries is skipped.
+ */
+public class ArchiveEntryLister {
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_EOCD_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EOCD_SIGNATURE = 0x06064b50;
+    private static final int CENTRAL_FILE_HEADER_SIGNATURE = 0x02014b50;
+    private static final int EOCD_MIN_LENGTH = 22;
+    private static final int ZIP64_EOCD_LOCATOR_LENGTH = 20;
+    private static final int ZIP64_EOCD_MIN_LENGTH = 56;
+    private static final int CENTRAL_FILE_HEADER_LENGTH = 46;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_EXTRA_FIELD = 0x0001;
+
+    /**
+     * Size of the ranges read from the archive, a skip within the current range is read through instead of
+     * starting a new range.
+     */
+    private static final long RANGE_LENGTH = 1024 * 1024;
+
+    private ArchiveEntryLister() {
+    }
+
+    /**
+     * Source of the bytes of an archive.
+     */
+    @FunctionalInterface
+    public interface RangeSource {
+        /**
+         * @param offset the offset of the first byte of the range
+         * @param length the length of the range
+         * @return the bytes of the range
+         * @throws IOException if the archive cannot be read
+         */
+        InputStream open(long offset, long length) throws IOException;
+    }
+
+    /**
+     * Receives the files of an archive, directories are not listed.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * @param path the path of the file in the archive
+         * @param size the uncompressed size of the file
+         * @return whether the listing should continue
+         */
+        boolean accept(String path, long size);
+    }
+
+    /**
+     * List the files of a ZIP archive from its central directory, ZIP64 archives included.
+     *
+     * @param source   the source of the archive
+     * @param size     the size of the archive in bytes
+     * @param consumer receives the files, in the order of the central directory
+     * @throws IOException if the archive cannot be read or is not a ZIP archive
+     */
+    public static void listZip(RangeSource source, long size, EntryConsumer consumer) throws IOException {
+        // the end of central directory record is followed by a comment of up to 64 kB
+        int tailLength = (int) Math.min(size, EOCD_MIN_LENGTH + MAX_COMMENT_LENGTH + ZIP64_EOCD_LOCATOR_LENGTH);
+        long tailOffset = size - tailLength;
+        byte[] tail = read(source, tailOffset, tailLength);
+        int eocd = findEndOfCentralDirectory(tail);
+        if (eocd < 0) {
+            throw new IOException("Not a ZIP archive, the end of central directory record was not found");
+        }
+        long directoryEnd = tailOffset + eocd;
+        long directorySize = getUnsignedInt(tail, eocd + 12);
+        long directoryOffset = getUnsignedInt(tail, eocd + 16);
+        int locator = eocd - ZIP64_EOCD_LOCATOR_LENGTH;
+        if ((directorySize == ZIP64_MAGIC || directoryOffset == ZIP64_MAGIC || getUnsignedShort(tail, eocd + 10)
+            == 0xFFFF) && locator >= 0 && getInt(tail, locator) == ZIP64_EOCD_LOCATOR_SIGNATURE) {
+            long zip64EocdOffset = getLong(tail, locator + 8);
+            byte[] zip64Eocd = read(source, zip64EocdOffset, ZIP64_EOCD_MIN_LENGTH);
+            if (getInt(zip64Eocd, 0) != ZIP64_EOCD_SIGNATURE) {
+                throw new IOException("Invalid ZIP64 end of central directory record");
+            }
+            directoryEnd = zip64EocdOffset;
+            directorySize = getLong(zip64Eocd, 40);
+        }
+        // compute the start of the central directory from its end rather than using the stored offset, which is
+        // wrong when data has been prepended to the archive (e.g. self-extracting archives)
+        long directoryStart = directoryEnd - directorySize;
+        if (directoryStart < 0) {
+            throw new IOException("Invalid ZIP central directory size: " + directorySize);
+        }
+
+        try (InputStream directory = new RangedInputStream(source, directoryStart, directoryEnd)) {
+            byte[] header = new byte[CENTRAL_FILE_HEADER_LENGTH];
+            while (IOUtils.read(directory, header) == CENTRAL_FILE_HEADER_LENGTH
+                && getInt(header, 0) == CENTRAL_FILE_HEADER_SIGNATURE) {
+                long entrySize = getUnsignedInt(header, 24);
+                byte[] name = IOUtils.readFully(directory, getUnsignedShort(header, 28));
+                byte[] extra = IOUtils.readFully(directory, getUnsignedShort(header, 30));
+                IOUtils.skipFully(directory, getUnsignedShort(header, 32));
+                if (entrySize == ZIP64_MAGIC) {
+                    entrySize = getZip64Size(extra, entrySize);
+                }
+                String path = new String(name, StandardCharsets.UTF_8);
+                if (!path.endsWith("/") && !consumer.accept(path, entrySize)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * List the files of an (uncompressed) TAR archive, skipping the content of the entries.
+     *
+     * @param source   the source of the archive
+     * @param size     the size of the archive in bytes
+     * @param consumer receives the files, in the order of the archive
+     * @throws IOException if the archive cannot be read or is not a TAR archive
+     */
+    public static void listTar(RangeSource source, long size, EntryConsumer consumer) throws IOException {
+        try (TarArchiveInputStream tarInput = new TarArchiveInputStream(new RangedInputStream(source, 0, size))) {
+            TarArchiveEntry entry;
+            while ((entry = tarInput.getNextTarEntry()) != null) {
+                if (!entry.isDirectory() && !consumer.accept(entry.getName(), entry.getSize())) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static int findEndOfCentralDirectory(byte[] tail) {
+        for (int i = tail.length - EOCD_MIN_LENGTH; i >= 0; i--) {
+            if (getInt(tail, i) == EOCD_SIGNATURE
+                && i + EOCD_MIN_LENGTH + getUnsignedShort(tail, i + 20) == tail.length) {
+                return i;
+            }
+        }
+        // tolerate trailing garbage after the comment
+        for (int i = tail.length - EOCD_MIN_LENGTH; i >= 0; i--) {
+            if (getInt(tail, i) == EOCD_SIGNATURE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long getZip64Size(byte[] extra, long size) {
+        int i = 0;
+        while (i + 4 <= extra.length) {
+            int id = getUnsignedShort(extra, i);
+            int length = getUnsignedShort(extra, i + 2);
+            if (id == ZIP64_EXTRA_FIELD && length >= 8 && i + 12 <= extra.length) {
+                // the uncompressed size is the first field of the ZIP64 extra field when it is present
+                return getLong(extra, i + 4);
+            }
+            i += 4 + length;
+        }
+        return size;
+    }
+
+    private static byte[] read(RangeSource source, long offset, int length) throws IOException {
+        try (InputStream inputStream = source.open(offset, length)) {
+            return IOUtils.readFully(inputStream, length);
+        }
+    }
+
+    private static int getUnsignedShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int getInt(byte[] bytes, int offset) {
+        return getUnsignedShort(bytes, offset) | getUnsignedShort(bytes, offset + 2) << 16;
+    }
+
+    private static long getUnsignedInt(byte[] bytes, int offset) {
+        return getInt(bytes, offset) & 0xFFFFFFFFL;
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        return getUnsignedInt(bytes, offset) | getUnsignedInt(bytes, offset + 4) << 32;
+    }
+
+    /**
+     * Stream over a part of the archive which reads it in ranges of {@link #RANGE_LENGTH} bytes, and seeks rather
+     * than reads when skipping beyond the current range.
+     */
+    static class RangedInputStream extends InputStream {
+        private final RangeSource source;
+        private final long end;
+        private long position;
+        private long rangeEnd;
+        private InputStream range;
+
+        RangedInputStream(RangeSource source, long start, long end) {
+            this.source = source;
+            this.position = start;
+            this.end = end;
+        }
+
+        private boolean openRange() throws IOException {
+            if (range != null && position < rangeEnd) {
+                return true;
+            }
+            closeRange();
+            if (position >= end) {
+                return false;
+            }
+            rangeEnd = Math.min(end, position + RANGE_LENGTH);
+            range = new BufferedInputStream(source.open(position, rangeEnd - position));
+            return true;
+        }
+
+        private void closeRange() throws IOException {
+            if (range != null) {
+                try {
+                    range.close();
+                } finally {
+                    range = null;
+                }
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!openRange()) {
+                return -1;
+            }
+            int b = range.read();
+            if (b < 0) {
+                throw new EOFException("Unexpected end of range at " + position);
+            }
+            position++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!openRange()) {
+                return -1;
+            }
+            int read = range.read(b, off, (int) Math.min(len, rangeEnd - position));
+            if (read < 0) {
+                throw new EOFException("Unexpected end of range at " + position);
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = Math.max(0, Math.min(n, end - position));
+            if (range != null && position + skipped < rangeEnd) {
+                IOUtils.skipFully(range, skipped);
+            } else {
+                // the next read starts a new range
+                closeRange();
+            }
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return range != null ? (int) Math.min(range.available(), rangeEnd - position) : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeRange();
+        }
+    }
+}
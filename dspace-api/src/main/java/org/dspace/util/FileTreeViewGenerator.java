@@ -41,34 +41,44 @@ public class FileTreeViewGenerator {
         do {
             String fileInfo = n.getFirstChild().getTextContent();
             String f[] = fileInfo.split("\\|");
-            String fileName = "";
-            String path = f[0];
-            long size = Long.parseLong(f[1]);
-            if (!path.endsWith("/")) {
-                fileName = path.substring(path.lastIndexOf('/') + 1);
-                if (path.lastIndexOf('/') != -1) {
-                    path = path.substring(0, path.lastIndexOf('/'));
-                } else {
-                    path = "";
-                }
-            }
-            FileInfo current = root;
-            for (String p : path.split("/")) {
-                if (current.sub.containsKey(p)) {
-                    current = current.sub.get(p);
-                } else {
-                    FileInfo temp = new FileInfo(p);
-                    current.sub.put(p, temp);
-                    current = temp;
-                }
-            }
-            if (!fileName.isEmpty()) {
-                FileInfo temp = new FileInfo(fileName, humanReadableFileSize(size));
-                current.sub.put(fileName, temp);
-            }
+            addFile(root, f[0], Long.parseLong(f[1]));
         } while ((n = n.getNextSibling()) != null);
         return new ArrayList<>(root.sub.values());
     }
+
+    /**
+     * Add a file of an archive to the tree view.
+     *
+     * @param root the root of the tree view
+     * @param path the path of the file in the archive
+     * @param size the size of the file in bytes
+     */
+    public static void addFile(FileInfo root, String path, long size) {
+        String fileName = "";
+        if (!path.endsWith("/")) {
+            fileName = path.substring(path.lastIndexOf('/') + 1);
+            if (path.lastIndexOf('/') != -1) {
+                path = path.substring(0, path.lastIndexOf('/'));
+            } else {
+                path = "";
+            }
+        }
+        FileInfo current = root;
+        for (String p : path.split("/")) {
+            if (current.sub.containsKey(p)) {
+                current = current.sub.get(p);
+            } else {
+                FileInfo temp = new FileInfo(p);
+                current.sub.put(p, temp);
+                current = temp;
+            }
+        }
+        if (!fileName.isEmpty()) {
+            FileInfo temp = new FileInfo(fileName, humanReadableFileSize(size));
+            current.sub.put(fileName, temp);
+        }
+    }
+
     public static String humanReadableFileSize(long bytes) {
         int thresh = 1024;
         if (Math.abs(bytes) < thresh) {
@@ -7,19 +7,41 @@
  */
 package org.dspace.util;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
-
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -30,6 +52,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.impl.HttpSolrClient;
@@ -37,12 +60,17 @@ import org.apache.solr.client.solrj.request.AbstractUpdateRequest;
 import org.apache.solr.client.solrj.request.ContentStreamUpdateRequest;
 import org.apache.solr.client.solrj.request.CoreAdminRequest;
 import org.apache.solr.client.solrj.request.LukeRequest;
+import org.apache.solr.client.solrj.request.schema.SchemaRequest;
 import org.apache.solr.client.solrj.response.CoreAdminResponse;
 import org.apache.solr.client.solrj.response.FieldStatsInfo;
 import org.apache.solr.client.solrj.response.LukeResponse;
+import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.client.solrj.response.RangeFacet;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.luke.FieldFlag;
 import org.apache.solr.common.params.CoreAdminParams;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.apache.solr.common.params.FacetParams;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
@@ -92,9 +120,38 @@ public class SolrImportExport {
     private static final String INDEX_NAME_OPTION = "i";
     private static final String KEEP_OPTION = "k";
     private static final String LAST_OPTION = "l";
+    private static final String FORMAT_OPTION = "m";
+    private static final String THREADS_OPTION = "n";
+    private static final String RESUME_OPTION = "r";
 
     public static final int ROWS_PER_FILE = 10_000;
 
+    /**
+     * The export format of time-sliced CSV files, imported with the CSV update handler
+     */
+    public static final String FORMAT_CSV = "csv";
+    /**
+     * The export format of compressed JSON lines files, one per month, imported with batched add requests
+     */
+    public static final String FORMAT_JSONL = "jsonl";
+    /**
+     * The number of documents read from or added to Solr in one request by the JSONL export and import
+     */
+    public static final int ROWS_PER_BATCH = 1_000;
+
+    private static final String JSONL_EXTENSION = ".jsonl.gz";
+    private static final String MANIFEST_NAME = "manifest.json";
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    static {
+        // Jackson copies the date format for each use
+        SimpleDateFormat solrDateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        solrDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        JSON.setDateFormat(solrDateFormat);
+    }
+
     private static final String MULTIPLE_VALUES_SPLITTER = ",";
 
     private static final Logger log = LogManager.getLogger(SolrImportExport.class);
@@ -131,6 +188,14 @@ public class SolrImportExport {
 
             String directoryName = makeDirectoryName(line.getOptionValue(DIRECTORY_OPTION));
 
+            String format = line.getOptionValue(FORMAT_OPTION, FORMAT_CSV);
+            if (!FORMAT_CSV.equals(format) && !FORMAT_JSONL.equals(format)) {
+                System.err.println("Unknown format " + format + "; must be " + FORMAT_CSV + " or " + FORMAT_JSONL
+                                       + ".");
+                printHelpAndExit(options, 1);
+            }
+            int threads = Integer.parseInt(line.getOptionValue(THREADS_OPTION, "4"));
+
             String action = line.getOptionValue(ACTION_OPTION, "export");
             if ("import".equals(action)) {
                 for (String indexName : indexNames) {
@@ -145,7 +210,8 @@ public class SolrImportExport {
                     try {
                         String solrUrl = makeSolrUrl(indexName);
                         boolean clear = line.hasOption(CLEAR_OPTION);
-                        importIndex(indexName, importDir, solrUrl, clear);
+                        importIndex(indexName, importDir, solrUrl, clear, line.hasOption(RESUME_OPTION), format,
+                                    threads);
                     } catch (IOException | SolrServerException | SolrImportExportException e) {
                         System.err.println("Problem encountered while trying to import index " + indexName + ".");
                         e.printStackTrace(System.err);
@@ -175,7 +241,8 @@ public class SolrImportExport {
                         String solrUrl = makeSolrUrl(indexName);
                         String timeField = makeTimeField(indexName);
                         exportIndex(indexName, exportDir, solrUrl, timeField, lastValue,
-                                    line.hasOption(OVERWRITE_OPTION));
+                                    line.hasOption(OVERWRITE_OPTION), line.hasOption(RESUME_OPTION), format,
+                                    threads);
                     } catch (SolrServerException | IOException | SolrImportExportException e) {
                         System.err.println("Problem encountered while trying to export index " + indexName + ".");
                         e.printStackTrace(System.err);
@@ -185,8 +252,7 @@ public class SolrImportExport {
                 for (String indexName : indexNames) {
                     try {
                         boolean keepExport = line.hasOption(KEEP_OPTION);
-                        boolean overwrite = line.hasOption(OVERWRITE_OPTION);
-                        reindex(indexName, directoryName, keepExport, overwrite);
+                        reindex(indexName, directoryName, keepExport, format, threads);
                     } catch (IOException | SolrServerException | SolrImportExportException e) {
                         e.printStackTrace();
                     }
@@ -208,7 +274,8 @@ public class SolrImportExport {
         options.addOption(CLEAR_OPTION, "clear", false,
                           "When importing, also clear the index first. Ignored when action is export or reindex.");
         options.addOption(OVERWRITE_OPTION, "force-overwrite", false,
-                          "When exporting or re-indexing, allow overwrite of existing export files");
+                          "When exporting, allow overwrite of existing export files. Ignored when action is import or"
+                              + " reindex, a reindex always exports to a new directory.");
         options.addOption(DIRECTORY_OPTION, "directory", true,
                           "The absolute path for the directory to use for import or export. If omitted, " +
                               "[dspace]/solr-export is used.");
@@ -217,8 +284,8 @@ public class SolrImportExport {
                           "The names of the indexes to process. At least one is required. Available indexes are: " +
                               "authority, statistics.");
         options
-            .addOption(KEEP_OPTION, "keep", false, "When reindexing, keep the contents of the data export directory." +
-                " By default, the contents of this directory will be deleted once the reindex has finished." +
+            .addOption(KEEP_OPTION, "keep", false, "When reindexing, keep the files exported by the reindex." +
+                " By default, they will be deleted once the reindex has finished." +
                 " Ignored when action is export or import.");
         options.addOption(LAST_OPTION, "last", true, "When exporting, export records from the last [timeperiod] only." +
             " This can be one of: 'd' (beginning of yesterday through to now);" +
@@ -226,6 +293,18 @@ public class SolrImportExport {
             " a number, in which case the last [number] of days are exported, through to now (use 0 for today's data)" +
             "." +
             " Date calculation is done in UTC. If omitted, all documents are exported.");
+        options.addOption(FORMAT_OPTION, "format", true, "The format of the export files: " + FORMAT_CSV
+            + " (time-sliced CSV files) or " + FORMAT_JSONL + " (a compressed JSON lines file per month, exported and"
+            + " imported in parallel, with a manifest to verify the number of documents of each month and to resume an"
+            + " interrupted export or import). Default: " + FORMAT_CSV + ".");
+        options.addOption(THREADS_OPTION, "threads", true,
+                          "The number of months exported or imported at the same time in the " + FORMAT_JSONL
+                              + " format. Default: 4.");
+        options.addOption(RESUME_OPTION, "resume", false, "When exporting or importing in the " + FORMAT_JSONL
+            + " format, resume the export or import recorded in the manifest of the directory: the months already"
+            + " exported with the same filters, or already imported, are skipped. The current month is always"
+            + " exported again. Without this option, an export starts a new manifest and an import imports all"
+            + " the months of the manifest. Ignored when action is reindex or when the index is cleared.");
         return options;
     }
 
@@ -235,13 +314,15 @@ public class SolrImportExport {
      * @param indexName     the name of the core to reindex
      * @param exportDirName the name of the directory to use for export. If this directory doesn't exist, it will be
      *                      created.
-     * @param keepExport    whether to keep the contents of the exportDir after the reindex. If keepExport is false
-     *                      and the
-     *                      export directory was created by this method, the export directory will be deleted at the
-     *                      end of the reimport.
-     * @param overwrite     allow export files to be overwritten during re-index
+     * @param keepExport    whether to keep the files exported by the reindex. The files are exported to a new
+     *                      directory in the export directory, which is deleted at the end of the reimport unless
+     *                      keepExport is true. If keepExport is false and the export directory was created by this
+     *                      method, the export directory will be deleted as well.
+     * @param format        the format of the export files, {@link #FORMAT_CSV} or {@link #FORMAT_JSONL}
+     * @param threads       the number of months exported or imported at the same time in the JSONL format
      */
-    private static void reindex(String indexName, String exportDirName, boolean keepExport, boolean overwrite)
+    private static void reindex(String indexName, String exportDirName, boolean keepExport, String format,
+                                int threads)
         throws IOException, SolrServerException, SolrImportExportException {
         String tempIndexName = indexName + "-temp";
 
@@ -277,6 +358,8 @@ public class SolrImportExport {
         if (!exportDir.canWrite()) {
             throw new SolrImportExportException("Can't write to export directory " + exportDirName);
         }
+        // the files of earlier exports or reindexes are never imported by this reindex
+        File runDir = Files.createTempDirectory(exportDir.toPath(), indexName + "-reindex-").toFile();
 
         try {
             HttpSolrClient adminSolr = new HttpSolrClient.Builder(baseSolrUrl).build();
@@ -334,10 +417,10 @@ public class SolrImportExport {
 
             try {
                 // export from the actual core (from temp core name, actual data dir)
-                exportIndex(indexName, exportDir, tempSolrUrl, timeField, overwrite);
+                exportIndex(indexName, runDir, tempSolrUrl, timeField, null, false, false, format, threads);
 
                 // clear actual core (temp core name, clearing actual data dir) & import
-                importIndex(indexName, exportDir, tempSolrUrl, true);
+                importIndex(indexName, runDir, tempSolrUrl, true, false, format, threads);
             } catch (IOException | SolrServerException | SolrImportExportException e) {
                 // we ran into some problems with the export/import -- keep going to try and restore the solr cores
                 System.err.println(
@@ -359,9 +442,9 @@ public class SolrImportExport {
             // export all docs from now-temp core into export directory -- this won't cause name collisions with the
             // actual export
             // because the core name for the temporary export has -temp in it while the actual core doesn't
-            exportIndex(tempIndexName, exportDir, tempSolrUrl, timeField, overwrite);
+            exportIndex(tempIndexName, runDir, tempSolrUrl, timeField, null, false, false, format, threads);
             // ...and import them into the now-again-actual core *without* clearing
-            importIndex(tempIndexName, exportDir, origSolrUrl, false);
+            importIndex(tempIndexName, runDir, origSolrUrl, false, false, format, threads);
 
             // commit changes
             origSolr.commit();
@@ -375,8 +458,13 @@ public class SolrImportExport {
             }
         } finally {
             // clean up export dir if appropriate
-            if (!keepExport && createdExportDir && exportDir.exists()) {
-                FileUtils.deleteDirectory(exportDir);
+            if (keepExport) {
+                log.info("The files exported by the reindex of index " + indexName + " are kept in " + runDir);
+            } else {
+                FileUtils.deleteDirectory(runDir);
+                if (createdExportDir && exportDir.exists()) {
+                    FileUtils.deleteDirectory(exportDir);
+                }
             }
         }
     }
@@ -416,6 +504,28 @@ public class SolrImportExport {
      */
     public static void importIndex(final String indexName, File fromDir, String solrUrl, boolean clear)
         throws IOException, SolrServerException, SolrImportExportException {
+        importIndex(indexName, fromDir, solrUrl, clear, false, FORMAT_CSV, 1);
+    }
+
+    /**
+     * Import previously exported documents into the specified index.
+     *
+     * @param indexName the index to import.
+     * @param fromDir   the source directory. Must exist and be readable.
+     * @param solrUrl   The solr URL for the index to export. Must not be null.
+     * @param clear     if true, clear the index before importing.
+     * @param resume    if true and the index is not cleared, skip the months of a JSONL export which were already
+     *                  imported.
+     * @param format    the format of the files to import, {@link #FORMAT_CSV} or {@link #FORMAT_JSONL}.
+     * @param threads   the number of months imported at the same time in the JSONL format.
+     * @throws IOException               if there is a problem reading the files or communicating with Solr.
+     * @throws SolrServerException       if there is a problem reading the files or communicating with Solr.
+     * @throws SolrImportExportException if there is a problem communicating with Solr, or if the number of documents
+     *                                   of a month doesn't match the manifest of a JSONL export.
+     */
+    public static void importIndex(final String indexName, File fromDir, String solrUrl, boolean clear,
+                                   boolean resume, String format, int threads)
+        throws IOException, SolrServerException, SolrImportExportException {
         if (StringUtils.isBlank(solrUrl)) {
             throw new SolrImportExportException(
                 "Could not construct solr URL for index" + indexName + ", aborting export.");
@@ -436,6 +546,11 @@ public class SolrImportExport {
             clearIndex(solrUrl);
         }
 
+        if (FORMAT_JSONL.equals(format)) {
+            importMonths(indexName, fromDir, solr, resume && !clear, threads);
+            return;
+        }
+
         File[] files = fromDir.listFiles(new FilenameFilter() {
             @Override
             public boolean accept(File dir, String name) {
@@ -526,6 +641,32 @@ public class SolrImportExport {
     public static void exportIndex(String indexName, File toDir, String solrUrl, String timeField, String fromWhen,
                                    boolean overwrite)
         throws SolrServerException, IOException, SolrImportExportException {
+        exportIndex(indexName, toDir, solrUrl, timeField, fromWhen, overwrite, false, FORMAT_CSV, 1);
+    }
+
+    /**
+     * Exports documents from the given index to the specified target directory, starting at fromWhen (or all
+     * documents). In the CSV format, the documents are exported in batches of #ROWS_PER_FILE. In the JSONL format,
+     * the documents of each month are exported to one compressed file and the months are recorded in a manifest.
+     *
+     * @param indexName The index to export.
+     * @param toDir     The target directory for the export. The directory must exist and be writeable.
+     * @param solrUrl   The solr URL for the index to export. Must not be null.
+     * @param timeField The time field to use for sorting the export. Must not be null.
+     * @param fromWhen  Optionally, from when to export. See options for allowed values. If null or empty, all
+     *                  documents will be exported.
+     * @param overwrite If set, allow export files to be overwritten
+     * @param resume    If set, resume the JSONL export recorded in the manifest of the directory, see
+     *                  {@link #exportMonths}.
+     * @param format    the format of the export files, {@link #FORMAT_CSV} or {@link #FORMAT_JSONL}.
+     * @param threads   the number of months exported at the same time in the JSONL format.
+     * @throws SolrServerException       if there is a problem with exporting the index.
+     * @throws IOException               if there is a problem creating the files or communicating with Solr.
+     * @throws SolrImportExportException if there is a problem in communicating with Solr.
+     */
+    public static void exportIndex(String indexName, File toDir, String solrUrl, String timeField, String fromWhen,
+                                   boolean overwrite, boolean resume, String format, int threads)
+        throws SolrServerException, IOException, SolrImportExportException {
         log.info(String.format("Export Index [%s] to [%s] using [%s] Time Field[%s] FromWhen[%s]", indexName, toDir,
                                solrUrl, timeField, fromWhen));
         if (StringUtils.isBlank(solrUrl)) {
@@ -541,45 +682,20 @@ public class SolrImportExport {
 
         HttpSolrClient solr = new HttpSolrClient.Builder(solrUrl).build();
 
-        SolrQuery query = new SolrQuery("*:*");
+        String lastValueFilter = null;
         if (StringUtils.isNotBlank(fromWhen)) {
-            String lastValueFilter = makeFilterQuery(timeField, fromWhen);
-            if (StringUtils.isNotBlank(lastValueFilter)) {
-                query.addFilterQuery(lastValueFilter);
-            }
+            lastValueFilter = makeFilterQuery(timeField, fromWhen);
         }
 
-        query.setRows(0);
-        query.setGetFieldStatistics(timeField);
-        Map<String, FieldStatsInfo> fieldInfo = solr.query(query).getFieldStatsInfo();
-        if (fieldInfo == null || !fieldInfo.containsKey(timeField)) {
-            log.warn(String.format(
-                "Queried [%s].  No fieldInfo found while exporting index [%s] time field [%s] from [%s]. Export " +
-                    "cancelled.",
-                solrUrl, indexName, timeField, fromWhen));
+        if (FORMAT_JSONL.equals(format)) {
+            exportMonths(indexName, toDir, solr, timeField, lastValueFilter, overwrite, resume, threads);
             return;
         }
-        FieldStatsInfo timeFieldInfo = fieldInfo.get(timeField);
-        if (timeFieldInfo == null || timeFieldInfo.getMin() == null) {
-            log.warn(String.format(
-                "Queried [%s].  No earliest date found while exporting index [%s] time field [%s] from [%s]. Export " +
-                    "cancelled.",
-                solrUrl, indexName, timeField, fromWhen));
+
+        List<RangeFacet.Count> monthFacets = getMonthFacets(indexName, solr, timeField, lastValueFilter);
+        if (monthFacets == null) {
             return;
         }
-        Date earliestTimestamp = (Date) timeFieldInfo.getMin();
-
-        query.setGetFieldStatistics(false);
-        query.clearSorts();
-        query.setRows(0);
-        query.setFacet(true);
-        query.add(FacetParams.FACET_RANGE, timeField);
-        query.add(FacetParams.FACET_RANGE_START, SOLR_DATE_FORMAT.get().format(earliestTimestamp) + "/MONTH");
-        query.add(FacetParams.FACET_RANGE_END, "NOW/MONTH+1MONTH");
-        query.add(FacetParams.FACET_RANGE_GAP, "+1MONTH");
-        query.setFacetMinCount(1);
-
-        List<RangeFacet.Count> monthFacets = solr.query(query).getFacetRanges().get(0).getCounts();
 
         for (RangeFacet.Count monthFacet : monthFacets) {
             Date monthStartDate;
@@ -629,6 +745,328 @@ public class SolrImportExport {
         }
     }
 
+    /**
+     * Count the documents of each month, from the month of the earliest document through to the current month.
+     *
+     * @return the months with at least one document, or null if the index has no documents to export
+     */
+    private static List<RangeFacet.Count> getMonthFacets(String indexName, SolrClient solr, String timeField,
+                                                         String lastValueFilter)
+        throws SolrServerException, IOException {
+        SolrQuery query = new SolrQuery("*:*");
+        if (StringUtils.isNotBlank(lastValueFilter)) {
+            query.addFilterQuery(lastValueFilter);
+        }
+        query.setRows(0);
+        query.setGetFieldStatistics(timeField);
+        Map<String, FieldStatsInfo> fieldInfo = solr.query(query).getFieldStatsInfo();
+        if (fieldInfo == null || !fieldInfo.containsKey(timeField)) {
+            log.warn(String.format(
+                "No fieldInfo found while exporting index [%s] time field [%s] with filter [%s]. Export cancelled.",
+                indexName, timeField, lastValueFilter));
+            return null;
+        }
+        FieldStatsInfo timeFieldInfo = fieldInfo.get(timeField);
+        if (timeFieldInfo == null || timeFieldInfo.getMin() == null) {
+            log.warn(String.format(
+                "No earliest date found while exporting index [%s] time field [%s] with filter [%s]. Export " +
+                    "cancelled.",
+                indexName, timeField, lastValueFilter));
+            return null;
+        }
+        Date earliestTimestamp = (Date) timeFieldInfo.getMin();
+
+        query.setGetFieldStatistics(false);
+        query.clearSorts();
+        query.setRows(0);
+        query.setFacet(true);
+        query.add(FacetParams.FACET_RANGE, timeField);
+        query.add(FacetParams.FACET_RANGE_START, SOLR_DATE_FORMAT.get().format(earliestTimestamp) + "/MONTH");
+        query.add(FacetParams.FACET_RANGE_END, "NOW/MONTH+1MONTH");
+        query.add(FacetParams.FACET_RANGE_GAP, "+1MONTH");
+        query.setFacetMinCount(1);
+
+        return solr.query(query).getFacetRanges().get(0).getCounts();
+    }
+
+    /**
+     * Export the documents of each month to a compressed JSON lines file, several months at the same time. The
+     * documents are read with a cursor sorted on the unique key of the index. The number of documents and the filters
+     * of each exported month are recorded in the manifest of the export, so that the import can verify the number of
+     * documents.
+     * <p>
+     * An export starts a new manifest and fails if a file to export already exists, unless overwrite is set. When
+     * resume is set, the export recorded in the manifest is continued instead: the months which were already exported
+     * with the same filters are skipped, except for the current month, which may have changed since.
+     */
+    static void exportMonths(String indexName, File toDir, SolrClient solr, String timeField,
+                             String lastValueFilter, boolean overwrite, boolean resume, int threads)
+        throws SolrServerException, IOException, SolrImportExportException {
+        List<RangeFacet.Count> monthFacets = getMonthFacets(indexName, solr, timeField, lastValueFilter);
+        if (monthFacets == null) {
+            return;
+        }
+        String uniqueKey = new SchemaRequest.UniqueKey().process(solr).getUniqueKey();
+        File manifestFile = new File(toDir, indexName + EXPORT_SEP + MANIFEST_NAME);
+        ExportManifest manifest = resume ? ExportManifest.read(manifestFile) : new ExportManifest();
+        // e.g. 2020-01, in UTC like the months of the facets
+        String currentMonth = StringUtils.left(SOLR_DATE_FORMAT.get().format(new Date()), 7);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (RangeFacet.Count monthFacet : monthFacets) {
+            String monthStart = monthFacet.getValue();
+            // e.g. 2020-01 for 2020-01-01T00:00:00Z
+            String month = StringUtils.left(monthStart, 7);
+            List<String> filters = new ArrayList<>();
+            filters.add(timeField + ":[" + monthStart + " TO " + monthStart + "+1MONTH}");
+            if (StringUtils.isNotBlank(lastValueFilter)) {
+                filters.add(lastValueFilter);
+            }
+
+            File file = new File(toDir, indexName + EXPORT_SEP + month + JSONL_EXTENSION);
+            ExportedMonth exported = manifest.months.get(month);
+            boolean resumed = resume && exported != null && exported.filters.equals(filters) && file.exists();
+            if (resumed && !month.equals(currentMonth)) {
+                log.info(String.format("Solr export file [%s] already exists, skipping Month [%s] of Index [%s]",
+                                       file.getCanonicalPath(), month, indexName));
+                continue;
+            } else if (resumed) {
+                log.info(String.format("Exporting the current Month [%s] of Index [%s] again to [%s]", month,
+                                       indexName, file.getCanonicalPath()));
+            } else if (!overwrite && file.exists()) {
+                throw new SolrImportExportException(String.format(
+                    "Solr export file [%s] already exists.  Export failed for Index [%s] Month [%s], use the -"
+                        + OVERWRITE_OPTION + " option to overwrite it or the -" + RESUME_OPTION
+                        + " option to resume the export", file.getCanonicalPath(), indexName, month));
+            }
+
+            tasks.add(() -> {
+                ExportedMonth result = new ExportedMonth();
+                result.filters = filters;
+                result.documents = exportMonth(solr, uniqueKey, filters, file);
+                manifest.put(month, result, manifestFile);
+                log.info(String.format(
+                    "Solr export to file [%s] complete.  Export for Index [%s] Month [%s] Num Docs [%d]",
+                    file.getCanonicalPath(), indexName, month, result.documents));
+                return null;
+            });
+        }
+        if (!resume) {
+            // nothing of an earlier export is imported with this one
+            manifest.write(manifestFile);
+        }
+        runInParallel(tasks, threads);
+    }
+
+    /**
+     * Export the documents matching the filters to the file, page by page.
+     *
+     * @return the number of exported documents
+     */
+    private static long exportMonth(SolrClient solr, String uniqueKey, List<String> filters, File file)
+        throws SolrServerException, IOException {
+        SolrQuery query = new SolrQuery("*:*");
+        filters.forEach(query::addFilterQuery);
+        query.setRows(ROWS_PER_BATCH);
+        // a cursor requires a sort on the unique key
+        query.setSort(uniqueKey, SolrQuery.ORDER.asc);
+
+        // the file is only complete once it is renamed
+        File partFile = new File(file.getPath() + ".part");
+        long expected = -1;
+        long exported = 0;
+        String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+            new GZIPOutputStream(new FileOutputStream(partFile)), StandardCharsets.UTF_8))) {
+            while (true) {
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+                QueryResponse response = solr.query(query);
+                if (expected < 0) {
+                    expected = response.getResults().getNumFound();
+                }
+                for (SolrDocument document : response.getResults()) {
+                    Map<String, Object> fields = new LinkedHashMap<>(document);
+                    fields.remove("_version_");
+                    writer.write(JSON.writeValueAsString(fields));
+                    writer.write('\n');
+                    exported++;
+                }
+                String nextCursorMark = response.getNextCursorMark();
+                if (cursorMark.equals(nextCursorMark)) {
+                    break;
+                }
+                cursorMark = nextCursorMark;
+            }
+        }
+        if (exported != expected) {
+            log.warn(String.format("Exported %d documents to [%s] but %d matched when the export started, the index "
+                                       + "changed during the export", exported, file.getCanonicalPath(), expected));
+        }
+        Files.move(partFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return exported;
+    }
+
+    /**
+     * Import the JSON lines files of an export, several months at the same time, with batched add requests. When the
+     * export has a manifest, only the months of the manifest are imported and the number of documents of each month
+     * is verified against it. The imported months are recorded in the manifest, so that an interrupted import only
+     * imports the missing months when it is resumed.
+     *
+     * @param resume if true, skip the months which were already imported
+     */
+    static void importMonths(String indexName, File fromDir, SolrClient solr, boolean resume, int threads)
+        throws IOException, SolrServerException, SolrImportExportException {
+        String prefix = indexName + EXPORT_SEP;
+        File[] files = fromDir.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(JSONL_EXTENSION));
+        if (files == null || files.length == 0) {
+            log.warn("No export files found in directory " + fromDir.getCanonicalPath() + " for index " + indexName);
+            return;
+        }
+        Arrays.sort(files);
+
+        File manifestFile = new File(fromDir, prefix + MANIFEST_NAME);
+        ExportManifest manifest = ExportManifest.read(manifestFile);
+        if (manifest.months.isEmpty()) {
+            log.warn("No manifest found in directory " + fromDir.getCanonicalPath() + " for index " + indexName
+                         + ", the number of imported documents can't be verified");
+        } else {
+            for (File file : files) {
+                if (!manifest.months.containsKey(getMonth(prefix, file))) {
+                    log.warn("Skipping file " + file.getCanonicalPath() + ", it is not part of the export recorded "
+                                 + "in the manifest");
+                }
+            }
+            List<File> manifestFiles = new ArrayList<>();
+            for (String month : manifest.months.keySet()) {
+                File file = new File(fromDir, prefix + month + JSONL_EXTENSION);
+                if (!file.exists()) {
+                    throw new SolrImportExportException(String.format(
+                        "The export file [%s] of Month [%s] recorded in the manifest is missing",
+                        file.getCanonicalPath(), month));
+                }
+                manifestFiles.add(file);
+            }
+            files = manifestFiles.toArray(new File[0]);
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (File file : files) {
+            String month = getMonth(prefix, file);
+            ExportedMonth exported = manifest.months.get(month);
+            if (exported != null && exported.imported && resume) {
+                log.info("Skipping file " + file.getCanonicalPath() + ", it was already imported");
+                continue;
+            }
+            tasks.add(() -> {
+                log.info("Importing file " + file.getCanonicalPath());
+                long imported = importMonth(solr, file);
+                if (exported != null && imported != exported.documents) {
+                    throw new SolrImportExportException(String.format(
+                        "Imported %d documents from [%s] but %d were exported", imported, file.getCanonicalPath(),
+                        exported.documents));
+                }
+                // commit before the month is recorded as imported
+                solr.commit();
+                if (exported != null) {
+                    exported.imported = true;
+                    try {
+                        manifest.put(month, exported, manifestFile);
+                    } catch (IOException e) {
+                        log.warn("Could not record the import of " + file.getCanonicalPath() + " in the manifest, "
+                                     + "it will be imported again if the import is started again", e);
+                    }
+                }
+                return null;
+            });
+        }
+        runInParallel(tasks, threads);
+        solr.commit(true, true);
+
+        // every exported document must now be in the index
+        for (Map.Entry<String, ExportedMonth> entry : manifest.months.entrySet()) {
+            SolrQuery query = new SolrQuery("*:*");
+            entry.getValue().filters.forEach(query::addFilterQuery);
+            query.setRows(0);
+            long found = solr.query(query).getResults().getNumFound();
+            if (found < entry.getValue().documents) {
+                throw new SolrImportExportException(String.format(
+                    "Index [%s] contains %d documents of Month [%s] but %d were exported", indexName, found,
+                    entry.getKey(), entry.getValue().documents));
+            }
+        }
+    }
+
+    /**
+     * @return the month of a JSON lines export file, e.g. 2020-01
+     */
+    private static String getMonth(String prefix, File file) {
+        return StringUtils.removeEnd(StringUtils.removeStart(file.getName(), prefix), JSONL_EXTENSION);
+    }
+
+    /**
+     * Import the documents of a JSON lines file in batches of #ROWS_PER_BATCH.
+     *
+     * @return the number of imported documents
+     */
+    private static long importMonth(SolrClient solr, File file) throws IOException, SolrServerException {
+        long imported = 0;
+        List<SolrInputDocument> batch = new ArrayList<>(ROWS_PER_BATCH);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                Map<String, Object> fields = JSON.readValue(line, new TypeReference<Map<String, Object>>() { });
+                SolrInputDocument document = new SolrInputDocument();
+                // multi-valued fields are exported as lists, which are added as separate values
+                fields.forEach(document::addField);
+                batch.add(document);
+                if (batch.size() == ROWS_PER_BATCH) {
+                    solr.add(batch);
+                    imported += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            solr.add(batch);
+            imported += batch.size();
+        }
+        return imported;
+    }
+
+    /**
+     * Run the tasks with the given number of threads and wait until all of them are done.
+     *
+     * @throws SolrImportExportException if a task failed, with the failure of the first failed task as the cause
+     */
+    private static void runInParallel(List<Callable<Void>> tasks, int threads) throws SolrImportExportException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(threads, 1));
+        try {
+            SolrImportExportException failure = null;
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    log.error(e.getCause().getMessage(), e.getCause());
+                    if (failure == null) {
+                        failure = new SolrImportExportException(e.getCause().getMessage(), e.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolrImportExportException("Interrupted while waiting for the export or import", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Return a filter query that represents the export date range passed in as lastValue
      *
@@ -737,4 +1175,42 @@ public class SolrImportExport {
         System.out.println("\tsolr-reindex-statistics [-a reindex] [-i statistics]");
         System.exit(exitCode);
     }
+
+    /**
+     * The manifest of a JSONL export: the exported months, with the number of documents and the filters of each, and
+     * whether they were imported.
+     */
+    private static class ExportManifest {
+        public Map<String, ExportedMonth> months = new TreeMap<>();
+
+        private static ExportManifest read(File manifestFile) throws IOException {
+            if (!manifestFile.exists()) {
+                return new ExportManifest();
+            }
+            return JSON.readValue(manifestFile, ExportManifest.class);
+        }
+
+        /**
+         * Record the month and write the manifest, replacing the previous one at once.
+         */
+        private synchronized void put(String month, ExportedMonth exported, File manifestFile) throws IOException {
+            months.put(month, exported);
+            write(manifestFile);
+        }
+
+        /**
+         * Write the manifest, replacing the previous one at once.
+         */
+        private synchronized void write(File manifestFile) throws IOException {
+            File tempFile = new File(manifestFile.getPath() + ".part");
+            JSON.writerWithDefaultPrettyPrinter().writeValue(tempFile, this);
+            Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static class ExportedMonth {
+        public List<String> filters = new ArrayList<>();
+        public long documents;
+        public boolean imported;
+    }
 }
@@ -0,0 +1,25 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-- ===================================================================
+-- PERFORMANCE INDEXES
+-- ===================================================================
+
+--
+-- Index to speed up finding the user registration of an eperson,
+-- used by every query filtering the license allowances by eperson.
+--
+CREATE INDEX idx_user_registration_eperson_id
+ON user_registration (eperson_id);
+
+--
+-- Index to optimize the check whether a user has already agreed to
+-- the license of a bitstream (ASK_ONLY_ONCE licenses).
+--
+CREATE INDEX idx_license_resource_user_allowance_user_mapping
+ON license_resource_user_allowance (user_registration_id, mapping_id);
\ No newline at end of file
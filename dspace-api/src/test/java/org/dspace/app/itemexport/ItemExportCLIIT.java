@@ -8,6 +8,7 @@
 package org.dspace.app.itemexport;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -16,6 +17,8 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.apache.commons.codec.CharEncoding;
 import org.apache.commons.io.IOUtils;
@@ -233,6 +236,46 @@ public class ItemExportCLIIT extends AbstractIntegrationTestWithDatabase {
         checkZip(zipFileName);
     }
 
+    @Test
+    public void exportZipStreamsItemWithoutStaging() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection)
+                .withTitle(title)
+                .build();
+        try (InputStream is = IOUtils.toInputStream("TEST TEST TEST", CharEncoding.UTF_8)) {
+            BitstreamBuilder.createBitstream(context, item, is)
+                    .withName("contents")
+                    .withMimeType("text/plain")
+                    .build();
+        }
+        try (InputStream is = IOUtils.toInputStream("not really a picture", CharEncoding.UTF_8)) {
+            BitstreamBuilder.createBitstream(context, item, is)
+                    .withName("picture.jpg")
+                    .withMimeType("image/jpeg")
+                    .build();
+        }
+        context.restoreAuthSystemState();
+
+        String[] args = new String[] { "export", "-t", "ITEM",
+                "-i", item.getHandle(), "-d", tempDir.toString(), "-z", zipFileName, "-n", "1" };
+        perfomExportScript(args);
+
+        checkZip(zipFileName);
+        assertFalse(Files.list(workDir).anyMatch(p -> p.getFileName().toString().startsWith(zipFileName)));
+        try (ZipFile zip = new ZipFile(tempDir.resolve(zipFileName).toFile())) {
+            assertNotNull(zip.getEntry("1/dublin_core.xml"));
+            assertNotNull(zip.getEntry("1/collections"));
+            assertEquals(item.getHandle(), IOUtils.toString(zip.getInputStream(zip.getEntry("1/handle")),
+                    CharEncoding.UTF_8).trim());
+            // the bitstream named like the manifest is renamed, not overwritten
+            assertEquals(ZipEntry.DEFLATED, zip.getEntry("1/1_contents").getMethod());
+            assertEquals(ZipEntry.STORED, zip.getEntry("1/picture.jpg").getMethod());
+            String contents = IOUtils.toString(zip.getInputStream(zip.getEntry("1/contents")), CharEncoding.UTF_8);
+            assertTrue(contents.contains("1_contents\tbundle:ORIGINAL"));
+            assertTrue(contents.contains("picture.jpg\tbundle:ORIGINAL"));
+        }
+    }
+
     @Test
     public void migrateCollection() throws Exception {
         // create items
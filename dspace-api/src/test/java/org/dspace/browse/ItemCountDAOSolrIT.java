@@ -0,0 +1,127 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import static org.junit.Assert.assertEquals;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.Community;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.CollectionService;
+import org.dspace.content.service.ItemService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the item counts (strengths) of communities and collections loaded from Solr by {@link ItemCountDAOSolr}.
+ */
+public class ItemCountDAOSolrIT extends AbstractIntegrationTestWithDatabase {
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final CollectionService collectionService = ContentServiceFactory.getInstance().getCollectionService();
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
+    private Community parent;
+    private Community sub;
+    private Collection col1;
+    private Collection col2;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        configurationService.setProperty("webui.strengths.show", true);
+        configurationService.setProperty("webui.strengths.cache", true);
+
+        context.turnOffAuthorisationSystem();
+        parent = CommunityBuilder.createCommunity(context).withName("Parent").build();
+        sub = CommunityBuilder.createSubCommunity(context, parent).withName("Sub").build();
+        col1 = CollectionBuilder.createCollection(context, parent).withName("Collection 1").build();
+        col2 = CollectionBuilder.createCollection(context, sub).withName("Collection 2").build();
+        ItemBuilder.createItem(context, col1).withTitle("Item 1").build();
+        ItemBuilder.createItem(context, col2).withTitle("Item 2").build();
+        Item mapped = ItemBuilder.createItem(context, col2).withTitle("Item 3").build();
+        collectionService.addItem(context, col1, mapped);
+        context.restoreAuthSystemState();
+        context.commit();
+    }
+
+    @Test
+    public void countsRollUpTheHierarchy() throws Exception {
+        ItemCountDAOSolr.invalidate();
+        ItemCounter counter = new ItemCounter(context);
+
+        assertCount(counter, col1, 2);
+        assertEquals(2, counter.getCount(col2));
+        // the mapped item is counted once in the parent community
+        assertEquals(3, counter.getCount(parent));
+        assertEquals(2, counter.getCount(sub));
+    }
+
+    @Test
+    public void countsAreLoadedAgainWhenInvalidated() throws Exception {
+        ItemCountDAOSolr.invalidate();
+        ItemCounter counter = new ItemCounter(context);
+        assertCount(counter, col2, 2);
+
+        context.turnOffAuthorisationSystem();
+        ItemBuilder.createItem(context, col2).withTitle("Item 4").build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        ItemCountDAOSolr.invalidate();
+        assertCount(counter, col2, 3);
+        assertEquals(4, counter.getCount(parent));
+    }
+
+    @Test
+    public void countsFollowInstalledAndWithdrawnItems() throws Exception {
+        ItemCountDAOSolr.invalidate();
+        ItemCounter counter = new ItemCounter(context);
+        assertCount(counter, col2, 2);
+
+        // the itemcount consumer reloads the counts, they are not invalidated by the test
+        context.turnOffAuthorisationSystem();
+        Item installed = ItemBuilder.createItem(context, col2).withTitle("Item 4").build();
+        context.restoreAuthSystemState();
+        context.commit();
+
+        assertCount(counter, col2, 3);
+        assertCount(counter, parent, 4);
+
+        context.turnOffAuthorisationSystem();
+        installed = context.reloadEntity(installed);
+        itemService.withdraw(context, installed);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        assertCount(counter, col2, 2);
+        assertCount(counter, sub, 2);
+        assertCount(counter, parent, 3);
+    }
+
+    /**
+     * Wait until the counts loaded in the background contain the expected count
+     */
+    private void assertCount(ItemCounter counter, DSpaceObject dso, int expected) throws Exception {
+        long timeout = System.currentTimeMillis() + 10000;
+        while (counter.getCount(dso) != expected && System.currentTimeMillis() < timeout) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, counter.getCount(dso));
+    }
+}
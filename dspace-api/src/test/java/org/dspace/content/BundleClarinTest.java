@@ -287,6 +287,42 @@ public class BundleClarinTest extends AbstractDSpaceObjectTest {
         assertNull(licenseNameNull);
     }
 
+    /**
+     * The item files metadata should be updated once when the transaction is committed.
+     */
+    @Test
+    public void updateItemFilesMetadataOnCommit() throws IOException, SQLException, AuthorizeException {
+        context.turnOffAuthorisationSystem();
+        Bitstream first = this.addFileToBitstream();
+        Bitstream second = this.addFileToBitstream();
+        // the metadata is not updated before the commit
+        assertNull(itemService.getMetadataFirstValue(item, "local", "files", "count", Item.ANY));
+
+        context.commit();
+        item = context.reloadEntity(item);
+        first = context.reloadEntity(first);
+        second = context.reloadEntity(second);
+        assertEquals("yes", itemService.getMetadataFirstValue(item, "local", "has", "files", Item.ANY));
+        assertEquals("2", itemService.getMetadataFirstValue(item, "local", "files", "count", Item.ANY));
+        assertEquals(String.valueOf(first.getSizeBytes() + second.getSizeBytes()),
+                itemService.getMetadataFirstValue(item, "local", "files", "size", Item.ANY));
+
+        b = context.reloadEntity(b);
+        bundleService.removeBitstream(context, b, first);
+        bundleService.removeBitstream(context, b, second);
+        // the licenses are committed too, remove them so they don't collide with the licenses of the other tests
+        clarinLicenseService.delete(context, context.reloadEntity(clarinLicense));
+        clarinLicenseService.delete(context, context.reloadEntity(secondClarinLicense));
+        clarinLicenseLabelService.delete(context, context.reloadEntity(clarinLicenseLabel));
+        clarinLicenseLabelService.delete(context, context.reloadEntity(secondClarinLicenseLabel));
+        context.commit();
+        context.restoreAuthSystemState();
+        item = context.reloadEntity(item);
+        assertEquals("no", itemService.getMetadataFirstValue(item, "local", "has", "files", Item.ANY));
+        assertEquals("0", itemService.getMetadataFirstValue(item, "local", "files", "count", Item.ANY));
+        assertEquals("0", itemService.getMetadataFirstValue(item, "local", "files", "size", Item.ANY));
+    }
+
     private Bitstream addFileToBitstream() throws SQLException, AuthorizeException, IOException {
         // run addBitstream method
         File f = new File(testProps.get("test.bitstream").toString());
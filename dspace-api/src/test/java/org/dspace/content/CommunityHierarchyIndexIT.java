@@ -0,0 +1,105 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.CollectionService;
+import org.dspace.content.service.CommunityService;
+import org.dspace.content.service.ItemService;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the lookups of the community hierarchy served by the {@link CommunityHierarchyIndex}.
+ */
+public class CommunityHierarchyIndexIT extends AbstractIntegrationTestWithDatabase {
+
+    private final CommunityService communityService = ContentServiceFactory.getInstance().getCommunityService();
+    private final CollectionService collectionService = ContentServiceFactory.getInstance().getCollectionService();
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
+    private Community parent;
+    private Community sub;
+    private Collection col1;
+    private Collection col2;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        context.turnOffAuthorisationSystem();
+        parent = CommunityBuilder.createCommunity(context).withName("Parent").build();
+        sub = CommunityBuilder.createSubCommunity(context, parent).withName("Sub").build();
+        col1 = CollectionBuilder.createCollection(context, parent).withName("Collection 1").build();
+        col2 = CollectionBuilder.createCollection(context, sub).withName("Collection 2").build();
+        ItemBuilder.createItem(context, col1).withTitle("Item 1").build();
+        ItemBuilder.createItem(context, col2).withTitle("Item 2").build();
+        context.restoreAuthSystemState();
+    }
+
+    @Test
+    public void lookupCommittedHierarchy() throws Exception {
+        assertThat(communityService.getAllParents(context, sub), contains(parent));
+        assertThat(communityService.getAllParents(context, parent), empty());
+        assertThat(communityService.getAllParents(context, col2), contains(sub, parent));
+        assertThat(communityService.getAllCollections(context, parent), containsInAnyOrder(col1, col2));
+        assertThat(communityService.getAllCollections(context, sub), contains(col2));
+        assertEquals(2, itemService.countItems(context, parent));
+        assertEquals(1, itemService.countItems(context, sub));
+    }
+
+    @Test
+    public void changesAreSeenImmediately() throws Exception {
+        // load the index
+        assertThat(communityService.getAllCollections(context, sub), contains(col2));
+
+        context.turnOffAuthorisationSystem();
+        Collection col3 = collectionService.create(context, sub);
+        context.restoreAuthSystemState();
+        assertThat(communityService.getAllCollections(context, sub), containsInAnyOrder(col2, col3));
+        assertThat(communityService.getAllParents(context, col3), contains(sub, parent));
+
+        context.commit();
+        assertThat(communityService.getAllCollections(context, context.reloadEntity(sub)),
+                   containsInAnyOrder(context.reloadEntity(col2), context.reloadEntity(col3)));
+
+        context.turnOffAuthorisationSystem();
+        collectionService.delete(context, context.reloadEntity(col3));
+        context.restoreAuthSystemState();
+        context.commit();
+        assertThat(communityService.getAllCollections(context, context.reloadEntity(sub)),
+                   contains(context.reloadEntity(col2)));
+        assertEquals(1, itemService.countItems(context, context.reloadEntity(sub)));
+    }
+
+    @Test
+    public void communityWithSeveralParents() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Community otherParent = CommunityBuilder.createCommunity(context).withName("Another parent").build();
+        communityService.addSubcommunity(context, otherParent, context.reloadEntity(sub));
+        context.commit();
+        context.restoreAuthSystemState();
+
+        // the parents of a community with several parents are ordered by name
+        assertThat(communityService.getAllParents(context, context.reloadEntity(sub)),
+                   contains(context.reloadEntity(otherParent)));
+        assertThat(communityService.getAllParents(context, context.reloadEntity(col2)),
+                   contains(context.reloadEntity(sub), context.reloadEntity(otherParent)));
+        assertEquals(1, itemService.countItems(context, context.reloadEntity(otherParent)));
+    }
+}
@@ -9,6 +9,7 @@ package org.dspace.content.authority;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import java.io.IOException;
 
@@ -89,6 +90,49 @@ public class DSpaceControlledVocabularyTest extends AbstractDSpaceTest {
         assertEquals("north 40", result.values[0].value);
     }
 
+    /**
+     * Test of getMatches method with a hierarchical query, of class DSpaceControlledVocabulary.
+     * @throws java.lang.ClassNotFoundException passed through.
+     */
+    @Test
+    public void testGetMatchesHierarchy() throws ClassNotFoundException {
+        DSpaceControlledVocabulary instance = getFarmVocabulary();
+        Choices result = instance.getMatches("FARM::40", 0, 10, null);
+        assertEquals(2, result.total);
+        assertEquals("north 40", result.values[0].value);
+        assertEquals("south 40", result.values[1].value);
+
+        result = instance.getMatches("barn::40", 0, 10, null);
+        assertEquals(0, result.total);
+    }
+
+    /**
+     * Test of getTopChoices and getChoice methods, of class DSpaceControlledVocabulary.
+     * @throws java.lang.ClassNotFoundException passed through.
+     */
+    @Test
+    public void testGetTopChoicesAndChoice() throws ClassNotFoundException {
+        DSpaceControlledVocabulary instance = getFarmVocabulary();
+        Choices result = instance.getTopChoices("farm", 1, 10, null);
+        assertEquals(2, result.total);
+        assertEquals(1, result.values.length);
+        assertEquals("s40", result.values[0].authority);
+
+        Choice choice = instance.getChoice("s40", null);
+        assertNotNull(choice);
+        assertEquals("south 40", choice.label);
+        assertEquals("false", choice.extras.get("hasChildren"));
+        assertNull(instance.getChoice("unknown", null));
+    }
+
+    private DSpaceControlledVocabulary getFarmVocabulary() throws ClassNotFoundException {
+        DSpaceControlledVocabulary instance = (DSpaceControlledVocabulary)
+            CoreServiceFactory.getInstance().getPluginService()
+                              .getNamedPlugin(Class.forName("org.dspace.content.authority.ChoiceAuthority"), "farm");
+        assertNotNull(instance);
+        return instance;
+    }
+
     /**
      * Test of getBestMatch method, of class DSpaceControlledVocabulary.
      */
@@ -24,6 +24,7 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.dspace.AbstractUnitTest;
 import org.dspace.authorize.AuthorizeException;
@@ -351,6 +352,61 @@ public class ContextTest extends AbstractUnitTest {
         cleanupContext(newInstance);
     }
 
+    /**
+     * Test of addPreCommitTask method, of class Context.
+     */
+    @Test
+    public void testAddPreCommitTask() throws SQLException {
+        Context instance = new Context();
+        AtomicInteger runs = new AtomicInteger();
+
+        // a task added several times with the same key runs once on commit
+        instance.addPreCommitTask("task", c -> runs.incrementAndGet());
+        instance.addPreCommitTask("task", c -> runs.incrementAndGet());
+        instance.commit();
+        assertThat("testAddPreCommitTask 0", runs.get(), equalTo(1));
+
+        // the task runs again in the next transaction
+        instance.addPreCommitTask("task", c -> runs.incrementAndGet());
+        instance.commit();
+        assertThat("testAddPreCommitTask 1", runs.get(), equalTo(2));
+
+        // the task is dropped on rollback
+        instance.addPreCommitTask("task", c -> runs.incrementAndGet());
+        instance.rollback();
+        instance.commit();
+        assertThat("testAddPreCommitTask 2", runs.get(), equalTo(2));
+
+        cleanupContext(instance);
+    }
+
+    /**
+     * Test of addTransactionEndCallback method, of class Context.
+     */
+    @Test
+    public void testAddTransactionEndCallback() throws SQLException {
+        Context instance = new Context();
+        AtomicInteger runs = new AtomicInteger();
+
+        // the callback runs once after the commit
+        instance.addTransactionEndCallback(runs::incrementAndGet);
+        instance.commit();
+        instance.commit();
+        assertThat("testAddTransactionEndCallback 0", runs.get(), equalTo(1));
+
+        // and after a rollback
+        instance.addTransactionEndCallback(runs::incrementAndGet);
+        instance.rollback();
+        assertThat("testAddTransactionEndCallback 1", runs.get(), equalTo(2));
+
+        // and when the context is aborted
+        instance.addTransactionEndCallback(runs::incrementAndGet);
+        instance.abort();
+        assertThat("testAddTransactionEndCallback 2", runs.get(), equalTo(3));
+
+        cleanupContext(instance);
+    }
+
     /**
      * Test of close method, of class Context.
      */
@@ -7,17 +7,34 @@
  */
 package org.dspace.curate;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.apache.commons.cli.ParseException;
 import org.dspace.AbstractIntegrationTestWithDatabase;
 import org.dspace.app.scripts.handler.impl.TestDSpaceRunnableHandler;
 import org.dspace.builder.CollectionBuilder;
 import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.core.factory.CoreServiceFactory;
 import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.scripts.configuration.ScriptConfiguration;
 import org.dspace.scripts.factory.ScriptServiceFactory;
 import org.dspace.scripts.service.ScriptService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.Test;
 
 public class CurationIT extends AbstractIntegrationTestWithDatabase {
@@ -75,4 +92,71 @@ public class CurationIT extends AbstractIntegrationTestWithDatabase {
             }
         }
     }
+
+    @Test
+    public void curationWithWorkersTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context)
+                                              .build();
+        Collection collection = CollectionBuilder.createCollection(context, community)
+                                                 .build();
+        Set<String> handles = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            handles.add(ItemBuilder.createItem(context, collection).withTitle("Item " + i).build().getHandle());
+        }
+        context.restoreAuthSystemState();
+        // the workers read the items with their own contexts
+        context.commit();
+
+        // Must remove any cached named plugins before defining a new one
+        CoreServiceFactory.getInstance().getPluginService().clearNamedPluginClasses();
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        String[] tasks = configurationService.getArrayProperty("plugin.named.org.dspace.curate.CurationTask");
+        configurationService.addPropertyValue("plugin.named.org.dspace.curate.CurationTask",
+                                              ParallelTask.class.getName() + " = parallel");
+        try {
+            StringBuilder report = new StringBuilder();
+            Curator curator = new Curator();
+            curator.setWorkers(3);
+            curator.setReporter(report);
+            curator.addTask("parallel");
+            curator.curate(context, collection);
+
+            assertEquals(Curator.CURATE_SUCCESS, curator.getStatus("parallel"));
+            assertEquals(handles, ParallelTask.curated);
+            assertFalse("Items should be curated with the workers' contexts",
+                        ParallelTask.contexts.contains(context));
+            for (String handle : handles) {
+                assertTrue(report.toString().contains(handle + "\n"));
+            }
+        } finally {
+            configurationService.setProperty("plugin.named.org.dspace.curate.CurationTask", tasks);
+            CoreServiceFactory.getInstance().getPluginService().clearNamedPluginClasses();
+            ParallelTask.curated.clear();
+            ParallelTask.contexts.clear();
+        }
+    }
+
+    /**
+     * Thread safe curation task recording the items it curates.
+     */
+    @ThreadSafe
+    public static class ParallelTask extends AbstractCurationTask {
+        static final Set<String> curated = ConcurrentHashMap.newKeySet();
+        static final Set<Context> contexts = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public int perform(DSpaceObject dso) throws IOException {
+            if (dso instanceof Item) {
+                try {
+                    contexts.add(Curator.curationContext());
+                } catch (SQLException e) {
+                    throw new IOException(e);
+                }
+                curated.add(dso.getHandle());
+                report(dso.getHandle() + "\n");
+            }
+            return Curator.CURATE_SUCCESS;
+        }
+    }
 }
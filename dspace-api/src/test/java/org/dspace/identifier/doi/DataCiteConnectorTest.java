@@ -0,0 +1,96 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.identifier.doi;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.dspace.services.ConfigurationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the throttling and retries of the {@link DataCiteConnector} against a local stand-in of the DataCite MDS
+ * API.
+ */
+public class DataCiteConnectorTest {
+    private static final String DOI = "doi:10.5072/dspace-1";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int failures;
+    private volatile int failureStatus;
+
+    private DataCiteConnector connector;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/doi/", this::handle);
+        server.start();
+
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getProperty(DataCiteConnector.CFG_USER)).thenReturn("user");
+        when(configurationService.getProperty(DataCiteConnector.CFG_PASSWORD)).thenReturn("password");
+        when(configurationService.getIntProperty(eq(DataCiteConnector.CFG_MAX_RETRIES), anyInt())).thenReturn(2);
+
+        connector = new DataCiteConnector();
+        connector.setConfigurationService(configurationService);
+        connector.setDATACITE_SCHEME("http");
+        connector.setDATACITE_HOST("localhost:" + server.getAddress().getPort());
+        connector.setDATACITE_DOI_PATH("/doi/");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status = requests.incrementAndGet() <= failures ? failureStatus : 200;
+        byte[] body = (status == 200 ? "http://localhost/handle/123456789/1" : "slow down")
+            .getBytes(StandardCharsets.UTF_8);
+        if (status == 429) {
+            exchange.getResponseHeaders().add("Retry-After", "0");
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    public void retriesRateLimitedRequests() throws Exception {
+        failures = 2;
+        failureStatus = 429;
+
+        assertEquals(200, connector.sendDOIGetRequest(DOI).getStatusCode());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void givesUpAfterMaxRetries() throws Exception {
+        failures = Integer.MAX_VALUE;
+        failureStatus = 503;
+
+        assertEquals(503, connector.sendDOIGetRequest(DOI).getStatusCode());
+        assertEquals(3, requests.get());
+    }
+}
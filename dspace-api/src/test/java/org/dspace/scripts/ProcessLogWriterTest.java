@@ -0,0 +1,79 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.scripts;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProcessLogWriterTest {
+    private static final String NL = System.lineSeparator();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void buffersUntilFlushed() throws Exception {
+        File directory = folder.newFolder();
+        ProcessLogWriter writer = new ProcessLogWriter(directory, "script1.log", 1024, 1024);
+        writer.append("first");
+
+        assertEquals(0, new File(directory, "script1.log").length());
+
+        writer.flush();
+        assertEquals("first" + NL, new String(writer.read(0, 1024), UTF_8));
+        writer.close();
+    }
+
+    @Test
+    public void continuesInNewSegmentsAndReadsAcrossThem() throws Exception {
+        File directory = folder.newFolder();
+        ProcessLogWriter writer = new ProcessLogWriter(directory, "script1.log", 16, 10);
+        writer.append("line 1");
+        writer.append("line 2");
+        writer.append("line 3");
+
+        assertEquals(3, writer.getSegments().size());
+        String log = "line 1" + NL + "line 2" + NL + "line 3" + NL;
+        assertEquals(log, new String(writer.read(0, 1024), UTF_8));
+        int offset = ("line 1" + NL + "li").length();
+        assertEquals(log.substring(offset, offset + 8), new String(writer.read(offset, 8), UTF_8));
+        assertEquals(0, writer.read(log.length(), 1024).length);
+        try (InputStream stream = writer.openStream()) {
+            assertEquals(log, IOUtils.toString(stream, UTF_8));
+        }
+
+        // a new writer (e.g. after the first one was closed) continues in the last segment
+        writer.close();
+        ProcessLogWriter reopened = new ProcessLogWriter(directory, "script1.log", 16, 100);
+        reopened.append("line 4");
+        assertEquals(log + "line 4" + NL, new String(reopened.read(0, 1024), UTF_8));
+        assertEquals(3, reopened.getSegments().size());
+
+        reopened.delete();
+        assertTrue(reopened.getSegments().isEmpty());
+    }
+
+    @Test
+    public void doesNotCutMultibyteCharacters() throws Exception {
+        ProcessLogWriter writer = new ProcessLogWriter(folder.newFolder(), "script1.log", 16, 1024);
+        writer.append("aé");
+
+        assertEquals("a", new String(writer.read(0, 2), UTF_8));
+        assertEquals("aé", new String(writer.read(0, 3), UTF_8));
+        writer.close();
+    }
+}
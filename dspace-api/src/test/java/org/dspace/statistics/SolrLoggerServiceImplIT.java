@@ -0,0 +1,141 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.core.Constants;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.statistics.factory.StatisticsServiceFactory;
+import org.dspace.utils.DSpace;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration test of the maintenance of the statistics core by {@link SolrLoggerServiceImpl}, which processes the
+ * records page by page.
+ */
+public class SolrLoggerServiceImplIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final int RECORDS = 7;
+
+    private final ConfigurationService configurationService =
+        DSpaceServicesFactory.getInstance().getConfigurationService();
+    private final SolrLoggerServiceImpl solrLoggerService =
+        (SolrLoggerServiceImpl) StatisticsServiceFactory.getInstance().getSolrLoggerService();
+    private final SolrClient solr = new DSpace().getSingletonService(SolrStatisticsCore.class).getSolr();
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        // small pages, so that the records span several pages processed concurrently
+        configurationService.setProperty("solr-statistics.maintenance.batch-size", 2);
+        configurationService.setProperty("solr-statistics.maintenance.threads", 3);
+
+        for (int i = 0; i < RECORDS; i++) {
+            SolrInputDocument document = new SolrInputDocument();
+            document.addField("id", "item-" + i);
+            document.addField("type", Constants.ITEM);
+            document.addField("userAgent", i % 2 == 0 ? "crawler" : "browser");
+            document.addField("isBot", false);
+            document.addField("time", new Date());
+            solr.add(document);
+        }
+        solr.commit();
+    }
+
+    @Test
+    public void markRobotByUserAgent() throws Exception {
+        solrLoggerService.markRobotByUserAgent("crawler");
+
+        assertEquals(4, count("isBot:true"));
+        assertEquals(4, count("userAgent:crawler AND isBot:true"));
+        assertEquals(RECORDS, count("*:*"));
+    }
+
+    @Test
+    public void update() throws Exception {
+        solrLoggerService.update("type:" + Constants.ITEM, "replace", singletonList("userAgent"),
+                                 singletonList(singletonList("agent")));
+
+        assertEquals(RECORDS, count("userAgent:agent"));
+        assertEquals(RECORDS, count("*:*"));
+
+        solrLoggerService.update("userAgent:agent", "addOne", singletonList("owningColl"),
+                                 singletonList(asList("a", "b")));
+
+        assertEquals(RECORDS, count("owningColl:a AND owningColl:b AND userAgent:agent"));
+
+        solrLoggerService.update("owningColl:a", "remOne", singletonList("owningColl"),
+                                 singletonList(singletonList("a")));
+
+        assertEquals(0, count("owningColl:a"));
+        assertEquals(RECORDS, count("owningColl:b"));
+    }
+
+    @Test
+    public void resumeFromCheckpoint() throws Exception {
+        // one page at a time, so that the processing always stops at the same page
+        configurationService.setProperty("solr-statistics.maintenance.threads", 1);
+        Set<Object> processed = ConcurrentHashMap.newKeySet();
+        SolrLoggerServiceImpl.ResultProcessor failing = solrLoggerService.new ResultProcessor() {
+            @Override
+            public void process(List<SolrInputDocument> docs) throws IOException, SolrServerException {
+                if (processed.size() >= 4) {
+                    throw new IOException("interrupted");
+                }
+                docs.forEach(doc -> processed.add(doc.getFieldValue("id")));
+            }
+        };
+        try {
+            failing.execute(new SolrQuery("type:" + Constants.ITEM), "test");
+            fail("The processing should have been interrupted");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals(4, processed.size());
+
+        Set<Object> resumed = ConcurrentHashMap.newKeySet();
+        SolrLoggerServiceImpl.ResultProcessor processor = solrLoggerService.new ResultProcessor() {
+            @Override
+            public void process(List<SolrInputDocument> docs) {
+                docs.forEach(doc -> resumed.add(doc.getFieldValue("id")));
+            }
+        };
+        processor.execute(new SolrQuery("type:" + Constants.ITEM), "test");
+        // the pages which were processed are skipped
+        assertEquals(RECORDS - 4, resumed.size());
+        resumed.forEach(id -> assertFalse(processed.contains(id)));
+
+        // the checkpoint was removed once all the records were processed
+        resumed.clear();
+        processor.execute(new SolrQuery("type:" + Constants.ITEM), "test");
+        assertEquals(RECORDS, resumed.size());
+    }
+
+    private long count(String query) throws Exception {
+        return solr.query(new SolrQuery(query)).getResults().getNumFound();
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.storage.bitstore;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.content.Bitstream;
+import org.dspace.core.Utils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CachingBitStoreServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, byte[]> remote = new ConcurrentHashMap<>();
+    private final AtomicInteger remoteReads = new AtomicInteger();
+    private File cacheDir;
+    private CachingBitStoreService store;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDir = folder.newFolder();
+        store = newStore(10);
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    public void servesSecondReadFromCache() throws Exception {
+        Bitstream bitstream = bitstream("1", "content");
+
+        assertEquals("content", read(bitstream));
+        awaitAdmissions(store, 1);
+        assertEquals("content", read(bitstream));
+        assertEquals("ontent", IOUtils.toString(store.get(bitstream, 1, 100), UTF_8));
+
+        // the first read and its admission
+        assertEquals(2, remoteReads.get());
+        assertEquals(2, store.getHits());
+        assertEquals(1, store.getMisses());
+        assertEquals(2.0 / 3, store.getHitRatio(), 0.001);
+    }
+
+    @Test
+    public void doesNotAdmitCorruptedContent() throws Exception {
+        Bitstream bitstream = bitstream("1", "content");
+        when(bitstream.getChecksum()).thenReturn(Utils.toHex(Utils.getMD5Bytes("other".getBytes(UTF_8))));
+
+        read(bitstream);
+        while (store.getFailedVerifications() == 0) {
+            Thread.sleep(10);
+        }
+        read(bitstream);
+
+        assertEquals(0, store.getHits());
+        assertEquals(0, store.getCount());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Exception {
+        Bitstream first = bitstream("1", "aaaa");
+        Bitstream second = bitstream("2", "bbbb");
+        Bitstream third = bitstream("3", "cccc");
+        read(first);
+        awaitAdmissions(store, 1);
+        read(second);
+        awaitAdmissions(store, 2);
+        read(first);
+        read(third);
+        awaitAdmissions(store, 3);
+
+        assertEquals(1, store.getEvictions());
+        assertEquals(8, store.getSize());
+        int hits = (int) store.getHits();
+        read(first);
+        read(third);
+        assertEquals(hits + 2, store.getHits());
+    }
+
+    @Test
+    public void doesNotServeChangedOrRemovedContent() throws Exception {
+        Bitstream bitstream = bitstream("1", "content");
+        read(bitstream);
+        awaitAdmissions(store, 1);
+
+        remote.put("1", "changed".getBytes(UTF_8));
+        when(bitstream.getChecksum()).thenReturn(Utils.toHex(Utils.getMD5Bytes("changed".getBytes(UTF_8))));
+        assertEquals("changed", read(bitstream));
+        awaitAdmissions(store, 2);
+
+        store.remove(bitstream);
+        assertEquals(0, store.getCount());
+        assertEquals(0, cacheDir.list().length);
+    }
+
+    @Test
+    public void readsStreamOfEvictedFile() throws Exception {
+        Bitstream first = bitstream("1", "aaaa");
+        Bitstream second = bitstream("2", "bbbbbbbb");
+        read(first);
+        awaitAdmissions(store, 1);
+
+        try (InputStream inputStream = store.get(first)) {
+            // the admission of the second bitstream evicts the first one
+            read(second);
+            awaitAdmissions(store, 2);
+            assertEquals(1, store.getEvictions());
+            assertEquals("aaaa", IOUtils.toString(inputStream, UTF_8));
+        }
+    }
+
+    @Test
+    public void servesReadsWhileFilesAreEvicted() throws Exception {
+        Bitstream bitstream = bitstream("1", "content");
+        byte[] content = remote.get("1");
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            readers.execute(() -> {
+                while (running.get()) {
+                    try {
+                        assertEquals("content", read(bitstream));
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        // invalidate the cached file over and over, the reads admit it again
+        long end = System.currentTimeMillis() + 2000;
+        while (System.currentTimeMillis() < end) {
+            store.put(bitstream, new ByteArrayInputStream(content));
+            Thread.sleep(1);
+        }
+        running.set(false);
+        readers.shutdown();
+        assertTrue(readers.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(failures.toString(), failures.isEmpty());
+        assertTrue(store.getHits() > 0);
+    }
+
+    @Test
+    public void keepsCacheAcrossRestarts() throws Exception {
+        Bitstream bitstream = bitstream("1", "content");
+        read(bitstream);
+        awaitAdmissions(store, 1);
+        store.destroy();
+
+        store = newStore(10);
+        int reads = remoteReads.get();
+        assertEquals("content", read(bitstream));
+        assertEquals(reads, remoteReads.get());
+        assertEquals(1, store.getHits());
+    }
+
+    private CachingBitStoreService newStore(long maxSize) throws IOException {
+        CachingBitStoreService cachingStore = new CachingBitStoreService(new InMemoryBitStoreService());
+        cachingStore.setCacheEnabled(true);
+        cachingStore.setCacheDir(cacheDir.getAbsolutePath());
+        cachingStore.setMaxSize(maxSize);
+        cachingStore.init();
+        return cachingStore;
+    }
+
+    private Bitstream bitstream(String internalId, String content) {
+        byte[] bytes = content.getBytes(UTF_8);
+        remote.put(internalId, bytes);
+        Bitstream bitstream = mock(Bitstream.class);
+        when(bitstream.getInternalId()).thenReturn(internalId);
+        when(bitstream.getChecksum()).thenReturn(Utils.toHex(Utils.getMD5Bytes(bytes)));
+        when(bitstream.getChecksumAlgorithm()).thenReturn("MD5");
+        when(bitstream.getSizeBytes()).thenReturn((long) bytes.length);
+        return bitstream;
+    }
+
+    private String read(Bitstream bitstream) throws IOException {
+        try (InputStream inputStream = store.get(bitstream)) {
+            return IOUtils.toString(inputStream, UTF_8);
+        }
+    }
+
+    private static void awaitAdmissions(CachingBitStoreService cachingStore, long admissions) throws Exception {
+        long timeout = System.currentTimeMillis() + 10_000;
+        while (cachingStore.getAdmissions() < admissions && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertEquals(admissions, cachingStore.getAdmissions());
+    }
+
+    private class InMemoryBitStoreService implements BitStoreService {
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public String generateId() {
+            return Utils.generateKey();
+        }
+
+        @Override
+        public InputStream get(Bitstream bitstream) throws IOException {
+            byte[] content = remote.get(bitstream.getInternalId());
+            if (content == null) {
+                throw new IOException("No asset " + bitstream.getInternalId());
+            }
+            remoteReads.incrementAndGet();
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public File getFile(Bitstream bitstream) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void put(Bitstream bitstream, InputStream inputStream) throws IOException {
+            remote.put(bitstream.getInternalId(), IOUtils.toByteArray(inputStream));
+        }
+
+        @Override
+        public Map<String, Object> about(Bitstream bitstream, List<String> attrs) {
+            return Map.of();
+        }
+
+        @Override
+        public void remove(Bitstream bitstream) {
+            remote.remove(bitstream.getInternalId());
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return true;
+        }
+    }
+}
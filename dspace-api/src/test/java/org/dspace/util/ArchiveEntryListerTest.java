@@ -0,0 +1,126 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.Test;
+
+public class ArchiveEntryListerTest {
+    private static final int LARGE_SIZE = 5 * 1024 * 1024;
+
+    private final AtomicLong requested = new AtomicLong();
+
+    private ArchiveEntryLister.RangeSource source(byte[] archive) {
+        return (offset, length) -> {
+            requested.addAndGet(length);
+            return new ByteArrayInputStream(archive, (int) offset, (int) length);
+        };
+    }
+
+    private Map<String, Long> list(byte[] archive, boolean zip) throws Exception {
+        Map<String, Long> entries = new LinkedHashMap<>();
+        ArchiveEntryLister.EntryConsumer consumer = (path, size) -> {
+            entries.put(path, size);
+            return true;
+        };
+        if (zip) {
+            ArchiveEntryLister.listZip(source(archive), archive.length, consumer);
+        } else {
+            ArchiveEntryLister.listTar(source(archive), archive.length, consumer);
+        }
+        return entries;
+    }
+
+    @Test
+    public void listsZipFromCentralDirectory() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.setMethod(ZipOutputStream.STORED);
+            putZipEntry(zip, "dir/", new byte[0]);
+            putZipEntry(zip, "dir/large.bin", new byte[LARGE_SIZE]);
+            putZipEntry(zip, "dir/čeština.txt", "text".getBytes());
+            zip.setComment("archive comment");
+        }
+        byte[] archive = bytes.toByteArray();
+
+        Map<String, Long> entries = list(archive, true);
+
+        assertEquals(Map.of("dir/large.bin", (long) LARGE_SIZE, "dir/čeština.txt", 4L), entries);
+        assertTrue("The content of the entries should not be read", requested.get() < 100_000);
+    }
+
+    @Test
+    public void listsTarSkippingContent() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(bytes)) {
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            putTarEntry(tar, "large.bin", new byte[LARGE_SIZE]);
+            putTarEntry(tar, "dir/" + "long-name-".repeat(20) + ".txt", "text".getBytes());
+        }
+        byte[] archive = bytes.toByteArray();
+
+        Map<String, Long> entries = list(archive, false);
+
+        assertEquals(Map.of("large.bin", (long) LARGE_SIZE, "dir/" + "long-name-".repeat(20) + ".txt", 4L),
+                     entries);
+        assertTrue("The content of the entries should not be read", requested.get() < archive.length / 2);
+    }
+
+    @Test
+    public void stopsWhenConsumerIsDone() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < 10; i++) {
+                zip.putNextEntry(new ZipEntry("file" + i));
+                zip.closeEntry();
+            }
+        }
+        byte[] archive = bytes.toByteArray();
+        int[] count = {0};
+
+        ArchiveEntryLister.listZip(source(archive), archive.length, (path, size) -> ++count[0] < 3);
+
+        assertEquals(3, count[0]);
+    }
+
+    private static void putZipEntry(ZipOutputStream zip, String name, byte[] content) throws Exception {
+        ZipEntry entry = new ZipEntry(name);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static void putTarEntry(TarArchiveOutputStream tar, String name, byte[] content) throws Exception {
+        TarArchiveEntry entry = new TarArchiveEntry(name);
+        entry.setSize(content.length);
+        tar.putArchiveEntry(entry);
+        try (InputStream in = new ByteArrayInputStream(content)) {
+            in.transferTo(tar);
+        }
+        tar.closeArchiveEntry();
+    }
+}
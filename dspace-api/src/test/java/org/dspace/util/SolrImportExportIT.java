@@ -0,0 +1,193 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.core.Constants;
+import org.dspace.statistics.SolrStatisticsCore;
+import org.dspace.utils.DSpace;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Integration test of the JSON lines export and import of {@link SolrImportExport}, on the statistics core.
+ */
+public class SolrImportExportIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final String INDEX = "statistics";
+    private static final String TIME_FIELD = "time";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final SolrClient solr = new DSpace().getSingletonService(SolrStatisticsCore.class).getSolr();
+    private final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+    private File exportDir;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        exportDir = folder.newFolder();
+        // three documents of the month before last, two of the last month and one of the current month
+        addDocuments(now.minusMonths(2), 3);
+        addDocuments(now.minusMonths(1), 2);
+        addDocuments(now, 1);
+        solr.commit();
+    }
+
+    @Test
+    public void exportImportVerify() throws Exception {
+        SolrImportExport.exportMonths(INDEX, exportDir, solr, TIME_FIELD, null, false, false, 2);
+
+        assertTrue(manifest().contains("\"documents\" : 3"));
+        assertEquals(3, exportDir.list((dir, name) -> name.endsWith(".jsonl.gz")).length);
+
+        solr.deleteByQuery("*:*");
+        solr.commit();
+        SolrImportExport.importMonths(INDEX, exportDir, solr, false, 2);
+
+        assertEquals(6, count());
+        assertEquals(3, count(now.minusMonths(2)));
+        assertTrue(manifest().contains("\"imported\" : true"));
+    }
+
+    @Test
+    public void exportDoesNotReuseEarlierExport() throws Exception {
+        SolrImportExport.exportMonths(INDEX, exportDir, solr, TIME_FIELD, null, false, false, 2);
+        addDocuments(now.minusMonths(2), 1);
+        solr.commit();
+
+        try {
+            SolrImportExport.exportMonths(INDEX, exportDir, solr, TIME_FIELD, null, false, false, 2);
+            fail("The existing export files should not be reused or overwritten");
+        } catch (SolrImportExportException e) {
+            // expected
+        }
+
+        // a new export with overwrite contains the new document
+        SolrImportExport.exportMonths(INDEX, exportDir, solr, TIME_FIELD, null, true, false, 2);
+        solr.deleteByQuery("*:*");
+        solr.commit();
+        SolrImportExport.importMonths(INDEX, exportDir, solr, false, 2);
+        assertEquals(7, count());
+    }
+
+    @Test
+    public void resumeExportSkipsExportedMonthsButTheCurrentOne() throws Exception {
+        SolrImportExport.exportMonths(INDEX, exportDir, solr, TIME_FIELD, null, false, false, 2);
+        File lastMonth = exportFile(now.minusMonths(1));
+        FileUtils.deleteQuietly(lastMonth);
+        File monthBeforeLast = exportFile(now.minusMonths(2));
+        long exported = monthBeforeLast.lastModified();
+        addDocuments(now.minusMonths(2), 1);
+        addDocuments(now, 2);
+        solr.commit();
+        Thread.sleep(1000);
+
+        SolrImportExport.exportMonths(INDEX, exportDir, solr, TIME_FIELD, null, false, true, 2);
+
+        // the month before last was already exported, the missing month and the current month are exported
+        assertEquals(exported, monthBeforeLast.lastModified());
+        assertTrue(lastMonth.exists());
+        solr.deleteByQuery("*:*");
+        solr.commit();
+        SolrImportExport.importMonths(INDEX, exportDir, solr, false, 2);
+        assertEquals(3, count(now.minusMonths(2)));
+        assertEquals(2, count(now.minusMonths(1)));
+        assertEquals(3, count(now));
+    }
+
+    @Test
+    public void resumeImportSkipsImportedMonths() throws Exception {
+        SolrImportExport.exportMonths(INDEX, exportDir, solr, TIME_FIELD, null, false, false, 2);
+        SolrImportExport.importMonths(INDEX, exportDir, solr, false, 2);
+        solr.deleteByQuery("*:*");
+        solr.commit();
+
+        try {
+            // nothing is imported again, so the exported documents are missing from the index
+            SolrImportExport.importMonths(INDEX, exportDir, solr, true, 2);
+            fail("The verification of the imported documents should have failed");
+        } catch (SolrImportExportException e) {
+            // expected
+        }
+        assertEquals(0, count());
+
+        SolrImportExport.importMonths(INDEX, exportDir, solr, false, 2);
+        assertEquals(6, count());
+    }
+
+    @Test
+    public void importSkipsFilesMissingFromTheManifest() throws Exception {
+        SolrImportExport.exportMonths(INDEX, exportDir, solr, TIME_FIELD, null, false, false, 2);
+        solr.deleteByQuery("*:*");
+        addDocuments(now.minusMonths(2), 1);
+        solr.commit();
+        // the files of the last and the current month are left from the first export
+        SolrImportExport.exportMonths(INDEX, exportDir, solr, TIME_FIELD, null, true, false, 2);
+        assertTrue(exportFile(now.minusMonths(1)).exists());
+
+        solr.deleteByQuery("*:*");
+        solr.commit();
+        SolrImportExport.importMonths(INDEX, exportDir, solr, false, 2);
+        assertEquals(1, count());
+        assertFalse(manifest().contains(month(now.minusMonths(1))));
+    }
+
+    private void addDocuments(ZonedDateTime time, int documents) throws Exception {
+        for (int i = 0; i < documents; i++) {
+            SolrInputDocument document = new SolrInputDocument();
+            document.addField("id", "item-" + i);
+            document.addField("type", Constants.ITEM);
+            document.addField(TIME_FIELD, Date.from(time.minusSeconds(i).toInstant()));
+            solr.add(document);
+        }
+    }
+
+    private long count() throws Exception {
+        return solr.query(new SolrQuery("*:*")).getResults().getNumFound();
+    }
+
+    private long count(ZonedDateTime month) throws Exception {
+        SolrQuery query = new SolrQuery("*:*");
+        query.addFilterQuery(TIME_FIELD + ":[" + month(month) + "-01T00:00:00Z TO " + month(month)
+                                 + "-01T00:00:00Z+1MONTH}");
+        return solr.query(query).getResults().getNumFound();
+    }
+
+    private String month(ZonedDateTime time) {
+        return String.format("%d-%02d", time.getYear(), time.getMonthValue());
+    }
+
+    private File exportFile(ZonedDateTime month) {
+        return new File(exportDir, INDEX + "_export_" + month(month) + ".jsonl.gz");
+    }
+
+    private String manifest() throws Exception {
+        return FileUtils.readFileToString(new File(exportDir, INDEX + "_export_manifest.json"),
+                                          StandardCharsets.UTF_8);
+    }
+}
@@ -22,10 +22,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.xml.stream.XMLStreamException;
 
 import com.lyncode.xoai.dataprovider.exceptions.ConfigurationException;
@@ -105,7 +113,12 @@ public class XOAI {
 
     private List<XOAIExtensionItemCompilePlugin> extensionPlugins;
 
-    private List<String> getFileFormats(Item item) {
+    private final Set<String> indexedHandles = new HashSet<>();
+
+    private final ThreadLocal<ByteArrayOutputStream> compileBuffer =
+            ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
+    private List<String> getFileFormats(Context context, Item item) {
         List<String> formats = new ArrayList<>();
         try {
             for (Bundle b : itemService.getBundles(item, "ORIGINAL")) {
@@ -269,84 +282,156 @@ public class XOAI {
     }
 
     /**
-     * Check if an item is already indexed. Using this, it is possible to check if
-     * withdrawn or nondiscoverable items have to be indexed at all.
+     * Fetch the OAI visibility of the given items from the index, using a single query for the whole batch.
+     * Using this, it is possible to check if withdrawn or nondiscoverable items have to be indexed at all and
+     * whether they are currently visible.
      *
-     * @param item Item that should be checked for its presence in the index.
-     * @return has it been indexed?
+     * @param itemIds ids of the items that should be checked for their presence in the index.
+     * @return the item.public flag of every item already indexed, by item id; items which are not indexed are
+     *         missing from the map
      */
-    private boolean checkIfIndexed(Item item) throws IOException {
-        SolrQuery params = new SolrQuery("item.id:" + item.getID().toString()).addField("item.id");
-        try {
-            SolrDocumentList documents = DSpaceSolrSearch.query(solrServerResolver.getServer(), params);
-            return documents.getNumFound() == 1;
-        } catch (DSpaceSolrException | SolrServerException e) {
-            return false;
+    private Map<String, Boolean> getIndexedVisibility(List<String> itemIds) throws IOException {
+        Map<String, Boolean> visibility = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return visibility;
         }
-    }
-
-    /**
-     * Check if an item is flagged visible in the index.
-     *
-     * @param item Item that should be checked for its presence in the index.
-     * @return has it been indexed?
-     */
-    private boolean checkIfVisibleInOAI(Item item) throws IOException {
-        SolrQuery params = new SolrQuery("item.id:" + item.getID().toString()).addField("item.public");
+        SolrQuery params = new SolrQuery("{!terms f=item.id}" + String.join(",", itemIds))
+                .addField("item.id").addField("item.public").setRows(itemIds.size());
         try {
             SolrDocumentList documents = DSpaceSolrSearch.query(solrServerResolver.getServer(), params);
-            if (documents.getNumFound() == 1) {
-                return (boolean) documents.get(0).getFieldValue("item.public");
-            } else {
-                return false;
+            for (SolrDocument document : documents) {
+                Object isPublic = document.getFieldValue("item.public");
+                visibility.put((String) document.getFieldValue("item.id"),
+                        isPublic instanceof Boolean && (Boolean) isPublic);
             }
         } catch (DSpaceSolrException | SolrServerException e) {
-            return false;
+            log.warn("Unable to fetch the indexed visibility of the current batch, treating items as not indexed",
+                    e);
         }
+        return visibility;
     }
 
+    /**
+     * Index the items of the given iterator. Items are processed in batches of {@code oai.import.batch.size}:
+     * the current index status of the whole batch is fetched with one query, the batch is compiled (in parallel
+     * on {@code oai.import.threads} workers, each with its own Context, if configured) and added to the index.
+     */
     private int index(Iterator<Item> iterator) throws DSpaceSolrIndexerException {
+        int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
+        int threads = configurationService.getIntProperty("oai.import.threads", 1);
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
         try {
             int i = 0;
-            int batchSize = configurationService.getIntProperty("oai.import.batch.size", 1000);
             SolrClient server = solrServerResolver.getServer();
-            ArrayList<SolrInputDocument> list = new ArrayList<>();
+            List<Item> batch = new ArrayList<>();
             while (iterator.hasNext()) {
-                try {
-                    Item item = iterator.next();
-                    if (item.getHandle() == null) {
-                        log.warn("Skipped item without handle: " + item.getID());
-                    } else {
-                        list.add(this.index(item));
-                    }
+                Item item = iterator.next();
+                if (item.getHandle() == null) {
+                    log.warn("Skipped item without handle: " + item.getID());
                     // Uncache the item to keep memory consumption low
                     context.uncacheEntity(item);
-
-                } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
-                    log.error(ex.getMessage(), ex);
+                } else {
+                    batch.add(item);
+                    indexedHandles.add(item.getHandle());
                 }
                 i++;
                 if (i % 1000 == 0 && batchSize != 1000) {
                     System.out.println(i + " items imported so far...");
                 }
                 if (i % batchSize == 0) {
-                    System.out.println(i + " items imported so far...");
-                    server.add(list);
+                    indexBatch(server, batch, executor, threads);
                     server.commit();
-                    list.clear();
+                    System.out.println(i + " items imported so far...");
                 }
             }
             System.out.println("Total: " + i + " items");
             if (i > 0) {
-                if (!list.isEmpty()) {
-                    server.add(list);
-                }
+                indexBatch(server, batch, executor, threads);
                 server.commit(true, true);
-                list.clear();
             }
             return i;
-        } catch (SolrServerException | IOException ex) {
+        } catch (SolrServerException | IOException | SQLException ex) {
             throw new DSpaceSolrIndexerException(ex.getMessage(), ex);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Compile the given batch of items and add them to the index. The batch is cleared afterwards.
+     */
+    private void indexBatch(SolrClient server, List<Item> batch, ExecutorService executor, int threads)
+            throws SolrServerException, IOException, SQLException, DSpaceSolrIndexerException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> itemIds = new ArrayList<>(batch.size());
+        for (Item item : batch) {
+            itemIds.add(item.getID().toString());
+        }
+        Map<String, Boolean> indexedVisibility = getIndexedVisibility(itemIds);
+
+        List<SolrInputDocument> documents = new ArrayList<>(batch.size());
+        if (executor == null) {
+            for (Item item : batch) {
+                compile(context, item, indexedVisibility, documents);
+                // Uncache the item to keep memory consumption low
+                context.uncacheEntity(item);
+            }
+        } else {
+            for (Item item : batch) {
+                context.uncacheEntity(item);
+            }
+            // split the batch into one chunk per worker, every worker loads its items in its own Context
+            int chunkSize = (itemIds.size() + threads - 1) / threads;
+            List<Future<List<SolrInputDocument>>> results = new ArrayList<>();
+            for (int start = 0; start < itemIds.size(); start += chunkSize) {
+                List<String> chunk = itemIds.subList(start, Math.min(start + chunkSize, itemIds.size()));
+                results.add(executor.submit(() -> compileChunk(chunk, indexedVisibility)));
+            }
+            for (Future<List<SolrInputDocument>> result : results) {
+                try {
+                    documents.addAll(result.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DSpaceSolrIndexerException(e.getMessage(), e);
+                } catch (ExecutionException e) {
+                    throw new DSpaceSolrIndexerException(e.getCause().getMessage(), e.getCause());
+                }
+            }
+        }
+        batch.clear();
+        if (!documents.isEmpty()) {
+            server.add(documents);
+        }
+    }
+
+    /**
+     * Compile the given items in a new read only Context, used by the parallel workers.
+     */
+    private List<SolrInputDocument> compileChunk(List<String> itemIds, Map<String, Boolean> indexedVisibility)
+            throws SQLException {
+        List<SolrInputDocument> documents = new ArrayList<>(itemIds.size());
+        try (Context workerContext = new Context(Context.Mode.READ_ONLY)) {
+            for (String itemId : itemIds) {
+                Item item = itemService.find(workerContext, UUID.fromString(itemId));
+                if (item != null) {
+                    compile(workerContext, item, indexedVisibility, documents);
+                    workerContext.uncacheEntity(item);
+                }
+            }
+        }
+        return documents;
+    }
+
+    private void compile(Context context, Item item, Map<String, Boolean> indexedVisibility,
+                         List<SolrInputDocument> documents) {
+        try {
+            documents.add(this.index(context, item, indexedVisibility));
+        } catch (SQLException | IOException | XMLStreamException | WritingXmlException ex) {
+            log.error(ex.getMessage(), ex);
         }
     }
 
@@ -359,7 +444,7 @@ public class XOAI {
      * @return date
      * @throws SQLException
      */
-    private Date getMostRecentModificationDate(Item item) throws SQLException {
+    private Date getMostRecentModificationDate(Context context, Item item) throws SQLException {
         List<Date> dates = new LinkedList<>();
         List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
         for (ResourcePolicy policy : policies) {
@@ -385,7 +470,7 @@ public class XOAI {
         return lastChange;
     }
 
-    private SolrInputDocument index(Item item)
+    private SolrInputDocument index(Context context, Item item, Map<String, Boolean> indexedVisibility)
             throws SQLException, IOException, XMLStreamException, WritingXmlException {
         SolrInputDocument doc = new SolrInputDocument();
         doc.addField("item.id", item.getID().toString());
@@ -393,9 +478,9 @@ public class XOAI {
         String handle = item.getHandle();
         doc.addField("item.handle", handle);
 
-        boolean isEmbargoed = !this.isPublic(item);
-        boolean isCurrentlyVisible = this.checkIfVisibleInOAI(item);
-        boolean isIndexed = this.checkIfIndexed(item);
+        boolean isEmbargoed = !this.isPublic(context, item);
+        boolean isIndexed = indexedVisibility.containsKey(item.getID().toString());
+        boolean isCurrentlyVisible = isIndexed && indexedVisibility.get(item.getID().toString());
 
         /*
          * If the item is not under embargo, it should be visible. If it is, make it
@@ -416,7 +501,7 @@ public class XOAI {
         // if the visibility of the item will change in the future due to an
         // embargo, mark it as such.
 
-        doc.addField("item.willChangeStatus", willChangeStatus(item));
+        doc.addField("item.willChangeStatus", willChangeStatus(context, item));
 
         /*
          * Mark an item as deleted not only if it is withdrawn, but also if it is made
@@ -443,7 +528,7 @@ public class XOAI {
          * date and take the most recent of those which have already passed.
          */
         doc.addField("item.lastmodified",
-                SolrUtils.getDateFormatter().format(this.getMostRecentModificationDate(item)));
+                SolrUtils.getDateFormatter().format(this.getMostRecentModificationDate(context, item)));
 
         if (item.getSubmitter() != null) {
             doc.addField("item.submitter", item.getSubmitter().getEmail());
@@ -470,7 +555,7 @@ public class XOAI {
             }
         }
 
-        for (String f : getFileFormats(item)) {
+        for (String f : getFileFormats(context, item)) {
             doc.addField("metadata.dc.format.mimetype", f);
         }
 
@@ -479,8 +564,6 @@ public class XOAI {
             println(String.format("Item %s with handle %s is about to be indexed", item.getID().toString(), handle));
         }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        XmlOutputContext xmlContext = XmlOutputContext.emptyContext(out, Second);
         Metadata metadata = retrieveMetadata(context, item);
 
         // Do any additional metadata element, depends on the plugins
@@ -488,6 +571,10 @@ public class XOAI {
             metadata = plugin.additionalMetadata(context, metadata, item);
         }
 
+        // reuse the output buffer of this thread, it grows to the size of the largest compiled item
+        ByteArrayOutputStream out = compileBuffer.get();
+        out.reset();
+        XmlOutputContext xmlContext = XmlOutputContext.emptyContext(out, Second);
         metadata.write(xmlContext);
         xmlContext.getWriter().flush();
         xmlContext.getWriter().close();
@@ -500,7 +587,7 @@ public class XOAI {
         return doc;
     }
 
-    private boolean willChangeStatus(Item item) throws SQLException {
+    private boolean willChangeStatus(Context context, Item item) throws SQLException {
         List<ResourcePolicy> policies = authorizeService.getPoliciesActionFilter(context, item, Constants.READ);
         for (ResourcePolicy policy : policies) {
             if ((policy.getGroup() != null) && (policy.getGroup().getName().equals("Anonymous"))) {
@@ -516,7 +603,7 @@ public class XOAI {
         return false;
     }
 
-    private boolean isPublic(Item item) {
+    private boolean isPublic(Context context, Item item) {
         boolean pub = false;
         try {
             // Check if READ access allowed on this Item
@@ -558,6 +645,18 @@ public class XOAI {
         }
     }
 
+    /**
+     * @return the handles of all items (re)indexed by this indexer
+     */
+    public Set<String> getIndexedHandles() {
+        return indexedHandles;
+    }
+
+    private static void invalidateCache(XOAICacheService xoaiCacheService, Set<String> handles) throws IOException {
+        System.out.println("Purging cached OAI responses of " + handles.size() + " changed items.");
+        xoaiCacheService.deleteByItems(handles);
+    }
+
     private static void cleanCache(XOAIItemCacheService xoaiItemCacheService, XOAICacheService xoaiCacheService)
             throws IOException {
         System.out.println("Purging cached OAI responses.");
@@ -623,7 +722,11 @@ public class XOAI {
 
                     int imported = indexer.index();
                     if (imported > 0) {
-                        cleanCache(itemCacheService, cacheService);
+                        if (line.hasOption('c')) {
+                            cleanCache(itemCacheService, cacheService);
+                        } else {
+                            invalidateCache(cacheService, indexer.getIndexedHandles());
+                        }
                     }
                 } else if (COMMAND_CLEAN_CACHE.equals(command)) {
                     cleanCache(itemCacheService, cacheService);
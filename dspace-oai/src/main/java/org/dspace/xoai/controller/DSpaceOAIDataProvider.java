@@ -7,6 +7,7 @@
  */
 package org.dspace.xoai.controller;
 
+import static com.lyncode.xoai.dataprovider.core.Granularity.Second;
 import static java.util.Arrays.asList;
 import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static org.apache.logging.log4j.LogManager.getLogger;
@@ -28,6 +29,8 @@ import com.lyncode.xoai.dataprovider.core.XOAIManager;
 import com.lyncode.xoai.dataprovider.exceptions.InvalidContextException;
 import com.lyncode.xoai.dataprovider.exceptions.OAIException;
 import com.lyncode.xoai.dataprovider.exceptions.WritingXmlException;
+import com.lyncode.xoai.dataprovider.xml.XmlOutputContext;
+import com.lyncode.xoai.dataprovider.xml.oaipmh.OAIPMH;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.app.statistics.clarin.ClarinMatomoOAITracker;
@@ -127,11 +130,15 @@ public class DSpaceOAIDataProvider {
             String identification = xoaiContext + parameters.requestID();
 
             if (cacheService.isActive()) {
-                if (!cacheService.hasCache(identification)) {
-                    cacheService.store(identification, dataProvider.handle(parameters));
+                if (!cacheService.handle(identification, out)) {
+                    OAIPMH oaipmh = dataProvider.handle(parameters);
+                    cacheService.store(identification, oaipmh);
+
+                    XmlOutputContext xmlContext = XmlOutputContext.emptyContext(out, Second);
+                    oaipmh.write(xmlContext);
+                    xmlContext.getWriter().flush();
+                    xmlContext.getWriter().close();
                 }
-
-                cacheService.handle(identification, out);
             } else {
                 dataProvider.handle(parameters, out);
             }
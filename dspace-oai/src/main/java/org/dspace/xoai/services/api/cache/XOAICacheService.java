@@ -9,6 +9,7 @@ package org.dspace.xoai.services.api.cache;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collection;
 
 import com.lyncode.xoai.dataprovider.xml.oaipmh.OAIPMH;
 
@@ -18,11 +19,25 @@ public interface XOAICacheService {
 
     boolean hasCache(String requestID);
 
-    void handle(String requestID, OutputStream out) throws IOException;
+    /**
+     * Write the cached response of the request.
+     *
+     * @param requestID the request
+     * @param out       the output of the response
+     * @return false, without writing anything, if there is no cached response for the request
+     */
+    boolean handle(String requestID, OutputStream out) throws IOException;
 
     void store(String requestID, OAIPMH response) throws IOException;
 
     void delete(String requestID);
 
+    /**
+     * Delete the cached responses which may have changed because of the given items.
+     *
+     * @param handles handles of the changed items
+     */
+    void deleteByItems(Collection<String> handles) throws IOException;
+
     void deleteAll() throws IOException;
 }
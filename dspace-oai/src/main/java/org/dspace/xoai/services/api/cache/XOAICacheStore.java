@@ -0,0 +1,70 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.api.cache;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Storage backend of the OAI response cache. Entries are opaque byte arrays identified by a key and tagged with
+ * the handles of the items they depend on, so that they can be invalidated selectively when those items change.
+ */
+public interface XOAICacheStore {
+
+    /**
+     * Tag of the entries which depend on the content of the whole repository (e.g. list requests), these are
+     * invalidated whenever any item changes.
+     */
+    String ANY_ITEM = "*";
+
+    /**
+     * @param key the entry key
+     * @return whether a non expired entry exists for the key
+     */
+    boolean contains(String key) throws IOException;
+
+    /**
+     * @param key the entry key
+     * @return the stored value, or {@code null} if there is no (non expired) entry for the key; this is where
+     *         cache hits and misses are counted
+     */
+    byte[] get(String key) throws IOException;
+
+    /**
+     * Store the value, replacing any previous entry of the same key.
+     *
+     * @param key   the entry key
+     * @param value the value
+     * @param tags  item handles (or {@link #ANY_ITEM}) the value depends on
+     */
+    void put(String key, byte[] value, Set<String> tags) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Delete all entries tagged with any of the given item handles, together with all entries tagged with
+     * {@link #ANY_ITEM}.
+     *
+     * @param handles handles of the changed items
+     */
+    void deleteByItems(Collection<String> handles) throws IOException;
+
+    void deleteAll() throws IOException;
+
+    /**
+     * Drop expired entries and evict the least recently used ones until the store is within its size bound.
+     */
+    void compact() throws IOException;
+
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+}
@@ -9,6 +9,7 @@ package org.dspace.xoai.services.impl.cache;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collection;
 
 import com.lyncode.xoai.dataprovider.xml.oaipmh.OAIPMH;
 import org.dspace.xoai.services.api.cache.XOAICacheService;
@@ -25,8 +26,8 @@ public class DSpaceEmptyCacheService implements XOAICacheService {
     }
 
     @Override
-    public void handle(String requestID, OutputStream out) throws IOException {
-
+    public boolean handle(String requestID, OutputStream out) throws IOException {
+        return false;
     }
 
     @Override
@@ -39,6 +40,11 @@ public class DSpaceEmptyCacheService implements XOAICacheService {
 
     }
 
+    @Override
+    public void deleteByItems(Collection<String> handles) {
+
+    }
+
     @Override
     public void deleteAll() {
 
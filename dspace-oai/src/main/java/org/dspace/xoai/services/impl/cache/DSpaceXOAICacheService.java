@@ -8,45 +8,66 @@
 package org.dspace.xoai.services.impl.cache;
 
 import static com.lyncode.xoai.dataprovider.core.Granularity.Second;
-import static org.apache.commons.io.FileUtils.deleteDirectory;
-import static org.apache.commons.io.IOUtils.copy;
 import static org.apache.commons.io.IOUtils.write;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Set;
 import javax.xml.stream.XMLStreamException;
 
 import com.lyncode.xoai.dataprovider.core.XOAIManager;
 import com.lyncode.xoai.dataprovider.exceptions.WritingXmlException;
 import com.lyncode.xoai.dataprovider.xml.XmlOutputContext;
 import com.lyncode.xoai.dataprovider.xml.oaipmh.OAIPMH;
-import com.lyncode.xoai.util.Base64Utils;
-import org.apache.commons.io.FileUtils;
+import com.lyncode.xoai.dataprovider.xml.oaipmh.RequestType;
+import com.lyncode.xoai.dataprovider.xml.oaipmh.VerbType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.xoai.data.DSpaceItem;
 import org.dspace.xoai.services.api.cache.XOAICacheService;
+import org.dspace.xoai.services.api.cache.XOAICacheStore;
 import org.dspace.xoai.services.api.config.ConfigurationService;
 import org.dspace.xoai.util.DateUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
 
+/**
+ * Cache of the OAI-PMH responses, keyed by request. The responses are kept in a pluggable
+ * {@link XOAICacheStore}, selected with {@code oai.cache.store}: a sharded on-disk store ({@code file}, the
+ * default) or an in-process LRU store ({@code memory}). Every response is tagged with the item it was generated
+ * for, or as depending on all items, so that an import only invalidates the responses affected by the changed items.
+ */
 public class DSpaceXOAICacheService implements XOAICacheService {
+    private static final Logger log = LogManager.getLogger(DSpaceXOAICacheService.class);
     private static final String REQUEST_DIR = File.separator + "requests";
-    private static String baseDir;
     private static String staticHead;
 
     @Autowired
     ConfigurationService configurationService;
 
-    private String getBaseDir() {
-        if (baseDir == null) {
-            String dir = configurationService.getProperty("oai.cache.dir") + REQUEST_DIR;
-            baseDir = dir;
+    private XOAICacheStore store;
+
+    private synchronized XOAICacheStore getStore() {
+        if (store == null) {
+            long ttl = configurationService.getLongProperty("oai.cache.ttl", 604800) * 1000;
+            if ("memory".equals(configurationService.getProperty("oai.cache.store"))) {
+                store = new DSpaceXOAIMemoryCacheStore(
+                        configurationService.getLongProperty("oai.cache.memory.max-size", 67108864), ttl);
+            } else {
+                store = new DSpaceXOAIFileCacheStore(
+                        Paths.get(configurationService.getProperty("oai.cache.dir") + REQUEST_DIR),
+                        configurationService.getLongProperty("oai.cache.file.max-size", 1073741824L), ttl,
+                        configurationService.getLongProperty("oai.cache.compaction.interval", 3600) * 1000);
+            }
         }
-        return baseDir;
+        return store;
     }
 
     private static String getStaticHead(XOAIManager manager, Date date) {
@@ -69,16 +90,6 @@ public class DSpaceXOAICacheService implements XOAICacheService {
         this.manager = manager;
     }
 
-    private File getCacheFile(String id) {
-        File dir = new File(getBaseDir());
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
-
-        String name = File.separator + Base64Utils.encode(id);
-        return new File(getBaseDir() + name);
-    }
-
     @Override
     public boolean isActive() {
         return configurationService.getBooleanProperty("oai.cache", true);
@@ -86,15 +97,23 @@ public class DSpaceXOAICacheService implements XOAICacheService {
 
     @Override
     public boolean hasCache(String requestID) {
-        return this.getCacheFile(requestID).exists();
+        try {
+            return getStore().contains(requestID);
+        } catch (IOException e) {
+            log.warn("Unable to read the OAI response cache", e);
+            return false;
+        }
     }
 
     @Override
-    public void handle(String requestID, OutputStream out) throws IOException {
-        InputStream in = new FileInputStream(this.getCacheFile(requestID));
+    public boolean handle(String requestID, OutputStream out) throws IOException {
+        byte[] response = getStore().get(requestID);
+        if (response == null) {
+            return false;
+        }
         write(getStaticHead(manager, new Date()), out);
-        copy(in, out);
-        in.close();
+        out.write(response);
+        return true;
     }
 
     @Override
@@ -115,7 +134,7 @@ public class DSpaceXOAICacheService implements XOAICacheService {
                 xoaiResponse = xoaiResponse.substring(pos + (end.length()));
             }
 
-            FileUtils.write(this.getCacheFile(requestID), xoaiResponse);
+            getStore().put(requestID, xoaiResponse.getBytes(StandardCharsets.UTF_8), getTags(response));
         } catch (XMLStreamException e) {
             throw new IOException(e);
         } catch (WritingXmlException e) {
@@ -123,14 +142,38 @@ public class DSpaceXOAICacheService implements XOAICacheService {
         }
     }
 
+    /**
+     * Responses to requests for a single record only depend on that item, the list of metadata formats does not
+     * depend on any item and all other responses may change with any item.
+     */
+    private static Set<String> getTags(OAIPMH response) {
+        RequestType request = response.getInfo().getRequest();
+        if (request != null && request.getIdentifier() != null) {
+            return Collections.singleton(DSpaceItem.parseHandle(request.getIdentifier()));
+        }
+        if (request != null && request.getVerb() == VerbType.LIST_METADATA_FORMATS) {
+            return Collections.emptySet();
+        }
+        return Collections.singleton(XOAICacheStore.ANY_ITEM);
+    }
+
     @Override
     public void delete(String requestID) {
-        this.getCacheFile(requestID).delete();
+        try {
+            getStore().delete(requestID);
+        } catch (IOException e) {
+            log.warn("Unable to delete the cached OAI response of " + requestID, e);
+        }
+    }
+
+    @Override
+    public void deleteByItems(Collection<String> handles) throws IOException {
+        getStore().deleteByItems(handles);
     }
 
     @Override
     public void deleteAll() throws IOException {
-        deleteDirectory(new File(getBaseDir()));
+        getStore().deleteAll();
     }
 
 }
@@ -0,0 +1,297 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.xoai.services.api.cache.XOAICacheStore;
+
+/**
+ * On-disk store of the OAI response cache.
+ *
+ * Every entry is kept in a file named by the SHA-256 digest of its key, sharded into two levels of
+ * sub directories (e.g. {@code ab/cd/abcd...}) so that no directory grows beyond a few thousand files. The tags
+ * of an entry are kept next to it in a {@code .tags} file. The modification time of the entry file is its
+ * creation time, used for the time to live, while the tags file is touched on every read, so that the least
+ * recently used entries can be evicted when the store grows above its size bound. Expired and evicted entries are
+ * removed by {@link #compact()}, which is run in the background at most once per compaction interval.
+ */
+public class DSpaceXOAIFileCacheStore implements XOAICacheStore {
+    private static final Logger log = LogManager.getLogger(DSpaceXOAIFileCacheStore.class);
+
+    private static final String TAGS_SUFFIX = ".tags";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long STALE_TEMP_FILE_AGE = TimeUnit.HOURS.toMillis(1);
+
+    private final Path baseDir;
+    private final long maxSize;
+    private final long ttl;
+    private final long compactionInterval;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private volatile long lastCompaction = System.currentTimeMillis();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "oai-cache-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param baseDir            directory of the store
+     * @param maxSize            maximum total size of the stored values in bytes
+     * @param ttl                time to live of the entries in milliseconds, 0 to never expire them
+     * @param compactionInterval minimum time between two background compactions in milliseconds
+     */
+    public DSpaceXOAIFileCacheStore(Path baseDir, long maxSize, long ttl, long compactionInterval) {
+        this.baseDir = baseDir;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.compactionInterval = compactionInterval;
+    }
+
+    private Path getEntryFile(String key) {
+        String digest = DigestUtils.sha256Hex(key);
+        return baseDir.resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4)).resolve(digest);
+    }
+
+    private static Path getTagsFile(Path entryFile) {
+        return entryFile.resolveSibling(entryFile.getFileName() + TAGS_SUFFIX);
+    }
+
+    private boolean isExpired(FileTime created, long now) {
+        return ttl > 0 && now - created.toMillis() > ttl;
+    }
+
+    @Override
+    public boolean contains(String key) throws IOException {
+        return isValid(getEntryFile(key));
+    }
+
+    private boolean isValid(Path entryFile) throws IOException {
+        try {
+            return !isExpired(Files.getLastModifiedTime(entryFile), System.currentTimeMillis());
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        Path entryFile = getEntryFile(key);
+        try {
+            if (!isValid(entryFile)) {
+                misses.incrementAndGet();
+                return null;
+            }
+            byte[] value = Files.readAllBytes(entryFile);
+            hits.incrementAndGet();
+            // the access time is often disabled on the file system, keep track of the usage on the tags file
+            Path tagsFile = getTagsFile(entryFile);
+            if (Files.exists(tagsFile)) {
+                Files.setLastModifiedTime(tagsFile, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return value;
+        } catch (NoSuchFileException e) {
+            // removed concurrently
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] value, Set<String> tags) throws IOException {
+        Path entryFile = getEntryFile(key);
+        Files.createDirectories(entryFile.getParent());
+        // write the tags first, so that an entry never exists without its tags
+        write(getTagsFile(entryFile), String.join("\n", tags).getBytes(UTF_8));
+        write(entryFile, value);
+        scheduleCompaction();
+    }
+
+    private static void write(Path target, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_SUFFIX);
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void scheduleCompaction() {
+        if (System.currentTimeMillis() - lastCompaction < compactionInterval
+                || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        compactor.execute(() -> {
+            try {
+                compact();
+            } catch (IOException | RuntimeException e) {
+                log.error("Unable to compact the OAI response cache in " + baseDir, e);
+            } finally {
+                lastCompaction = System.currentTimeMillis();
+                compacting.set(false);
+            }
+        });
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        remove(getEntryFile(key));
+    }
+
+    private static void remove(Path entryFile) throws IOException {
+        Files.deleteIfExists(entryFile);
+        Files.deleteIfExists(getTagsFile(entryFile));
+    }
+
+    @Override
+    public void deleteByItems(Collection<String> handles) throws IOException {
+        Set<String> tags = new HashSet<>(handles);
+        tags.add(ANY_ITEM);
+        int deleted = 0;
+        for (Path tagsFile : listFiles(TAGS_SUFFIX)) {
+            List<String> entryTags;
+            try {
+                entryTags = Files.readAllLines(tagsFile, UTF_8);
+            } catch (NoSuchFileException e) {
+                continue;
+            }
+            if (!Collections.disjoint(entryTags, tags)) {
+                String name = tagsFile.getFileName().toString();
+                remove(tagsFile.resolveSibling(name.substring(0, name.length() - TAGS_SUFFIX.length())));
+                deleted++;
+            }
+        }
+        log.info("Invalidated " + deleted + " cached OAI responses for " + handles.size() + " changed items");
+    }
+
+    @Override
+    public void deleteAll() throws IOException {
+        FileUtils.deleteDirectory(baseDir.toFile());
+    }
+
+    @Override
+    public void compact() throws IOException {
+        long now = System.currentTimeMillis();
+        long size = 0;
+        int expired = 0;
+        List<CachedFile> alive = new ArrayList<>();
+        for (Path entryFile : listFiles("")) {
+            String name = entryFile.getFileName().toString();
+            if (name.endsWith(TAGS_SUFFIX)) {
+                continue;
+            }
+            if (name.endsWith(TEMP_SUFFIX)) {
+                // left behind by an interrupted write
+                if (now - Files.getLastModifiedTime(entryFile).toMillis() > STALE_TEMP_FILE_AGE) {
+                    Files.deleteIfExists(entryFile);
+                }
+                continue;
+            }
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(entryFile, BasicFileAttributes.class);
+                if (isExpired(attributes.lastModifiedTime(), now)) {
+                    remove(entryFile);
+                    expired++;
+                    continue;
+                }
+                Path tagsFile = getTagsFile(entryFile);
+                long lastUsed = Files.exists(tagsFile) ? Files.getLastModifiedTime(tagsFile).toMillis()
+                        : attributes.lastModifiedTime().toMillis();
+                alive.add(new CachedFile(entryFile, attributes.size(), lastUsed));
+                size += attributes.size();
+            } catch (NoSuchFileException e) {
+                // removed concurrently
+            }
+        }
+        if (size > maxSize) {
+            alive.sort(Comparator.comparingLong(f -> f.lastUsed));
+            for (CachedFile file : alive) {
+                if (size <= maxSize) {
+                    break;
+                }
+                remove(file.path);
+                size -= file.size;
+                evictions.incrementAndGet();
+            }
+        }
+        log.info("Compacted the OAI response cache: " + expired + " expired entries removed, " + size
+                + " bytes in use, " + hits.get() + " hits, " + misses.get() + " misses, " + evictions.get()
+                + " evictions");
+    }
+
+    private List<Path> listFiles(String suffix) throws IOException {
+        if (!Files.isDirectory(baseDir)) {
+            return Collections.emptyList();
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.walk(baseDir, 3)) {
+            stream.filter(Files::isRegularFile)
+                  .filter(path -> path.getFileName().toString().endsWith(suffix))
+                  .forEach(files::add);
+        }
+        return files;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private static class CachedFile {
+        private final Path path;
+        private final long size;
+        private final long lastUsed;
+
+        CachedFile(Path path, long size, long lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
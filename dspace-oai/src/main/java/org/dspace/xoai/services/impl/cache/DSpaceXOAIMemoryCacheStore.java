@@ -0,0 +1,180 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.services.impl.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.dspace.xoai.services.api.cache.XOAICacheStore;
+
+/**
+ * In-process LRU store of the OAI response cache, bounded by the total size of the stored values.
+ *
+ * Invalidations issued by the command line import do not reach this store, entries only disappear once they
+ * expire, so it should be used with a short time to live.
+ */
+public class DSpaceXOAIMemoryCacheStore implements XOAICacheStore {
+    private final long maxSize;
+    private final long ttl;
+
+    // access ordered, so the first entry is always the least recently used one
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxSize maximum total size of the stored values in bytes
+     * @param ttl     time to live of the entries in milliseconds, 0 to never expire them
+     */
+    public DSpaceXOAIMemoryCacheStore(long maxSize, long ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        synchronized (entries) {
+            return lookup(key) != null;
+        }
+    }
+
+    @Override
+    public byte[] get(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = lookup(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    private Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry, System.currentTimeMillis())) {
+            remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    @Override
+    public void put(String key, byte[] value, Set<String> tags) {
+        if (value.length > maxSize) {
+            return;
+        }
+        Entry entry = new Entry(value, tags, System.currentTimeMillis());
+        synchronized (entries) {
+            remove(key);
+            entries.put(key, entry);
+            size += value.length;
+            Iterator<Entry> it = entries.values().iterator();
+            while (size > maxSize && it.hasNext()) {
+                size -= it.next().value.length;
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        synchronized (entries) {
+            remove(key);
+        }
+    }
+
+    private void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            size -= previous.value.length;
+        }
+    }
+
+    @Override
+    public void deleteByItems(Collection<String> handles) {
+        Set<String> tags = new HashSet<>(handles);
+        tags.add(ANY_ITEM);
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (!Collections.disjoint(entry.tags, tags)) {
+                    size -= entry.value.length;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    @Override
+    public void compact() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next().getValue();
+                if (isExpired(entry, now)) {
+                    size -= entry.value.length;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttl > 0 && now - entry.created > ttl;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private static class Entry {
+        private final byte[] value;
+        private final Set<String> tags;
+        private final long created;
+
+        Entry(byte[] value, Set<String> tags, long created) {
+            this.value = value;
+            this.tags = tags;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.xoai.tests.unit.services.impl.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.dspace.xoai.services.api.cache.XOAICacheStore;
+import org.dspace.xoai.services.impl.cache.DSpaceXOAIFileCacheStore;
+import org.dspace.xoai.services.impl.cache.DSpaceXOAIMemoryCacheStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DSpaceXOAICacheStoreTest {
+    private static final byte[] VALUE = "<ListRecords/>".getBytes(UTF_8);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private XOAICacheStore fileStore(long maxSize) throws Exception {
+        return new DSpaceXOAIFileCacheStore(folder.newFolder("requests").toPath(), maxSize, 0, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void storesAndCountsHits() throws Exception {
+        for (XOAICacheStore store : new XOAICacheStore[] {fileStore(1024), new DSpaceXOAIMemoryCacheStore(1024, 0)}) {
+            assertFalse(store.contains("request"));
+            assertNull(store.get("request"));
+
+            store.put("request", VALUE, Collections.singleton(XOAICacheStore.ANY_ITEM));
+
+            assertTrue(store.contains("request"));
+            assertArrayEquals(VALUE, store.get("request"));
+            assertEquals(1, store.getHits());
+            assertEquals(1, store.getMisses());
+        }
+    }
+
+    @Test
+    public void invalidatesOnlyEntriesOfChangedItems() throws Exception {
+        for (XOAICacheStore store : new XOAICacheStore[] {fileStore(1024), new DSpaceXOAIMemoryCacheStore(1024, 0)}) {
+            store.put("getRecord1", VALUE, Collections.singleton("123456789/1"));
+            store.put("getRecord2", VALUE, Collections.singleton("123456789/2"));
+            store.put("listRecords", VALUE, Collections.singleton(XOAICacheStore.ANY_ITEM));
+            store.put("listMetadataFormats", VALUE, Collections.emptySet());
+
+            store.deleteByItems(Collections.singleton("123456789/1"));
+
+            assertFalse(store.contains("getRecord1"));
+            assertTrue(store.contains("getRecord2"));
+            assertFalse(store.contains("listRecords"));
+            assertTrue(store.contains("listMetadataFormats"));
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntries() throws Exception {
+        long maxSize = VALUE.length * 2L;
+        for (XOAICacheStore store : new XOAICacheStore[] {fileStore(maxSize),
+            new DSpaceXOAIMemoryCacheStore(maxSize, 0)}) {
+            store.put("first", VALUE, Collections.emptySet());
+            Thread.sleep(10);
+            store.put("second", VALUE, Collections.emptySet());
+            Thread.sleep(10);
+            store.get("first");
+            store.put("third", VALUE, Collections.emptySet());
+            store.compact();
+
+            assertTrue(store.contains("first"));
+            assertFalse(store.contains("second"));
+            assertTrue(store.contains("third"));
+            assertEquals(1, store.getEvictions());
+        }
+    }
+}
@@ -7,6 +7,9 @@
  */
 package org.dspace.app.rest;
 
+import static org.dspace.app.rest.WorkspaceItemChunkedUploadController.UPLOAD_CHECKSUM_HEADER;
+import static org.dspace.app.rest.WorkspaceItemChunkedUploadController.UPLOAD_LENGTH_HEADER;
+import static org.dspace.app.rest.WorkspaceItemChunkedUploadController.UPLOAD_OFFSET_HEADER;
 import static org.dspace.app.rest.security.clarin.ClarinShibbolethLoginFilter.VERIFICATION_TOKEN_HEADER;
 
 import java.io.IOException;
@@ -19,6 +22,7 @@ import org.dspace.app.rest.filter.DSpaceRequestContextFilter;
 import org.dspace.app.rest.model.hateoas.DSpaceLinkRelationProvider;
 import org.dspace.app.rest.parameter.resolver.SearchFilterResolver;
 import org.dspace.app.rest.utils.ApplicationConfig;
+import org.dspace.app.rest.utils.ContextLifetimeStatistics;
 import org.dspace.app.rest.utils.DSpaceAPIRequestLoggingFilter;
 import org.dspace.app.rest.utils.DSpaceConfigurationInitializer;
 import org.dspace.app.rest.utils.DSpaceKernelInitializer;
@@ -140,12 +144,13 @@ public class Application extends SpringBootServletInitializer {
      * Register the DSpaceRequestContextFilter, a Filter which checks for open
      * Context objects *after* a request has been fully processed, and closes them
      *
+     * @param contextLifetimeStatistics the statistics the lifetime of the Contexts is recorded in
      * @return DSpaceRequestContextFilter
      */
     @Bean
     @Order(2)
-    protected Filter dspaceRequestContextFilter() {
-        return new DSpaceRequestContextFilter();
+    protected Filter dspaceRequestContextFilter(ContextLifetimeStatistics contextLifetimeStatistics) {
+        return new DSpaceRequestContextFilter(contextLifetimeStatistics);
     }
 
     /**
@@ -218,9 +223,11 @@ public class Application extends SpringBootServletInitializer {
                             // Allow list of request preflight headers allowed to be sent to us from the client
                             .allowedHeaders("Accept", "Authorization", "Content-Type", "Origin", "X-On-Behalf-Of",
                                 "X-Requested-With", "X-XSRF-TOKEN", "X-CORRELATION-ID", "X-REFERRER",
-                                "x-recaptcha-token", VERIFICATION_TOKEN_HEADER)
+                                "x-recaptcha-token", VERIFICATION_TOKEN_HEADER, UPLOAD_LENGTH_HEADER,
+                                UPLOAD_OFFSET_HEADER, UPLOAD_CHECKSUM_HEADER)
                             // Allow list of response headers allowed to be sent by us (the server) to the client
-                            .exposedHeaders("Authorization", "DSPACE-XSRF-TOKEN", "Location", "WWW-Authenticate");
+                            .exposedHeaders("Authorization", "DSPACE-XSRF-TOKEN", "Location", "WWW-Authenticate",
+                                UPLOAD_LENGTH_HEADER, UPLOAD_OFFSET_HEADER);
                 }
                 if (iiifAllowedOrigins != null) {
                     registry.addMapping("/iiif/**").allowedMethods(CorsConfiguration.ALL)
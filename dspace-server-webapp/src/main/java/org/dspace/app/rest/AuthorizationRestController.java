@@ -9,14 +9,20 @@ package org.dspace.app.rest;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.app.rest.authorization.AuthorizationRestUtil;
 import org.dspace.app.rest.converter.ConverterService;
+import org.dspace.app.rest.exception.DSpaceBadRequestException;
 import org.dspace.app.rest.model.AuthrnRest;
+import org.dspace.app.rest.model.ClarinBitstreamLicenseDTO;
 import org.dspace.app.rest.utils.ContextUtil;
 import org.dspace.app.rest.utils.Utils;
 import org.dspace.authorize.AuthorizationBitstreamUtils;
@@ -29,6 +35,7 @@ import org.dspace.content.service.BitstreamService;
 import org.dspace.content.service.clarin.ClarinLicenseResourceMappingService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +44,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RequestMapping(value = "/api/" + AuthrnRest.CATEGORY)
@@ -116,4 +124,31 @@ public class AuthorizationRestController {
 
         return ResponseEntity.ok().body("User is authorized to download the bitstream.");
     }
+
+    /**
+     * Resolve the Clarin Licenses of several bitstreams (e.g. all the files of an item) for the current user in one
+     * request, instead of checking the bitstreams one by one.
+     *
+     * @param bitstreamUUIDs the UUIDs of the bitstreams
+     * @return the license of every bitstream, its confirmation and whether the current user has to agree to it,
+     *         in the order of bitstreamUUIDs
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/licenses")
+    public ResponseEntity<List<ClarinBitstreamLicenseDTO>> licenses(
+            @RequestParam(name = "bitstreamUUIDs") List<UUID> bitstreamUUIDs, HttpServletRequest request)
+            throws SQLException {
+        if (CollectionUtils.isEmpty(bitstreamUUIDs)) {
+            throw new DSpaceBadRequestException("The bitstreamUUIDs parameter cannot be empty.");
+        }
+        Context context = ContextUtil.obtainContext(request);
+        EPerson currentUser = context.getCurrentUser();
+
+        List<ClarinBitstreamLicenseDTO> licenses = clarinLicenseResourceMappingService
+                .getLicensesToAgree(context, Objects.nonNull(currentUser) ? currentUser.getID() : null,
+                        bitstreamUUIDs)
+                .values().stream()
+                .map(ClarinBitstreamLicenseDTO::new)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok().body(licenses);
+    }
 }
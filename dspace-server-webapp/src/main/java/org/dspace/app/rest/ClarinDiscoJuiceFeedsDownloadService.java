@@ -12,6 +12,7 @@ import static org.apache.commons.lang.StringUtils.isNotBlank;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -25,6 +26,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.net.ssl.HttpsURLConnection;
 import javax.ws.rs.core.NoContentException;
 
@@ -43,6 +49,7 @@ import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
 /**
@@ -65,6 +72,20 @@ public class ClarinDiscoJuiceFeedsDownloadService implements InitializingBean {
 
     private static boolean disableSSL = false;
 
+    /**
+     * The countries of the hosts of the IdP information URLs (an empty String when the country wasn't found), kept
+     * between the refreshes of the feeds so that the hosts are not resolved on every refresh
+     */
+    private final Map<String, CachedCountry> hostCountries = new ConcurrentHashMap<>();
+
+    /**
+     * The ETag and Last-Modified headers of the last processed discovery feed, sent with the next download so that
+     * an unchanged feed is not downloaded and processed again
+     */
+    private String feedETag;
+    private String feedLastModified;
+    private String lastFeedsContent;
+
     @Autowired
     private ConfigurationService configurationService;
 
@@ -102,7 +123,13 @@ public class ClarinDiscoJuiceFeedsDownloadService implements InitializingBean {
         disableSSL = configurationService.getBooleanProperty("disable.ssl.check.specific.requests", false);
     }
 
-    public String createFeedsContent() {
+    /**
+     * Download the discovery feed and convert it to the feeds content. When the feed was not modified since the last
+     * call, the previous feeds content is returned.
+     *
+     * @return the feeds content, or null if the feed couldn't be downloaded or is empty
+     */
+    public synchronized String createFeedsContent() {
         log.debug("Starting to create feeds content.");
 
         String shibbolethDiscoFeedUrl = configurationService.getProperty("shibboleth.discofeed.url");
@@ -113,18 +140,44 @@ public class ClarinDiscoJuiceFeedsDownloadService implements InitializingBean {
                     "file, maybe it is not set in the configuration file");
         }
 
-        final Map<String, JSONObject> shibDiscoEntities = toMap(shrink(
-                ClarinDiscoJuiceFeedsDownloadService.downloadJSON(shibbolethDiscoFeedUrl)));
+        boolean conditional = lastFeedsContent != null;
+        DownloadedFeed feed = downloadJSON(shibbolethDiscoFeedUrl, conditional ? feedETag : null,
+                conditional ? feedLastModified : null);
+        if (feed == null) {
+            log.debug("The discovery feed was not modified.");
+            return lastFeedsContent;
+        }
+
+        final Map<String, JSONObject> shibDiscoEntities = toMap(shrink(feed.entities));
 
-        // iterate through the entities to update countries as needed
-        shibDiscoEntities.forEach((entityId, shibEntity) -> {
-            if (rewriteCountries.contains(entityId) || StringUtils.isBlank((String) shibEntity.get("country"))) {
+        // guess the countries as needed, resolving the hosts of the entities in parallel
+        Map<String, Future<String>> newCountries = new HashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(configurationService.getIntProperty("discojuice.country.threads", 8), 1));
+        try {
+            shibDiscoEntities.forEach((entityId, shibEntity) -> {
+                if (rewriteCountries.contains(entityId) || StringUtils.isBlank((String) shibEntity.get("country"))) {
+                    newCountries.put(entityId, executor.submit(() -> guessCountry(shibEntity)));
+                }
+            });
+            // update the countries once all of them are guessed, the entities are not thread safe
+            for (Map.Entry<String, Future<String>> newCountry : newCountries.entrySet()) {
+                JSONObject shibEntity = shibDiscoEntities.get(newCountry.getKey());
                 String oldCountry = (String) shibEntity.remove("country");
-                String newCountry = guessCountry(shibEntity);
-                shibEntity.put("country", newCountry);
-                log.debug("Changed country for {} from {} to {}", entityId, oldCountry, newCountry);
+                shibEntity.put("country", newCountry.getValue().get());
+                log.debug("Changed country for {} from {} to {}", newCountry.getKey(), oldCountry,
+                        shibEntity.get("country"));
             }
-        });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while guessing the countries of the discovery feed", e);
+            return null;
+        } catch (ExecutionException e) {
+            log.error("Failed to guess the countries of the discovery feed", e);
+            return null;
+        } finally {
+            executor.shutdownNow();
+        }
 
         if (shibDiscoEntities.isEmpty()) {
             return null;
@@ -132,7 +185,10 @@ public class ClarinDiscoJuiceFeedsDownloadService implements InitializingBean {
 
         JSONArray ret = new JSONArray();
         ret.addAll(shibDiscoEntities.values());
-        return ret.toJSONString();
+        lastFeedsContent = ret.toJSONString();
+        feedETag = feed.eTag;
+        feedLastModified = feed.lastModified;
+        return lastFeedsContent;
 
     }
 
@@ -218,7 +274,15 @@ public class ClarinDiscoJuiceFeedsDownloadService implements InitializingBean {
         return testFileURL.openConnection();
     }
 
-    private static JSONArray downloadJSON(String url) {
+    /**
+     * Download the discovery feed.
+     *
+     * @param url          the URL of the feed
+     * @param eTag         the ETag of the previously downloaded feed, or null
+     * @param lastModified the Last-Modified header of the previously downloaded feed, or null
+     * @return the downloaded feed (empty if it couldn't be downloaded), or null if it was not modified
+     */
+    private static DownloadedFeed downloadJSON(String url, String eTag, String lastModified) {
 
 
         JSONParser parser = new JSONParser();
@@ -230,32 +294,44 @@ public class ClarinDiscoJuiceFeedsDownloadService implements InitializingBean {
             if (disableSSL && conn instanceof HttpsURLConnection) {
                 Utils.disableCertificateValidation((HttpsURLConnection) conn);
             }
+            if (conn instanceof HttpURLConnection) {
+                // Conditional request, the feed is only sent again when it changed
+                if (isNotBlank(eTag)) {
+                    conn.setRequestProperty(HttpHeaders.IF_NONE_MATCH, eTag);
+                }
+                if (isNotBlank(lastModified)) {
+                    conn.setRequestProperty(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+                }
+                if (((HttpURLConnection) conn).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    return null;
+                }
+            }
             //Caution does not follow redirects, and even if you set it to http->https is not possible
-            Object obj = parser.parse(new InputStreamReader(conn.getInputStream()));
-            return (JSONArray) obj;
+            try (InputStreamReader reader = new InputStreamReader(conn.getInputStream())) {
+                Object obj = parser.parse(reader);
+                return new DownloadedFeed((JSONArray) obj, conn.getHeaderField(HttpHeaders.ETAG),
+                        conn.getHeaderField(HttpHeaders.LAST_MODIFIED));
+            }
         } catch (IOException | ParseException e) {
             log.error("Failed to obtain/parse " + url + "\nCheck timeouts, redirects, shibboleth config.\n" + e);
         }
-        return new JSONArray();
+        return new DownloadedFeed(new JSONArray(), null, null);
     }
 
-    private static String guessCountry(JSONObject entity) {
+    private String guessCountry(JSONObject entity) {
         if (locationService != null && entity.containsKey("InformationURLs")) {
             JSONArray informationURLs = (JSONArray)entity.get("InformationURLs");
             if (informationURLs.size() > 0) {
                 String informationURL = (String) ((JSONObject)informationURLs.get(0)).get("value");
                 try {
-                    CityResponse cityResponse = locationService.city(
-                            InetAddress.getByName(new URL(informationURL).getHost()));
-                    if (cityResponse != null && cityResponse.getCountry() != null &&
-                            isNotBlank(cityResponse.getCountry().getIsoCode())) {
-                        String code = cityResponse.getCountry().getIsoCode();
+                    String code = getHostCountry(new URL(informationURL).getHost());
+                    if (isNotBlank(code)) {
                         log.debug("Found code " + code + " for " + informationURL);
                         return code;
                     } else {
                         log.debug("Country or location is null for " + informationURL);
                     }
-                } catch (IOException | GeoIp2Exception e) {
+                } catch (MalformedURLException e) {
                     log.debug(e);
                 }
             }
@@ -276,4 +352,53 @@ public class ClarinDiscoJuiceFeedsDownloadService implements InitializingBean {
         return "_all_"; // by default add "_all_", better search in dj
     }
 
+    /**
+     * Find the country of the host in the GeoIP database, the countries are cached for
+     * {@code discojuice.country.cache.ttl} seconds.
+     *
+     * @return the ISO code of the country, or an empty String if it wasn't found
+     */
+    private String getHostCountry(String host) {
+        long now = System.currentTimeMillis();
+        CachedCountry cached = hostCountries.get(host);
+        if (cached != null && cached.expires > now) {
+            return cached.country;
+        }
+        String country = "";
+        try {
+            CityResponse cityResponse = locationService.city(InetAddress.getByName(host));
+            if (cityResponse != null && cityResponse.getCountry() != null &&
+                    isNotBlank(cityResponse.getCountry().getIsoCode())) {
+                country = cityResponse.getCountry().getIsoCode();
+            }
+        } catch (IOException | GeoIp2Exception e) {
+            log.debug(e);
+        }
+        long ttl = configurationService.getLongProperty("discojuice.country.cache.ttl", 86400);
+        hostCountries.put(host, new CachedCountry(country, now + ttl * 1000));
+        return country;
+    }
+
+    private static class CachedCountry {
+        private final String country;
+        private final long expires;
+
+        private CachedCountry(String country, long expires) {
+            this.country = country;
+            this.expires = expires;
+        }
+    }
+
+    private static class DownloadedFeed {
+        private final JSONArray entities;
+        private final String eTag;
+        private final String lastModified;
+
+        private DownloadedFeed(JSONArray entities, String eTag, String lastModified) {
+            this.entities = entities;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+    }
+
 }
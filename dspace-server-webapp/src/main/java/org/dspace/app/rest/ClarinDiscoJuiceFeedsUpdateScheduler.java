@@ -9,6 +9,11 @@ package org.dspace.app.rest;
 
 import static org.apache.commons.lang.StringUtils.isNotBlank;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
 import org.apache.logging.log4j.Logger;
 import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.InitializingBean;
@@ -17,7 +22,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
- * The Cron Job for maintaining the DiscoFeeds. The DiscoFeeds are stored in the `feedsContent`.
+ * The Cron Job for maintaining the DiscoFeeds. The DiscoFeeds are stored in the `feedsContent`, already encoded
+ * and compressed, so that the feed endpoint only writes them to the response.
  * DiscoFeeds are downloading in intervals because it's a big JSON file.
  *
  * @author Milan Majchrak (milan.majchrak at dataquest.sk)
@@ -27,7 +33,7 @@ public class ClarinDiscoJuiceFeedsUpdateScheduler implements InitializingBean {
 
     protected static Logger log =
             org.apache.logging.log4j.LogManager.getLogger(ClarinDiscoJuiceFeedsUpdateScheduler.class);
-    private static String feedsContent;
+    private static volatile FeedsContent feedsContent;
 
     @Autowired
     ClarinDiscoJuiceFeedsDownloadService clarinDiscoJuiceFeedsDownloadService;
@@ -58,13 +64,47 @@ public class ClarinDiscoJuiceFeedsUpdateScheduler implements InitializingBean {
         log.debug("CRON Job - going to download the discovery feeds.");
         String newFeedsContent = clarinDiscoJuiceFeedsDownloadService.createFeedsContent();
         if (isNotBlank(newFeedsContent)) {
-            feedsContent = newFeedsContent;
+            FeedsContent currentFeedsContent = feedsContent;
+            if (currentFeedsContent == null || !newFeedsContent.equals(currentFeedsContent.content)) {
+                feedsContent = new FeedsContent(newFeedsContent);
+            }
         } else {
             log.error("Failed to obtain additional discovery feeds!");
         }
     }
 
-    public String getFeedsContent() {
-        return feedsContent;
+    /**
+     * @return the DiscoFeeds encoded in UTF-8, or null if they were not downloaded
+     */
+    public byte[] getFeedsContent() {
+        FeedsContent currentFeedsContent = feedsContent;
+        return currentFeedsContent == null ? null : currentFeedsContent.bytes;
+    }
+
+    /**
+     * @return the DiscoFeeds encoded in UTF-8 and compressed with gzip, or null if they were not downloaded
+     */
+    public byte[] getGzippedFeedsContent() {
+        FeedsContent currentFeedsContent = feedsContent;
+        return currentFeedsContent == null ? null : currentFeedsContent.gzippedBytes;
+    }
+
+    private static class FeedsContent {
+        private final String content;
+        private final byte[] bytes;
+        private final byte[] gzippedBytes;
+
+        private FeedsContent(String content) {
+            this.content = content;
+            this.bytes = content.getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                // not thrown by a ByteArrayOutputStream
+                throw new IllegalStateException(e);
+            }
+            this.gzippedBytes = gzipped.toByteArray();
+        }
     }
 }
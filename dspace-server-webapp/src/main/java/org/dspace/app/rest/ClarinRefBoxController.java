@@ -17,12 +17,14 @@ import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -61,6 +63,7 @@ import org.dspace.content.Item;
 import org.dspace.content.MetadataValue;
 import org.dspace.content.clarin.ClarinFeaturedService;
 import org.dspace.content.clarin.ClarinFeaturedServiceLink;
+import org.dspace.content.clarin.ClarinRefBoxCacheConsumer;
 import org.dspace.content.service.ItemService;
 import org.dspace.core.Context;
 import org.dspace.handle.service.HandleService;
@@ -74,6 +77,8 @@ import org.dspace.xoai.services.api.xoai.ItemRepositoryResolver;
 import org.dspace.xoai.services.api.xoai.SetRepositoryResolver;
 import org.dspace.xoai.services.impl.xoai.DSpaceResumptionTokenFormatter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -89,6 +94,9 @@ import org.xml.sax.SAXException;
 /**
  * A Controller for fetching the data for the ref-box in the Item View (FE).
  * It is fetching the featured services and the citation data from the OAI-PMH.
+ * The rendered citations and the ref-box of an item are kept in the {@value ClarinRefBoxCacheConsumer#CACHE_NAME}
+ * cache (see ehcache.xml) until the item is modified. The citations are rendered from the OAI-PMH index, which is
+ * refreshed only by `oai import`, so a cached citation is used only while the indexed record keeps its datestamp.
  *
  * @author Milan Majchrak (milan.majchrak at dataquest.sk)
  */
@@ -137,6 +145,9 @@ public class ClarinRefBoxController {
     @Autowired
     private HandleService handleService;
 
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
     private final DSpaceResumptionTokenFormatter resumptionTokenFormat = new DSpaceResumptionTokenFormatter();
 
     /**
@@ -208,8 +219,18 @@ public class ClarinRefBoxController {
                                           Model model,
                                           HttpServletResponse response,
                                           HttpServletRequest request) throws IOException, ServletException {
+        // The citation of the item in the given format, if it was already rendered from the current OAI record
+        CachedRefBox cachedRefBox = isDefaultCitationRequest(request) ? getCachedRefBox(request, handle) : null;
+        Date datestamp = Objects.nonNull(cachedRefBox) ? getOaiDatestamp(request, handle) : null;
+        CachedCitation citation = Objects.nonNull(datestamp) ? cachedRefBox.citations.get(type) : null;
+        if (Objects.nonNull(citation) && citation.datestamp == datestamp.getTime()) {
+            return new ResponseEntity<>(new OaiMetadataWrapper(citation.text), HttpStatus.valueOf(SC_OK));
+        }
+
         Context context = null;
         OAIPMH oaipmh = null;
+        // Whether the output contains just the metadata of the record, only such output is cached.
+        boolean recordMetadata = false;
         // ClarinOutputStream write OAI-PMH data into String instead of bytes.
         OutputStream output = new UTF8ClarinOutputStream();
         try {
@@ -244,13 +265,12 @@ public class ClarinRefBoxController {
                 parameterMap.put("metadataPrefix", lcMP);
             }
             if (!parameterMap.containsKey("identifier")) {
-                parameterMap.put("identifier", asList("oai:" + request.getServerName() + ":" + handle));
+                parameterMap.put("identifier", asList(getOaiIdentifier(request, handle)));
                 parameterMap.remove("handle");
             }
 
             // Some preparing for the getting the data.
             OAIRequestParameters parameters = new OAIRequestParameters(parameterMap);
-            response.setContentType("application/xml");
 
             // Get the OAI-PMH data.
             oaipmh = dataProvider.handle(parameters);
@@ -262,6 +282,7 @@ public class ClarinRefBoxController {
             // Try to obtain just the metadata, if that fails return "normal" response
             try {
                 oaipmh.getInfo().getGetRecord().getRecord().getMetadata().write(xmlOutContext);
+                recordMetadata = true;
             } catch (Exception e) {
                 oaipmh.write(xmlOutContext);
             }
@@ -298,6 +319,9 @@ public class ClarinRefBoxController {
 
         // Update the output string and remove the unwanted parts.
         String outputString = updateOutput(type, output.toString());
+        if (Objects.nonNull(datestamp) && recordMetadata && Objects.nonNull(outputString)) {
+            cachedRefBox.citations.put(type, new CachedCitation(datestamp.getTime(), outputString));
+        }
 
         // Wrap the String output to the class for better parsing in the FE
         OaiMetadataWrapper oaiMetadataWrapper = new OaiMetadataWrapper(StringUtils.defaultIfEmpty(outputString, ""));
@@ -324,6 +348,11 @@ public class ClarinRefBoxController {
         }
         Item item = (Item) dSpaceObject;
 
+        CachedRefBox cachedRefBox = getCachedRefBox(item);
+        if (Objects.nonNull(cachedRefBox.refBox)) {
+            return ResponseEntity.ok(cachedRefBox.refBox);
+        }
+
         String title = itemService.getMetadataFirstValue(item, "dc", "title", null, DEFAULT_LANGUAGE);
         String displayText = buildDisplayText(context, item);
 
@@ -342,6 +371,7 @@ public class ClarinRefBoxController {
                 featuredServicesMap,
                 title != null ? title : ""
         );
+        cachedRefBox.refBox = refBoxDTO;
         return ResponseEntity.ok(refBoxDTO);
     }
 
@@ -488,6 +518,72 @@ public class ClarinRefBoxController {
         return featuredServiceList;
     }
 
+    /**
+     * Get the cached ref-box data of the item. An entry which is older than the last modification of the item is
+     * replaced by an empty one. Without the cache a new empty entry is returned every time.
+     */
+    private CachedRefBox getCachedRefBox(Item item) {
+        Cache cache = cacheManager != null ? cacheManager.getCache(ClarinRefBoxCacheConsumer.CACHE_NAME) : null;
+        String key = item.getID().toString();
+        CachedRefBox cachedRefBox = cache != null ? cache.get(key, CachedRefBox.class) : null;
+        long lastModified = Objects.nonNull(item.getLastModified()) ? item.getLastModified().getTime() : 0;
+        if (Objects.isNull(cachedRefBox) || cachedRefBox.lastModified != lastModified) {
+            cachedRefBox = new CachedRefBox(lastModified);
+            if (cache != null) {
+                cache.put(key, cachedRefBox);
+            }
+        }
+        return cachedRefBox;
+    }
+
+    /**
+     * Get the cached ref-box data of the item with the handle, or null if the handle does not resolve to an item.
+     * The handle of the citation request may be prefixed by the canonical handle prefix.
+     */
+    private CachedRefBox getCachedRefBox(HttpServletRequest request, String handle) {
+        try {
+            Context context = ContextUtil.obtainContext(request);
+            String parsedHandle = handleService.parseHandle(StringUtils.removeStart(handle, "/"));
+            DSpaceObject dSpaceObject = handleService.resolveToObject(context,
+                    StringUtils.defaultIfBlank(parsedHandle, handle));
+            return dSpaceObject instanceof Item ? getCachedRefBox((Item) dSpaceObject) : null;
+        } catch (Exception e) {
+            log.debug("Cannot resolve the handle {} of the citation request.", handle, e);
+            return null;
+        }
+    }
+
+    /**
+     * Get the datestamp of the OAI-PMH record of the handle, or null if the record cannot be found. The record is
+     * re-indexed with a new datestamp by `oai import` when the item is modified.
+     */
+    private Date getOaiDatestamp(HttpServletRequest request, String handle) {
+        try {
+            return itemRepositoryResolver.getItemRepository().getItem(getOaiIdentifier(request, handle))
+                .getDatestamp();
+        } catch (Exception e) {
+            log.debug("Cannot find the OAI-PMH record of the handle {}.", handle, e);
+            return null;
+        }
+    }
+
+    private String getOaiIdentifier(HttpServletRequest request, String handle) {
+        return "oai:" + request.getServerName() + ":" + handle;
+    }
+
+    /**
+     * Only the citations requested by the handle and the type are cached, the requests may set other OAI-PMH
+     * parameters.
+     */
+    private boolean isDefaultCitationRequest(HttpServletRequest request) {
+        for (String name : request.getParameterMap().keySet()) {
+            if (!StringUtils.equalsAny(name, "type", "handle")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void closeContext(Context context) {
         if (Objects.nonNull(context) && context.isValid()) {
             context.abort();
@@ -603,6 +699,33 @@ public class ClarinRefBoxController {
     }
 }
 
+/**
+ * The rendered citations in the requested formats and the ref-box of an item, valid until the last modification
+ * of the item.
+ */
+class CachedRefBox {
+    final long lastModified;
+    final Map<String, CachedCitation> citations = new ConcurrentHashMap<>();
+    volatile RefBoxDTO refBox;
+
+    CachedRefBox(long lastModified) {
+        this.lastModified = lastModified;
+    }
+}
+
+/**
+ * A citation rendered from the OAI-PMH record with the given datestamp.
+ */
+class CachedCitation {
+    final long datestamp;
+    final String text;
+
+    CachedCitation(long datestamp, String text) {
+        this.datestamp = datestamp;
+        this.text = text;
+    }
+}
+
 /**
  * This ClarinOutputStream write the content into the string instead of bytes.
  */
@@ -7,18 +7,34 @@
  */
 package org.dspace.app.rest;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 
+import org.dspace.app.rest.utils.ContextLifetimeStatistics;
 import org.dspace.app.rest.utils.ContextUtil;
 import org.dspace.core.Context;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * Controller for retrieving database connection statistics
+ * Controller for retrieving database connection statistics, meant to be polled by a monitoring system. It returns
+ * the state of the connection pool, the Hibernate statistics (sessions, query and second-level cache hits, loads of
+ * the entities and the slowest queries) and the endpoints which kept their Context (and so a database connection)
+ * open the longest. Except for the pool state, the numbers are cumulative since the start of the application, most
+ * Hibernate statistics are only collected when {@code db.statistics} is enabled.
+ *
+ * <pre>
+ * {@code
+ * curl 'http://<dspace.server.url>/api/dbstatistics?top=20' -H 'Authorization: Bearer eyJhbGciOiJI...'
+ * }
+ * </pre>
  *
  * @author Milan Majchrak (dspace at dataquest.sk)
  */
@@ -26,14 +42,27 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(value = "/api/dbstatistics")
 @RestController
 public class DBConnectionStatisticsController {
+
+    @Autowired
+    private ContextLifetimeStatistics contextLifetimeStatistics;
+
+    /**
+     * @param request The current request
+     * @param top     The number of the slowest queries and of the endpoints to return
+     * @return The statistics
+     */
     @RequestMapping(method = RequestMethod.GET)
-    public ResponseEntity<String> getStatistics(HttpServletRequest request) {
+    public ResponseEntity<Map<String, Object>> getStatistics(HttpServletRequest request,
+                                                             @RequestParam(name = "top", defaultValue = "10")
+                                                                 int top) {
 
         Context context = ContextUtil.obtainContext(request);
         if (context == null) {
             return ResponseEntity.status(500).build();
         }
+        Map<String, Object> statistics = new LinkedHashMap<>(context.getDatabaseStatistics(Math.max(top, 0)));
+        statistics.put("endpoints", contextLifetimeStatistics.getEndpointStatistics(Math.max(top, 0)));
         // Return response entity with the statistics
-        return ResponseEntity.ok().body(context.getHibernateStatistics());
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(statistics);
     }
 }
@@ -12,9 +12,12 @@ import static org.dspace.app.rest.utils.RegexUtils.REGEX_REQUESTMAPPING_IDENTIFI
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.zip.Deflater;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -36,7 +39,10 @@ import org.dspace.content.Bitstream;
 import org.dspace.content.Bundle;
 import org.dspace.content.DSpaceObject;
 import org.dspace.content.Item;
+import org.dspace.content.clarin.ClarinBitstreamLicenseStatus;
 import org.dspace.content.service.BitstreamService;
+import org.dspace.content.service.clarin.ClarinLicenseResourceMappingService;
+import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.handle.service.HandleService;
 import org.dspace.services.ConfigurationService;
@@ -74,6 +80,8 @@ public class MetadataBitstreamController {
     private RequestService requestService;
     @Autowired
     ClarinMatomoBitstreamTracker matomoBitstreamTracker;
+    @Autowired
+    ClarinLicenseResourceMappingService clarinLicenseResourceMappingService;
 
     /**
      * Download all Item's bitstreams as single ZIP file.
@@ -112,35 +120,55 @@ public class MetadataBitstreamController {
         }
 
         Item item = (Item) dso;
+        List<Bitstream> bitstreams = new ArrayList<>();
+        for (Bundle original : item.getBundles("ORIGINAL")) {
+            bitstreams.addAll(original.getBitstreams());
+        }
+        authorizeLicenses(context, bitstreams);
+
         // This bitstream is used to get it's item in the statistics tracker
         Bitstream bitstreamForStatistics = null;
         name = item.getName() + ".zip";
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment;filename=\"%s\"", name));
         response.setContentType("application/zip");
-        List<Bundle> bundles = item.getBundles("ORIGINAL");
 
         ZipArchiveOutputStream zip = new ZipArchiveOutputStream(response.getOutputStream());
         zip.setCreateUnicodeExtraFields(ZipArchiveOutputStream.UnicodeExtraFieldPolicy.ALWAYS);
         zip.setLevel(Deflater.NO_COMPRESSION);
-        for (Bundle original : bundles) {
-            List<Bitstream> bss = original.getBitstreams();
-            for (Bitstream bitstream : bss) {
-                String filename = bitstream.getName();
-                ZipArchiveEntry ze = new ZipArchiveEntry(filename);
-                zip.putArchiveEntry(ze);
-                // Get content of the bitstream
-                // Retrieve method authorize bitstream download action.
-                InputStream is = bitstreamService.retrieve(context, bitstream);
-                IOUtils.copy(is, zip);
-                zip.closeArchiveEntry();
-                is.close();
-                if (bitstreamForStatistics == null) {
-                    bitstreamForStatistics = bitstream;
-                }
+        for (Bitstream bitstream : bitstreams) {
+            String filename = bitstream.getName();
+            ZipArchiveEntry ze = new ZipArchiveEntry(filename);
+            zip.putArchiveEntry(ze);
+            // Get content of the bitstream
+            // Retrieve method authorize bitstream download action.
+            InputStream is = bitstreamService.retrieve(context, bitstream);
+            IOUtils.copy(is, zip);
+            zip.closeArchiveEntry();
+            is.close();
+            if (bitstreamForStatistics == null) {
+                bitstreamForStatistics = bitstream;
             }
         }
         zip.close();
         matomoBitstreamTracker.trackBitstreamDownload(context, request, bitstreamForStatistics, true);
         response.getOutputStream().flush();
     }
+
+    /**
+     * Check the Clarin Licenses of all the bitstreams at once, so that a missing license agreement is reported
+     * before the zip file is streamed, instead of breaking the zip file in the middle. The bitstreams whose license
+     * requires an agreement go through the full authorization, which also accepts the submitter or a download token.
+     */
+    private void authorizeLicenses(Context context, List<Bitstream> bitstreams)
+            throws SQLException, AuthorizeException {
+        UUID userID = Objects.nonNull(context.getCurrentUser()) ? context.getCurrentUser().getID() : null;
+        Map<UUID, ClarinBitstreamLicenseStatus> licenseStatuses = clarinLicenseResourceMappingService
+                .getLicensesToAgree(context, userID,
+                        bitstreams.stream().map(Bitstream::getID).collect(Collectors.toList()));
+        for (Bitstream bitstream : bitstreams) {
+            if (licenseStatuses.get(bitstream.getID()).isAgreementRequired()) {
+                authorizeService.authorizeAction(context, bitstream, Constants.READ);
+            }
+        }
+    }
 }
@@ -0,0 +1,92 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.dspace.app.rest.model.ProcessRest;
+import org.dspace.app.rest.utils.ContextUtil;
+import org.dspace.authorize.AuthorizeException;
+import org.dspace.core.Context;
+import org.dspace.scripts.Process;
+import org.dspace.scripts.service.ProcessService;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This controller serves the log of a process, also while it is running, so that clients can follow it by polling
+ * with the offset returned by the previous request:
+ *
+ * <pre>
+ * {@code
+ * curl http://<dspace.server.url>/api/system/processes/1/log?offset=0 \
+ *  -H 'Authorization: Bearer eyJhbGciOiJI...'
+ * }
+ * </pre>
+ *
+ * The response contains the log from the offset, the offset to use for the next request is returned in the
+ * {@value #OFFSET_HEADER} header and the status of the process in the {@value #STATUS_HEADER} header. Once the
+ * process is completed or failed and the response is empty, the whole log has been read.
+ */
+@RestController
+@RequestMapping("/api/" + ProcessRest.CATEGORY + "/" + ProcessRest.PLURAL_NAME + "/{processId}/log")
+public class ProcessLogController {
+
+    public static final String OFFSET_HEADER = "X-Log-Offset";
+    public static final String STATUS_HEADER = "X-Process-Status";
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    /**
+     * @param request   The current request
+     * @param processId The ID of the process
+     * @param offset    The offset in bytes from which the log is returned
+     * @param size      The maximum number of bytes returned, bounded by the process.log.tail.max-size property
+     * @return          The log from the offset, as plain text
+     * @throws SQLException If something goes wrong
+     * @throws IOException  If the log cannot be read
+     * @throws AuthorizeException   If the output of a finished process cannot be read
+     */
+    @PreAuthorize("hasPermission(#processId, 'PROCESS', 'READ')")
+    @RequestMapping(method = RequestMethod.GET)
+    public ResponseEntity<byte[]> getLog(HttpServletRequest request,
+                                         @PathVariable Integer processId,
+                                         @RequestParam(name = "offset", defaultValue = "0") long offset,
+                                         @RequestParam(name = "size", required = false) Integer size)
+        throws SQLException, IOException, AuthorizeException {
+        Context context = ContextUtil.obtainContext(request);
+        Process process = processService.find(context, processId);
+        if (process == null) {
+            throw new ResourceNotFoundException("The process with id: " + processId + " wasn't found");
+        }
+        int maxSize = configurationService.getIntProperty("process.log.tail.max-size", 1048576);
+        byte[] log = processService.readLog(context, process, Math.max(offset, 0),
+                                            size == null ? maxSize : Math.min(size, maxSize));
+        return ResponseEntity.ok()
+                             .header(OFFSET_HEADER, String.valueOf(Math.max(offset, 0) + log.length))
+                             .header(STATUS_HEADER, process.getProcessStatus().toString())
+                             .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                             .body(log);
+    }
+}
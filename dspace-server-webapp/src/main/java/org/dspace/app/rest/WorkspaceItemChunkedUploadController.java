@@ -0,0 +1,245 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static org.dspace.app.rest.utils.RegexUtils.REGEX_REQUESTMAPPING_IDENTIFIER_AS_DIGIT;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.Objects;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.app.rest.converter.ConverterService;
+import org.dspace.app.rest.exception.DSpaceBadRequestException;
+import org.dspace.app.rest.exception.UnprocessableEntityException;
+import org.dspace.app.rest.model.ChunkedUploadDTO;
+import org.dspace.app.rest.model.WorkspaceItemRest;
+import org.dspace.app.rest.model.hateoas.DSpaceResource;
+import org.dspace.app.rest.repository.WorkspaceItemRestRepository;
+import org.dspace.app.rest.submit.ChunkedUpload;
+import org.dspace.app.rest.submit.ChunkedUploadService;
+import org.dspace.app.rest.utils.BigMultipartFile;
+import org.dspace.app.rest.utils.ContextUtil;
+import org.dspace.authorize.AuthorizeException;
+import org.dspace.content.service.WorkspaceItemService;
+import org.dspace.core.Context;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.webmvc.ResourceNotFoundException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This controller uploads files to a workspace item in chunks, in the spirit of the tus protocol
+ * (https://tus.io/protocols/resumable-upload), so that files larger than the maximum size of a multipart request can
+ * be uploaded and an interrupted upload can be resumed. An upload is started with:
+ *
+ * <pre>
+ * {@code
+ * curl -X POST 'http://<dspace.server.url>/api/submission/workspaceitems/1/uploads?name=corpus.zip' \
+ *  -H 'Upload-Length: 214748364800' -H 'Authorization: Bearer eyJhbGciOiJI...'
+ * }
+ * </pre>
+ *
+ * The optional {@code checksum} parameter is the MD5 checksum of the whole file, the upload fails when the received
+ * file does not match it. The chunks are sent with PATCH requests to the URL of the upload returned in the
+ * {@code Location} header, each with the {@value #UPLOAD_OFFSET_HEADER} header set to the number of bytes received so
+ * far and optionally with the {@value #UPLOAD_CHECKSUM_HEADER} header {@code md5 <Base64 encoded MD5 of the chunk>}:
+ *
+ * <pre>
+ * {@code
+ * curl -X PATCH 'http://<dspace.server.url>/api/submission/workspaceitems/1/uploads/<upload id>' \
+ *  -H 'Upload-Offset: 0' -H 'Content-Type: application/offset+octet-stream' --data-binary @chunk0 \
+ *  -H 'Authorization: Bearer eyJhbGciOiJI...'
+ * }
+ * </pre>
+ *
+ * The number of bytes received so far is returned in the {@value #UPLOAD_OFFSET_HEADER} header of every response, a
+ * client resumes an interrupted upload from the offset returned by a GET (or HEAD) request of the upload. When the
+ * last chunk is received, the file is added to the workspace item like a file uploaded in a multipart request and the
+ * workspace item is returned. A DELETE request cancels the upload.
+ */
+@RestController
+@RequestMapping("/api/" + WorkspaceItemRest.CATEGORY + "/" + WorkspaceItemRest.PLURAL_NAME
+    + REGEX_REQUESTMAPPING_IDENTIFIER_AS_DIGIT + "/uploads")
+public class WorkspaceItemChunkedUploadController {
+
+    private static final Logger log = LogManager.getLogger(WorkspaceItemChunkedUploadController.class);
+
+    public static final String UPLOAD_LENGTH_HEADER = "Upload-Length";
+    public static final String UPLOAD_OFFSET_HEADER = "Upload-Offset";
+    public static final String UPLOAD_CHECKSUM_HEADER = "Upload-Checksum";
+
+    private static final String UPLOAD_CHECKSUM_ALGORITHM = "md5";
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private WorkspaceItemService workspaceItemService;
+
+    @Autowired
+    private WorkspaceItemRestRepository workspaceItemRestRepository;
+
+    @Autowired
+    private ConverterService converter;
+
+    /**
+     * Start a new upload.
+     *
+     * @param request  The current request
+     * @param id       The ID of the workspace item
+     * @param name     The name of the file
+     * @param length   The size of the whole file in bytes
+     * @param checksum The MD5 checksum of the whole file, optional
+     * @return The state of the new upload, its URL in the Location header
+     */
+    @PreAuthorize("hasPermission(#id, 'WORKSPACEITEM', 'WRITE')")
+    @RequestMapping(method = RequestMethod.POST)
+    public ResponseEntity<ChunkedUploadDTO> create(HttpServletRequest request, @PathVariable Integer id,
+                                                   @RequestParam("name") String name,
+                                                   @RequestHeader(UPLOAD_LENGTH_HEADER) long length,
+                                                   @RequestParam(name = "checksum", required = false) String checksum)
+        throws SQLException, IOException {
+        Context context = ContextUtil.obtainContext(request);
+        if (Objects.isNull(workspaceItemService.find(context, id))) {
+            throw new ResourceNotFoundException("The workspace item with id: " + id + " wasn't found");
+        }
+        ChunkedUpload upload = chunkedUploadService.create(id, context.getCurrentUser().getID(), name, length,
+                                                           checksum);
+        return ResponseEntity.created(URI.create(request.getRequestURL() + "/" + upload.getId()))
+                             .header(UPLOAD_OFFSET_HEADER, String.valueOf(upload.getOffset()))
+                             .body(new ChunkedUploadDTO(upload));
+    }
+
+    /**
+     * @param request  The current request
+     * @param id       The ID of the workspace item
+     * @param uploadId The ID of the upload
+     * @return The state of the upload, the offset of the next chunk in the {@value #UPLOAD_OFFSET_HEADER} header
+     */
+    @PreAuthorize("hasPermission(#id, 'WORKSPACEITEM', 'WRITE')")
+    @RequestMapping(method = RequestMethod.GET, value = "/{uploadId}")
+    public ResponseEntity<ChunkedUploadDTO> find(HttpServletRequest request, @PathVariable Integer id,
+                                                 @PathVariable String uploadId) throws IOException {
+        ChunkedUpload upload = findUpload(request, id, uploadId);
+        return ResponseEntity.ok()
+                             .cacheControl(CacheControl.noStore())
+                             .header(UPLOAD_OFFSET_HEADER, String.valueOf(upload.getOffset()))
+                             .header(UPLOAD_LENGTH_HEADER, String.valueOf(upload.getLength()))
+                             .body(new ChunkedUploadDTO(upload));
+    }
+
+    /**
+     * Append the content of the request to the upload. After the last chunk the file is added to the workspace item.
+     *
+     * @param request  The current request
+     * @param id       The ID of the workspace item
+     * @param uploadId The ID of the upload
+     * @param offset   The number of bytes received so far
+     * @param checksum The checksum of the chunk in the form {@code md5 <Base64 encoded MD5>}, optional
+     * @return No content with the offset of the next chunk in the {@value #UPLOAD_OFFSET_HEADER} header, or the
+     *         workspace item with the uploaded file after the last chunk
+     */
+    @PreAuthorize("hasPermission(#id, 'WORKSPACEITEM', 'WRITE')")
+    @RequestMapping(method = RequestMethod.PATCH, value = "/{uploadId}")
+    public ResponseEntity<?> append(HttpServletRequest request, @PathVariable Integer id,
+                                    @PathVariable String uploadId,
+                                    @RequestHeader(UPLOAD_OFFSET_HEADER) long offset,
+                                    @RequestHeader(name = UPLOAD_CHECKSUM_HEADER, required = false) String checksum)
+        throws IOException, SQLException, AuthorizeException {
+        ChunkedUpload upload = findUpload(request, id, uploadId);
+        long newOffset;
+        try (InputStream chunk = request.getInputStream()) {
+            newOffset = chunkedUploadService.append(upload, offset, chunk, parseChunkChecksum(checksum));
+        }
+        if (!upload.isComplete()) {
+            return ResponseEntity.noContent().header(UPLOAD_OFFSET_HEADER, String.valueOf(newOffset)).build();
+        }
+
+        if (upload.getChecksum() != null
+            && !upload.getChecksum().equalsIgnoreCase(chunkedUploadService.getChecksum(upload))) {
+            chunkedUploadService.delete(upload);
+            throw new UnprocessableEntityException("The checksum of the uploaded file " + upload.getName()
+                                                       + " does not match " + upload.getChecksum());
+        }
+        // when adding the file fails, the complete upload is kept and can be finished by an empty chunk
+        WorkspaceItemRest workspaceItemRest;
+        try (InputStream content = chunkedUploadService.getContent(upload)) {
+            BigMultipartFile file = new BigMultipartFile(upload.getName(), upload.getName(),
+                                                         URLConnection.guessContentTypeFromName(upload.getName()),
+                                                         content);
+            workspaceItemRest = workspaceItemRestRepository.upload(request, WorkspaceItemRest.CATEGORY,
+                                                                   WorkspaceItemRest.PLURAL_NAME, id, file);
+        }
+        chunkedUploadService.delete(upload);
+        log.info("The upload " + upload.getId() + " of " + upload.getName() + " (" + upload.getLength()
+                     + " bytes) to the workspace item " + id + " is complete");
+        DSpaceResource<WorkspaceItemRest> resource = converter.toResource(workspaceItemRest);
+        return ResponseEntity.ok().header(UPLOAD_OFFSET_HEADER, String.valueOf(newOffset)).body(resource);
+    }
+
+    /**
+     * Cancel the upload.
+     *
+     * @param request  The current request
+     * @param id       The ID of the workspace item
+     * @param uploadId The ID of the upload
+     * @return No content
+     */
+    @PreAuthorize("hasPermission(#id, 'WORKSPACEITEM', 'WRITE')")
+    @RequestMapping(method = RequestMethod.DELETE, value = "/{uploadId}")
+    public ResponseEntity<Void> delete(HttpServletRequest request, @PathVariable Integer id,
+                                       @PathVariable String uploadId) throws IOException {
+        chunkedUploadService.delete(findUpload(request, id, uploadId));
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
+    /**
+     * Find the upload, only the user who started it can continue it.
+     */
+    private ChunkedUpload findUpload(HttpServletRequest request, Integer id, String uploadId) throws IOException {
+        Context context = ContextUtil.obtainContext(request);
+        ChunkedUpload upload = chunkedUploadService.find(uploadId);
+        if (Objects.isNull(upload) || upload.getWorkspaceItemId() != id
+            || !upload.getEpersonId().equals(context.getCurrentUser().getID())) {
+            throw new ResourceNotFoundException("The upload with id: " + uploadId + " wasn't found");
+        }
+        return upload;
+    }
+
+    private static byte[] parseChunkChecksum(String checksum) {
+        if (StringUtils.isBlank(checksum)) {
+            return null;
+        }
+        String[] parts = checksum.trim().split("\\s+", 2);
+        if (parts.length != 2 || !UPLOAD_CHECKSUM_ALGORITHM.equalsIgnoreCase(parts[0])) {
+            throw new DSpaceBadRequestException("Unsupported " + UPLOAD_CHECKSUM_HEADER + " header, only "
+                                                    + UPLOAD_CHECKSUM_ALGORITHM + " is supported");
+        }
+        try {
+            return Base64.getDecoder().decode(parts[1]);
+        } catch (IllegalArgumentException e) {
+            throw new DSpaceBadRequestException("The " + UPLOAD_CHECKSUM_HEADER + " header is not Base64 encoded");
+        }
+    }
+}
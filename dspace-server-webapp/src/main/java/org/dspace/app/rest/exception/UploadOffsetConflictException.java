@@ -0,0 +1,34 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A chunk of a resumable upload was sent with another offset than the number of bytes received so far, e.g. because
+ * the client did not learn that the previous chunk was (partially) received. The client should ask for the current
+ * offset and continue from it.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT, reason = "The offset of the chunk does not match the upload")
+public class UploadOffsetConflictException extends RuntimeException {
+
+    private final long offset;
+
+    public UploadOffsetConflictException(long offset) {
+        super("The offset of the chunk does not match the current offset of the upload: " + offset);
+        this.offset = offset;
+    }
+
+    /**
+     * @return the current offset of the upload
+     */
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -14,7 +14,9 @@ import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
 
+import org.dspace.app.rest.utils.ContextLifetimeStatistics;
 import org.dspace.app.rest.utils.ContextUtil;
 import org.dspace.core.Context;
 import org.slf4j.Logger;
@@ -23,7 +25,7 @@ import org.slf4j.LoggerFactory;
 /**
  * A Servlet Filter whose only role is to clean up open Context objects in
  * the request. (These Context objects may have been created by Controllers
- * in order to populate Views).
+ * in order to populate Views). The time the Context was open is recorded in the {@link ContextLifetimeStatistics}.
  *
  * @author Tim Donohue
  * @see ContextUtil
@@ -31,6 +33,16 @@ import org.slf4j.LoggerFactory;
 public class DSpaceRequestContextFilter implements Filter {
     private static final Logger log = LoggerFactory.getLogger(DSpaceRequestContextFilter.class);
 
+    private final ContextLifetimeStatistics contextLifetimeStatistics;
+
+    public DSpaceRequestContextFilter() {
+        this(null);
+    }
+
+    public DSpaceRequestContextFilter(ContextLifetimeStatistics contextLifetimeStatistics) {
+        this.contextLifetimeStatistics = contextLifetimeStatistics;
+    }
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
         //noop
@@ -53,6 +65,15 @@ public class DSpaceRequestContextFilter implements Filter {
             if ((context != null) && context.isValid()) {
                 ContextUtil.abortContext(request);
             }
+            recordContextLifetime(request);
+        }
+    }
+
+    private void recordContextLifetime(ServletRequest request) {
+        Object created = request.getAttribute(ContextUtil.DSPACE_CONTEXT_CREATED);
+        if (contextLifetimeStatistics != null && created instanceof Long
+            && request instanceof HttpServletRequest) {
+            contextLifetimeStatistics.record((HttpServletRequest) request, System.nanoTime() - (Long) created);
         }
     }
 
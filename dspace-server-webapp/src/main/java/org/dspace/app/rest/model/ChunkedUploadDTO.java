@@ -0,0 +1,72 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.model;
+
+import org.dspace.app.rest.submit.ChunkedUpload;
+
+/**
+ * This class represents a DTO with the state of a resumable upload of a file to a workspace item.
+ */
+public class ChunkedUploadDTO {
+
+    private String id;
+    private String name;
+    private long length;
+    private long offset;
+    private String checksum;
+
+    public ChunkedUploadDTO() { }
+
+    public ChunkedUploadDTO(ChunkedUpload upload) {
+        this.id = upload.getId();
+        this.name = upload.getName();
+        this.length = upload.getLength();
+        this.offset = upload.getOffset();
+        this.checksum = upload.getChecksum();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.model;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import org.dspace.content.clarin.ClarinBitstreamLicenseStatus;
+import org.dspace.content.clarin.ClarinLicense;
+
+/**
+ * This class represents a DTO with the Clarin License of a bitstream and whether the current user has to agree to it
+ * before downloading the bitstream. It is used to resolve the licenses of all the files of an item at once.
+ */
+public class ClarinBitstreamLicenseDTO {
+
+    private UUID bitstreamUUID;
+    private Integer licenseId;
+    private String licenseName;
+    private String licenseDefinition;
+    private String confirmation;
+    private boolean agreementRequired;
+
+    public ClarinBitstreamLicenseDTO() { }
+
+    public ClarinBitstreamLicenseDTO(ClarinBitstreamLicenseStatus licenseStatus) {
+        this.bitstreamUUID = licenseStatus.getBitstreamID();
+        ClarinLicense license = licenseStatus.getLicense();
+        if (Objects.nonNull(license)) {
+            this.licenseId = license.getID();
+            this.licenseName = license.getName();
+            this.licenseDefinition = license.getDefinition();
+        }
+        if (Objects.nonNull(licenseStatus.getConfirmation())) {
+            this.confirmation = licenseStatus.getConfirmation().name();
+        }
+        this.agreementRequired = licenseStatus.isAgreementRequired();
+    }
+
+    public UUID getBitstreamUUID() {
+        return bitstreamUUID;
+    }
+
+    public void setBitstreamUUID(UUID bitstreamUUID) {
+        this.bitstreamUUID = bitstreamUUID;
+    }
+
+    public Integer getLicenseId() {
+        return licenseId;
+    }
+
+    public void setLicenseId(Integer licenseId) {
+        this.licenseId = licenseId;
+    }
+
+    public String getLicenseName() {
+        return licenseName;
+    }
+
+    public void setLicenseName(String licenseName) {
+        this.licenseName = licenseName;
+    }
+
+    public String getLicenseDefinition() {
+        return licenseDefinition;
+    }
+
+    public void setLicenseDefinition(String licenseDefinition) {
+        this.licenseDefinition = licenseDefinition;
+    }
+
+    public String getConfirmation() {
+        return confirmation;
+    }
+
+    public void setConfirmation(String confirmation) {
+        this.confirmation = confirmation;
+    }
+
+    public boolean isAgreementRequired() {
+        return agreementRequired;
+    }
+
+    public void setAgreementRequired(boolean agreementRequired) {
+        this.agreementRequired = agreementRequired;
+    }
+}
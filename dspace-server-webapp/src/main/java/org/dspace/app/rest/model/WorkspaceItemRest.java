@@ -22,6 +22,7 @@ import org.dspace.app.rest.RestResourceController;
 })
 public class WorkspaceItemRest extends AInprogressSubmissionRest {
     public static final String NAME = "workspaceitem";
+    public static final String PLURAL_NAME = "workspaceitems";
     public static final String CATEGORY = RestAddressableModel.SUBMISSION;
 
     public static final String SUPERVISION_ORDERS = "supervisionOrders";
@@ -9,7 +9,9 @@ package org.dspace.app.rest.repository;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.StringUtils;
@@ -17,8 +19,10 @@ import org.apache.logging.log4j.Logger;
 import org.dspace.app.rest.ClarinDiscoJuiceFeedsDownloadService;
 import org.dspace.app.rest.ClarinDiscoJuiceFeedsUpdateScheduler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -46,17 +50,35 @@ public class ClarinDiscoJuiceFeedsController {
     @RequestMapping(method = GET, produces = APPLICATION_JAVASCRIPT_UTF8)
     @PreAuthorize("permitAll()")
     public ResponseEntity getDiscojuiceFeeds(@RequestParam(value = "callback", required = false) String callback,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                 String acceptEncoding,
                                              HttpServletResponse response) throws IOException {
         // Download feeds
-        String feedsContent = clarinDiscoJuiceFeedsUpdateScheduler.getFeedsContent();
-        if (StringUtils.isBlank(feedsContent)) {
+        byte[] feedsContent = clarinDiscoJuiceFeedsUpdateScheduler.getFeedsContent();
+        if (feedsContent == null || feedsContent.length == 0) {
             response.sendError(HttpServletResponse.SC_NO_CONTENT);
             return null;
         }
 
+        // Without a callback, send the feeds compressed by the scheduler to the clients accepting gzip.
+        if (StringUtils.isBlank(callback)) {
+            if (StringUtils.containsIgnoreCase(acceptEncoding, "gzip")) {
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                        .body(clarinDiscoJuiceFeedsUpdateScheduler.getGzippedFeedsContent());
+            }
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .body(feedsContent);
+        }
+
         // If callback is not null wrap the feedsContent to the callback string.
-        String responseString = StringUtils.isBlank(callback) ? feedsContent : callback + "(" + feedsContent + ")";
+        ByteArrayOutputStream responseBytes = new ByteArrayOutputStream(feedsContent.length + callback.length() + 2);
+        responseBytes.write((callback + "(").getBytes(StandardCharsets.UTF_8));
+        responseBytes.write(feedsContent);
+        responseBytes.write(')');
         return ResponseEntity.ok()
-                .body(responseString);
+                .body(responseBytes.toByteArray());
     }
 }
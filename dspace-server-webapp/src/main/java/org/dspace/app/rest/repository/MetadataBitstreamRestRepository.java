@@ -124,9 +124,7 @@ public class MetadataBitstreamRestRepository extends DSpaceRestRepository<Metada
                                 if (!fileInfos.isEmpty() &&
                                     !StringUtils.equals(TEXT_HTML_MIME_TYPE,
                                             bitstream.getFormat(context).getMIMEType())) {
-                                    for (FileInfo fi : fileInfos) {
-                                        previewContentService.createPreviewContent(context, bitstream, fi);
-                                    }
+                                    previewContentService.createPreviewContents(context, bitstream, fileInfos);
                                 }
                             }
                         } else {
@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
 
 import com.nimbusds.jose.CompressionAlgorithm;
@@ -32,6 +33,7 @@ import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.jwt.util.DateUtils;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.core.Context;
@@ -42,6 +44,8 @@ import org.dspace.services.ConfigurationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.keygen.BytesKeyGenerator;
 import org.springframework.security.crypto.keygen.KeyGenerators;
@@ -50,6 +54,11 @@ import org.springframework.security.crypto.keygen.KeyGenerators;
  * Class responsible for creating and parsing JSON Web Tokens (JWTs), supports both JWS and JWE
  * https://jwt.io/ . This abstract class needs to be extended with a class providing the
  * configuration keys for the particular type of token.
+ * <P>
+ * Tokens which passed the (expensive) decryption and signature verification are kept in the
+ * {@value #VERIFIED_TOKEN_CACHE} cache, keyed by a digest of the token. Later requests carrying the same token only
+ * have to check that the session salt of the EPerson did not change in the meantime, which is what happens on
+ * logout or when the token is invalidated.
  *
  * @author Frederic Van Reet (frederic dot vanreet at atmire dot com)
  * @author Tom Desair (tom dot desair at atmire dot com)
@@ -59,6 +68,11 @@ public abstract class JWTTokenHandler {
     private static final int MAX_CLOCK_SKEW_SECONDS = 60;
     private static final String AUTHORIZATION_TOKEN_PARAMETER = "authentication-token";
 
+    /**
+     * Name of the cache holding already verified tokens, see ehcache.xml
+     */
+    public static final String VERIFIED_TOKEN_CACHE = "jwt.verifiedTokens";
+
     private static final Logger log = LoggerFactory.getLogger(JWTTokenHandler.class);
 
     @Autowired
@@ -76,6 +90,9 @@ public abstract class JWTTokenHandler {
     @Autowired
     private ClientInfoService clientInfoService;
 
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
     private String generatedJwtKey;
     private String generatedEncryptionKey;
 
@@ -125,6 +142,19 @@ public abstract class JWTTokenHandler {
         if (StringUtils.isBlank(token)) {
             return null;
         }
+        String cacheKey = getCacheKey(token);
+        VerifiedToken verifiedToken = getVerifiedToken(cacheKey);
+        if (verifiedToken != null) {
+            EPerson ePerson = ePersonService.find(context, verifiedToken.getEPersonId());
+            if (verifiedToken.isValidFor(ePerson, getMaxClockSkewSeconds())) {
+                log.debug("Received cached valid token for username: " + ePerson.getEmail());
+                parseClaims(context, request, verifiedToken.getClaimsSet());
+                return ePerson;
+            }
+            // the session salt changed or the token expired, verify it again to get a proper answer
+            evictVerifiedToken(cacheKey);
+        }
+
         // parse/decrypt the token
         SignedJWT signedJWT = getSignedJWT(token);
         // get the claims set from the parsed token
@@ -137,9 +167,8 @@ public abstract class JWTTokenHandler {
 
             log.debug("Received valid token for username: " + ePerson.getEmail());
 
-            for (JWTClaimProvider jwtClaimProvider : jwtClaimProviders) {
-                jwtClaimProvider.parseClaim(context, request, jwtClaimsSet);
-            }
+            putVerifiedToken(cacheKey, new VerifiedToken(jwtClaimsSet, ePerson.getID(), ePerson.getSessionSalt()));
+            parseClaims(context, request, jwtClaimsSet);
 
             return ePerson;
         } else {
@@ -148,6 +177,13 @@ public abstract class JWTTokenHandler {
         }
     }
 
+    private void parseClaims(Context context, HttpServletRequest request, JWTClaimsSet jwtClaimsSet)
+        throws SQLException {
+        for (JWTClaimProvider jwtClaimProvider : jwtClaimProviders) {
+            jwtClaimProvider.parseClaim(context, request, jwtClaimsSet);
+        }
+    }
+
     /**
      * Create a JWT with the EPerson details in it
      *
@@ -198,6 +234,7 @@ public abstract class JWTTokenHandler {
             if (ePerson != null) {
                 ePerson.setSessionSalt("");
             }
+            evictVerifiedToken(getCacheKey(token));
 
         }
     }
@@ -282,8 +319,49 @@ public abstract class JWTTokenHandler {
             Date expirationTime = jwtClaimsSet.getExpirationTime();
             return signedJWT.verify(verifier)
                 && expirationTime != null
-                //Ensure expiration timestamp is after the current time, with a minute of acceptable clock skew.
-                && DateUtils.isAfter(expirationTime, new Date(), MAX_CLOCK_SKEW_SECONDS);
+                //Ensure expiration timestamp is after the current time, with the acceptable clock skew.
+                && DateUtils.isAfter(expirationTime, new Date(), getMaxClockSkewSeconds());
+        }
+    }
+
+    /**
+     * Get the acceptable clock skew when checking the expiration time of a token.
+     * @return the clock skew in seconds, a minute by default
+     */
+    protected long getMaxClockSkewSeconds() {
+        return MAX_CLOCK_SKEW_SECONDS;
+    }
+
+    /**
+     * Build the key of the given token in the verified token cache. Tokens of the different handlers are signed
+     * with different secrets, so the handler is part of the key.
+     * @param token string token
+     * @return the cache key
+     */
+    private String getCacheKey(String token) {
+        return getClass().getSimpleName() + ":" + DigestUtils.sha256Hex(token);
+    }
+
+    private Cache getVerifiedTokenCache() {
+        return cacheManager != null ? cacheManager.getCache(VERIFIED_TOKEN_CACHE) : null;
+    }
+
+    private VerifiedToken getVerifiedToken(String cacheKey) {
+        Cache cache = getVerifiedTokenCache();
+        return cache != null ? cache.get(cacheKey, VerifiedToken.class) : null;
+    }
+
+    private void putVerifiedToken(String cacheKey, VerifiedToken verifiedToken) {
+        Cache cache = getVerifiedTokenCache();
+        if (cache != null) {
+            cache.put(cacheKey, verifiedToken);
+        }
+    }
+
+    private void evictVerifiedToken(String cacheKey) {
+        Cache cache = getVerifiedTokenCache();
+        if (cache != null) {
+            cache.evict(cacheKey);
         }
     }
 
@@ -433,4 +511,41 @@ public abstract class JWTTokenHandler {
         byte[] secretKey = bytesKeyGenerator.generateKey();
         return Base64.encodeBase64String(secretKey);
     }
+
+    /**
+     * The outcome of a successful token verification: the claims of the token together with the EPerson and
+     * the session salt it was signed with.
+     */
+    private static class VerifiedToken {
+        private final JWTClaimsSet claimsSet;
+        private final UUID ePersonId;
+        private final String sessionSalt;
+
+        VerifiedToken(JWTClaimsSet claimsSet, UUID ePersonId, String sessionSalt) {
+            this.claimsSet = claimsSet;
+            this.ePersonId = ePersonId;
+            this.sessionSalt = sessionSalt;
+        }
+
+        JWTClaimsSet getClaimsSet() {
+            return claimsSet;
+        }
+
+        UUID getEPersonId() {
+            return ePersonId;
+        }
+
+        /**
+         * The token is still valid as long as it did not expire and the EPerson still has the session salt the
+         * token was verified with; the salt is reset on logout and regenerated on a new login session.
+         */
+        boolean isValidFor(EPerson ePerson, long maxClockSkewSeconds) {
+            Date expirationTime = claimsSet.getExpirationTime();
+            return ePerson != null
+                && StringUtils.isNotBlank(ePerson.getSessionSalt())
+                && sessionSalt.equals(ePerson.getSessionSalt())
+                && expirationTime != null
+                && DateUtils.isAfter(expirationTime, new Date(), maxClockSkewSeconds);
+        }
+    }
 }
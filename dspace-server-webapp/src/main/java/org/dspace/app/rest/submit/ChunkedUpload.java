@@ -0,0 +1,88 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.submit;
+
+import java.io.File;
+import java.util.UUID;
+
+/**
+ * A resumable upload of a file to a workspace item, whose content is appended in chunks, see
+ * {@link ChunkedUploadService}.
+ */
+public class ChunkedUpload {
+
+    private final String id;
+    private final int workspaceItemId;
+    private final UUID epersonId;
+    private final String name;
+    private final long length;
+    private final String checksum;
+    private final File file;
+
+    ChunkedUpload(String id, int workspaceItemId, UUID epersonId, String name, long length, String checksum,
+                  File file) {
+        this.id = id;
+        this.workspaceItemId = workspaceItemId;
+        this.epersonId = epersonId;
+        this.name = name;
+        this.length = length;
+        this.checksum = checksum;
+        this.file = file;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getWorkspaceItemId() {
+        return workspaceItemId;
+    }
+
+    /**
+     * @return the ID of the EPerson who started the upload
+     */
+    public UUID getEpersonId() {
+        return epersonId;
+    }
+
+    /**
+     * @return the name of the uploaded file
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the size of the whole file in bytes
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return the expected MD5 checksum of the whole file, or null if it was not provided
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * @return the number of bytes received so far, the offset of the next chunk
+     */
+    public long getOffset() {
+        return file.length();
+    }
+
+    public boolean isComplete() {
+        return getOffset() == length;
+    }
+
+    File getFile() {
+        return file;
+    }
+}
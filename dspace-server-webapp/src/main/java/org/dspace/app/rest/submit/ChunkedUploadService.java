@@ -0,0 +1,308 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.submit;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dspace.app.rest.exception.DSpaceBadRequestException;
+import org.dspace.app.rest.exception.UnprocessableEntityException;
+import org.dspace.app.rest.exception.UploadOffsetConflictException;
+import org.dspace.core.Utils;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Keeps the resumable uploads of files to workspace items. The content of an upload is appended in chunks to a file
+ * in the {@code upload.chunked.dir} directory, the offset of the next chunk is the size of that file, so an
+ * interrupted upload (e.g. after a lost connection or a restart) continues from the last received byte. The MD5
+ * checksum of the whole file is computed incrementally while the chunks are appended.
+ */
+@Component
+public class ChunkedUploadService {
+
+    private static final Logger log = LogManager.getLogger(ChunkedUploadService.class);
+
+    private static final String CHECKSUM_ALGORITHM = "MD5";
+    private static final String PART_SUFFIX = ".part";
+    private static final String PROPERTIES_SUFFIX = ".properties";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    /**
+     * Checksums of the received content by the upload id, they are computed again from the received content after
+     * a restart.
+     */
+    private final Map<String, DigestState> digests = new ConcurrentHashMap<>();
+
+    /**
+     * Start a new upload.
+     *
+     * @param workspaceItemId the ID of the workspace item the file is uploaded to
+     * @param epersonId       the ID of the current user
+     * @param name            the name of the file
+     * @param length          the size of the whole file in bytes
+     * @param checksum        the expected MD5 checksum of the whole file, optional
+     * @return the new upload
+     * @throws IOException if the upload cannot be stored
+     */
+    public ChunkedUpload create(int workspaceItemId, UUID epersonId, String name, long length, String checksum)
+        throws IOException {
+        if (StringUtils.isBlank(name) || length < 0) {
+            throw new DSpaceBadRequestException("The name and the length of the uploaded file must be provided");
+        }
+        long maxSize = configurationService.getLongProperty("upload.chunked.max-size", -1);
+        if (maxSize >= 0 && length > maxSize) {
+            throw new MaxUploadSizeExceededException(maxSize);
+        }
+        deleteExpired();
+
+        String id = UUID.randomUUID().toString();
+        ChunkedUpload upload = new ChunkedUpload(id, workspaceItemId, epersonId, name, length,
+                                                 StringUtils.lowerCase(StringUtils.trimToNull(checksum)),
+                                                 getPartFile(id));
+        Properties properties = new Properties();
+        properties.setProperty("workspaceItemId", String.valueOf(workspaceItemId));
+        properties.setProperty("epersonId", String.valueOf(epersonId));
+        properties.setProperty("name", name);
+        properties.setProperty("length", String.valueOf(length));
+        if (upload.getChecksum() != null) {
+            properties.setProperty("checksum", upload.getChecksum());
+        }
+        FileUtils.forceMkdir(getDirectory());
+        try (OutputStream outputStream = new FileOutputStream(getPropertiesFile(id))) {
+            properties.store(outputStream, null);
+        }
+        FileUtils.touch(upload.getFile());
+        return upload;
+    }
+
+    /**
+     * @param id the ID of the upload
+     * @return the upload, or null if there is no such upload
+     * @throws IOException if the upload cannot be read
+     */
+    public ChunkedUpload find(String id) throws IOException {
+        try {
+            // the id is a part of a file name
+            UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        File propertiesFile = getPropertiesFile(id);
+        File partFile = getPartFile(id);
+        if (!propertiesFile.exists() || !partFile.exists()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(propertiesFile)) {
+            properties.load(inputStream);
+        }
+        return new ChunkedUpload(id, Integer.parseInt(properties.getProperty("workspaceItemId")),
+                                 UUID.fromString(properties.getProperty("epersonId")), properties.getProperty("name"),
+                                 Long.parseLong(properties.getProperty("length")), properties.getProperty("checksum"),
+                                 partFile);
+    }
+
+    /**
+     * Append a chunk to the upload. When the chunk is interrupted, the bytes received until then are kept and the
+     * upload continues from them.
+     *
+     * @param upload        the upload
+     * @param offset        the offset of the chunk, it must be the current offset of the upload
+     * @param chunk         the content of the chunk
+     * @param chunkChecksum the expected MD5 checksum of the chunk, optional
+     * @return the offset of the next chunk
+     * @throws IOException if the chunk cannot be stored
+     */
+    public long append(ChunkedUpload upload, long offset, InputStream chunk, byte[] chunkChecksum)
+        throws IOException {
+        DigestState state = digests.computeIfAbsent(upload.getId(), id -> new DigestState());
+        synchronized (state) {
+            long current = upload.getOffset();
+            if (offset != current) {
+                throw new UploadOffsetConflictException(current);
+            }
+            state.update(upload.getFile());
+            MessageDigest chunkDigest = chunkChecksum != null ? newDigest() : null;
+            long remaining = upload.getLength() - current;
+            long received = 0;
+            boolean valid = false;
+            try (RandomAccessFile file = new RandomAccessFile(upload.getFile(), "rw")) {
+                file.seek(current);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                // read one byte more than expected to detect a chunk exceeding the length of the upload
+                while (received <= remaining
+                    && (read = chunk.read(buffer, 0, (int) Math.min(buffer.length, remaining - received + 1))) >= 0) {
+                    file.write(buffer, 0, read);
+                    state.digest.update(buffer, 0, read);
+                    if (chunkDigest != null) {
+                        chunkDigest.update(buffer, 0, read);
+                    }
+                    received += read;
+                    state.offset += read;
+                }
+                if (received > remaining) {
+                    throw new DSpaceBadRequestException("The chunk exceeds the length of the upload " +
+                                                            upload.getLength());
+                }
+                if (chunkDigest != null && !MessageDigest.isEqual(chunkChecksum, chunkDigest.digest())) {
+                    throw new UnprocessableEntityException("The checksum of the chunk does not match");
+                }
+                valid = true;
+            } finally {
+                if (!valid && (chunkDigest != null || received > remaining)) {
+                    // a chunk which cannot be verified is discarded as a whole, the checksum is then computed again
+                    // from the kept content
+                    try (RandomAccessFile file = new RandomAccessFile(upload.getFile(), "rw")) {
+                        file.setLength(current);
+                    }
+                    state.reset();
+                }
+            }
+            return current + received;
+        }
+    }
+
+    /**
+     * @param upload a complete upload
+     * @return the MD5 checksum of the whole uploaded file
+     * @throws IOException if the file cannot be read
+     */
+    public String getChecksum(ChunkedUpload upload) throws IOException {
+        DigestState state = digests.computeIfAbsent(upload.getId(), id -> new DigestState());
+        synchronized (state) {
+            state.update(upload.getFile());
+            try {
+                return Utils.toHex(((MessageDigest) state.digest.clone()).digest());
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * @param upload a complete upload
+     * @return the content of the uploaded file
+     * @throws IOException if the file cannot be read
+     */
+    public InputStream getContent(ChunkedUpload upload) throws IOException {
+        return new FileInputStream(upload.getFile());
+    }
+
+    /**
+     * Delete the upload and its content.
+     *
+     * @param upload the upload
+     */
+    public void delete(ChunkedUpload upload) {
+        FileUtils.deleteQuietly(getPropertiesFile(upload.getId()));
+        FileUtils.deleteQuietly(upload.getFile());
+        digests.remove(upload.getId());
+    }
+
+    /**
+     * Delete the uploads which did not receive any chunk for {@code upload.chunked.expiration.hours}.
+     */
+    private void deleteExpired() {
+        int expirationHours = configurationService.getIntProperty("upload.chunked.expiration.hours", 48);
+        File[] files = getDirectory().listFiles((dir, name) -> name.endsWith(PROPERTIES_SUFFIX));
+        if (expirationHours <= 0 || files == null) {
+            return;
+        }
+        long expiration = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(expirationHours);
+        for (File file : files) {
+            String id = StringUtils.removeEnd(file.getName(), PROPERTIES_SUFFIX);
+            File partFile = getPartFile(id);
+            if (Math.max(file.lastModified(), partFile.lastModified()) < expiration) {
+                log.info("Deleting the expired upload " + id);
+                FileUtils.deleteQuietly(file);
+                FileUtils.deleteQuietly(partFile);
+                digests.remove(id);
+            }
+        }
+    }
+
+    private File getDirectory() {
+        return new File(Objects.requireNonNull(configurationService.getProperty("upload.chunked.dir"),
+                                               "The upload.chunked.dir property is not configured"));
+    }
+
+    private File getPartFile(String id) {
+        return new File(getDirectory(), id + PART_SUFFIX);
+    }
+
+    private File getPropertiesFile(String id) {
+        return new File(getDirectory(), id + PROPERTIES_SUFFIX);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The checksum of the first {@link #offset} bytes of an upload.
+     */
+    private static class DigestState {
+        private MessageDigest digest = newDigest();
+        private long offset = 0;
+
+        private void reset() {
+            digest = newDigest();
+            offset = 0;
+        }
+
+        /**
+         * Add the content received since the checksum was last updated, e.g. before a restart.
+         */
+        private void update(File file) throws IOException {
+            if (offset > file.length()) {
+                reset();
+            }
+            if (offset == file.length()) {
+                return;
+            }
+            try (InputStream inputStream = new FileInputStream(file)) {
+                IOUtils.skipFully(inputStream, offset);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) >= 0) {
+                    digest.update(buffer, 0, read);
+                    offset += read;
+                }
+            }
+        }
+    }
+}
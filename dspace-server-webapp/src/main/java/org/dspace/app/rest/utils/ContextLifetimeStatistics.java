@@ -0,0 +1,120 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest.utils;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Collects how long the DSpace {@link org.dspace.core.Context} of the REST requests were open, per endpoint (the
+ * HTTP method and the request mapping pattern). A Context holds a database connection while it is open, so the
+ * endpoints keeping their Context open longest are the ones exhausting the connection pool under load.
+ * The lifetimes are recorded by the {@link org.dspace.app.rest.filter.DSpaceRequestContextFilter}.
+ */
+@Component
+public class ContextLifetimeStatistics {
+
+    /**
+     * The endpoint of the requests which didn't reach a controller, and of the requests to endpoints beyond
+     * {@link #MAX_ENDPOINTS}
+     */
+    public static final String OTHER_ENDPOINT = "other";
+
+    private static final int MAX_ENDPOINTS = 1000;
+
+    /**
+     * The path variables of the generic controllers which are replaced by their value in the endpoint, e.g.
+     * "GET /api/core/items/{uuid:...}" instead of "GET /api/{apiCategory}/{model}/{uuid:...}"
+     */
+    private static final List<String> ENDPOINT_VARIABLES = List.of("apiCategory", "model", "rel",
+                                                                    "searchMethodName");
+
+    private final Map<String, EndpointStatistics> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Record the lifetime of the Context of the request.
+     *
+     * @param request       the request, after it was processed
+     * @param lifetimeNanos the time in nanoseconds the Context was open
+     */
+    public void record(HttpServletRequest request, long lifetimeNanos) {
+        String endpoint = getEndpoint(request);
+        if (!endpoints.containsKey(endpoint) && endpoints.size() >= MAX_ENDPOINTS) {
+            endpoint = OTHER_ENDPOINT;
+        }
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStatistics()).record(lifetimeNanos);
+    }
+
+    /**
+     * @param max the maximum number of endpoints to return
+     * @return the statistics of the endpoints whose Contexts were open the longest in total, each with the endpoint,
+     * the number of Contexts, their total, mean and maximum lifetime in milliseconds
+     */
+    public List<Map<String, Object>> getEndpointStatistics(int max) {
+        return endpoints.entrySet().stream()
+                        .sorted(Comparator.comparingLong(
+                            (Map.Entry<String, EndpointStatistics> entry) -> entry.getValue().totalNanos.sum())
+                                          .reversed())
+                        .limit(max)
+                        .map(entry -> entry.getValue().toMap(entry.getKey()))
+                        .collect(Collectors.toList());
+    }
+
+    private String getEndpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return OTHER_ENDPOINT;
+        }
+        String endpoint = pattern.toString();
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map) {
+            for (String variable : ENDPOINT_VARIABLES) {
+                Object value = ((Map<?, ?>) variables).get(variable);
+                if (value != null) {
+                    endpoint = endpoint.replace("{" + variable + "}", value.toString());
+                }
+            }
+        }
+        return request.getMethod() + " " + endpoint;
+    }
+
+    private static class EndpointStatistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+        private void record(long lifetimeNanos) {
+            count.increment();
+            totalNanos.add(lifetimeNanos);
+            maxNanos.accumulate(lifetimeNanos);
+        }
+
+        private Map<String, Object> toMap(String endpoint) {
+            long contexts = count.sum();
+            long total = TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("endpoint", endpoint);
+            result.put("contexts", contexts);
+            result.put("totalMillis", total);
+            result.put("meanMillis", contexts > 0 ? total / contexts : 0);
+            result.put("maxMillis", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            return result;
+        }
+    }
+}
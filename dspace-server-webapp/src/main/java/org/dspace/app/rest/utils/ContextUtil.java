@@ -40,6 +40,11 @@ public class ContextUtil {
      */
     public static final String DSPACE_CONTEXT = "dspace.context";
 
+    /**
+     * Where the time the context was created (System.nanoTime()) is stored on an HTTP Request object
+     */
+    public static final String DSPACE_CONTEXT_CREATED = "dspace.context.created";
+
     /**
      * Default constructor
      */
@@ -81,6 +86,7 @@ public class ContextUtil {
 
             // Store the context in the request
             request.setAttribute(DSPACE_CONTEXT, context);
+            request.setAttribute(DSPACE_CONTEXT_CREATED, System.nanoTime());
         }
         // this need to be verified each time that the context is extracted from the request
         // as some call happen before that the login process is completed and user settings can
@@ -35,11 +35,18 @@ import org.dspace.statistics.content.StatisticsDataVisits;
 import org.dspace.statistics.content.StatisticsListing;
 import org.dspace.statistics.content.StatisticsTable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.stereotype.Component;
 
 /**
  * This is the Service dealing with the {@link UsageReportRest} logic
+ * <P>
+ * Every report takes one or more statistics queries in Solr, and the statistics page of a DSO asks for all of its
+ * reports at once. The reports are kept in the {@value #USAGE_REPORT_CACHE} cache for a short time (see ehcache.xml),
+ * so repeated views of the statistics of a DSO don't query Solr again. The visits made in the meantime are counted
+ * when the cached report expires.
  *
  * @author Maria Verdonck (Atmire) on 08/06/2020
  */
@@ -49,6 +56,14 @@ public class UsageReportUtils {
     @Autowired
     private HandleService handleService;
 
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    /**
+     * Name of the cache holding the computed usage reports, see ehcache.xml
+     */
+    public static final String USAGE_REPORT_CACHE = "statistics.usageReports";
+
     public static final String TOTAL_VISITS_REPORT_ID = "TotalVisits";
     public static final String TOTAL_VISITS_PER_MONTH_REPORT_ID = "TotalVisitsPerMonth";
     public static final String TOTAL_DOWNLOADS_REPORT_ID = "TotalDownloads";
@@ -66,8 +81,13 @@ public class UsageReportUtils {
         throws SQLException, ParseException, SolrServerException, IOException {
         List<UsageReportRest> usageReports = new ArrayList<>();
         if (dso instanceof Site) {
-            UsageReportRest globalUsageStats = this.resolveGlobalUsageReport(context);
-            globalUsageStats.setId(dso.getID().toString() + "_" + TOTAL_VISITS_REPORT_ID);
+            String id = dso.getID().toString() + "_" + TOTAL_VISITS_REPORT_ID;
+            UsageReportRest globalUsageStats = getCachedUsageReport(id);
+            if (globalUsageStats == null) {
+                globalUsageStats = this.resolveGlobalUsageReport(context);
+                globalUsageStats.setId(id);
+                putCachedUsageReport(globalUsageStats);
+            }
             usageReports.add(globalUsageStats);
         } else {
             usageReports.add(this.createUsageReport(context, dso, TOTAL_VISITS_REPORT_ID));
@@ -83,7 +103,8 @@ public class UsageReportUtils {
 
     /**
      * Creates the stat different stat usage report based on the report id.
-     * If the report id or the object uuid is invalid, an exception is thrown.
+     * If the report id or the object uuid is invalid, an exception is thrown. A report computed shortly before is
+     * returned from the {@value #USAGE_REPORT_CACHE} cache.
      *
      * @param context  DSpace context
      * @param dso     DSpace object we want a stat usage report on
@@ -92,6 +113,10 @@ public class UsageReportUtils {
      */
     public UsageReportRest createUsageReport(Context context, DSpaceObject dso, String reportId)
         throws ParseException, SolrServerException, IOException {
+        UsageReportRest cachedReport = getCachedUsageReport(dso.getID() + "_" + reportId);
+        if (cachedReport != null) {
+            return cachedReport;
+        }
         try {
             UsageReportRest usageReportRest;
             switch (reportId) {
@@ -121,6 +146,7 @@ public class UsageReportUtils {
                                                         "TotalDownloads, TopCountries, TopCities");
             }
             usageReportRest.setId(dso.getID() + "_" + reportId);
+            putCachedUsageReport(usageReportRest);
             return usageReportRest;
         } catch (SQLException e) {
             throw new SolrServerException("SQLException trying to receive statistics of: " + dso.getID());
@@ -241,7 +267,14 @@ public class UsageReportUtils {
     private UsageReportRest resolveTotalDownloads(Context context, DSpaceObject dso)
         throws SQLException, SolrServerException, ParseException, IOException {
         if (dso instanceof org.dspace.content.Bitstream) {
-            return this.resolveTotalVisits(context, dso);
+            // the downloads of a bitstream are its visits, reuse the TotalVisits report if it is cached
+            UsageReportRest totalVisits = getCachedUsageReport(dso.getID() + "_" + TOTAL_VISITS_REPORT_ID);
+            if (totalVisits == null) {
+                return this.resolveTotalVisits(context, dso);
+            }
+            UsageReportRest usageReportRest = new UsageReportRest();
+            usageReportRest.setPoints(totalVisits.getPoints());
+            return usageReportRest;
         }
 
         if (dso instanceof org.dspace.content.Item) {
@@ -352,4 +385,34 @@ public class UsageReportUtils {
         statListing.addDatasetGenerator(typeAxis);
         return statListing.getDataset(context, facetMinCount);
     }
+
+    private Cache getUsageReportCache() {
+        return cacheManager != null ? cacheManager.getCache(USAGE_REPORT_CACHE) : null;
+    }
+
+    /**
+     * @param id id of the report, the uuid of the DSO and the report id
+     * @return a copy of the cached report, or null if it is not cached. The converter sets the projection on the
+     * returned report, so the cached instance is never handed out.
+     */
+    private UsageReportRest getCachedUsageReport(String id) {
+        Cache cache = getUsageReportCache();
+        UsageReportRest cached = cache != null ? cache.get(id, UsageReportRest.class) : null;
+        return cached != null ? copyUsageReport(cached) : null;
+    }
+
+    private void putCachedUsageReport(UsageReportRest usageReportRest) {
+        Cache cache = getUsageReportCache();
+        if (cache != null) {
+            cache.put(usageReportRest.getId(), copyUsageReport(usageReportRest));
+        }
+    }
+
+    private UsageReportRest copyUsageReport(UsageReportRest usageReportRest) {
+        UsageReportRest copy = new UsageReportRest();
+        copy.setId(usageReportRest.getId());
+        copy.setReportType(usageReportRest.getReportType());
+        copy.setPoints(new ArrayList<>(usageReportRest.getPoints()));
+        return copy;
+    }
 }
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import javax.ws.rs.core.MediaType;
 
 import com.jayway.jsonpath.matchers.JsonPathMatchers;
@@ -290,6 +291,54 @@ public class AuthorizationRestControllerIT extends AbstractControllerIntegration
                 .andExpect(status().reason(is(Matchers.is(MissingLicenseAgreementException.NAME))));
     }
 
+    @Test
+    public void shouldResolveLicensesOfSeveralBitstreams() throws Exception {
+        // Prepare environment
+        attachLicenseToBitstream();
+        Bitstream bitstream = witem.getItem().getBundles().get(0).getBitstreams().get(0);
+        UUID unlicensedBitstreamUUID = UUID.randomUUID();
+
+        context.turnOffAuthorisationSystem();
+        clarinLicense = context.reloadEntity(clarinLicense);
+        clarinLicense.setConfirmation(Confirmation.ASK_ONLY_ONCE);
+        clarinLicenseService.update(context, clarinLicense);
+
+        // The admin has already filled in the required info, the other user has not
+        ClarinUserRegistration clarinUserRegistration = ClarinUserRegistrationBuilder
+                .createClarinUserRegistration(context)
+                .withEPersonID(admin.getID())
+                .build();
+        ClarinLicenseResourceUserAllowanceBuilder.createClarinLicenseResourceUserAllowance(context)
+                .withMapping(clarinLicenseResourceMappingService.findAllByLicenseId(context, clarinLicense.getID())
+                        .get(0))
+                .withUser(clarinUserRegistration)
+                .build();
+        context.restoreAuthSystemState();
+
+        String url = "/api/authrn/licenses?bitstreamUUIDs=" + bitstream.getID() + "," + unlicensedBitstreamUUID;
+        getClient(getAuthToken(ePerson2.getEmail(), eperson2Password)).perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].bitstreamUUID", is(bitstream.getID().toString())))
+                .andExpect(jsonPath("$[0].licenseId", is(clarinLicense.getID())))
+                .andExpect(jsonPath("$[0].licenseName", is(CLARIN_LICENSE_NAME)))
+                .andExpect(jsonPath("$[0].confirmation", is(Confirmation.ASK_ONLY_ONCE.name())))
+                .andExpect(jsonPath("$[0].agreementRequired", is(true)))
+                .andExpect(jsonPath("$[1].bitstreamUUID", is(unlicensedBitstreamUUID.toString())))
+                .andExpect(jsonPath("$[1].licenseId", Matchers.nullValue()))
+                .andExpect(jsonPath("$[1].agreementRequired", is(false)));
+
+        getClient(getAuthToken(admin.getEmail(), password)).perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].agreementRequired", is(false)))
+                .andExpect(jsonPath("$[1].agreementRequired", is(false)));
+
+        // Anonymous users have never filled in the required info
+        getClient().perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].agreementRequired", is(true)));
+    }
+
     // 400
     @Test
     public void shouldReturnNotFoundExceptionWhenIdIsNull() throws Exception {
@@ -9,17 +9,23 @@ package org.dspace.app.rest;
 
 import static org.dspace.app.rest.ClarinDiscoJuiceFeedsDownloadService.openURLConnection;
 import static org.dspace.app.rest.repository.ClarinDiscoJuiceFeedsController.APPLICATION_JAVASCRIPT_UTF8;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 import javax.net.ssl.HttpsURLConnection;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
 import org.dspace.app.rest.utils.Utils;
@@ -29,6 +35,7 @@ import org.json.simple.parser.ParseException;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 
 
 /**
@@ -106,6 +113,23 @@ public class ClarinDiscoJuiceFeedsControllerIT extends AbstractControllerIntegra
                 .andExpect(content().contentType(APPLICATION_JAVASCRIPT_UTF8))
                 .andExpect(content().string(expStr));
 
+        // Request without callback, compressed
+        String expJson = expStr.substring("dj_md_1(".length(), expStr.length() - 1);
+        byte[] gzipped = getClient(authTokenAdmin).perform(get("/api/discojuice/feeds")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals(expJson, IOUtils.toString(gzip, StandardCharsets.UTF_8));
+        }
+
+        // Request without callback, uncompressed
+        getClient(authTokenAdmin).perform(get("/api/discojuice/feeds"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(expJson));
+
         configurationService.setProperty(configKey, origVal);
     }
 }
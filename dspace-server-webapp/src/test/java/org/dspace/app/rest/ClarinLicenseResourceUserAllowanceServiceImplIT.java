@@ -8,8 +8,10 @@
 package org.dspace.app.rest;
 
 import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
+import org.dspace.builder.ClarinLicenseResourceMappingBuilder;
 import org.dspace.builder.ClarinLicenseResourceUserAllowanceBuilder;
 import org.dspace.builder.ClarinUserRegistrationBuilder;
+import org.dspace.content.clarin.ClarinLicenseResourceMapping;
 import org.dspace.content.clarin.ClarinLicenseResourceUserAllowance;
 import org.dspace.content.clarin.ClarinUserRegistration;
 import org.dspace.content.service.clarin.ClarinLicenseResourceUserAllowanceService;
@@ -47,6 +49,43 @@ public class ClarinLicenseResourceUserAllowanceServiceImplIT extends AbstractCon
         context.setCurrentUser(currentUser);
     }
 
+    @Test
+    public void testExistsByEPersonIdAndMappingId() throws Exception {
+        context.turnOffAuthorisationSystem();
+        ClarinUserRegistration clarinUserRegistration = ClarinUserRegistrationBuilder
+                .createClarinUserRegistration(context)
+                .withEPersonID(eperson.getID())
+                .build();
+        ClarinLicenseResourceMapping allowedMapping = ClarinLicenseResourceMappingBuilder
+                .createClarinLicenseResourceMapping(context)
+                .build();
+        ClarinLicenseResourceMapping otherMapping = ClarinLicenseResourceMappingBuilder
+                .createClarinLicenseResourceMapping(context)
+                .build();
+
+        clarinLicenseResourceUserAllowance = ClarinLicenseResourceUserAllowanceBuilder
+                .createClarinLicenseResourceUserAllowance(context)
+                .withUser(clarinUserRegistration)
+                .withMapping(allowedMapping)
+                .build();
+
+        Assert.assertTrue(clarinLicenseResourceUserAllowanceService
+                .existsByEPersonIdAndMappingId(context, eperson.getID(), allowedMapping.getID()));
+        // the second lookup is answered from the cache
+        Assert.assertTrue(clarinLicenseResourceUserAllowanceService
+                .existsByEPersonIdAndMappingId(context, eperson.getID(), allowedMapping.getID()));
+        Assert.assertFalse(clarinLicenseResourceUserAllowanceService
+                .existsByEPersonIdAndMappingId(context, eperson.getID(), otherMapping.getID()));
+        Assert.assertFalse(clarinLicenseResourceUserAllowanceService
+                .existsByEPersonIdAndMappingId(context, admin.getID(), allowedMapping.getID()));
+
+        // deleting the allowance evicts the cached mappings of the user
+        clarinLicenseResourceUserAllowanceService.delete(context, clarinLicenseResourceUserAllowance);
+        Assert.assertFalse(clarinLicenseResourceUserAllowanceService
+                .existsByEPersonIdAndMappingId(context, eperson.getID(), allowedMapping.getID()));
+        context.restoreAuthSystemState();
+    }
+
     @Override
     public void destroy() throws Exception {
         ClarinLicenseResourceUserAllowanceBuilder.deleteClarinLicenseResourceUserAllowance(
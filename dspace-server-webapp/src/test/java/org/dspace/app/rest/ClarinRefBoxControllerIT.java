@@ -7,11 +7,27 @@
  */
 package org.dspace.app.rest;
 
+import static com.lyncode.xoai.dataprovider.core.Granularity.Second;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.lyncode.xoai.dataprovider.services.api.ItemRepository;
+import com.lyncode.xoai.dataprovider.xml.XmlOutputContext;
+import org.apache.solr.common.SolrDocument;
 import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
 import org.dspace.app.rest.utils.Utils;
 import org.dspace.builder.CollectionBuilder;
@@ -19,10 +35,18 @@ import org.dspace.builder.CommunityBuilder;
 import org.dspace.builder.ItemBuilder;
 import org.dspace.content.Collection;
 import org.dspace.content.Item;
+import org.dspace.content.clarin.ClarinRefBoxCacheConsumer;
+import org.dspace.content.service.ItemService;
 import org.dspace.services.ConfigurationService;
+import org.dspace.xoai.data.DSpaceSolrItem;
+import org.dspace.xoai.services.api.xoai.ItemRepositoryResolver;
+import org.dspace.xoai.util.ItemUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 
 /**
  * The Integration Test class for the ClarinRefBoxController.
@@ -32,13 +56,26 @@ public class ClarinRefBoxControllerIT extends AbstractControllerIntegrationTest
     @Autowired
     ConfigurationService configurationService;
 
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    // The OAI-PMH index is not available in the tests, the records are "imported" into a mocked repository
+    @MockBean(name = "itemRepositoryResolver")
+    ItemRepositoryResolver itemRepositoryResolver;
+
+    private final ItemRepository oaiItemRepository = mock(ItemRepository.class);
+
     // FS = featuredService
     private Item itemWithFS;
     private Item item;
     private Collection collection;
 
     @Before
-    public void setup() {
+    public void setup() throws Exception {
+        when(itemRepositoryResolver.getItemRepository()).thenReturn(oaiItemRepository);
         context.turnOffAuthorisationSystem();
         parentCommunity = CommunityBuilder.createCommunity(context).withName("test").build();
         collection = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection 1").build();
@@ -325,4 +362,79 @@ public class ClarinRefBoxControllerIT extends AbstractControllerIntegrationTest
                 .andExpect(jsonPath("$.displayText").value(org.hamcrest.Matchers.containsString(
                         "First Author; et al.")));
     }
+
+    @Test
+    public void testRefboxInfoIsCachedUntilTheItemIsModified() throws Exception {
+        Cache cache = cacheManager.getCache(ClarinRefBoxCacheConsumer.CACHE_NAME);
+        cache.evictIfPresent(item.getID().toString());
+
+        String token = getAuthToken(admin.getEmail(), password);
+        getClient(token).perform(get("/api/core/refbox?handle=" + item.getHandle()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Public item 2"));
+        assertNotNull(cache.get(item.getID().toString()));
+
+        context.turnOffAuthorisationSystem();
+        item = context.reloadEntity(item);
+        itemService.replaceMetadata(context, item, "dc", "title", null, null, "Modified item 2", null, -1, 0);
+        itemService.update(context, item);
+        context.restoreAuthSystemState();
+        context.commit();
+        // the refbox event consumer evicted the modified item
+        assertNull(cache.get(item.getID().toString()));
+
+        getClient(token).perform(get("/api/core/refbox?handle=" + item.getHandle()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Modified item 2"))
+                .andExpect(jsonPath("$.displayText").value(org.hamcrest.Matchers.containsString("Modified item 2")));
+    }
+
+    @Test
+    public void testCitationIsCachedUntilTheItemIsReimportedToOai() throws Exception {
+        Cache cache = cacheManager.getCache(ClarinRefBoxCacheConsumer.CACHE_NAME);
+        cache.evictIfPresent(item.getID().toString());
+        importToOai(item);
+
+        getClient().perform(get("/api/core/refbox/citations?type=dim&handle=" + item.getHandle()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metadata").value(containsString("Public item 2")));
+        assertTrue(((CachedRefBox) cache.get(item.getID().toString()).get()).citations.containsKey("dim"));
+
+        context.turnOffAuthorisationSystem();
+        item = context.reloadEntity(item);
+        itemService.replaceMetadata(context, item, "dc", "title", null, null, "Modified item 2", null, -1, 0);
+        itemService.update(context, item);
+        context.restoreAuthSystemState();
+        context.commit();
+
+        // the OAI-PMH index was not refreshed yet, it still returns the old record
+        getClient().perform(get("/api/core/refbox/citations?type=dim&handle=" + item.getHandle()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metadata").value(containsString("Public item 2")));
+
+        importToOai(item);
+        getClient().perform(get("/api/core/refbox/citations?type=dim&handle=" + item.getHandle()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.metadata").value(containsString("Modified item 2")))
+                .andExpect(jsonPath("$.metadata").value(not(containsString("Public item 2"))));
+    }
+
+    /**
+     * Index the current metadata of the item into the mocked OAI-PMH repository, like `oai import` does.
+     */
+    private void importToOai(Item item) throws Exception {
+        item = context.reloadEntity(item);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XmlOutputContext xmlContext = XmlOutputContext.emptyContext(out, Second);
+        ItemUtils.retrieveMetadata(context, item).write(xmlContext);
+        xmlContext.getWriter().flush();
+        xmlContext.getWriter().close();
+
+        SolrDocument document = new SolrDocument();
+        document.setField("item.handle", item.getHandle());
+        document.setField("item.lastmodified", item.getLastModified());
+        document.setField("item.compile", out.toString(StandardCharsets.UTF_8));
+        document.setField("item.deleted", false);
+        doReturn(new DSpaceSolrItem(document)).when(oaiItemRepository).getItem(anyString());
+    }
 }
@@ -0,0 +1,60 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
+import org.junit.Test;
+
+public class DBConnectionStatisticsControllerIT extends AbstractControllerIntegrationTest {
+
+    @Test
+    public void getStatistics() throws Exception {
+        String token = getAuthToken(admin.getEmail(), password);
+        getClient(token).perform(get("/api/core/communities"))
+                        .andExpect(status().isOk());
+
+        getClient(token).perform(get("/api/dbstatistics").param("top", "100"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.pool.active", greaterThanOrEqualTo(1)))
+                        .andExpect(jsonPath("$.pool.maxTotal", notNullValue()))
+                        .andExpect(jsonPath("$.sessions.opened", notNullValue()))
+                        .andExpect(jsonPath("$.queryCache.hitRatio", notNullValue()))
+                        .andExpect(jsonPath("$.secondLevelCache.regions", notNullValue()))
+                        .andExpect(jsonPath("$.queries.slowest", notNullValue()))
+                        .andExpect(jsonPath("$.endpoints[*].endpoint", hasItem("GET /api/core/communities")));
+    }
+
+    @Test
+    public void getStatisticsLimitsTheEndpoints() throws Exception {
+        String token = getAuthToken(admin.getEmail(), password);
+        getClient(token).perform(get("/api/core/communities"))
+                        .andExpect(status().isOk());
+        getClient(token).perform(get("/api/core/collections"))
+                        .andExpect(status().isOk());
+
+        getClient(token).perform(get("/api/dbstatistics").param("top", "1"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.endpoints.length()", is(1)));
+    }
+
+    @Test
+    public void getStatisticsOnlyForAdmins() throws Exception {
+        getClient().perform(get("/api/dbstatistics"))
+                   .andExpect(status().isUnauthorized());
+        getClient(getAuthToken(eperson.getEmail(), password)).perform(get("/api/dbstatistics"))
+                                                             .andExpect(status().isForbidden());
+    }
+}
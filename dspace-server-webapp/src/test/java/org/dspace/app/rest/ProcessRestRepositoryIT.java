@@ -9,10 +9,15 @@ package org.dspace.app.rest;
 
 import static org.dspace.app.rest.matcher.ProcessMatcher.matchProcess;
 import static org.dspace.content.ProcessStatus.SCHEDULED;
+import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -41,6 +46,7 @@ import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
 
 public class ProcessRestRepositoryIT extends AbstractControllerIntegrationTest {
 
@@ -877,4 +883,41 @@ public class ProcessRestRepositoryIT extends AbstractControllerIntegrationTest {
                                             is("script_output")));
 
     }
+
+    @Test
+    public void getProcessLog() throws Exception {
+        context.setCurrentUser(eperson);
+        Process process1 = ProcessBuilder.createProcess(context, eperson, "mock-script", parameters)
+                .build();
+        processService.appendLog(process1.getID(), process1.getName(), "first line", ProcessLogLevel.INFO);
+
+        String token = getAuthToken(eperson.getEmail(), password);
+
+        MvcResult result = getClient(token).perform(get("/api/system/processes/" + process1.getID() + "/log"))
+                        .andExpect(status().isOk())
+                        .andExpect(content().string(containsString("first line")))
+                        .andExpect(header().string(ProcessLogController.STATUS_HEADER, "SCHEDULED"))
+                        .andReturn();
+        String offset = result.getResponse().getHeader(ProcessLogController.OFFSET_HEADER);
+
+        // only the lines logged since the previous request are returned
+        processService.appendLog(process1.getID(), process1.getName(), "second line", ProcessLogLevel.INFO);
+        getClient(token).perform(get("/api/system/processes/" + process1.getID() + "/log")
+                                     .param("offset", offset))
+                        .andExpect(status().isOk())
+                        .andExpect(content().string(allOf(containsString("second line"),
+                                                          not(containsString("first line")))));
+
+        // once the process is finished, its log is read from its output
+        process1 = context.reloadEntity(process1);
+        processService.createLogBitstream(context, process1);
+        getClient(token).perform(get("/api/system/processes/" + process1.getID() + "/log")
+                                     .param("offset", offset))
+                        .andExpect(status().isOk())
+                        .andExpect(content().string(allOf(containsString("second line"),
+                                                          not(containsString("first line")))));
+
+        getClient().perform(get("/api/system/processes/" + process1.getID() + "/log"))
+                   .andExpect(status().isUnauthorized());
+    }
 }
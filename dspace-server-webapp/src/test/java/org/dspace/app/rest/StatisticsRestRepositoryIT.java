@@ -14,6 +14,7 @@ import static org.dspace.app.rest.utils.UsageReportUtils.TOP_COUNTRIES_REPORT_ID
 import static org.dspace.app.rest.utils.UsageReportUtils.TOTAL_DOWNLOADS_REPORT_ID;
 import static org.dspace.app.rest.utils.UsageReportUtils.TOTAL_VISITS_PER_MONTH_REPORT_ID;
 import static org.dspace.app.rest.utils.UsageReportUtils.TOTAL_VISITS_REPORT_ID;
+import static org.dspace.app.rest.utils.UsageReportUtils.USAGE_REPORT_CACHE;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -63,7 +64,10 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * Integration test to test the /api/statistics/usagereports/ endpoints, see {@link UsageReportUtils} and
@@ -79,6 +83,10 @@ public class StatisticsRestRepositoryIT extends AbstractControllerIntegrationTes
     protected AuthorizeService authorizeService;
     @Autowired
     protected SiteService siteService;
+    @Autowired
+    protected UsageReportUtils usageReportUtils;
+    @Autowired(required = false)
+    protected CacheManager cacheManager;
 
     private Community communityNotVisited;
     private Community communityVisited;
@@ -110,6 +118,11 @@ public class StatisticsRestRepositoryIT extends AbstractControllerIntegrationTes
         configurationService.setProperty("solr-statistics.autoCommit", false);
         configurationService.setProperty("usage-statistics.authorization.admin.usage", true);
 
+        // The reports of the site would be served from the cache of the previous tests
+        if (cacheManager != null && cacheManager.getCache(USAGE_REPORT_CACHE) != null) {
+            cacheManager.getCache(USAGE_REPORT_CACHE).clear();
+        }
+
         context.turnOffAuthorisationSystem();
 
         Community community = CommunityBuilder.createCommunity(context).build();
@@ -419,6 +432,52 @@ public class StatisticsRestRepositoryIT extends AbstractControllerIntegrationTes
                    )));
     }
 
+    @Test
+    public void totalVisitsReport_Item_Cached() throws Exception {
+        CacheManager reportCacheManager = new ConcurrentMapCacheManager(USAGE_REPORT_CACHE);
+        Object originalCacheManager = ReflectionTestUtils.getField(usageReportUtils, "cacheManager");
+        ReflectionTestUtils.setField(usageReportUtils, "cacheManager", reportCacheManager);
+        try {
+            ViewEventRest viewEventRest = new ViewEventRest();
+            viewEventRest.setTargetType("item");
+            viewEventRest.setTargetId(itemVisited.getID());
+            ObjectMapper mapper = new ObjectMapper();
+            String reportUrl = "/api/statistics/usagereports/" + itemVisited.getID() + "_" + TOTAL_VISITS_REPORT_ID;
+
+            getClient(loggedInToken).perform(post("/api/statistics/viewevents")
+                .content(mapper.writeValueAsBytes(viewEventRest))
+                .contentType(contentType))
+                                    .andExpect(status().isCreated());
+            getClient(adminToken).perform(get(reportUrl))
+                       .andExpect(status().isOk())
+                       .andExpect(jsonPath("$.points[0].values.views", Matchers.is(1)));
+
+            // the report is served from the cache until it expires
+            getClient(loggedInToken).perform(post("/api/statistics/viewevents")
+                .content(mapper.writeValueAsBytes(viewEventRest))
+                .contentType(contentType))
+                                    .andExpect(status().isCreated());
+            getClient(adminToken).perform(get(reportUrl))
+                       .andExpect(status().isOk())
+                       .andExpect(jsonPath("$", Matchers.is(
+                           UsageReportMatcher.matchUsageReport(
+                               itemVisited.getID() + "_" + TOTAL_VISITS_REPORT_ID,
+                               TOTAL_VISITS_REPORT_ID,
+                               List.of(
+                                   getExpectedDsoViews(itemVisited, 1)
+                               )
+                           )
+                       )));
+
+            reportCacheManager.getCache(USAGE_REPORT_CACHE).clear();
+            getClient(adminToken).perform(get(reportUrl))
+                       .andExpect(status().isOk())
+                       .andExpect(jsonPath("$.points[0].values.views", Matchers.is(2)));
+        } finally {
+            ReflectionTestUtils.setField(usageReportUtils, "cacheManager", originalCacheManager);
+        }
+    }
+
     @Test
     public void totalVisitsReport_Item_NotVisited() throws Exception {
         // ** WHEN **
@@ -0,0 +1,193 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.rest;
+
+import static org.dspace.app.rest.WorkspaceItemChunkedUploadController.UPLOAD_CHECKSUM_HEADER;
+import static org.dspace.app.rest.WorkspaceItemChunkedUploadController.UPLOAD_LENGTH_HEADER;
+import static org.dspace.app.rest.WorkspaceItemChunkedUploadController.UPLOAD_OFFSET_HEADER;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.dspace.app.rest.test.AbstractControllerIntegrationTest;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.EPersonBuilder;
+import org.dspace.builder.WorkspaceItemBuilder;
+import org.dspace.content.Collection;
+import org.dspace.content.WorkspaceItem;
+import org.dspace.eperson.EPerson;
+import org.dspace.services.ConfigurationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+public class WorkspaceItemChunkedUploadControllerIT extends AbstractControllerIntegrationTest {
+
+    private static final String OCTET_STREAM = "application/offset+octet-stream";
+
+    @Autowired
+    private ConfigurationService configurationService;
+
+    private File uploadDir;
+    private WorkspaceItem witem;
+    private String uploadsUrl;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        uploadDir = new File(System.getProperty("java.io.tmpdir"), "chunked-upload-it");
+        configurationService.setProperty("upload.chunked.dir", uploadDir.getAbsolutePath());
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).withName("Parent Community").build();
+        Collection col = CollectionBuilder.createCollection(context, parentCommunity).withName("Collection").build();
+        witem = WorkspaceItemBuilder.createWorkspaceItem(context, col)
+                                    .withTitle("Test WorkspaceItem")
+                                    .withIssueDate("2017-10-17")
+                                    .build();
+        context.restoreAuthSystemState();
+        uploadsUrl = "/api/submission/workspaceitems/" + witem.getID() + "/uploads";
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        FileUtils.deleteQuietly(uploadDir);
+    }
+
+    @Test
+    public void uploadFileInChunks() throws Exception {
+        byte[] content = StringUtils.repeat("chunked upload content ", 1000).getBytes(StandardCharsets.UTF_8);
+        byte[] first = Arrays.copyOfRange(content, 0, 10000);
+        byte[] second = Arrays.copyOfRange(content, 10000, content.length);
+        String token = getAuthToken(eperson.getEmail(), password);
+        String uploadUrl = createUpload(token, "corpus.txt", content.length, DigestUtils.md5Hex(content));
+
+        getClient(token).perform(patch(uploadUrl).content(first).contentType(OCTET_STREAM)
+                                                 .header(UPLOAD_OFFSET_HEADER, 0)
+                                                 .header(UPLOAD_CHECKSUM_HEADER, "md5 " + md5Base64(first)))
+                        .andExpect(status().isNoContent())
+                        .andExpect(header().string(UPLOAD_OFFSET_HEADER, "10000"));
+
+        // a client which lost the response of the first chunk resumes from the current offset
+        getClient(token).perform(patch(uploadUrl).content(first).contentType(OCTET_STREAM)
+                                                 .header(UPLOAD_OFFSET_HEADER, 0))
+                        .andExpect(status().isConflict());
+        getClient(token).perform(get(uploadUrl))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(UPLOAD_OFFSET_HEADER, "10000"))
+                        .andExpect(header().string(UPLOAD_LENGTH_HEADER, String.valueOf(content.length)))
+                        .andExpect(jsonPath("$.offset", is(10000)));
+
+        // a corrupted chunk is discarded
+        getClient(token).perform(patch(uploadUrl).content(second).contentType(OCTET_STREAM)
+                                                 .header(UPLOAD_OFFSET_HEADER, 10000)
+                                                 .header(UPLOAD_CHECKSUM_HEADER, "md5 " + md5Base64(first)))
+                        .andExpect(status().isUnprocessableEntity());
+        getClient(token).perform(get(uploadUrl))
+                        .andExpect(jsonPath("$.offset", is(10000)));
+
+        getClient(token).perform(patch(uploadUrl).content(second).contentType(OCTET_STREAM)
+                                                 .header(UPLOAD_OFFSET_HEADER, 10000))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(UPLOAD_OFFSET_HEADER, String.valueOf(content.length)))
+                        .andExpect(jsonPath("$.sections.upload.files[0].metadata['dc.title'][0].value",
+                                            is("corpus.txt")))
+                        .andExpect(jsonPath("$.sections.upload.files[0].sizeBytes", is(content.length)))
+                        .andExpect(jsonPath("$.sections.upload.files[0].checkSum.value",
+                                            is(DigestUtils.md5Hex(content))));
+
+        // the upload is gone once the file is added to the workspace item
+        getClient(token).perform(get(uploadUrl))
+                        .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void rejectFileNotMatchingChecksum() throws Exception {
+        byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+        String token = getAuthToken(eperson.getEmail(), password);
+        String uploadUrl = createUpload(token, "file.txt", content.length, DigestUtils.md5Hex("other"));
+
+        getClient(token).perform(patch(uploadUrl).content(content).contentType(OCTET_STREAM)
+                                                 .header(UPLOAD_OFFSET_HEADER, 0))
+                        .andExpect(status().isUnprocessableEntity());
+        getClient(token).perform(get(uploadUrl))
+                        .andExpect(status().isNotFound());
+        getClient(token).perform(get("/api/submission/workspaceitems/" + witem.getID()))
+                        .andExpect(jsonPath("$.sections.upload.files.length()", is(0)));
+    }
+
+    @Test
+    public void rejectChunkExceedingLength() throws Exception {
+        String token = getAuthToken(eperson.getEmail(), password);
+        String uploadUrl = createUpload(token, "file.txt", 4, null);
+
+        getClient(token).perform(patch(uploadUrl).content("content").contentType(OCTET_STREAM)
+                                                 .header(UPLOAD_OFFSET_HEADER, 0))
+                        .andExpect(status().isBadRequest());
+        getClient(token).perform(get(uploadUrl))
+                        .andExpect(jsonPath("$.offset", is(0)));
+    }
+
+    @Test
+    public void uploadIsOnlyAccessibleToItsCreator() throws Exception {
+        context.turnOffAuthorisationSystem();
+        EPerson other = EPersonBuilder.createEPerson(context).withEmail("other@example.com")
+                                      .withPassword(password).build();
+        context.restoreAuthSystemState();
+        String token = getAuthToken(eperson.getEmail(), password);
+        String uploadUrl = createUpload(token, "file.txt", 4, null);
+
+        getClient(getAuthToken(other.getEmail(), password)).perform(get(uploadUrl))
+                                                            .andExpect(status().isForbidden());
+        getClient(getAuthToken(admin.getEmail(), password)).perform(get(uploadUrl))
+                                                            .andExpect(status().isNotFound());
+        getClient().perform(post(uploadsUrl).param("name", "file.txt").header(UPLOAD_LENGTH_HEADER, 4))
+                   .andExpect(status().isUnauthorized());
+
+        getClient(token).perform(delete(uploadUrl))
+                        .andExpect(status().isNoContent());
+        getClient(token).perform(get(uploadUrl))
+                        .andExpect(status().isNotFound());
+    }
+
+    private String createUpload(String token, String name, long length, String checksum) throws Exception {
+        MockHttpServletRequestBuilder request = post(uploadsUrl).param("name", name)
+                                                                .header(UPLOAD_LENGTH_HEADER, length);
+        if (checksum != null) {
+            request.param("checksum", checksum);
+        }
+        MvcResult result = getClient(token).perform(request)
+                                           .andExpect(status().isCreated())
+                                           .andExpect(header().string(UPLOAD_OFFSET_HEADER, "0"))
+                                           .andExpect(jsonPath("$.name", is(name)))
+                                           .andExpect(jsonPath("$.length", is((int) length)))
+                                           .andReturn();
+        return result.getResponse().getHeader("Location");
+    }
+
+    private static String md5Base64(byte[] content) {
+        return Base64.getEncoder().encodeToString(DigestUtils.md5(content));
+    }
+}
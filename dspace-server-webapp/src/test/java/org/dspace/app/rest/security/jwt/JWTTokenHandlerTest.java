@@ -9,6 +9,9 @@ package org.dspace.app.rest.security.jwt;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.text.ParseException;
@@ -16,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
 
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -34,6 +38,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.crypto.keygen.KeyGenerators;
 import org.springframework.security.crypto.keygen.StringKeyGenerator;
@@ -73,6 +79,9 @@ public class JWTTokenHandlerTest {
     @Spy
     protected List<JWTClaimProvider> jwtClaimProviders = new ArrayList<>();
 
+    @Spy
+    protected CacheManager cacheManager = new ConcurrentMapCacheManager(JWTTokenHandler.VERIFIED_TOKEN_CACHE);
+
     @Before
     public void setUp() throws Exception {
         when(ePerson.getSessionSalt()).thenReturn("01234567890123456789012345678901");
@@ -152,4 +161,37 @@ public class JWTTokenHandlerTest {
         assertEquals(null, parsed);
     }
 
+    @Test
+    public void testVerifiedTokenIsCached() throws Exception {
+        UUID ePersonId = UUID.randomUUID();
+        when(ePerson.getID()).thenReturn(ePersonId);
+        when(ePersonClaimProvider.getEPerson(any(Context.class), any(JWTClaimsSet.class))).thenReturn(ePerson);
+        when(ePersonService.find(context, ePersonId)).thenReturn(ePerson);
+        String token = loginJWTTokenHandler
+            .createTokenForEPerson(context, new MockHttpServletRequest(), null);
+
+        assertEquals(ePerson, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        assertEquals(ePerson, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        // the second call must be answered from the cache, without verifying the token again
+        verify(ePersonClaimProvider, times(1)).getEPerson(any(Context.class), any(JWTClaimsSet.class));
+        verify(ePersonService, times(1)).find(context, ePersonId);
+    }
+
+    @Test
+    public void testCachedTokenInvalidatedBySessionSaltChange() throws Exception {
+        UUID ePersonId = UUID.randomUUID();
+        EPerson loggedOut = mock(EPerson.class);
+        when(loggedOut.getSessionSalt()).thenReturn("");
+        when(ePerson.getID()).thenReturn(ePersonId);
+        when(ePersonClaimProvider.getEPerson(any(Context.class), any(JWTClaimsSet.class)))
+            .thenReturn(ePerson, loggedOut);
+        when(ePersonService.find(context, ePersonId)).thenReturn(loggedOut);
+        String token = loginJWTTokenHandler
+            .createTokenForEPerson(context, new MockHttpServletRequest(), null);
+
+        assertEquals(ePerson, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+        // the session salt was reset in the meantime (logout), so the cached verification can't be used anymore
+        assertEquals(null, loginJWTTokenHandler.parseEPersonFromToken(token, httpServletRequest, context));
+    }
+
 }